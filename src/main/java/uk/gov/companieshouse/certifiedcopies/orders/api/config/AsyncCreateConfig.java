@@ -0,0 +1,114 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the asynchronous creation of certified copy items. Where enabled, a client may ask for an item to be
+ * created asynchronously by sending a <code>Prefer: respond-async</code> header. The item is then saved as pending,
+ * and the response returned straight away with 202 Accepted, while its company and filing history details are looked
+ * up, and it is priced, on a background worker pool. Any item left pending for too long, such as one being completed
+ * when the application stopped, is swept up and saved as failed.
+ */
+@Configuration
+@EnableScheduling
+@ConfigurationProperties(prefix = "async-create")
+@Validated
+public class AsyncCreateConfig {
+
+    /**
+     * Whether clients may ask for items to be created asynchronously (<code>true</code>), or every item is created
+     * synchronously, whatever the client asks for (<code>false</code>).
+     */
+    private boolean enabled = false;
+
+    /**
+     * The number of worker threads completing items created asynchronously.
+     */
+    @Min(1)
+    private int workerPoolSize = 8;
+
+    /**
+     * The maximum number of items that may queue for a worker thread. Once the queue is full, a request to create an
+     * item asynchronously is refused with 503 Service Unavailable before the item is saved, rather than the item being
+     * completed on the request thread.
+     */
+    @Min(1)
+    private int workerQueueCapacity = 100;
+
+    /**
+     * How long after it was created an item still pending is taken to have been abandoned, and is saved as failed.
+     * This must comfortably exceed the time an item may spend queued for a worker and then being completed.
+     */
+    @NotNull
+    private Duration pendingDeadline = Duration.ofMinutes(10);
+
+    /**
+     * How long to wait between sweeps for items left pending past the deadline.
+     */
+    @NotNull
+    private Duration pendingSweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * The worker pool items created asynchronously are completed on. Closing the pool on shutdown waits for the items
+     * already submitted to be completed. An item submitted once the pool is full, or closed, is rejected.
+     * @return the executor
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService asyncCreateExecutor() {
+        return new ThreadPoolExecutor(workerPoolSize, workerPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerQueueCapacity),
+                Thread.ofPlatform().name("async-create-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    public void setWorkerPoolSize(int workerPoolSize) {
+        this.workerPoolSize = workerPoolSize;
+    }
+
+    public int getWorkerQueueCapacity() {
+        return workerQueueCapacity;
+    }
+
+    public void setWorkerQueueCapacity(int workerQueueCapacity) {
+        this.workerQueueCapacity = workerQueueCapacity;
+    }
+
+    public Duration getPendingDeadline() {
+        return pendingDeadline;
+    }
+
+    public void setPendingDeadline(Duration pendingDeadline) {
+        this.pendingDeadline = pendingDeadline;
+    }
+
+    public Duration getPendingSweepInterval() {
+        return pendingSweepInterval;
+    }
+
+    public void setPendingSweepInterval(Duration pendingSweepInterval) {
+        this.pendingSweepInterval = pendingSweepInterval;
+    }
+}
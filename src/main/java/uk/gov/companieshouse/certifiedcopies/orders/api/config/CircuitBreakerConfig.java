@@ -0,0 +1,136 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the circuit breakers through which
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamCallService} calls each of the Companies
+ * House APIs. A breaker opens once too many of the recent calls to its API have failed or been slow. It then fails
+ * calls straight away with 503 Service Unavailable, rather than have them wait for the API, until a few probe calls
+ * show the API has recovered.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "upstream.circuit-breaker")
+@Validated
+public class CircuitBreakerConfig {
+
+    /**
+     * Whether calls to the Companies House APIs go through circuit breakers (<code>true</code>), or not
+     * (<code>false</code>).
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of most recent calls to an API over which its failure and slow call rates are calculated.
+     */
+    @Min(1)
+    private int slidingWindowSize = 50;
+
+    /**
+     * The number of calls that must have been made to an API before its breaker may open.
+     */
+    @Min(1)
+    private int minimumNumberOfCalls = 20;
+
+    /**
+     * The percentage of failed calls (server errors, connection failures) at or above which a breaker opens.
+     */
+    @Min(1)
+    @Max(100)
+    private int failureRateThreshold = 50;
+
+    /**
+     * The percentage of slow calls at or above which a breaker opens.
+     */
+    @Min(1)
+    @Max(100)
+    private int slowCallRateThreshold = 80;
+
+    /**
+     * How long a call may take before it counts as slow.
+     */
+    @NotNull
+    private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+    /**
+     * How long a breaker stays open, failing every call, before it lets probe calls through.
+     */
+    @NotNull
+    private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+    /**
+     * The number of probe calls a half open breaker lets through to decide whether to close again, or re-open.
+     */
+    @Min(1)
+    private int permittedCallsInHalfOpenState = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumNumberOfCalls() {
+        return minimumNumberOfCalls;
+    }
+
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDurationThreshold() {
+        return slowCallDurationThreshold;
+    }
+
+    public void setSlowCallDurationThreshold(Duration slowCallDurationThreshold) {
+        this.slowCallDurationThreshold = slowCallDurationThreshold;
+    }
+
+    public Duration getWaitDurationInOpenState() {
+        return waitDurationInOpenState;
+    }
+
+    public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+        this.waitDurationInOpenState = waitDurationInOpenState;
+    }
+
+    public int getPermittedCallsInHalfOpenState() {
+        return permittedCallsInHalfOpenState;
+    }
+
+    public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    }
+}
@@ -0,0 +1,76 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the in-process cache of company names held by
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.CompanyService}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "cache.company-name")
+@Validated
+public class CompanyNameCacheConfig {
+
+    /**
+     * Whether company names are cached (<code>true</code>), or looked up from the company profile API every time
+     * (<code>false</code>).
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum number of company names cached. The least recently used names are evicted beyond this.
+     */
+    @Min(1)
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a cached company name is considered fresh. The first lookup of a name older than this still gets
+     * the cached name, while the name is refreshed from the company profile API in the background.
+     */
+    @NotNull
+    private Duration timeToLive = Duration.ofHours(1);
+
+    /**
+     * How much longer than its time to live a cached company name may still be served while it is refreshed.
+     * Beyond this, the name is evicted, and the next lookup waits for the company profile API.
+     */
+    @NotNull
+    private Duration maximumStaleness = Duration.ofHours(24);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public Duration getMaximumStaleness() {
+        return maximumStaleness;
+    }
+
+    public void setMaximumStaleness(Duration maximumStaleness) {
+        this.maximumStaleness = maximumStaleness;
+    }
+}
@@ -0,0 +1,152 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the adaptive limits on the number of calls
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamCallService} may have in flight to each of
+ * the Companies House APIs at the same time. Each limit grows additively while its API responds promptly, and shrinks
+ * multiplicatively once its API fails, or responds much more slowly than its baseline round trip time (AIMD).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "upstream.concurrency-limit")
+@Validated
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Whether the calls in flight to each API are limited adaptively (<code>true</code>), or not at all
+     * (<code>false</code>).
+     */
+    private boolean enabled = true;
+
+    /**
+     * The limit each API starts with.
+     */
+    @Min(1)
+    private int initialLimit = 20;
+
+    /**
+     * The limit below which no API's limit ever shrinks.
+     */
+    @Min(1)
+    private int minLimit = 2;
+
+    /**
+     * The limit above which no API's limit ever grows.
+     */
+    @Min(1)
+    private int maxLimit = 200;
+
+    /**
+     * The factor a limit is multiplied by once its API fails, or responds too slowly.
+     */
+    @DecimalMin("0.5")
+    @DecimalMax("0.99")
+    private double backoffRatio = 0.9;
+
+    /**
+     * How many times slower than its baseline round trip time an API may respond before the response counts as a
+     * sign of congestion.
+     */
+    @DecimalMin("1.0")
+    private double rttTolerance = 2.0;
+
+    /**
+     * The window a limit is cut at most once in, however many calls signal congestion in it. The baseline round trip
+     * time is the minimum over the last ten of these windows.
+     */
+    @NotNull
+    private Duration rttWindow = Duration.ofSeconds(1);
+
+    /**
+     * The maximum number of calls that may queue for a limit, beyond which calls are rejected with 503 Service
+     * Unavailable straight away.
+     */
+    @Min(0)
+    private int maxQueueSize = 50;
+
+    /**
+     * How long a call may queue for a limit before it is rejected with 503 Service Unavailable.
+     */
+    @NotNull
+    private Duration maxQueueWait = Duration.ofMillis(100);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public Duration getRttWindow() {
+        return rttWindow;
+    }
+
+    public void setRttWindow(Duration rttWindow) {
+        this.rttWindow = rttWindow;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public void setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public Duration getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    public void setMaxQueueWait(Duration maxQueueWait) {
+        this.maxQueueWait = maxQueueWait;
+    }
+}
@@ -0,0 +1,34 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the export of the certified copy items created within a date range, streamed by
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemExportService} as newline
+ * delimited JSON straight from a MongoDB cursor.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "export")
+@Validated
+public class ExportConfig {
+
+    /**
+     * The number of items the cursor fetches from the database at a time. Only one batch is held in memory at once,
+     * however many items are exported, so this trades memory against the number of round trips to the database. The
+     * client must read each batch within the server's cursor idle timeout (10 minutes by default), or the export ends
+     * early, so this must not be so large that a slow client cannot.
+     */
+    @Min(1)
+    private int cursorBatchSize = 500;
+
+    public int getCursorBatchSize() {
+        return cursorBatchSize;
+    }
+
+    public void setCursorBatchSize(int cursorBatchSize) {
+        this.cursorBatchSize = cursorBatchSize;
+    }
+}
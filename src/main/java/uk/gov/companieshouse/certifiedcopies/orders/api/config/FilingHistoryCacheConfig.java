@@ -0,0 +1,62 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the in-process cache of filing history documents held by
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.FilingHistoryDocumentService}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "cache.filing-history")
+@Validated
+public class FilingHistoryCacheConfig {
+
+    /**
+     * Whether filing history documents are cached (<code>true</code>), or looked up from the filing history API
+     * every time (<code>false</code>).
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum total weight of the filing history documents cached. Each document weighs one, plus one for each
+     * of its description values. The least recently used documents are evicted beyond this.
+     */
+    @Min(1)
+    private long maximumWeight = 500_000;
+
+    /**
+     * How long a cached filing history document may go unused before it is evicted. A filing never changes once it
+     * has been filed, so documents are not otherwise expired.
+     */
+    @NotNull
+    private Duration timeToIdle = Duration.ofHours(24);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    public Duration getTimeToIdle() {
+        return timeToIdle;
+    }
+
+    public void setTimeToIdle(Duration timeToIdle) {
+        this.timeToIdle = timeToIdle;
+    }
+}
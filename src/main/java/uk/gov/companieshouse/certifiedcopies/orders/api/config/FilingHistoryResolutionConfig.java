@@ -0,0 +1,78 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.FilingHistoryResolutionStrategy;
+
+/**
+ * Configures how {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.FilingHistoryDocumentService}
+ * resolves the filing history documents requested.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "filing-history.resolution")
+@Validated
+public class FilingHistoryResolutionConfig {
+
+    /**
+     * The strategy used to resolve the filing history documents requested.
+     */
+    @NotNull
+    private FilingHistoryResolutionStrategy strategy = FilingHistoryResolutionStrategy.ADAPTIVE;
+
+    /**
+     * The number of filing history documents requested from which the adaptive strategy scans the filing history
+     * list rather than looking each document up individually.
+     */
+    @Min(1)
+    private int listScanThreshold = 10;
+
+    /**
+     * The number of filings requested per page of the filing history list.
+     */
+    @Min(1)
+    @Max(100)
+    private int pageSize = 100;
+
+    /**
+     * The maximum number of pages of the filing history list scanned. Filings not found within these are looked up
+     * individually.
+     */
+    @Min(1)
+    private int maxPages = 5;
+
+    public FilingHistoryResolutionStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(FilingHistoryResolutionStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getListScanThreshold() {
+        return listScanThreshold;
+    }
+
+    public void setListScanThreshold(int listScanThreshold) {
+        this.listScanThreshold = listScanThreshold;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public void setMaxPages(int maxPages) {
+        this.maxPages = maxPages;
+    }
+}
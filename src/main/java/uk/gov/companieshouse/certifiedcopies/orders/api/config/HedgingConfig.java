@@ -0,0 +1,123 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the hedging of filing history document lookups by
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamHedgingService}: a lookup that has not
+ * responded within the configured percentile of recent lookup latencies is sent a second time, and whichever response
+ * arrives first is used.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "upstream.hedging")
+@Validated
+public class HedgingConfig {
+
+    /**
+     * Whether slow filing history document lookups are hedged (<code>true</code>), or not (<code>false</code>).
+     */
+    private boolean enabled = false;
+
+    /**
+     * The percentile of recent lookup latencies after which a lookup still in flight is hedged, e.g. <code>0.95</code>
+     * for the 95th percentile.
+     */
+    @DecimalMin("0.5")
+    @DecimalMax("0.999")
+    private double percentile = 0.95;
+
+    /**
+     * The shortest time a lookup is given before it is hedged, however fast recent lookups have been.
+     */
+    @NotNull
+    private Duration minimumDelay = Duration.ofMillis(20);
+
+    /**
+     * The number of recent lookup latencies the percentile is tracked over.
+     */
+    @Min(10)
+    private int windowSize = 1000;
+
+    /**
+     * The number of lookup latencies that must have been recorded before any lookup is hedged.
+     */
+    @Min(1)
+    private int minimumSamples = 100;
+
+    /**
+     * The extra load hedging may add, as a fraction of the lookups made, e.g. <code>0.05</code> for at most one hedge
+     * for every 20 lookups.
+     */
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double budget = 0.05;
+
+    /**
+     * The maximum number of hedges the unspent budget may accumulate to, which bounds a burst of hedges.
+     */
+    @Min(1)
+    private int budgetBurst = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public Duration getMinimumDelay() {
+        return minimumDelay;
+    }
+
+    public void setMinimumDelay(Duration minimumDelay) {
+        this.minimumDelay = minimumDelay;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinimumSamples() {
+        return minimumSamples;
+    }
+
+    public void setMinimumSamples(int minimumSamples) {
+        this.minimumSamples = minimumSamples;
+    }
+
+    public double getBudget() {
+        return budget;
+    }
+
+    public void setBudget(double budget) {
+        this.budget = budget;
+    }
+
+    public int getBudgetBurst() {
+        return budgetBurst;
+    }
+
+    public void setBudgetBurst(int budgetBurst) {
+        this.budgetBurst = budgetBurst;
+    }
+}
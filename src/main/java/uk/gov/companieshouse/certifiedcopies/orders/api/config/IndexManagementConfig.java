@@ -0,0 +1,43 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the management of the indexes on the <code>certified_copies</code> collection declared by
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemIndexes}. Once the application
+ * has started, the declared indexes are verified against those on the live collection, and any that are missing are
+ * created. Drift between the two is reported through the <code>indexes</code> actuator endpoint either way.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mongodb.index-management")
+public class IndexManagementConfig {
+
+    /**
+     * Whether the declared indexes are verified against the live collection at startup (<code>true</code>), or only
+     * on demand through the actuator endpoint (<code>false</code>).
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the declared indexes found missing at startup are created (<code>true</code>), or only reported
+     * (<code>false</code>), e.g. where indexes are rolled out by a database administrator instead.
+     */
+    private boolean createMissing = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isCreateMissing() {
+        return createMissing;
+    }
+
+    public void setCreateMissing(boolean createMissing) {
+        this.createMissing = createMissing;
+    }
+}
@@ -0,0 +1,29 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures how certified copy items are mapped to and from the documents in the <code>certified_copies</code>
+ * collection: either reflectively by Spring Data, or by the hand-written
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.converter.CertifiedCopyItemCodec}, which produces the same
+ * document shape without the cost of reflection.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mongodb.codec")
+public class MongoCodecConfig {
+
+    /**
+     * Whether certified copy items are read and written with the hand-written codec (<code>true</code>), or
+     * reflectively (<code>false</code>).
+     */
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
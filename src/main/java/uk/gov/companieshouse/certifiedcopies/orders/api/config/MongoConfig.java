@@ -1,8 +1,8 @@
 package uk.gov.companieshouse.certifiedcopies.orders.api.config;
 
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.convert.converter.ConverterFactory;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.convert.DbRefResolver;
 import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
@@ -10,8 +10,12 @@ import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import uk.gov.companieshouse.certifiedcopies.orders.api.converter.CertifiedCopyItemCodec;
+import uk.gov.companieshouse.certifiedcopies.orders.api.converter.CertifiedCopyItemReadingConverter;
+import uk.gov.companieshouse.certifiedcopies.orders.api.converter.CodecMappingMongoConverter;
 import uk.gov.companieshouse.certifiedcopies.orders.api.converter.EnumToStringConverterFactory;
 import uk.gov.companieshouse.certifiedcopies.orders.api.converter.StringToEnumConverterFactory;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CausalConsistencyTracker;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,17 +26,28 @@ import java.util.List;
 @Configuration
 public class MongoConfig {
 
+    private final MongoCodecConfig codecConfig;
+    private final CertifiedCopyItemCodec codec = new CertifiedCopyItemCodec();
+
+    public MongoConfig(final MongoCodecConfig codecConfig) {
+        this.codecConfig = codecConfig;
+    }
+
     /**
      * _class maps to the model class in mongoDB (e.g. _class : uk.gov.companieshouse.certfifiedcopies.orders.api.model.CertifiedCopyItem)
      * when using spring data mongo it by default adds a _class key to your collection to be able to
      * handle inheritance. But if your domain model is simple and flat, you can remove it by overriding
      * the default MappingMongoConverter.
+     * Where the codec is enabled, certified copy items are written with the hand-written codec rather than
+     * reflectively.
      */
     @Bean
     public MappingMongoConverter mappingMongoConverter(final MongoDatabaseFactory factory,
                                                        final MongoMappingContext context) {
         final DbRefResolver dbRefResolver = new DefaultDbRefResolver(factory);
-        final MappingMongoConverter mappingConverter = new MappingMongoConverter(dbRefResolver, context);
+        final MappingMongoConverter mappingConverter = codecConfig.isEnabled()
+                ? new CodecMappingMongoConverter(dbRefResolver, context, codec)
+                : new MappingMongoConverter(dbRefResolver, context);
 
         // Don't save _class to mongo
         mappingConverter.setTypeMapper(new DefaultMongoTypeMapper(null));
@@ -41,11 +56,33 @@ public class MongoConfig {
         return mappingConverter;
     }
 
+    /**
+     * Where the codec is enabled, certified copy items are read with the hand-written codec rather than
+     * reflectively.
+     */
     @Bean
     public MongoCustomConversions customConversions() {
-        final List<ConverterFactory<?, ?>> converters = new ArrayList<>();
+        final List<Object> converters = new ArrayList<>();
         converters.add(new StringToEnumConverterFactory());
         converters.add(new EnumToStringConverterFactory());
+        if (codecConfig.isEnabled()) {
+            converters.add(new CertifiedCopyItemReadingConverter(codec));
+        }
         return new MongoCustomConversions(converters);
     }
+
+    /**
+     * Where reads are routed to the secondaries, registers the tracker of the causal consistency tokens of the writes
+     * made, so that they may be returned to the clients that made them.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer causalConsistencyTrackerCustomizer(
+            final ReadRoutingConfig readRoutingConfig,
+            final CausalConsistencyTracker tracker) {
+        return builder -> {
+            if (readRoutingConfig.isEnabled()) {
+                builder.addCommandListener(tracker);
+            }
+        };
+    }
 }
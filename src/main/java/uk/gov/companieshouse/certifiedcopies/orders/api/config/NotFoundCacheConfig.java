@@ -0,0 +1,61 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the in-process (negative) cache of the "not found" responses received from the Companies House APIs,
+ * held by {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamCallService}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "cache.not-found")
+@Validated
+public class NotFoundCacheConfig {
+
+    /**
+     * Whether "not found" responses are cached (<code>true</code>), or every lookup of a company or filing that does
+     * not exist reaches the API (<code>false</code>).
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum number of "not found" responses cached. The least recently used are evicted beyond this.
+     */
+    @Min(1)
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a "not found" response is cached for. Kept short, as a company or filing missing now (e.g. not yet
+     * registered or filed) may well be found shortly.
+     */
+    @NotNull
+    private Duration timeToLive = Duration.ofMinutes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+}
@@ -0,0 +1,94 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the routing of certified copy item reads to the secondary members of the replica set by
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemReadRouter}. The reads made to
+ * serve a GET, and the lookups made to authorise any request, may be served by a secondary. A client that presents
+ * the causal consistency token returned with its last write still reads its own writes.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mongodb.read-routing")
+@Validated
+public class ReadRoutingConfig {
+
+    /**
+     * Whether reads are routed to the secondaries (<code>true</code>), or all made from the primary
+     * (<code>false</code>).
+     */
+    private boolean enabled = false;
+
+    /**
+     * The name of the MongoDB read preference the routed reads are made with, e.g. <code>secondaryPreferred</code>
+     * or <code>nearest</code>.
+     */
+    @NotBlank
+    private String readPreference = "secondaryPreferred";
+
+    /**
+     * How far behind the primary a secondary may be estimated to lag and still serve routed reads. MongoDB requires
+     * this to be at least 90 seconds.
+     */
+    @NotNull
+    private Duration maxStaleness = Duration.ofSeconds(90);
+
+    /**
+     * How long a routed read may take, including any wait for the secondary to catch up with the client's own
+     * writes, before it is given up and made from the primary instead.
+     */
+    @NotNull
+    private Duration maxWait = Duration.ofMillis(500);
+
+    /**
+     * The name of the HTTP header the causal consistency token is returned to the client in after a write, and
+     * presented by the client with its later reads.
+     */
+    @NotBlank
+    private String tokenHeader = "X-Causal-Consistency-Token";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getReadPreference() {
+        return readPreference;
+    }
+
+    public void setReadPreference(String readPreference) {
+        this.readPreference = readPreference;
+    }
+
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public void setMaxStaleness(Duration maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public String getTokenHeader() {
+        return tokenHeader;
+    }
+
+    public void setTokenHeader(String tokenHeader) {
+        this.tokenHeader = tokenHeader;
+    }
+}
@@ -0,0 +1,168 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures the long-lived, pooled HTTP transport through which
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.ApiClientService} API clients call the Companies
+ * House APIs, so that connections (and their TLS sessions) are reused from one call to the next.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "upstream.http")
+@Validated
+public class UpstreamHttpConfig {
+
+    /**
+     * The maximum number of pooled connections to any one host (route).
+     */
+    @Min(1)
+    private int maxConnectionsPerRoute = 64;
+
+    /**
+     * The maximum number of pooled connections across all hosts.
+     */
+    @Min(1)
+    private int maxConnectionsTotal = 128;
+
+    /**
+     * How long a pooled connection may sit idle before it is closed and evicted from the pool.
+     */
+    @NotNull
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long a pooled connection may sit idle before it is checked to still be open before it is reused.
+     */
+    @NotNull
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * How long to wait for a connection to be established.
+     */
+    @NotNull
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * How long to wait for data once connected.
+     */
+    @NotNull
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * The pool of connections to the Companies House APIs.
+     * @return the connection manager, which owns the pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager upstreamConnectionManager() {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnectionsTotal);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        return connectionManager;
+    }
+
+    /**
+     * The HTTP transport the API SDK clients share, backed by the connection pool.
+     * @param upstreamConnectionManager the connection manager owning the pool
+     * @return the transport
+     */
+    @Bean
+    public HttpTransport upstreamHttpTransport(final PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return new ApacheHttpTransport(ApacheHttpTransport.newDefaultHttpClientBuilder()
+                .setConnectionManager(upstreamConnectionManager)
+                .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .build());
+    }
+
+    /**
+     * Publishes the state of the connection pool as the <code>upstream.http.pool.connections</code> gauges, tagged
+     * <code>state</code> <code>leased</code>, <code>pending</code>, <code>available</code> or <code>max</code>.
+     * @param upstreamConnectionManager the connection manager owning the pool
+     * @return the binder registering the gauges
+     */
+    @Bean
+    public MeterBinder upstreamConnectionPoolMetrics(
+            final PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return registry -> {
+            registerPoolGauge(registry, upstreamConnectionManager, "leased", PoolStats::getLeased);
+            registerPoolGauge(registry, upstreamConnectionManager, "pending", PoolStats::getPending);
+            registerPoolGauge(registry, upstreamConnectionManager, "available", PoolStats::getAvailable);
+            registerPoolGauge(registry, upstreamConnectionManager, "max", PoolStats::getMax);
+        };
+    }
+
+    private static void registerPoolGauge(final MeterRegistry registry,
+                                          final PoolingHttpClientConnectionManager connectionManager,
+                                          final String state,
+                                          final ToIntFunction<PoolStats> statistic) {
+        Gauge.builder("upstream.http.pool.connections", connectionManager,
+                        manager -> statistic.applyAsInt(manager.getTotalStats()))
+                .description("Connections in the upstream (Companies House API) HTTP connection pool")
+                .tag("state", state)
+                .register(registry);
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+}
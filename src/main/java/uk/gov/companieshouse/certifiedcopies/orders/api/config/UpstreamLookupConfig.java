@@ -0,0 +1,87 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import jakarta.validation.constraints.Min;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configures how lookups against the Companies House APIs (company profile, filing history) may be run
+ * concurrently, and coalesced.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "upstream.lookup")
+@Validated
+public class UpstreamLookupConfig {
+
+    /**
+     * Whether independent upstream lookups made on behalf of a single request are run concurrently
+     * (<code>true</code>), or one after another on the request thread (<code>false</code>).
+     */
+    private boolean concurrent = true;
+
+    /**
+     * The maximum number of upstream lookups any one request may have in flight at the same time.
+     */
+    @Min(1)
+    private int maxConcurrentPerRequest = 8;
+
+    /**
+     * The maximum number of upstream lookups this instance (node) may have in flight at the same time,
+     * across all requests.
+     */
+    @Min(1)
+    private int maxConcurrentPerNode = 64;
+
+    /**
+     * Whether concurrent calls for the same URI share a single upstream call (<code>true</code>), or each make
+     * their own (<code>false</code>).
+     */
+    private boolean singleFlight = true;
+
+    /**
+     * The executor upstream lookups are run on. Each lookup gets its own virtual thread, so a lookup blocked on
+     * network I/O does not tie up a platform thread. Concurrency is bounded by the
+     * {@link uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamLookupService}, not by this executor.
+     * @return the executor
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService upstreamLookupExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("upstream-lookup-", 0).factory());
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    public void setConcurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    public int getMaxConcurrentPerRequest() {
+        return maxConcurrentPerRequest;
+    }
+
+    public void setMaxConcurrentPerRequest(int maxConcurrentPerRequest) {
+        this.maxConcurrentPerRequest = maxConcurrentPerRequest;
+    }
+
+    public int getMaxConcurrentPerNode() {
+        return maxConcurrentPerNode;
+    }
+
+    public void setMaxConcurrentPerNode(int maxConcurrentPerNode) {
+        this.maxConcurrentPerNode = maxConcurrentPerNode;
+    }
+
+    public boolean isSingleFlight() {
+        return singleFlight;
+    }
+
+    public void setSingleFlight(boolean singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+}
@@ -0,0 +1,47 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ReadRoutingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CausalConsistencyTracker;
+
+/**
+ * Returns the causal consistency token of the last write made by a request in the configured response header, where
+ * reads are routed to the secondaries. A client that presents the token with its later reads still reads its own
+ * writes, however far behind the primary the secondary serving the read may be.
+ */
+@ControllerAdvice
+public class CausalConsistencyTokenAdvice implements ResponseBodyAdvice<Object> {
+
+    private final CausalConsistencyTracker tracker;
+    private final ReadRoutingConfig config;
+
+    public CausalConsistencyTokenAdvice(final CausalConsistencyTracker tracker, final ReadRoutingConfig config) {
+        this.tracker = tracker;
+        this.config = config;
+    }
+
+    @Override
+    public boolean supports(@NonNull final MethodParameter returnType,
+                            @NonNull final Class<? extends HttpMessageConverter<?>> converterType) {
+        return config.isEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(final Object body,
+                                  @NonNull final MethodParameter returnType,
+                                  @NonNull final MediaType selectedContentType,
+                                  @NonNull final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull final ServerHttpRequest request,
+                                  @NonNull final ServerHttpResponse response) {
+        tracker.getWrittenToken()
+                .ifPresent(token -> response.getHeaders().set(config.getTokenHeader(), token.encode()));
+        return body;
+    }
+}
@@ -1,11 +1,17 @@
 package uk.gov.companieshouse.certifiedcopies.orders.api.controller;
 
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+import static org.springframework.http.HttpStatus.ACCEPTED;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.BATCH_SIZE_LOG_KEY;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.CERTIFIED_COPY_ID_LOG_KEY;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.COMPANY_NUMBER_LOG_KEY;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.CREATED_COUNT_LOG_KEY;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.EXPORTED_COUNT_LOG_KEY;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.MESSAGE;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.PATCHED_COMPANY_NUMBER;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.REQUEST_ID_HEADER_NAME;
@@ -15,14 +21,24 @@ import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUt
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.logApiErrorsWithStatus;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.logErrorsWithStatus;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import jakarta.json.JsonMergePatch;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -30,22 +46,34 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import uk.gov.companieshouse.api.error.ApiError;
 import uk.gov.companieshouse.api.util.security.AuthorisationUtil;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.AsyncCreateConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemBatchDTO;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemBatchResultDTO;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemPageDTO;
 import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemRequestDTO;
 import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemResponseDTO;
 import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
 import uk.gov.companieshouse.certifiedcopies.orders.api.mapper.CertifiedCopyItemMapper;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
-import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemCreationResult;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemPage;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemAsyncCreationService;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemBatchCreationService;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemEnrichmentService;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemExportService;
 import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemService;
-import uk.gov.companieshouse.certifiedcopies.orders.api.service.CompanyService;
-import uk.gov.companieshouse.certifiedcopies.orders.api.service.FilingHistoryDocumentService;
-import uk.gov.companieshouse.certifiedcopies.orders.api.util.PatchMerger;
+import uk.gov.companieshouse.certifiedcopies.orders.api.validator.CreateCertifiedCopyItemBatchRequestValidator;
 import uk.gov.companieshouse.certifiedcopies.orders.api.validator.CreateCertifiedCopyItemRequestValidator;
 import uk.gov.companieshouse.certifiedcopies.orders.api.validator.PatchItemRequestValidator;
+import uk.gov.companieshouse.certifiedcopies.orders.api.interceptor.CertifiedCopyItemHolder;
 import uk.gov.companieshouse.certifiedcopies.orders.api.interceptor.EricAuthoriser;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.CertifiedCopyItemIds;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.EricHeaderHelper;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
 
@@ -54,40 +82,64 @@ public class CertifiedCopiesItemController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoggingUtils.APPLICATION_NAMESPACE);
     private static final String FREE_CERT_DOCS_PERMISSION = "/admin/free-cert-docs";
+    private static final String PREFER_HEADER_NAME = "Prefer";
+    private static final String PREFERENCE_APPLIED_HEADER_NAME = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String ANY_ETAG = "*";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final String USER_PARAMETER = "user";
+    private static final String CURRENT_USER = "me";
+    private static final String INCLUDE_FILING_HISTORY_DOCUMENTS = "filing_history_documents";
+    private static final String DEFAULT_PAGE_SIZE = "20";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 50;
 
 
     private final CreateCertifiedCopyItemRequestValidator createCertifiedCopyItemRequestValidator;
     private final CertifiedCopyItemMapper mapper;
     private final CertifiedCopyItemService certifiedCopyItemService;
-    private final CompanyService companyService;
-    private final FilingHistoryDocumentService filingHistoryDocumentService;
+    private final CertifiedCopyItemEnrichmentService enrichmentService;
     private final PatchItemRequestValidator patchItemRequestValidator;
-    private final PatchMerger patcher;
     private EricAuthoriser ericAuthoriser;
+    private final CertifiedCopyItemAsyncCreationService asyncCreationService;
+    private final AsyncCreateConfig asyncCreateConfig;
+    private final CertifiedCopyItemHolder itemHolder;
+    private final CertifiedCopyItemExportService exportService;
+    private final CreateCertifiedCopyItemBatchRequestValidator createBatchRequestValidator;
+    private final CertifiedCopyItemBatchCreationService batchCreationService;
 
     public CertifiedCopiesItemController(final CreateCertifiedCopyItemRequestValidator createCertifiedCopyItemRequestValidator,
                                          final CertifiedCopyItemMapper mapper,
                                          final CertifiedCopyItemService certifiedCopyItemService,
-                                         final CompanyService companyService,
-                                         final FilingHistoryDocumentService filingHistoryDocumentService,
+                                         final CertifiedCopyItemEnrichmentService enrichmentService,
                                          final PatchItemRequestValidator patchItemRequestValidator,
-                                         final PatchMerger patcher,
-                                         final EricAuthoriser ericAuthoriser) {
+                                         final EricAuthoriser ericAuthoriser,
+                                         final CertifiedCopyItemAsyncCreationService asyncCreationService,
+                                         final AsyncCreateConfig asyncCreateConfig,
+                                         final CertifiedCopyItemHolder itemHolder,
+                                         final CertifiedCopyItemExportService exportService,
+                                         final CreateCertifiedCopyItemBatchRequestValidator createBatchRequestValidator,
+                                         final CertifiedCopyItemBatchCreationService batchCreationService) {
         this.createCertifiedCopyItemRequestValidator = createCertifiedCopyItemRequestValidator;
         this.mapper = mapper;
         this.certifiedCopyItemService = certifiedCopyItemService;
-        this.companyService = companyService;
-        this.filingHistoryDocumentService = filingHistoryDocumentService;
+        this.enrichmentService = enrichmentService;
         this.patchItemRequestValidator = patchItemRequestValidator;
-        this.patcher = patcher;
         this.ericAuthoriser = ericAuthoriser;
+        this.asyncCreationService = asyncCreationService;
+        this.asyncCreateConfig = asyncCreateConfig;
+        this.itemHolder = itemHolder;
+        this.exportService = exportService;
+        this.createBatchRequestValidator = createBatchRequestValidator;
+        this.batchCreationService = batchCreationService;
     }
 
     @PostMapping("${uk.gov.companieshouse.certifiedcopies.orders.api.home}")
     public ResponseEntity<Object> createCertifiedCopy(
             final @Valid @RequestBody CertifiedCopyItemRequestDTO certifiedCopyItemRequestDTO,
             HttpServletRequest request,
-            final @RequestHeader(REQUEST_ID_HEADER_NAME) String requestId) {
+            final @RequestHeader(REQUEST_ID_HEADER_NAME) String requestId,
+            final @RequestHeader(value = PREFER_HEADER_NAME, required = false) String prefer) {
 
         Map<String, Object> logMap = LoggingUtils.createLoggingDataMap(requestId);
         LoggingUtils.getLogger().infoRequest(request, "create certified copy item request", logMap);
@@ -104,15 +156,12 @@ public class CertifiedCopiesItemController {
         CertifiedCopyItem certifiedCopyItem = mapper
                 .certifiedCopyItemRequestDTOToCertifiedCopyItem(certifiedCopyItemRequestDTO);
 
-        final String companyName = companyService.getCompanyName(certifiedCopyItemRequestDTO.getCompanyNumber());
+        if (asyncCreateConfig.isEnabled() && isRespondAsyncPreferred(prefer)) {
+            return createCertifiedCopyAsynchronously(certifiedCopyItem, entitledToFreeCertificates, request, logMap);
+        }
 
-        certifiedCopyItem.getData().setCompanyName(companyName);
+        enrichmentService.enrich(certifiedCopyItem);
         certifiedCopyItem.setUserId(AuthorisationUtil.getAuthorisedIdentity(request));
-        final List<FilingHistoryDocument> filings =
-                filingHistoryDocumentService.getFilingHistoryDocuments(
-                        certifiedCopyItem.getData().getCompanyNumber(),
-                        certifiedCopyItem.getData().getItemOptions().getFilingHistoryDocuments());
-        certifiedCopyItem.getData().getItemOptions().setFilingHistoryDocuments(filings);
 
         CertifiedCopyItem createdCertifiedCopyItem = certifiedCopyItemService
                 .createCertifiedCopyItem(certifiedCopyItem, entitledToFreeCertificates);
@@ -130,6 +179,116 @@ public class CertifiedCopiesItemController {
         return ResponseEntity.status(CREATED).body(certifiedCopyItemResponseDTO);
     }
 
+    /**
+     * Saves the certified copy item as pending, and responds with 202 Accepted straight away, leaving the item to be
+     * enriched and priced in the background. The client polls the item's self link until its status is no longer
+     * pending.
+     */
+    private ResponseEntity<Object> createCertifiedCopyAsynchronously(final CertifiedCopyItem certifiedCopyItem,
+                                                                     final boolean entitledToFreeCertificates,
+                                                                     final HttpServletRequest request,
+                                                                     final Map<String, Object> logMap) {
+        certifiedCopyItem.setUserId(AuthorisationUtil.getAuthorisedIdentity(request));
+
+        final CertifiedCopyItem pendingCertifiedCopyItem =
+                asyncCreationService.createCertifiedCopyItem(certifiedCopyItem, entitledToFreeCertificates);
+
+        logMap.put(USER_ID_LOG_KEY, pendingCertifiedCopyItem.getUserId());
+        logMap.put(COMPANY_NUMBER_LOG_KEY, pendingCertifiedCopyItem.getData().getCompanyNumber());
+        logMap.put(CERTIFIED_COPY_ID_LOG_KEY, pendingCertifiedCopyItem.getId());
+        logMap.put(STATUS_LOG_KEY, ACCEPTED);
+        LoggingUtils.getLogger().infoRequest(request, "certified copy item accepted", logMap);
+
+        final CertifiedCopyItemResponseDTO certifiedCopyItemResponseDTO = mapper
+                .certifiedCopyItemDataToCertifiedCopyItemResponseDTO(pendingCertifiedCopyItem.getData());
+
+        return ResponseEntity.status(ACCEPTED)
+                .location(URI.create(pendingCertifiedCopyItem.getData().getLinks().getSelf()))
+                .header(PREFERENCE_APPLIED_HEADER_NAME, RESPOND_ASYNC)
+                .body(certifiedCopyItemResponseDTO);
+    }
+
+    private static boolean isRespondAsyncPreferred(final String prefer) {
+        return prefer != null && Arrays.stream(prefer.split(","))
+                .map(preference -> preference.split(";")[0].trim())
+                .anyMatch(RESPOND_ASYNC::equalsIgnoreCase);
+    }
+
+    /**
+     * Creates each of a batch of certified copy items, much as {@link #createCertifiedCopy} would create it on its
+     * own, but in one request: the items are enriched together, sharing the company and filing history lookups made
+     * across the batch, and saved in a single bulk insert. Each item is created or rejected on its own, so the batch
+     * responds with 200 OK, reporting the outcome for each item, in request order, with the status the item would
+     * have been created (or rejected) with on its own.
+     */
+    @PostMapping("${uk.gov.companieshouse.certifiedcopies.orders.api.home}/batch")
+    public ResponseEntity<Object> createCertifiedCopies(
+            final @RequestBody List<CertifiedCopyItemRequestDTO> certifiedCopyItemRequestDTOs,
+            final HttpServletRequest request,
+            final @RequestHeader(REQUEST_ID_HEADER_NAME) String requestId) {
+
+        final Map<String, Object> logMap = createLoggingDataMap(requestId);
+        LoggingUtils.getLogger().infoRequest(request, "create certified copy items batch request", logMap);
+
+        if (certifiedCopyItemRequestDTOs.isEmpty() || certifiedCopyItemRequestDTOs.size() > MAX_BATCH_SIZE) {
+            final List<String> errors =
+                    List.of("items: must hold between 1 and " + MAX_BATCH_SIZE + " certified copy items");
+            logErrorsWithStatus(logMap, errors, BAD_REQUEST);
+            LOGGER.errorRequest(request, "create certified copy items batch validation errors", logMap);
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiErrors(BAD_REQUEST, errors));
+        }
+
+        final boolean entitledToFreeCertificates = ericAuthoriser.hasPermission(FREE_CERT_DOCS_PERMISSION, request);
+        final String userId = AuthorisationUtil.getAuthorisedIdentity(request);
+
+        final CertifiedCopyItemBatchResultDTO[] results =
+                new CertifiedCopyItemBatchResultDTO[certifiedCopyItemRequestDTOs.size()];
+        final List<Integer> validIndexes = new ArrayList<>();
+        final List<CertifiedCopyItem> validItems = new ArrayList<>();
+        for (int index = 0; index < certifiedCopyItemRequestDTOs.size(); index++) {
+            final CertifiedCopyItemRequestDTO dto = certifiedCopyItemRequestDTOs.get(index);
+            final List<String> errors = createBatchRequestValidator.getValidationErrors(dto);
+            if (errors.isEmpty()) {
+                final CertifiedCopyItem certifiedCopyItem = mapper.certifiedCopyItemRequestDTOToCertifiedCopyItem(dto);
+                certifiedCopyItem.setUserId(userId);
+                validIndexes.add(index);
+                validItems.add(certifiedCopyItem);
+            } else {
+                results[index] = toBatchResultDTO(CertifiedCopyItemCreationResult.failed(BAD_REQUEST, errors));
+            }
+        }
+
+        if (!validItems.isEmpty()) {
+            final List<CertifiedCopyItemCreationResult> created =
+                    batchCreationService.createCertifiedCopyItems(validItems, entitledToFreeCertificates);
+            for (int valid = 0; valid < created.size(); valid++) {
+                results[validIndexes.get(valid)] = toBatchResultDTO(created.get(valid));
+            }
+        }
+
+        final CertifiedCopyItemBatchDTO batch = new CertifiedCopyItemBatchDTO();
+        batch.setResults(List.of(results));
+
+        logMap.put(USER_ID_LOG_KEY, userId);
+        logMap.put(BATCH_SIZE_LOG_KEY, results.length);
+        logMap.put(CREATED_COUNT_LOG_KEY, Arrays.stream(results).filter(result -> result.getItem() != null).count());
+        logMap.put(STATUS_LOG_KEY, OK);
+        LoggingUtils.getLogger().infoRequest(request, "certified copy items batch created", logMap);
+
+        return ResponseEntity.status(OK).body(batch);
+    }
+
+    private CertifiedCopyItemBatchResultDTO toBatchResultDTO(final CertifiedCopyItemCreationResult result) {
+        final CertifiedCopyItemBatchResultDTO dto = new CertifiedCopyItemBatchResultDTO();
+        dto.setStatus(result.status().value());
+        if (result.item() != null) {
+            dto.setItem(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(result.item().getData()));
+        } else {
+            dto.setErrors(result.errors());
+        }
+        return dto;
+    }
+
     @GetMapping("${uk.gov.companieshouse.certifiedcopies.orders.api.home}/{id}")
     public ResponseEntity<Object> getCertifiedCopy(final @PathVariable("id") String id,
                                                    final @RequestHeader(REQUEST_ID_HEADER_NAME) String requestId,
@@ -139,7 +298,10 @@ public class CertifiedCopiesItemController {
         logMap.put(CERTIFIED_COPY_ID_LOG_KEY, id);
         LOGGER.info("get certified copy item request", logMap);
         final boolean entitledToFreeCertificates = ericAuthoriser.hasPermission(FREE_CERT_DOCS_PERMISSION, request);
-        Optional<CertifiedCopyItem> item = certifiedCopyItemService.getCertifiedCopyItemWithCosts(id, entitledToFreeCertificates);
+        // The item may already have been read to authorise the request.
+        Optional<CertifiedCopyItem> item = itemHolder.getItem(id)
+                .map(held -> certifiedCopyItemService.getCertifiedCopyItemWithCosts(held, entitledToFreeCertificates))
+                .or(() -> certifiedCopyItemService.getCertifiedCopyItemWithCosts(id, entitledToFreeCertificates));
         if (item.isPresent()) {
             final CertifiedCopyItemResponseDTO retrievedCertifiedCopyItemDTO =
                     mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(item.get().getData());
@@ -156,12 +318,152 @@ public class CertifiedCopiesItemController {
         }
     }
 
+    /**
+     * Lists the certified copy items created by the user, newest first, one page at a time. Each page after the first
+     * starts after the cursor returned with the page before it, and is found through an index rather than by skipping
+     * the items on earlier pages, so that every page costs the same to read.
+     */
+    @GetMapping(path = "${uk.gov.companieshouse.certifiedcopies.orders.api.home}", params = USER_PARAMETER)
+    public ResponseEntity<Object> getCertifiedCopies(
+            final @RequestParam(USER_PARAMETER) String user,
+            final @RequestParam(value = "cursor", required = false) String cursor,
+            final @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            final @RequestParam(value = "include", required = false) String include,
+            final @RequestHeader(REQUEST_ID_HEADER_NAME) String requestId,
+            final HttpServletRequest request) {
+        final Map<String, Object> logMap = createLoggingDataMap(requestId);
+        final String userId = AuthorisationUtil.getAuthorisedIdentity(request);
+        logMap.put(USER_ID_LOG_KEY, userId);
+        LOGGER.info("list certified copy items request", logMap);
+
+        final List<String> errors = new ArrayList<>();
+        if (!CURRENT_USER.equals(user)) {
+            errors.add("user: only items created by the current user (me) may be listed");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            errors.add("limit: must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (include != null && !include.equals(INCLUDE_FILING_HISTORY_DOCUMENTS)) {
+            errors.add("include: only " + INCLUDE_FILING_HISTORY_DOCUMENTS + " may be included");
+        }
+        if (!errors.isEmpty()) {
+            logErrorsWithStatus(logMap, errors, BAD_REQUEST);
+            LOGGER.error("list certified copy items request had validation errors", logMap);
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiErrors(BAD_REQUEST, errors));
+        }
+
+        final boolean entitledToFreeCertificates = ericAuthoriser.hasPermission(FREE_CERT_DOCS_PERMISSION, request);
+        final CertifiedCopyItemPage page = certifiedCopyItemService.getCertifiedCopyItemsByUserId(userId, cursor,
+                limit, include != null, entitledToFreeCertificates);
+
+        final CertifiedCopyItemPageDTO pageDTO = new CertifiedCopyItemPageDTO();
+        pageDTO.setItems(page.items().stream()
+                .map(item -> mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(item.getData()))
+                .toList());
+        pageDTO.setNextCursor(page.nextCursor());
+        logMap.put(STATUS_LOG_KEY, OK);
+        LOGGER.info("certified copy items listed", logMap);
+        return ResponseEntity.status(OK).body(pageDTO);
+    }
+
+    /**
+     * Gets the certified copy items with the IDs provided, in the order requested, as the orders API does to build a
+     * basket or checkout. The items are read together in a single query, and authorised together by
+     * {@link uk.gov.companieshouse.certifiedcopies.orders.api.interceptor.UserAuthorisationInterceptor}: a user may
+     * only get items they created themselves, so should any one of the items found have been created by someone else,
+     * the request is refused as a whole, as a request for that item on its own would be. An ID no item is found for is
+     * reported in place with 404 Not Found, rather than failing the request.
+     */
+    @GetMapping(path = "${uk.gov.companieshouse.certifiedcopies.orders.api.home}",
+            params = {CertifiedCopyItemIds.IDS_PARAMETER, "!" + USER_PARAMETER})
+    public ResponseEntity<Object> getCertifiedCopiesByIds(
+            final @RequestParam(CertifiedCopyItemIds.IDS_PARAMETER) String ids,
+            final @RequestHeader(REQUEST_ID_HEADER_NAME) String requestId,
+            final HttpServletRequest request) {
+        final Map<String, Object> logMap = createLoggingDataMap(requestId);
+        LOGGER.info("get certified copy items by ID request", logMap);
+
+        final List<String> idsRequested = CertifiedCopyItemIds.parse(ids);
+        if (!CertifiedCopyItemIds.isValidCount(idsRequested)) {
+            final List<String> errors = List.of("ids: must list between 1 and " + CertifiedCopyItemIds.MAX_IDS
+                    + " certified copy item IDs");
+            logErrorsWithStatus(logMap, errors, BAD_REQUEST);
+            LOGGER.error("get certified copy items by ID request had validation errors", logMap);
+            return ResponseEntity.status(BAD_REQUEST).body(new ApiErrors(BAD_REQUEST, errors));
+        }
+
+        final boolean entitledToFreeCertificates = ericAuthoriser.hasPermission(FREE_CERT_DOCS_PERMISSION, request);
+        final Set<String> distinctIds = new LinkedHashSet<>(idsRequested);
+        // The items may already have been read to authorise the request.
+        final Map<String, CertifiedCopyItem> items = itemHolder.getItems(distinctIds)
+                .map(held -> certifiedCopyItemService.getCertifiedCopyItemsWithCosts(held, entitledToFreeCertificates))
+                .orElseGet(() -> certifiedCopyItemService.getCertifiedCopyItemsWithCosts(distinctIds,
+                        entitledToFreeCertificates));
+
+        final List<CertifiedCopyItemBatchResultDTO> results = idsRequested.stream()
+                .map(id -> {
+                    final CertifiedCopyItem item = items.get(id);
+                    final CertifiedCopyItemBatchResultDTO result = new CertifiedCopyItemBatchResultDTO();
+                    result.setId(id);
+                    if (item != null) {
+                        result.setStatus(OK.value());
+                        result.setItem(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(item.getData()));
+                    } else {
+                        result.setStatus(NOT_FOUND.value());
+                        result.setErrors(List.of("certified copy item " + id + " not found"));
+                    }
+                    return result;
+                })
+                .toList();
+        final CertifiedCopyItemBatchDTO batch = new CertifiedCopyItemBatchDTO();
+        batch.setResults(results);
+
+        logMap.put(BATCH_SIZE_LOG_KEY, results.size());
+        logMap.put(STATUS_LOG_KEY, OK);
+        LOGGER.info("certified copy items got by ID, " + items.size() + " found", logMap);
+        return ResponseEntity.status(OK).body(batch);
+    }
+
+    /**
+     * Exports the certified copy items created within the date range as newline delimited JSON, oldest first, for
+     * internal reconciliation. The items are streamed to the response as they are read from the database, so the
+     * response is committed with 200 OK before the first item is written, and an export failing part way through is
+     * only evident from its response ending early. Only internal API keys may export items.
+     */
+    @GetMapping("${uk.gov.companieshouse.certifiedcopies.orders.api.home}/export")
+    public void exportCertifiedCopies(
+            final @RequestParam("created_from") @DateTimeFormat(iso = DATE_TIME) LocalDateTime createdFrom,
+            final @RequestParam("created_to") @DateTimeFormat(iso = DATE_TIME) LocalDateTime createdTo,
+            final @RequestHeader(REQUEST_ID_HEADER_NAME) String requestId,
+            final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        final Map<String, Object> logMap = createLoggingDataMap(requestId);
+        LOGGER.info("export certified copy items request", logMap);
+
+        if (!EricHeaderHelper.API_KEY_IDENTITY_TYPE.equals(EricHeaderHelper.getIdentityType(request))) {
+            throw new ResponseStatusException(UNAUTHORIZED, "Only internal API keys may export certified copy items.");
+        }
+        if (!createdFrom.isBefore(createdTo)) {
+            throw new ResponseStatusException(BAD_REQUEST, "created_from must be before created_to.");
+        }
+
+        response.setStatus(OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        final long exported = exportService.exportCertifiedCopyItems(createdFrom, createdTo,
+                response.getOutputStream());
+
+        logMap.put(EXPORTED_COUNT_LOG_KEY, exported);
+        logMap.put(STATUS_LOG_KEY, OK);
+        LOGGER.info("certified copy items exported", logMap);
+    }
+
     @PatchMapping(path = "${uk.gov.companieshouse.certifiedcopies.orders.api.home}/{id}",
             consumes = "application/merge-patch+json")
     public ResponseEntity<Object> updateCertifiedCopyItem(
             final @RequestBody JsonMergePatch mergePatchDocument,
             final @PathVariable("id") String id,
             final @RequestHeader(REQUEST_ID_HEADER_NAME) String requestId,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             HttpServletRequest request) {
         Map<String, Object> logMap = createLoggingDataMap(requestId);
         logMap.put(CERTIFIED_COPY_ID_LOG_KEY, id);
@@ -178,23 +480,20 @@ public class CertifiedCopiesItemController {
             return ApiErrors.errorResponse(BAD_REQUEST, errors);
         }
 
-        Optional<CertifiedCopyItem> certCopyRetrieved = certifiedCopyItemService.getCertifiedCopyItemById(id);
+        // Apply the patch
+        final Optional<CertifiedCopyItem> patchedItem =
+                certifiedCopyItemService.patchCertifiedCopyItem(id, mergePatchDocument,
+                        getExpectedEtags(ifMatch), entitledToFreeCertificates);
 
-        if (certCopyRetrieved.isEmpty()) {
+        if (patchedItem.isEmpty()) {
             logMap.put(STATUS_LOG_KEY, HttpStatus.NOT_FOUND);
             LOGGER.error("certified copy item not found", logMap);
             return ApiErrors.errorResponse(NOT_FOUND, ApiErrors.ERR_CERTIFIED_COPY_NOT_FOUND);
         }
 
-        final CertifiedCopyItem itemRetrieved = certCopyRetrieved.get();
-        logMap.put(COMPANY_NUMBER_LOG_KEY, itemRetrieved.getCompanyNumber());
-        logMap.put(USER_ID_LOG_KEY, itemRetrieved.getUserId());
-
-        //Apply the patch
-        final CertifiedCopyItem patchedItem = patcher.mergePatch(mergePatchDocument, itemRetrieved, CertifiedCopyItem.class);
-
-        logMap.put(PATCHED_COMPANY_NUMBER, patchedItem.getCompanyNumber());
-        final CertifiedCopyItem savedItem = certifiedCopyItemService.saveCertifiedCopyItem(patchedItem, entitledToFreeCertificates);
+        final CertifiedCopyItem savedItem = patchedItem.get();
+        logMap.put(PATCHED_COMPANY_NUMBER, savedItem.getCompanyNumber());
+        logMap.put(USER_ID_LOG_KEY, savedItem.getUserId());
         final CertifiedCopyItemResponseDTO responseDTO = mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(savedItem.getData());
 
         logMap.put(STATUS_LOG_KEY, OK);
@@ -202,4 +501,24 @@ public class CertifiedCopiesItemController {
 
         return ResponseEntity.ok().body(responseDTO);
     }
+
+    /**
+     * Gets the etags listed in the <code>If-Match</code> header, which are compared with the item's etag using the
+     * strong comparison, so that weak etags never match. The etags may be given with or without their quotes, as the
+     * item's etag is only ever returned in the body of the item.
+     * @param ifMatch the <code>If-Match</code> header, if any
+     * @return the etags one of which the item must have to be patched, or <code>null</code> should the item be
+     *         patched whatever its etag
+     */
+    private static List<String> getExpectedEtags(final String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY_ETAG)) {
+            return null;
+        }
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .filter(etag -> !etag.startsWith(WEAK_ETAG_PREFIX))
+                .map(etag -> etag.length() > 1 && etag.startsWith("\"") && etag.endsWith("\"")
+                        ? etag.substring(1, etag.length() - 1) : etag)
+                .toList();
+    }
 }
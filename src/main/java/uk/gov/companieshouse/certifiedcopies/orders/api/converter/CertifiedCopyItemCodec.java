@@ -0,0 +1,375 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.converter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mapping.MappingException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemData;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemOptions;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CollectionLocation;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryMethod;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryTimescale;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemCosts;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.Links;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ProductType;
+
+/**
+ * Hand-written codec that encodes a {@link CertifiedCopyItem} and its nested types to the {@link Document} stored in
+ * the <code>certified_copies</code> collection, and decodes them from it, field by field through their accessors
+ * rather than by reflection. It produces the same document shape as the reflective
+ * {@link org.springframework.data.mongodb.core.convert.MappingMongoConverter} configured by
+ * {@link uk.gov.companieshouse.certifiedcopies.orders.api.config.MongoConfig}:
+ * <ul>
+ *     <li>field names are snake case, with the <code>is_</code> prefix dropped from boolean fields</li>
+ *     <li><code>null</code> fields are left out</li>
+ *     <li>enum values are stored as their JSON names</li>
+ *     <li>dates are stored in the system default time zone</li>
+ *     <li>an item ID that is a valid <code>ObjectId</code> is stored as one</li>
+ * </ul>
+ * Any change to the model classes must be reflected here, and is checked by the round trip tests against the
+ * reflective converter.
+ */
+public final class CertifiedCopyItemCodec {
+
+    private static final String ID = "_id";
+    private static final String CREATED_AT = "created_at";
+    private static final String UPDATED_AT = "updated_at";
+    private static final String DATA = "data";
+    private static final String USER_ID = "user_id";
+    private static final String FILING_HISTORY_COST = "filing_history_cost";
+
+    private static final String DATA_ID = "id";
+    private static final String COMPANY_NAME = "company_name";
+    private static final String COMPANY_NUMBER = "company_number";
+    private static final String CUSTOMER_REFERENCE = "customer_reference";
+    private static final String DESCRIPTION = "description";
+    private static final String DESCRIPTION_IDENTIFIER = "description_identifier";
+    private static final String DESCRIPTION_VALUES = "description_values";
+    private static final String ETAG = "etag";
+    private static final String ITEM_COSTS = "item_costs";
+    private static final String ITEM_OPTIONS = "item_options";
+    private static final String KIND = "kind";
+    private static final String LINKS = "links";
+    private static final String POSTAGE_COST = "postage_cost";
+    private static final String POSTAL_DELIVERY = "postal_delivery";
+    private static final String QUANTITY = "quantity";
+    private static final String TOTAL_ITEM_COST = "total_item_cost";
+    private static final String STATUS = "status";
+
+    private static final String DISCOUNT_APPLIED = "discount_applied";
+    private static final String ITEM_COST = "item_cost";
+    private static final String CALCULATED_COST = "calculated_cost";
+    private static final String PRODUCT_TYPE = "product_type";
+
+    private static final String COLLECTION_LOCATION = "collection_location";
+    private static final String CONTACT_NUMBER = "contact_number";
+    private static final String DELIVERY_METHOD = "delivery_method";
+    private static final String DELIVERY_TIMESCALE = "delivery_timescale";
+    private static final String FILING_HISTORY_DOCUMENTS = "filing_history_documents";
+    private static final String FORENAME = "forename";
+    private static final String SURNAME = "surname";
+
+    private static final String FILING_HISTORY_DATE = "filing_history_date";
+    private static final String FILING_HISTORY_DESCRIPTION = "filing_history_description";
+    private static final String FILING_HISTORY_DESCRIPTION_VALUES = "filing_history_description_values";
+    private static final String FILING_HISTORY_ID = "filing_history_id";
+    private static final String FILING_HISTORY_TYPE = "filing_history_type";
+
+    private static final String SELF = "self";
+
+    /**
+     * Encodes the item provided.
+     * @param item the item to be encoded
+     * @return the document to be stored
+     */
+    public Document encode(final CertifiedCopyItem item) {
+        final Document document = new Document();
+        if (item.getId() != null) {
+            document.put(ID, ObjectId.isValid(item.getId()) ? new ObjectId(item.getId()) : item.getId());
+        }
+        put(document, CREATED_AT, encodeDate(item.getCreatedAt()));
+        put(document, UPDATED_AT, encodeDate(item.getUpdatedAt()));
+        put(document, DATA, item.getData() != null ? encodeData(item.getData()) : null);
+        put(document, USER_ID, item.getUserId());
+        put(document, FILING_HISTORY_COST, item.getFilingHistoryCost());
+        return document;
+    }
+
+    /**
+     * Decodes the item provided.
+     * @param document the stored document, which may have been read with some of its fields projected out
+     * @return the item decoded
+     */
+    public CertifiedCopyItem decode(final Document document) {
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        final Object id = document.get(ID);
+        if (id != null) {
+            // This also sets the ID of the default data, which is replaced by the data decoded below.
+            item.setId(id instanceof ObjectId objectId ? objectId.toHexString() : id.toString());
+        }
+        final CertifiedCopyItemData data = decodeNested(document, DATA, this::decodeData);
+        item.setData(data != null ? data : new CertifiedCopyItemData());
+        item.setCreatedAt(decodeDate(document.get(CREATED_AT)));
+        item.setUpdatedAt(decodeDate(document.get(UPDATED_AT)));
+        item.setUserId(document.getString(USER_ID));
+        item.setFilingHistoryCost(document.getString(FILING_HISTORY_COST));
+        return item;
+    }
+
+    private Document encodeData(final CertifiedCopyItemData data) {
+        final Document document = new Document();
+        put(document, DATA_ID, data.getId());
+        put(document, COMPANY_NAME, data.getCompanyName());
+        put(document, COMPANY_NUMBER, data.getCompanyNumber());
+        put(document, CUSTOMER_REFERENCE, data.getCustomerReference());
+        put(document, DESCRIPTION, data.getDescription());
+        put(document, DESCRIPTION_IDENTIFIER, data.getDescriptionIdentifier());
+        put(document, DESCRIPTION_VALUES, encodeValues(data.getDescriptionValues()));
+        put(document, ETAG, data.getEtag());
+        put(document, ITEM_COSTS, encodeList(data.getItemCosts(), this::encodeItemCosts));
+        put(document, ITEM_OPTIONS, data.getItemOptions() != null ? encodeItemOptions(data.getItemOptions()) : null);
+        put(document, KIND, data.getKind());
+        put(document, LINKS, data.getLinks() != null ? encodeLinks(data.getLinks()) : null);
+        put(document, POSTAGE_COST, data.getPostageCost());
+        put(document, POSTAL_DELIVERY, data.getPostalDelivery());
+        put(document, QUANTITY, data.getQuantity());
+        put(document, TOTAL_ITEM_COST, data.getTotalItemCost());
+        put(document, FILING_HISTORY_COST, data.getFilingHistoryCost());
+        put(document, STATUS, encodeEnum(data.getStatus()));
+        return document;
+    }
+
+    private CertifiedCopyItemData decodeData(final Document document) {
+        final CertifiedCopyItemData data = new CertifiedCopyItemData();
+        data.setId(document.getString(DATA_ID));
+        data.setCompanyName(document.getString(COMPANY_NAME));
+        data.setCompanyNumber(document.getString(COMPANY_NUMBER));
+        data.setCustomerReference(document.getString(CUSTOMER_REFERENCE));
+        data.setDescription(document.getString(DESCRIPTION));
+        data.setDescriptionIdentifier(document.getString(DESCRIPTION_IDENTIFIER));
+        data.setDescriptionValues(decodeStringValues(document.get(DESCRIPTION_VALUES, Document.class)));
+        data.setEtag(document.getString(ETAG));
+        data.setItemCosts(decodeList(document, ITEM_COSTS, this::decodeItemCosts));
+        data.setItemOptions(decodeNested(document, ITEM_OPTIONS, this::decodeItemOptions));
+        data.setKind(document.getString(KIND));
+        data.setLinks(decodeNested(document, LINKS, this::decodeLinks));
+        data.setPostageCost(document.getString(POSTAGE_COST));
+        data.setPostalDelivery(document.getBoolean(POSTAL_DELIVERY));
+        data.setQuantity(decodeInteger(document.get(QUANTITY)));
+        data.setTotalItemCost(document.getString(TOTAL_ITEM_COST));
+        data.setFilingHistoryCost(document.getString(FILING_HISTORY_COST));
+        data.setStatus(decodeEnum(ItemStatus.class, document.getString(STATUS)));
+        return data;
+    }
+
+    private Document encodeItemCosts(final ItemCosts costs) {
+        final Document document = new Document();
+        put(document, DISCOUNT_APPLIED, costs.getDiscountApplied());
+        put(document, ITEM_COST, costs.getItemCost());
+        put(document, CALCULATED_COST, costs.getCalculatedCost());
+        put(document, PRODUCT_TYPE, encodeEnum(costs.getProductType()));
+        return document;
+    }
+
+    private ItemCosts decodeItemCosts(final Document document) {
+        final ItemCosts costs = new ItemCosts();
+        costs.setDiscountApplied(document.getString(DISCOUNT_APPLIED));
+        costs.setItemCost(document.getString(ITEM_COST));
+        costs.setCalculatedCost(document.getString(CALCULATED_COST));
+        costs.setProductType(decodeEnum(ProductType.class, document.getString(PRODUCT_TYPE)));
+        return costs;
+    }
+
+    private Document encodeItemOptions(final CertifiedCopyItemOptions options) {
+        final Document document = new Document();
+        put(document, COLLECTION_LOCATION, encodeEnum(options.getCollectionLocation()));
+        put(document, CONTACT_NUMBER, options.getContactNumber());
+        put(document, DELIVERY_METHOD, encodeEnum(options.getDeliveryMethod()));
+        put(document, DELIVERY_TIMESCALE, encodeEnum(options.getDeliveryTimescale()));
+        put(document, FILING_HISTORY_DOCUMENTS,
+                encodeList(options.getFilingHistoryDocuments(), this::encodeFilingHistoryDocument));
+        put(document, FORENAME, options.getForename());
+        put(document, SURNAME, options.getSurname());
+        return document;
+    }
+
+    private CertifiedCopyItemOptions decodeItemOptions(final Document document) {
+        final CertifiedCopyItemOptions options = new CertifiedCopyItemOptions();
+        options.setCollectionLocation(
+                decodeEnum(CollectionLocation.class, document.getString(COLLECTION_LOCATION)));
+        options.setContactNumber(document.getString(CONTACT_NUMBER));
+        options.setDeliveryMethod(decodeEnum(DeliveryMethod.class, document.getString(DELIVERY_METHOD)));
+        options.setDeliveryTimescale(decodeEnum(DeliveryTimescale.class, document.getString(DELIVERY_TIMESCALE)));
+        options.setFilingHistoryDocuments(
+                decodeList(document, FILING_HISTORY_DOCUMENTS, this::decodeFilingHistoryDocument));
+        options.setForename(document.getString(FORENAME));
+        options.setSurname(document.getString(SURNAME));
+        return options;
+    }
+
+    private Document encodeFilingHistoryDocument(final FilingHistoryDocument filing) {
+        final Document document = new Document();
+        put(document, FILING_HISTORY_DATE, filing.getFilingHistoryDate());
+        put(document, FILING_HISTORY_DESCRIPTION, filing.getFilingHistoryDescription());
+        put(document, FILING_HISTORY_DESCRIPTION_VALUES, encodeValues(filing.getFilingHistoryDescriptionValues()));
+        put(document, FILING_HISTORY_ID, filing.getFilingHistoryId());
+        put(document, FILING_HISTORY_TYPE, filing.getFilingHistoryType());
+        put(document, FILING_HISTORY_COST, filing.getFilingHistoryCost());
+        return document;
+    }
+
+    private FilingHistoryDocument decodeFilingHistoryDocument(final Document document) {
+        final FilingHistoryDocument filing = new FilingHistoryDocument();
+        filing.setFilingHistoryDate(document.getString(FILING_HISTORY_DATE));
+        filing.setFilingHistoryDescription(document.getString(FILING_HISTORY_DESCRIPTION));
+        filing.setFilingHistoryDescriptionValues(
+                decodeValues(document.get(FILING_HISTORY_DESCRIPTION_VALUES, Document.class)));
+        filing.setFilingHistoryId(document.getString(FILING_HISTORY_ID));
+        filing.setFilingHistoryType(document.getString(FILING_HISTORY_TYPE));
+        filing.setFilingHistoryCost(document.getString(FILING_HISTORY_COST));
+        return filing;
+    }
+
+    private Document encodeLinks(final Links links) {
+        final Document document = new Document();
+        put(document, SELF, links.getSelf());
+        return document;
+    }
+
+    private Links decodeLinks(final Document document) {
+        final Links links = new Links();
+        links.setSelf(document.getString(SELF));
+        return links;
+    }
+
+    private static void put(final Document document, final String key, final Object value) {
+        if (value != null) {
+            document.put(key, value);
+        }
+    }
+
+    private static <T> List<Document> encodeList(final List<T> values, final Function<T, Document> encoder) {
+        if (values == null) {
+            return null;
+        }
+        final List<Document> documents = new ArrayList<>(values.size());
+        for (final T value : values) {
+            documents.add(value != null ? encoder.apply(value) : null);
+        }
+        return documents;
+    }
+
+    private static <T> List<T> decodeList(final Document document,
+                                          final String key,
+                                          final Function<Document, T> decoder) {
+        final List<?> documents = document.get(key, List.class);
+        if (documents == null) {
+            return null;
+        }
+        final List<T> values = new ArrayList<>(documents.size());
+        for (final Object value : documents) {
+            values.add(value != null ? decoder.apply((Document) value) : null);
+        }
+        return values;
+    }
+
+    private static <T> T decodeNested(final Document document,
+                                      final String key,
+                                      final Function<Document, T> decoder) {
+        final Document nested = document.get(key, Document.class);
+        return nested != null ? decoder.apply(nested) : null;
+    }
+
+    /**
+     * Encodes a map of free form values, e.g. the description values, as a nested document, with any maps and
+     * collections held within it encoded in turn.
+     */
+    private static Document encodeValues(final Map<String, ?> values) {
+        if (values == null) {
+            return null;
+        }
+        final Document document = new Document();
+        values.forEach((key, value) -> {
+            if (key.contains(".")) {
+                // As for the reflective converter, which would otherwise store a path rather than a field name.
+                throw new MappingException("Map key " + key + " contains dots but no replacement was configured.");
+            }
+            put(document, key, encodeValue(value));
+        });
+        return document;
+    }
+
+    private static Object encodeValue(final Object value) {
+        if (value instanceof Map<?, ?> map) {
+            final Map<String, Object> values = new LinkedHashMap<>();
+            map.forEach((key, nested) -> values.put(key.toString(), nested));
+            return encodeValues(values);
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.stream().map(CertifiedCopyItemCodec::encodeValue).toList();
+        }
+        if (value instanceof Enum<?> enumValue) {
+            return encodeEnum(enumValue);
+        }
+        return value;
+    }
+
+    private static Map<String, Object> decodeValues(final Document document) {
+        if (document == null) {
+            return null;
+        }
+        final Map<String, Object> values = new LinkedHashMap<>();
+        document.forEach((key, value) -> values.put(key, decodeValue(value)));
+        return values;
+    }
+
+    private static Object decodeValue(final Object value) {
+        if (value instanceof Document document) {
+            return decodeValues(document);
+        }
+        if (value instanceof List<?> list) {
+            return new ArrayList<>(list.stream().map(CertifiedCopyItemCodec::decodeValue).toList());
+        }
+        return value;
+    }
+
+    private static Map<String, String> decodeStringValues(final Document document) {
+        if (document == null) {
+            return null;
+        }
+        final Map<String, String> values = new LinkedHashMap<>();
+        document.forEach((key, value) -> values.put(key, value != null ? value.toString() : null));
+        return values;
+    }
+
+    private static String encodeEnum(final Enum<?> value) {
+        return value != null ? EnumValueNameConverter.convertEnumValueNameToJson(value) : null;
+    }
+
+    private static <E extends Enum<E>> E decodeEnum(final Class<E> type, final String value) {
+        return value != null ? Enum.valueOf(type, EnumValueNameConverter.convertEnumValueJsonToName(value)) : null;
+    }
+
+    private static Date encodeDate(final LocalDateTime value) {
+        return value != null ? Date.from(value.atZone(ZoneId.systemDefault()).toInstant()) : null;
+    }
+
+    private static LocalDateTime decodeDate(final Object value) {
+        return value instanceof Date date ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    private static Integer decodeInteger(final Object value) {
+        return value instanceof Number number ? number.intValue() : null;
+    }
+}
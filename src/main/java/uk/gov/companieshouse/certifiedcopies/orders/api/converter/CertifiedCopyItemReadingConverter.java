@@ -0,0 +1,25 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.converter;
+
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+
+/**
+ * Reads {@link CertifiedCopyItem}s with the hand-written {@link CertifiedCopyItemCodec} rather than reflectively,
+ * where registered with the custom conversions.
+ */
+@ReadingConverter
+public final class CertifiedCopyItemReadingConverter implements Converter<Document, CertifiedCopyItem> {
+
+    private final CertifiedCopyItemCodec codec;
+
+    public CertifiedCopyItemReadingConverter(final CertifiedCopyItemCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public CertifiedCopyItem convert(final Document source) {
+        return codec.decode(source);
+    }
+}
@@ -0,0 +1,37 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.converter;
+
+import org.bson.conversions.Bson;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.util.BsonUtils;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+
+/**
+ * {@link MappingMongoConverter} that writes {@link CertifiedCopyItem}s with the hand-written
+ * {@link CertifiedCopyItemCodec}, and anything else reflectively as before. The items are read with the codec by the
+ * {@link CertifiedCopyItemReadingConverter} registered with the custom conversions.
+ * <p>
+ * The codec is not registered as a writing converter as well, as Spring Data would then treat
+ * {@link CertifiedCopyItem} as a simple type, leaving it without the mapping metadata the repository relies upon.
+ */
+public class CodecMappingMongoConverter extends MappingMongoConverter {
+
+    private final CertifiedCopyItemCodec codec;
+
+    public CodecMappingMongoConverter(final DbRefResolver dbRefResolver,
+                                      final MongoMappingContext mappingContext,
+                                      final CertifiedCopyItemCodec codec) {
+        super(dbRefResolver, mappingContext);
+        this.codec = codec;
+    }
+
+    @Override
+    public void write(final Object source, final Bson sink) {
+        if (source instanceof CertifiedCopyItem item) {
+            BsonUtils.addAllToMap(sink, codec.encode(item));
+        } else {
+            super.write(source, sink);
+        }
+    }
+}
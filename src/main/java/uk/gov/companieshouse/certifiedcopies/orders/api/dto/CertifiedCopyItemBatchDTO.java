@@ -0,0 +1,16 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.dto;
+
+import java.util.List;
+
+public class CertifiedCopyItemBatchDTO {
+
+    private List<CertifiedCopyItemBatchResultDTO> results;
+
+    public List<CertifiedCopyItemBatchResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<CertifiedCopyItemBatchResultDTO> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,46 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.dto;
+
+import java.util.List;
+
+public class CertifiedCopyItemBatchResultDTO {
+
+    private String id;
+
+    private int status;
+
+    private CertifiedCopyItemResponseDTO item;
+
+    private List<String> errors;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public CertifiedCopyItemResponseDTO getItem() {
+        return item;
+    }
+
+    public void setItem(CertifiedCopyItemResponseDTO item) {
+        this.item = item;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,26 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.dto;
+
+import java.util.List;
+
+public class CertifiedCopyItemPageDTO {
+
+    private List<CertifiedCopyItemResponseDTO> items;
+
+    private String nextCursor;
+
+    public List<CertifiedCopyItemResponseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CertifiedCopyItemResponseDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
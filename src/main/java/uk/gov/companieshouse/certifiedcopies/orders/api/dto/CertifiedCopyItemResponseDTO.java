@@ -3,6 +3,7 @@ package uk.gov.companieshouse.certifiedcopies.orders.api.dto;
 import org.springframework.data.mongodb.core.mapping.Field;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemOptions;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemCosts;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.Links;
 
 import java.util.List;
@@ -45,6 +46,8 @@ public class CertifiedCopyItemResponseDTO {
 
     private String filingHistoryCost;
 
+    private ItemStatus status;
+
 
 
     public String getId() {
@@ -184,4 +187,12 @@ public class CertifiedCopyItemResponseDTO {
         this.filingHistoryCost = filingHistoryCost;
     }
 
+    public ItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ItemStatus status) {
+        this.status = status;
+    }
+
 }
@@ -0,0 +1,58 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.interceptor;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+
+/**
+ * Holds the certified copy item (or items) read by {@link UserAuthorisationInterceptor} to check its ownership for
+ * the rest of the request, so that the controller handling the request need not read the same item from the database
+ * again.
+ */
+@Component
+@RequestScope
+public class CertifiedCopyItemHolder {
+
+    private CertifiedCopyItem item;
+    private Set<String> itemIds;
+    private Map<String, CertifiedCopyItem> items;
+
+    /**
+     * Holds the certified copy item read for this request.
+     * @param item the certified copy item as read from the database
+     */
+    public void setItem(final CertifiedCopyItem item) {
+        this.item = item;
+    }
+
+    /**
+     * Gets the certified copy item read for this request, should it be the item with the ID provided.
+     * @param id the ID of the certified copy item required
+     * @return the certified copy item as read from the database, or empty should no item with that ID be held
+     */
+    public Optional<CertifiedCopyItem> getItem(final String id) {
+        return Optional.ofNullable(item).filter(held -> held.getId().equals(id));
+    }
+
+    /**
+     * Holds the certified copy items read together for this request.
+     * @param ids the IDs of the certified copy items requested
+     * @param items the certified copy items found, keyed by ID, as read from the database
+     */
+    public void setItems(final Set<String> ids, final Map<String, CertifiedCopyItem> items) {
+        this.itemIds = ids;
+        this.items = items;
+    }
+
+    /**
+     * Gets the certified copy items read together for this request, should they be those read for the IDs provided.
+     * @param ids the IDs of the certified copy items required
+     * @return the certified copy items found, keyed by ID, or empty should no items be held for those IDs
+     */
+    public Optional<Map<String, CertifiedCopyItem>> getItems(final Set<String> ids) {
+        return Optional.ofNullable(items).filter(held -> ids.equals(itemIds));
+    }
+}
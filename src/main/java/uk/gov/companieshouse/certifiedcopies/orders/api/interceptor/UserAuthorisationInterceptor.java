@@ -6,15 +6,20 @@ import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 import uk.gov.companieshouse.api.util.security.AuthorisationUtil;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemOwner;
 import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemService;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.CertifiedCopyItemIds;
 import uk.gov.companieshouse.certifiedcopies.orders.api.util.EricHeaderHelper;
 import uk.gov.companieshouse.logging.Logger;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.POST;
@@ -32,11 +37,15 @@ import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUt
 public class UserAuthorisationInterceptor implements HandlerInterceptor {
 
     private final CertifiedCopyItemService service;
+    private final CertifiedCopyItemHolder itemHolder;
 
     private static final Logger LOGGER = getLogger();
 
-    public UserAuthorisationInterceptor(CertifiedCopyItemService service) {
+    private static final String USER_PARAMETER = "user";
+
+    public UserAuthorisationInterceptor(CertifiedCopyItemService service, CertifiedCopyItemHolder itemHolder) {
         this.service = service;
+        this.itemHolder = itemHolder;
     }
 
     @Override
@@ -75,10 +84,13 @@ public class UserAuthorisationInterceptor implements HandlerInterceptor {
     private boolean validateOAuth2(HttpServletRequest request, HttpServletResponse response) {
         if (!POST.matches(request.getMethod())) {
             final Map<String, String> pathVariables = (Map) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
-            final String certifiedCopyId = pathVariables.get("id");
+            final String certifiedCopyId = pathVariables != null ? pathVariables.get("id") : null;
+            if (certifiedCopyId == null) {
+                return validateOAuth2ForCollection(request, response);
+            }
 
             final String identity = EricHeaderHelper.getIdentity(request);
-            Optional<CertifiedCopyItem> item = service.getCertifiedCopyItemById(certifiedCopyId);
+            Optional<CertifiedCopyItemOwner> item = getOwner(request, certifiedCopyId);
             Map<String, Object> logMap = new HashMap<>();
             logMap.put(CERTIFIED_COPY_ID_LOG_KEY, certifiedCopyId);
             logMap.put(REQUEST_ID_LOG_KEY, request.getHeader(REQUEST_ID_HEADER_NAME));
@@ -113,4 +125,72 @@ public class UserAuthorisationInterceptor implements HandlerInterceptor {
         return true;
     }
 
+    /**
+     * Authorises a user's request made of the collection rather than of a single item. Only two such requests are
+     * open to a user: listing the items they created themselves, and getting the items with the IDs listed, which are
+     * read here and authorised as a set. Any other is refused, so that a request added for the collection later is not
+     * open to users until it is authorised here.
+     */
+    private boolean validateOAuth2ForCollection(final HttpServletRequest request, final HttpServletResponse response) {
+        if (GET.matches(request.getMethod())) {
+            if (request.getParameter(USER_PARAMETER) != null) {
+                // The items listed are found by the user's own identity, rather than by anything requested.
+                return true;
+            }
+            final String[] ids = request.getParameterValues(CertifiedCopyItemIds.IDS_PARAMETER);
+            if (ids != null) {
+                return validateOAuth2ForItems(request, response, CertifiedCopyItemIds.parse(String.join(",", ids)));
+            }
+        }
+        final Map<String, Object> logMap = new HashMap<>();
+        logMap.put(REQUEST_ID_LOG_KEY, request.getHeader(REQUEST_ID_HEADER_NAME));
+        logMap.put(STATUS_LOG_KEY, UNAUTHORIZED);
+        LOGGER.error("User is not permitted to make a " + request.getMethod() + " of the certified-copy collection",
+                logMap);
+        response.setStatus(UNAUTHORIZED.value());
+        return false;
+    }
+
+    /**
+     * Authorises a user's request for the certified copy items with the IDs listed, should the user have created every
+     * one of those found. The items are about to be read anyway, so are read here, and held for the controller to use.
+     */
+    private boolean validateOAuth2ForItems(final HttpServletRequest request,
+                                           final HttpServletResponse response,
+                                           final List<String> ids) {
+        if (!CertifiedCopyItemIds.isValidCount(ids)) {
+            // Nothing is read for the request, which is rejected as it is handled.
+            return true;
+        }
+        final String identity = EricHeaderHelper.getIdentity(request);
+        final Set<String> distinctIds = new LinkedHashSet<>(ids);
+        final Map<String, CertifiedCopyItem> items = service.getCertifiedCopyItemsById(distinctIds);
+        final Map<String, Object> logMap = new HashMap<>();
+        logMap.put(REQUEST_ID_LOG_KEY, request.getHeader(REQUEST_ID_HEADER_NAME));
+        logMap.put(IDENTITY_LOG_KEY, identity);
+        if (items.values().stream().allMatch(item -> identity != null && identity.equals(item.getUserId()))) {
+            itemHolder.setItems(distinctIds, items);
+            LOGGER.info("User is permitted to view the certified-copy items requested", logMap);
+            return true;
+        }
+        logMap.put(STATUS_LOG_KEY, UNAUTHORIZED);
+        LOGGER.error("User is not permitted to view all the certified-copy items requested", logMap);
+        response.setStatus(UNAUTHORIZED.value());
+        return false;
+    }
+
+    /**
+     * Gets the owner of the certified copy item. A GET is about to read the whole item anyway, so the item is read
+     * here, and held for the controller to use. Any other request only needs to read the ID of the user who created
+     * the item.
+     */
+    private Optional<CertifiedCopyItemOwner> getOwner(final HttpServletRequest request, final String certifiedCopyId) {
+        if (!GET.matches(request.getMethod())) {
+            return service.getCertifiedCopyItemOwner(certifiedCopyId);
+        }
+        final Optional<CertifiedCopyItem> item = service.getCertifiedCopyItemById(certifiedCopyId);
+        item.ifPresent(itemHolder::setItem);
+        return item.<CertifiedCopyItemOwner>map(retrieved -> retrieved::getUserId);
+    }
+
 }
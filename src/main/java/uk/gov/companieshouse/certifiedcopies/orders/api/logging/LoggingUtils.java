@@ -26,6 +26,9 @@ public class LoggingUtils {
     public static final String DESCRIPTION_LOG_KEY = "description_key";
     public static final String MESSAGE = "message";
     public static final String PATCHED_COMPANY_NUMBER = "patched_company_number";
+    public static final String EXPORTED_COUNT_LOG_KEY = "exported_count";
+    public static final String BATCH_SIZE_LOG_KEY = "batch_size";
+    public static final String CREATED_COUNT_LOG_KEY = "created_count";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(APPLICATION_NAMESPACE);
 
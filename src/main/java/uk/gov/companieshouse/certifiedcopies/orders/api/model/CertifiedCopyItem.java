@@ -128,6 +128,14 @@ public class CertifiedCopyItem {
         data.setQuantity(quantity);
     }
 
+    public void setStatus(ItemStatus status) {
+        data.setStatus(status);
+    }
+
+    public ItemStatus getStatus() {
+        return data.getStatus();
+    }
+
     public String getFilingHistoryCost() {
         return filingHistoryCost;
     }
@@ -0,0 +1,21 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.model;
+
+import java.util.List;
+import org.springframework.http.HttpStatus;
+
+/**
+ * An instance of this represents the outcome of creating one of a batch of certified copy items.
+ * @param item the item created, or <code>null</code> should it not have been created
+ * @param status the HTTP status the item would have been created (or rejected) with on its own
+ * @param errors the reasons the item was not created, which are empty should it have been created
+ */
+public record CertifiedCopyItemCreationResult(CertifiedCopyItem item, HttpStatus status, List<String> errors) {
+
+    public static CertifiedCopyItemCreationResult created(final CertifiedCopyItem item) {
+        return new CertifiedCopyItemCreationResult(item, HttpStatus.CREATED, List.of());
+    }
+
+    public static CertifiedCopyItemCreationResult failed(final HttpStatus status, final List<String> errors) {
+        return new CertifiedCopyItemCreationResult(null, status, errors);
+    }
+}
@@ -42,6 +42,8 @@ public class CertifiedCopyItemData {
     
     private String filingHistoryCost;
 
+    private ItemStatus status;
+
 
     public String getId() {
         return id;
@@ -179,4 +181,12 @@ public class CertifiedCopyItemData {
         this.filingHistoryCost = filingHistoryCost;
     }
 
+    public ItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ItemStatus status) {
+        this.status = status;
+    }
+
 }
@@ -0,0 +1,12 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.model;
+
+import java.util.List;
+
+/**
+ * An instance of this represents a page of the certified copy items created by a user, newest first.
+ * @param items the items on the page
+ * @param nextCursor the opaque cursor the next page starts after, or <code>null</code> should this be the last page
+ */
+public record CertifiedCopyItemPage(List<CertifiedCopyItem> items, String nextCursor) {
+
+}
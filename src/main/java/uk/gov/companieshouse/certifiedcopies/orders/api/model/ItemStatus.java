@@ -0,0 +1,22 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import uk.gov.companieshouse.certifiedcopies.orders.api.converter.EnumValueNameConverter;
+
+/**
+ * The processing status of a certified copy item created asynchronously. Items created synchronously are ready as
+ * soon as they are created, and have no status.
+ */
+public enum ItemStatus {
+    /** The item has been created, but its company and filing history details have yet to be looked up, and priced. */
+    PENDING,
+    /** The item has been fully populated and priced. */
+    READY,
+    /** The item could not be populated, e.g. as the company or one of its filings could not be found. */
+    FAILED;
+
+    @JsonValue
+    public String getJsonName() {
+        return EnumValueNameConverter.convertEnumValueNameToJson(this);
+    }
+}
@@ -0,0 +1,82 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import org.bson.BSONException;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+
+/**
+ * The logical time of a client's last write, as reported by the primary. A read made in a causally consistent session
+ * advanced to this time is only served once the member reading has caught up with the write, so the client reads its
+ * own writes even from a secondary.
+ * <p>
+ * Clients are given the time encoded as an opaque token, and must not rely on its content.
+ * @param operationTime the operation time of the write
+ * @param clusterTime the signed cluster time the primary reported with the write
+ */
+public record CausalConsistencyToken(BsonTimestamp operationTime, BsonDocument clusterTime) {
+
+    private static final String OPERATION_TIME = "operationTime";
+    private static final String CLUSTER_TIME = "$clusterTime";
+
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    /**
+     * Gets the token reported in the reply to a command, should the reply hold one, i.e. where the command was run
+     * against a replica set.
+     * @param reply the reply to the command
+     * @return the token, or <code>null</code> should the reply not hold one
+     */
+    static CausalConsistencyToken fromReply(final BsonDocument reply) {
+        return reply.isTimestamp(OPERATION_TIME) && reply.isDocument(CLUSTER_TIME)
+                ? new CausalConsistencyToken(reply.getTimestamp(OPERATION_TIME), reply.getDocument(CLUSTER_TIME))
+                : null;
+    }
+
+    /**
+     * Determines whether this token is for a later write than the token provided.
+     * @param other the other token
+     * @return whether this token is the later of the two (<code>true</code>), or not (<code>false</code>)
+     */
+    public boolean isAfter(final CausalConsistencyToken other) {
+        return operationTime.compareTo(other.operationTime) > 0;
+    }
+
+    /**
+     * Encodes this token as an opaque, URL safe token.
+     * @return the token
+     */
+    public String encode() {
+        final BsonDocument document = new BsonDocument(OPERATION_TIME, operationTime).append(CLUSTER_TIME, clusterTime);
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        CODEC.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.toByteArray());
+    }
+
+    /**
+     * Decodes the token from a token produced by {@link #encode()}.
+     * @param token the token
+     * @return the decoded token
+     * @throws IllegalArgumentException should the token not be a causal consistency token
+     */
+    public static CausalConsistencyToken decode(final String token) {
+        final CausalConsistencyToken decoded;
+        try {
+            final ByteBuffer bson = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            decoded = fromReply(CODEC.decode(new BsonBinaryReader(bson), DecoderContext.builder().build()));
+        } catch (BSONException ex) {
+            throw new IllegalArgumentException("Causal consistency token " + token + " is not valid.", ex);
+        }
+        if (decoded == null) {
+            throw new IllegalArgumentException("Causal consistency token " + token + " is not valid.");
+        }
+        return decoded;
+    }
+}
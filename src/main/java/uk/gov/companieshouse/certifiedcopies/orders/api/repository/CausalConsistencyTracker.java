@@ -0,0 +1,93 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.REQUEST_ID_HEADER_NAME;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.REQUEST_ID_LOG_KEY;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ReadRoutingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
+import uk.gov.companieshouse.logging.Logger;
+
+/**
+ * Tracks the {@link CausalConsistencyToken}s of the HTTP request being handled: the token of the last write the
+ * request made, to be returned to the client, and the token the client presented with the request, for its reads to
+ * be made with.
+ * <p>
+ * The write tokens are taken from the replies to the write commands the MongoDB driver reports to this listener.
+ * The driver reports each command on the thread that ran it, so a write made on behalf of the request, rather than
+ * on a background thread, is tracked against the request.
+ */
+@Component
+public class CausalConsistencyTracker implements CommandListener {
+
+    private static final Logger LOGGER = LoggingUtils.getLogger();
+
+    private static final String WRITTEN_TOKEN_ATTRIBUTE = CausalConsistencyTracker.class.getName() + ".WRITTEN_TOKEN";
+
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify");
+
+    private final ReadRoutingConfig config;
+
+    public CausalConsistencyTracker(final ReadRoutingConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public void commandSucceeded(final CommandSucceededEvent event) {
+        if (!WRITE_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        final CausalConsistencyToken token = CausalConsistencyToken.fromReply(event.getResponse());
+        if (token != null && (!(attributes.getAttribute(WRITTEN_TOKEN_ATTRIBUTE, SCOPE_REQUEST)
+                instanceof CausalConsistencyToken written) || token.isAfter(written))) {
+            attributes.setAttribute(WRITTEN_TOKEN_ATTRIBUTE, token, SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Gets the token of the last write made by the request being handled.
+     * @return the token, or empty should the request have made no writes
+     */
+    public Optional<CausalConsistencyToken> getWrittenToken() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && attributes.getAttribute(WRITTEN_TOKEN_ATTRIBUTE, SCOPE_REQUEST)
+                instanceof CausalConsistencyToken written ? Optional.of(written) : Optional.empty();
+    }
+
+    /**
+     * Gets the token presented by the client with the request being handled. A token that is not valid is ignored,
+     * the request being handled as though it had presented none.
+     * @return the token, or empty should the client have presented no valid token
+     */
+    public Optional<CausalConsistencyToken> getPresentedToken() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return Optional.empty();
+        }
+        final String token = attributes.getRequest().getHeader(config.getTokenHeader());
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(CausalConsistencyToken.decode(token));
+        } catch (IllegalArgumentException ex) {
+            final Map<String, Object> logMap = new HashMap<>();
+            logMap.put(REQUEST_ID_LOG_KEY, attributes.getRequest().getHeader(REQUEST_ID_HEADER_NAME));
+            LOGGER.info("Ignoring causal consistency token presented: " + ex.getMessage(), logMap);
+            return Optional.empty();
+        }
+    }
+}
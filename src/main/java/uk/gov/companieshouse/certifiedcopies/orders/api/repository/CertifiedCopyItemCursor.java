@@ -0,0 +1,49 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The position of a certified copy item in a user's items listed newest first, i.e. by <code>created_at</code>
+ * descending, and then by <code>_id</code> descending to break ties. A page of items starts after the item at the
+ * cursor, found through the index on these fields rather than by skipping the items on earlier pages.
+ * <p>
+ * Clients are given the cursor encoded as an opaque token, and must not rely on its content.
+ * @param createdAt when the item at the cursor was created
+ * @param id the ID of the item at the cursor
+ */
+public record CertifiedCopyItemCursor(LocalDateTime createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes this cursor as an opaque, URL safe token.
+     * @return the token
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((createdAt + SEPARATOR + id).getBytes(UTF_8));
+    }
+
+    /**
+     * Decodes the cursor from a token produced by {@link #encode()}.
+     * @param token the token
+     * @return the cursor
+     * @throws IllegalArgumentException should the token not be a cursor
+     */
+    public static CertifiedCopyItemCursor decode(final String token) {
+        final String decoded = new String(Base64.getUrlDecoder().decode(token), UTF_8);
+        final int separator = decoded.indexOf(SEPARATOR);
+        if (separator < 0 || separator == decoded.length() - 1) {
+            throw new IllegalArgumentException("Cursor " + token + " is not valid.");
+        }
+        try {
+            return new CertifiedCopyItemCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    decoded.substring(separator + 1));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Cursor " + token + " is not valid.", ex);
+        }
+    }
+}
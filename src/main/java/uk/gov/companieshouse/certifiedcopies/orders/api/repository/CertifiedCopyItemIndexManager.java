@@ -0,0 +1,138 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import static uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemIndexes.DECLARED;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemIndexes.ID_INDEX;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.IndexManagementConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+
+/**
+ * Verifies the indexes declared by {@link CertifiedCopyItemIndexes} against those on the live
+ * <code>certified_copies</code> collection, creating any that are missing once the application has started.
+ */
+@Component
+public class CertifiedCopyItemIndexManager {
+
+    private static final String NAME_OPTION = "name";
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexManagementConfig config;
+
+    public CertifiedCopyItemIndexManager(final MongoTemplate mongoTemplate, final IndexManagementConfig config) {
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+    }
+
+    /**
+     * Verifies the declared indexes once the application has started, creating those that are missing where so
+     * configured. Failing to do so is logged rather than thrown, so that an unreachable database does not stop the
+     * application from starting, and any drift left behind remains visible through the actuator endpoint.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            final IndexDriftReport report = getDriftReport();
+            if (config.isCreateMissing()) {
+                createMissingIndexes(report.missing());
+            } else if (!report.missing().isEmpty()) {
+                LoggingUtils.getLogger().info("Indexes " + report.missing() + " are missing from the "
+                        + collectionName() + " collection, and are not created as index creation is disabled.");
+            }
+            if (!report.changed().isEmpty() || !report.unexpected().isEmpty()) {
+                LoggingUtils.getLogger().info("Indexes on the " + collectionName() + " collection have drifted: "
+                        + report.changed() + " differ from their declarations, and " + report.unexpected()
+                        + " are not declared.");
+            }
+        } catch (Exception ex) {
+            LoggingUtils.getLogger().error("Error verifying the indexes on the " + collectionName()
+                    + " collection.", ex);
+        }
+    }
+
+    /**
+     * Compares the declared indexes with those on the live collection.
+     * @return the {@link IndexDriftReport} comparing the two
+     */
+    public IndexDriftReport getDriftReport() {
+        final Map<String, Document> liveKeys = new LinkedHashMap<>();
+        for (final IndexInfo info : indexOperations().getIndexInfo()) {
+            liveKeys.put(info.getName(), getKeys(info));
+        }
+        liveKeys.remove(ID_INDEX);
+
+        final List<String> present = new ArrayList<>();
+        final List<String> missing = new ArrayList<>();
+        final List<String> changed = new ArrayList<>();
+        for (final Index index : DECLARED) {
+            final String name = getName(index);
+            final Document keys = liveKeys.remove(name);
+            if (keys == null) {
+                missing.add(name);
+            } else if (keys.toJson().equals(index.getIndexKeys().toJson())) {
+                present.add(name);
+            } else {
+                changed.add(name);
+            }
+        }
+        final List<String> unexpected = new ArrayList<>(liveKeys.keySet());
+        final boolean inSync = missing.isEmpty() && changed.isEmpty() && unexpected.isEmpty();
+        return new IndexDriftReport(inSync, present, missing, changed, unexpected);
+    }
+
+    private void createMissingIndexes(final List<String> missing) {
+        for (final Index index : DECLARED) {
+            if (missing.contains(getName(index))) {
+                LoggingUtils.getLogger().info("Creating index " + getName(index) + " on the " + collectionName()
+                        + " collection.");
+                indexOperations().ensureIndex(index);
+            }
+        }
+    }
+
+    private IndexOperations indexOperations() {
+        return mongoTemplate.indexOps(CertifiedCopyItem.class);
+    }
+
+    private String collectionName() {
+        return mongoTemplate.getCollectionName(CertifiedCopyItem.class);
+    }
+
+    private static String getName(final Index index) {
+        return index.getIndexOptions().getString(NAME_OPTION);
+    }
+
+    /**
+     * Rebuilds the keys document of a live index in the form {@link Index#getIndexKeys()} gives for a declared one,
+     * so that the two may be compared.
+     */
+    private static Document getKeys(final IndexInfo info) {
+        final Document keys = new Document();
+        for (final IndexField field : info.getIndexFields()) {
+            final Direction direction = field.getDirection();
+            if (direction == null) {
+                keys.put(field.getKey(), field.isText() ? "text" : "other");
+            } else {
+                keys.put(field.getKey(), direction == Direction.ASC ? 1 : -1);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,52 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+
+/**
+ * Declares the indexes the <code>certified_copies</code> collection is expected to have, over and above the
+ * <code>_id</code> index MongoDB maintains itself.
+ * <p>
+ * Each index is named after its keys and suffixed with a version. An index is never changed in place: to change an
+ * index, declare it again under the next version, so that the new index is built alongside the old one, and the old
+ * one is then reported as unexpected by the <code>indexes</code> actuator endpoint until it is dropped.
+ * <p>
+ * An index that is a prefix of another is not declared, as the longer index serves its queries too, and the shorter
+ * one would only add to the cost of every write. <code>user_id_v1</code> is no longer declared for this reason, as
+ * <code>user_id_created_at_id_v1</code> starts with <code>user_id</code>, and is reported as unexpected until it is
+ * dropped.
+ */
+public final class CertifiedCopyItemIndexes {
+
+    public static final String COMPANY_NUMBER = "data_company_number_v1";
+    public static final String CREATED_AT = "created_at_v1";
+    public static final String USER_ID_CREATED_AT_ID = "user_id_created_at_id_v1";
+    public static final String PENDING_CREATED_AT = "data_status_created_at_pending_v1";
+
+    /** The name of the index MongoDB maintains on <code>_id</code>, which is never declared. */
+    static final String ID_INDEX = "_id_";
+
+    /**
+     * The indexes declared. Each is built in the background, so that creating it on a populated collection does not
+     * block writes to it on older MongoDB servers. Servers from 4.2 onwards ignore the option, and always build
+     * indexes holding an exclusive lock only at the start and end of the build.
+     */
+    static final List<Index> DECLARED = List.of(
+            new Index().on("data.company_number", Direction.ASC).named(COMPANY_NUMBER).background(),
+            new Index().on("created_at", Direction.ASC).named(CREATED_AT).background(),
+            // Supports listing a user's items newest first, one keyset page at a time, and finding a user's items.
+            new Index().on("user_id", Direction.ASC).on("created_at", Direction.DESC).on("_id", Direction.DESC)
+                    .named(USER_ID_CREATED_AT_ID).background(),
+            // Supports finding the items left pending, oldest first. Only pending items are indexed, so that the
+            // index stays small, however many items have been completed.
+            new Index().on("data.status", Direction.ASC).on("created_at", Direction.ASC)
+                    .partial(PartialIndexFilter.of(Criteria.where("data.status").is(ItemStatus.PENDING.getJsonName())))
+                    .named(PENDING_CREATED_AT).background());
+
+    private CertifiedCopyItemIndexes() {
+    }
+}
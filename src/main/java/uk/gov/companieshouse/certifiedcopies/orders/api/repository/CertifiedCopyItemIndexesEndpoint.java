@@ -0,0 +1,26 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint reporting drift between the indexes declared by {@link CertifiedCopyItemIndexes} and those on the
+ * live <code>certified_copies</code> collection. As it reveals the layout of the collection, it is served on the
+ * management port only, like the other actuator endpoints, and never on the public application port.
+ */
+@Component
+@Endpoint(id = "indexes")
+public class CertifiedCopyItemIndexesEndpoint {
+
+    private final CertifiedCopyItemIndexManager indexManager;
+
+    public CertifiedCopyItemIndexesEndpoint(final CertifiedCopyItemIndexManager indexManager) {
+        this.indexManager = indexManager;
+    }
+
+    @ReadOperation
+    public IndexDriftReport indexes() {
+        return indexManager.getDriftReport();
+    }
+}
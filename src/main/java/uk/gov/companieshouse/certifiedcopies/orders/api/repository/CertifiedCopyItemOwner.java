@@ -0,0 +1,13 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+/**
+ * Projection of a stored certified copy item onto the user who created it, so that the ownership of an item can be
+ * checked without the whole item, with its filing history documents and costs, being read and mapped.
+ */
+public interface CertifiedCopyItemOwner {
+
+    /**
+     * @return the ID of the user who created the certified copy item, or <code>null</code> should it have none
+     */
+    String getUserId();
+}
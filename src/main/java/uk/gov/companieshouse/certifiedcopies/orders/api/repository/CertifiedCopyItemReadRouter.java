@@ -0,0 +1,194 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import static org.springframework.http.HttpMethod.GET;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoException;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ReadRoutingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
+import uk.gov.companieshouse.logging.Logger;
+
+/**
+ * Routes the reads of certified copy items to the secondary members of the replica set, where configured to, so
+ * spreading the read load across the replica set. Only the reads made to serve a GET, and the lookups of an item's
+ * owner made to authorise any request, are routed; every other read, e.g. one made to update an item, is made from
+ * the primary as before.
+ * <p>
+ * A client that presents the {@link CausalConsistencyToken} returned with its last write has its reads made in a
+ * causally consistent session advanced to that write, and so still reads its own writes: the secondary only serves
+ * the read once it has caught up with the write. A routed read that finds nothing, or that fails, e.g. as the
+ * secondary has not caught up within the configured wait, is made again from the primary.
+ * <p>
+ * Each read is timed by the <code>mongodb.reads</code> timer, tagged by the read operation, by the route it took
+ * (<code>secondary</code> or <code>primary</code>), and by whether it was made in a causally consistent session
+ * (<code>causal</code> or <code>none</code>). Each read made again from the primary is counted by the
+ * <code>mongodb.reads.fallbacks</code> counter, tagged by the read operation and the reason
+ * (<code>not_found</code> or <code>error</code>).
+ */
+@Component
+public class CertifiedCopyItemReadRouter {
+
+    private static final Logger LOGGER = LoggingUtils.getLogger();
+
+    private static final String READ_TIMER = "mongodb.reads";
+    private static final String FALLBACK_COUNTER = "mongodb.reads.fallbacks";
+
+    private static final String SECONDARY_ROUTE = "secondary";
+    private static final String PRIMARY_ROUTE = "primary";
+    private static final String CAUSAL_SESSION = "causal";
+    private static final String NO_SESSION = "none";
+    private static final String NOT_FOUND_REASON = "not_found";
+    private static final String ERROR_REASON = "error";
+
+    private static final ClientSessionOptions CAUSALLY_CONSISTENT =
+            ClientSessionOptions.builder().causallyConsistent(true).build();
+
+    /**
+     * The reads of certified copy items that may be routed to the secondaries.
+     */
+    public enum RoutedRead {
+        FIND_BY_ID("find_by_id", false),
+        FIND_ALL_BY_ID("find_all_by_id", false),
+        FIND_OWNER_BY_ID("find_owner_by_id", true),
+        FIND_PAGE_BY_USER_ID("find_page_by_user_id", false);
+
+        private final String tagValue;
+        private final boolean authorisationLookup;
+
+        RoutedRead(final String tagValue, final boolean authorisationLookup) {
+            this.tagValue = tagValue;
+            this.authorisationLookup = authorisationLookup;
+        }
+
+        public String getTagValue() {
+            return tagValue;
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final CausalConsistencyTracker tracker;
+    private final ReadRoutingConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ReadPreference readPreference;
+
+    public CertifiedCopyItemReadRouter(final MongoTemplate mongoTemplate,
+                                       final CausalConsistencyTracker tracker,
+                                       final ReadRoutingConfig config,
+                                       final MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.tracker = tracker;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.readPreference = config.isEnabled()
+                ? ReadPreference.valueOf(config.getReadPreference(), List.of(),
+                        config.getMaxStaleness().toSeconds(), TimeUnit.SECONDS)
+                : null;
+    }
+
+    /**
+     * Makes the read provided, from a secondary where the read may be routed, and from the primary otherwise.
+     * @param read the read operation, by which it is decided whether the read may be routed
+     * @param query the query the read is made with
+     * @param reader makes the read with the operations and query given to it, which are those bound to the session
+     *               and read preference the read has been routed with
+     * @param complete tells whether the result of a routed read is complete, i.e. has found all that it should,
+     *                 or should be read again from the primary, as the secondary may not yet have the items missing
+     * @param <T> the type of the read result
+     * @return the read result
+     */
+    public <T> T read(final RoutedRead read,
+                      final Query query,
+                      final BiFunction<MongoOperations, Query, T> reader,
+                      final Predicate<T> complete) {
+        if (!config.isEnabled()) {
+            return reader.apply(mongoTemplate, query);
+        }
+        if (!isRoutable(read)) {
+            return time(read, PRIMARY_ROUTE, NO_SESSION, () -> reader.apply(mongoTemplate, query));
+        }
+
+        final Optional<CausalConsistencyToken> token = tracker.getPresentedToken();
+        final Query routedQuery = Query.of(query).withReadPreference(readPreference).maxTime(config.getMaxWait());
+        try {
+            final T result = token.isPresent()
+                    ? time(read, SECONDARY_ROUTE, CAUSAL_SESSION, () -> readCausally(token.get(), routedQuery, reader))
+                    : time(read, SECONDARY_ROUTE, NO_SESSION, () -> reader.apply(mongoTemplate, routedQuery));
+            if (complete.test(result)) {
+                return result;
+            }
+            countFallback(read, NOT_FOUND_REASON);
+        } catch (DataAccessException | MongoException ex) {
+            final Map<String, Object> logMap = new HashMap<>();
+            logMap.put("read_operation", read.getTagValue());
+            LOGGER.error("Routed read failed, reading from the primary instead.", ex, logMap);
+            countFallback(read, ERROR_REASON);
+        }
+        return time(read, PRIMARY_ROUTE, NO_SESSION, () -> reader.apply(mongoTemplate, query));
+    }
+
+    /**
+     * Makes the read in a causally consistent session advanced to the client's last write, so that the secondary
+     * only serves the read once it has caught up with that write.
+     */
+    private <T> T readCausally(final CausalConsistencyToken token,
+                               final Query query,
+                               final BiFunction<MongoOperations, Query, T> reader) {
+        try (ClientSession session = mongoTemplate.getMongoDatabaseFactory().getSession(CAUSALLY_CONSISTENT)) {
+            session.advanceClusterTime(token.clusterTime());
+            session.advanceOperationTime(token.operationTime());
+            return reader.apply(mongoTemplate.withSession(session), query);
+        }
+    }
+
+    /**
+     * Determines whether the read may be routed: owner lookups, made only to authorise requests, may be routed
+     * whatever the request, as the owner of an item never changes, and any other read only where made to serve a GET.
+     */
+    private static boolean isRoutable(final RoutedRead read) {
+        return read.authorisationLookup
+                || RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && GET.matches(attributes.getRequest().getMethod());
+    }
+
+    private <T> T time(final RoutedRead read,
+                       final String route,
+                       final String session,
+                       final Supplier<T> reader) {
+        return Timer.builder(READ_TIMER)
+                .description("Reads of certified copy items, by the route they took")
+                .tag("operation", read.getTagValue())
+                .tag("route", route)
+                .tag("session", session)
+                .register(meterRegistry)
+                .record(reader);
+    }
+
+    private void countFallback(final RoutedRead read, final String reason) {
+        Counter.builder(FALLBACK_COUNTER)
+                .description("Routed reads of certified copy items made again from the primary")
+                .tag("operation", read.getTagValue())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -6,4 +6,6 @@ import org.springframework.stereotype.Repository;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
 
 @Repository
-public interface CertifiedCopyItemRepository extends MongoRepository<CertifiedCopyItem, String> { }
+public interface CertifiedCopyItemRepository extends MongoRepository<CertifiedCopyItem, String>,
+        CertifiedCopyItemRepositoryCustom {
+}
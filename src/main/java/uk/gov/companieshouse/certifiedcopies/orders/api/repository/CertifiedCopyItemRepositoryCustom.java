@@ -0,0 +1,108 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+
+/**
+ * Operations on the stored certified copy items that Spring Data cannot derive from the
+ * {@link CertifiedCopyItemRepository} method names, and the reads that may be routed to the secondary members of the
+ * replica set by the {@link CertifiedCopyItemReadRouter}, overriding those Spring Data would otherwise provide.
+ */
+public interface CertifiedCopyItemRepositoryCustom {
+
+    /**
+     * Finds the certified copy item by its ID.
+     * @param id the ID of the certified copy item
+     * @return the item, or empty should no item be found
+     */
+    Optional<CertifiedCopyItem> findById(String id);
+
+    /**
+     * Finds the certified copy items with the IDs provided, in a single query.
+     * @param ids the IDs of the certified copy items
+     * @return the items found, which has no item for an ID no item was found for
+     */
+    List<CertifiedCopyItem> findAllById(Iterable<String> ids);
+
+    /**
+     * Finds the owner of the certified copy item, reading only the <code>user_id</code> field of the item.
+     * @param id the ID of the certified copy item
+     * @return the owner of the item, or empty should no item be found
+     */
+    Optional<CertifiedCopyItemOwner> findOwnerById(String id);
+
+    /**
+     * Applies the update to the stored certified copy item in a single atomic operation, rather than reading the
+     * whole item and saving it back again, provided the item is ready, i.e. is neither pending nor failed, and, where
+     * etags are provided, still has one of those etags.
+     * @param id the ID of the certified copy item to update
+     * @param etags the etags one of which the item must still have for the update to be applied, or
+     *              <code>null</code> should the update be applied whatever its etag
+     * @param update the update to apply
+     * @return the certified copy item as updated, or empty should no item meeting the conditions be found
+     */
+    Optional<CertifiedCopyItem> updateReadyItem(String id, Collection<String> etags, Update update);
+
+    /**
+     * Applies the update to the stored certified copy item in a single atomic operation, provided the item is still
+     * pending.
+     * @param id the ID of the certified copy item to update
+     * @param update the update to apply
+     * @return the certified copy item as updated, or empty should no pending item with the ID be found
+     */
+    Optional<CertifiedCopyItem> updatePendingItem(String id, Update update);
+
+    /**
+     * Finds the IDs of the certified copy items still pending that were created before the time given, oldest first,
+     * through the index on the pending items only.
+     * @param createdBefore the time the items must have been created before
+     * @param limit the maximum number of IDs to find
+     * @return the IDs found, of the items created first
+     */
+    List<String> findPendingIdsCreatedBefore(LocalDateTime createdBefore, int limit);
+
+    /**
+     * Finds a page of the certified copy items created by the user, newest first, starting after the cursor. The page
+     * is read through the index on <code>user_id</code>, <code>created_at</code> and <code>_id</code>, so that it
+     * costs the same however many pages precede it.
+     * @param userId the ID of the user who created the items
+     * @param after the cursor the page starts after, or <code>null</code> for the first page
+     * @param limit the maximum number of items to find
+     * @param includeFilingHistoryDocuments whether the filing history documents of each item are read
+     *                                      (<code>true</code>), or left out (<code>false</code>)
+     * @return the items found, newest first
+     */
+    List<CertifiedCopyItem> findPageByUserId(String userId,
+                                             CertifiedCopyItemCursor after,
+                                             int limit,
+                                             boolean includeFilingHistoryDocuments);
+
+    /**
+     * Streams the certified copy items created within the range, oldest first, straight from a database cursor, so
+     * that no more than one batch of items is ever held in memory. The stream must be closed once consumed, to
+     * close the cursor.
+     * @param from when the range starts (inclusive)
+     * @param to when the range ends (exclusive)
+     * @param batchSize the number of items the cursor fetches from the database at a time
+     * @return the items created within the range, oldest first
+     */
+    Stream<CertifiedCopyItem> streamByCreatedAtBetween(LocalDateTime from, LocalDateTime to, int batchSize);
+
+    /**
+     * Inserts the new certified copy items in a single unordered bulk write, i.e. one <code>insertMany</code> round
+     * trip to the database. As the write is unordered, an item failing to insert (e.g. on a duplicate key) does not
+     * stop the items after it from being inserted.
+     * @param items the items to insert
+     * @return the error reported for each item that failed to insert, keyed by the item's index in the items
+     *         provided, which is empty where all the items were inserted
+     * @throws org.springframework.dao.DataAccessException should the write fail other than item by item (e.g. on a
+     *         timeout), in which case any of the items may or may not have been inserted
+     */
+    Map<Integer, String> insertAllUnordered(List<CertifiedCopyItem> items);
+}
@@ -0,0 +1,153 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import static java.util.stream.Collectors.toMap;
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+
+import com.mongodb.bulk.BulkWriteError;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Streamable;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemReadRouter.RoutedRead;
+
+/**
+ * Implements the {@link CertifiedCopyItemRepositoryCustom} operations through the {@link MongoTemplate}. Spring Data
+ * picks this up as a fragment of {@link CertifiedCopyItemRepository} by its <code>Impl</code> suffix, and uses it in
+ * place of the implementations it would otherwise provide of the reads overridden here. The reads are made through
+ * the {@link CertifiedCopyItemReadRouter}, which may route them to the secondaries.
+ */
+class CertifiedCopyItemRepositoryImpl implements CertifiedCopyItemRepositoryCustom {
+
+    private static final String ID_FIELD = "_id";
+    private static final String ETAG_FIELD = "data.etag";
+    private static final String STATUS_FIELD = "data.status";
+    private static final String USER_ID_FIELD = "user_id";
+    private static final String CREATED_AT_FIELD = "created_at";
+    private static final String FILING_HISTORY_DOCUMENTS_FIELD = "data.item_options.filing_history_documents";
+
+    private final MongoTemplate mongoTemplate;
+    private final CertifiedCopyItemReadRouter readRouter;
+
+    CertifiedCopyItemRepositoryImpl(final MongoTemplate mongoTemplate, final CertifiedCopyItemReadRouter readRouter) {
+        this.mongoTemplate = mongoTemplate;
+        this.readRouter = readRouter;
+    }
+
+    @Override
+    public Optional<CertifiedCopyItem> findById(final String id) {
+        return readRouter.read(RoutedRead.FIND_BY_ID, new Query(Criteria.where(ID_FIELD).is(id)),
+                (operations, query) -> Optional.ofNullable(operations.findOne(query, CertifiedCopyItem.class)),
+                Optional::isPresent);
+    }
+
+    @Override
+    public List<CertifiedCopyItem> findAllById(final Iterable<String> ids) {
+        final Set<String> distinctIds = Streamable.of(ids).toSet();
+        return readRouter.read(RoutedRead.FIND_ALL_BY_ID, new Query(Criteria.where(ID_FIELD).in(distinctIds)),
+                (operations, query) -> operations.find(query, CertifiedCopyItem.class),
+                items -> items.size() == distinctIds.size());
+    }
+
+    @Override
+    public Optional<CertifiedCopyItemOwner> findOwnerById(final String id) {
+        return readRouter.read(RoutedRead.FIND_OWNER_BY_ID, new Query(Criteria.where(ID_FIELD).is(id)),
+                (operations, query) -> operations.query(CertifiedCopyItem.class)
+                        .as(CertifiedCopyItemOwner.class)
+                        .matching(query)
+                        .one(),
+                Optional::isPresent);
+    }
+
+    @Override
+    public Optional<CertifiedCopyItem> updateReadyItem(final String id,
+                                                       final Collection<String> etags,
+                                                       final Update update) {
+        final Criteria criteria = Criteria.where(ID_FIELD).is(id)
+                .and(STATUS_FIELD).nin(ItemStatus.PENDING.getJsonName(), ItemStatus.FAILED.getJsonName());
+        if (etags != null) {
+            criteria.and(ETAG_FIELD).in(etags);
+        }
+        return Optional.ofNullable(mongoTemplate.findAndModify(new Query(criteria), update,
+                options().returnNew(true), CertifiedCopyItem.class));
+    }
+
+    @Override
+    public Optional<CertifiedCopyItem> updatePendingItem(final String id, final Update update) {
+        final Criteria criteria = Criteria.where(ID_FIELD).is(id)
+                .and(STATUS_FIELD).is(ItemStatus.PENDING.getJsonName());
+        return Optional.ofNullable(mongoTemplate.findAndModify(new Query(criteria), update,
+                options().returnNew(true), CertifiedCopyItem.class));
+    }
+
+    @Override
+    public List<String> findPendingIdsCreatedBefore(final LocalDateTime createdBefore, final int limit) {
+        final Query query = new Query(Criteria.where(STATUS_FIELD).is(ItemStatus.PENDING.getJsonName())
+                .and(CREATED_AT_FIELD).lt(createdBefore))
+                .with(Sort.by(Direction.ASC, CREATED_AT_FIELD))
+                .limit(limit);
+        query.fields().include(ID_FIELD);
+        return mongoTemplate.find(query, CertifiedCopyItem.class).stream().map(CertifiedCopyItem::getId).toList();
+    }
+
+    @Override
+    public List<CertifiedCopyItem> findPageByUserId(final String userId,
+                                                    final CertifiedCopyItemCursor after,
+                                                    final int limit,
+                                                    final boolean includeFilingHistoryDocuments) {
+        final Criteria criteria = Criteria.where(USER_ID_FIELD).is(userId);
+        if (after != null) {
+            // The upper bound on created_at keeps the index scan tight; the $or then skips the items at the cursor's
+            // own creation time up to and including the item at the cursor.
+            criteria.and(CREATED_AT_FIELD).lte(after.createdAt())
+                    .orOperator(Criteria.where(CREATED_AT_FIELD).lt(after.createdAt()),
+                            Criteria.where(ID_FIELD).lt(after.id()));
+        }
+        final Query query = new Query(criteria)
+                .with(Sort.by(Direction.DESC, CREATED_AT_FIELD, ID_FIELD))
+                .limit(limit);
+        if (!includeFilingHistoryDocuments) {
+            query.fields().exclude(FILING_HISTORY_DOCUMENTS_FIELD);
+        }
+        // A page found short or empty may well be complete, so is not read again from the primary.
+        return readRouter.read(RoutedRead.FIND_PAGE_BY_USER_ID, query,
+                (operations, routedQuery) -> operations.find(routedQuery, CertifiedCopyItem.class),
+                items -> true);
+    }
+
+    @Override
+    public Stream<CertifiedCopyItem> streamByCreatedAtBetween(final LocalDateTime from,
+                                                              final LocalDateTime to,
+                                                              final int batchSize) {
+        final Query query = new Query(Criteria.where(CREATED_AT_FIELD).gte(from).lt(to))
+                .with(Sort.by(Direction.ASC, CREATED_AT_FIELD))
+                // The cursor is left to time out on the server once idle, so that it is closed even should the
+                // application die, or the stream be leaked, before it is consumed.
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, CertifiedCopyItem.class);
+    }
+
+    @Override
+    public Map<Integer, String> insertAllUnordered(final List<CertifiedCopyItem> items) {
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, CertifiedCopyItem.class).insert(items).execute();
+            return Map.of();
+        } catch (BulkOperationException ex) {
+            return ex.getErrors().stream()
+                    .collect(toMap(BulkWriteError::getIndex, BulkWriteError::getMessage));
+        }
+    }
+}
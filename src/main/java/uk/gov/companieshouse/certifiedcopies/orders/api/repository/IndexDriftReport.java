@@ -0,0 +1,19 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import java.util.List;
+
+/**
+ * Reports how the indexes on the live <code>certified_copies</code> collection differ from those declared by
+ * {@link CertifiedCopyItemIndexes}, by index name.
+ * @param inSync whether the live indexes are exactly those declared
+ * @param present the declared indexes found on the collection as declared
+ * @param missing the declared indexes not found on the collection
+ * @param changed the declared indexes found on the collection with different keys
+ * @param unexpected the indexes found on the collection that are not declared, e.g. earlier versions of those declared
+ */
+public record IndexDriftReport(boolean inSync,
+                               List<String> present,
+                               List<String> missing,
+                               List<String> changed,
+                               List<String> unexpected) {
+}
@@ -1,15 +1,77 @@
 package uk.gov.companieshouse.certifiedcopies.orders.api.service;
 
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.REQUEST_ID_HEADER_NAME;
+
+import com.google.api.client.http.HttpTransport;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import uk.gov.companieshouse.api.InternalApiClient;
-import uk.gov.companieshouse.sdk.manager.ApiSdkManager;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamHttpConfig;
+import uk.gov.companieshouse.environment.EnvironmentReader;
+import uk.gov.companieshouse.environment.impl.EnvironmentReaderImpl;
 
 @Service
 public class ApiClientService {
 
+    private static final String CHS_API_KEY = "CHS_API_KEY";
+    private static final String API_URL = "API_URL";
+    private static final String PAYMENTS_API_URL = "PAYMENTS_API_URL";
+
+    /** The request attribute under which the API client of the request being handled is kept. */
+    private static final String API_CLIENT_ATTRIBUTE = ApiClientService.class.getName() + ".API_CLIENT";
+
+    private final HttpTransport upstreamHttpTransport;
+    private final UpstreamHttpConfig config;
+    private final EnvironmentReader environmentReader = new EnvironmentReaderImpl();
+
+    /** The API client used outside of any request, or <code>null</code> until it is first needed. */
+    private volatile InternalApiClient apiClientOutsideRequest;
+
+    public ApiClientService(final HttpTransport upstreamHttpTransport, final UpstreamHttpConfig config) {
+        this.upstreamHttpTransport = upstreamHttpTransport;
+        this.config = config;
+    }
+
+    /**
+     * Gets an internal API client, configured as {@link uk.gov.companieshouse.sdk.manager.ApiSdkManager} would
+     * configure it, but sending its requests over the long-lived, pooled upstream HTTP transport, so that connections
+     * to the Companies House APIs are reused from one client to the next.
+     * <p>
+     * One client is built for each request handled, carrying its request ID, and is shared by every lookup made to
+     * handle it. Calls made outside of any request (e.g. to complete an item created asynchronously) have no request
+     * ID to send, and so share a single client between them.
+     * @return the internal API client
+     */
     public InternalApiClient getInternalApiClient() {
-        return ApiSdkManager.getPrivateSDK();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            if (attributes.getAttribute(API_CLIENT_ATTRIBUTE, SCOPE_REQUEST) instanceof InternalApiClient apiClient) {
+                return apiClient;
+            }
+            final InternalApiClient apiClient =
+                    buildInternalApiClient(attributes.getRequest().getHeader(REQUEST_ID_HEADER_NAME));
+            attributes.setAttribute(API_CLIENT_ATTRIBUTE, apiClient, SCOPE_REQUEST);
+            return apiClient;
+        }
+        InternalApiClient apiClient = apiClientOutsideRequest;
+        if (apiClient == null) {
+            apiClient = buildInternalApiClient(null);
+            apiClientOutsideRequest = apiClient;
+        }
+        return apiClient;
     }
 
-}
+    private InternalApiClient buildInternalApiClient(final String requestId) {
+        final PooledApiKeyHttpClient httpClient = new PooledApiKeyHttpClient(
+                environmentReader.getMandatoryString(CHS_API_KEY), upstreamHttpTransport, config);
+        if (requestId != null) {
+            httpClient.setRequestId(requestId);
+        }
+        final InternalApiClient apiClient = new InternalApiClient(httpClient);
+        apiClient.setBasePath(environmentReader.getMandatoryString(API_URL));
+        apiClient.setBasePaymentsPath(environmentReader.getMandatoryString(PAYMENTS_API_URL));
+        return apiClient;
+    }
 
+}
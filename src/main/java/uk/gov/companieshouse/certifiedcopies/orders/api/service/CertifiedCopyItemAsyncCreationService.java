@@ -0,0 +1,133 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.CERTIFIED_COPY_ID_LOG_KEY;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.COMPANY_NUMBER_LOG_KEY;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.STATUS_LOG_KEY;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.AsyncCreateConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+import uk.gov.companieshouse.logging.Logger;
+
+/**
+ * Service that creates certified copy items asynchronously: each item is saved as pending straight away, and then
+ * enriched with its company and filing history details, priced and saved as ready on the async create worker pool.
+ * An item is only accepted while the pool has room for it, so that its completion never falls back to the request
+ * thread. Should its completion fail for any reason, the item is saved as failed rather than left pending.
+ */
+@Service
+public class CertifiedCopyItemAsyncCreationService {
+
+    private static final Logger LOGGER = LoggingUtils.getLogger();
+
+    private final CertifiedCopyItemService certifiedCopyItemService;
+    private final CertifiedCopyItemEnrichmentService enrichmentService;
+    private final Executor executor;
+    /** The items the worker pool has room for, either being completed by a worker, or queued for one. */
+    private final Semaphore workerSlots;
+
+    public CertifiedCopyItemAsyncCreationService(final CertifiedCopyItemService certifiedCopyItemService,
+                                                 final CertifiedCopyItemEnrichmentService enrichmentService,
+                                                 final @Qualifier("asyncCreateExecutor") Executor executor,
+                                                 final AsyncCreateConfig config) {
+        this.certifiedCopyItemService = certifiedCopyItemService;
+        this.enrichmentService = enrichmentService;
+        this.executor = executor;
+        this.workerSlots = new Semaphore(config.getWorkerPoolSize() + config.getWorkerQueueCapacity());
+    }
+
+    /**
+     * Saves the certified copy item as pending, and submits it to be completed in the background.
+     * @param certifiedCopyItem the certified copy item to create, with its requested filing history document IDs
+     *                          populated
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the pending certified copy item
+     * @throws ResponseStatusException with 503 Service Unavailable should the worker pool have no room for the item,
+     *         in which case the item is either not saved at all, or saved as failed
+     */
+    public CertifiedCopyItem createCertifiedCopyItem(final CertifiedCopyItem certifiedCopyItem,
+                                                     final boolean userGetsFreeCertificates) {
+        if (!workerSlots.tryAcquire()) {
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE,
+                    "Too many certified copy items are being created asynchronously. Please try again later.");
+        }
+        final CertifiedCopyItem pendingItem;
+        try {
+            pendingItem = certifiedCopyItemService.createPendingCertifiedCopyItem(certifiedCopyItem);
+        } catch (RuntimeException ex) {
+            workerSlots.release();
+            throw ex;
+        }
+        final String id = pendingItem.getId();
+        try {
+            // The worker re-reads the item, so that it never modifies the instance the response is rendered from.
+            executor.execute(() -> {
+                try {
+                    completeCertifiedCopyItem(id, userGetsFreeCertificates);
+                } finally {
+                    workerSlots.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // The pool is shutting down, so the item will not be completed here.
+            workerSlots.release();
+            failCertifiedCopyItem(id, ex, "Unable to submit pending certified copy item, so it has failed.");
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE,
+                    "Certified copy items cannot be created asynchronously at present. Please try again later.", ex);
+        }
+        return pendingItem;
+    }
+
+    /**
+     * Enriches, prices and saves the pending certified copy item identified as ready, or saves it as failed should it
+     * not be possible to complete it.
+     * @param id the ID of the pending certified copy item
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     */
+    void completeCertifiedCopyItem(final String id, final boolean userGetsFreeCertificates) {
+        final Map<String, Object> logMap = new HashMap<>();
+        logMap.put(CERTIFIED_COPY_ID_LOG_KEY, id);
+        try {
+            final CertifiedCopyItem item = certifiedCopyItemService.getCertifiedCopyItemById(id).orElse(null);
+            if (item == null) {
+                LOGGER.error("Pending certified copy item not found, so it cannot be completed.", logMap);
+                return;
+            }
+            logMap.put(COMPANY_NUMBER_LOG_KEY, item.getCompanyNumber());
+            enrichmentService.enrich(item);
+            certifiedCopyItemService.completeCertifiedCopyItem(item, userGetsFreeCertificates);
+            logMap.put(STATUS_LOG_KEY, item.getStatus());
+            LOGGER.info("Pending certified copy item completed.", logMap);
+        } catch (RuntimeException ex) {
+            failCertifiedCopyItem(id, ex, "Unable to complete pending certified copy item, so it has failed.");
+        }
+    }
+
+    /**
+     * Saves the pending certified copy item as failed, without reading it, should it still be pending. Should even
+     * that fail, the item is left to be failed once it has been pending for too long.
+     */
+    private void failCertifiedCopyItem(final String id, final RuntimeException cause, final String message) {
+        final Map<String, Object> logMap = new HashMap<>();
+        logMap.put(CERTIFIED_COPY_ID_LOG_KEY, id);
+        try {
+            certifiedCopyItemService.failPendingCertifiedCopyItem(id);
+            logMap.put(STATUS_LOG_KEY, ItemStatus.FAILED);
+            LOGGER.error(message, cause, logMap);
+        } catch (RuntimeException ex) {
+            ex.addSuppressed(cause);
+            LOGGER.error("Unable to save pending certified copy item as failed, so it is left pending for now.", ex,
+                    logMap);
+        }
+    }
+}
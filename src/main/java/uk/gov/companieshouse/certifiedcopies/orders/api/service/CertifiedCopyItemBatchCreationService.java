@@ -0,0 +1,127 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.CERTIFIED_COPY_ID_LOG_KEY;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.COMPANY_NUMBER_LOG_KEY;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.STATUS_LOG_KEY;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemCreationResult;
+import uk.gov.companieshouse.logging.Logger;
+
+/**
+ * Service that creates a batch of certified copy items in one go: the items are enriched with their company and
+ * filing history details together, sharing the lookups made across the batch, and then priced and saved in a single
+ * bulk insert. Each item succeeds or fails on its own, and the outcome is reported for each item.
+ */
+@Service
+public class CertifiedCopyItemBatchCreationService {
+
+    private static final Logger LOGGER = LoggingUtils.getLogger();
+
+    private static final String SAVE_ERROR = "Unable to save the certified copy item.";
+    private static final String SAVE_UNCONFIRMED_ERROR =
+            "Unable to confirm the certified copy item was saved. It may have been created.";
+
+    private final CertifiedCopyItemService certifiedCopyItemService;
+    private final CertifiedCopyItemEnrichmentService enrichmentService;
+
+    public CertifiedCopyItemBatchCreationService(final CertifiedCopyItemService certifiedCopyItemService,
+                                                 final CertifiedCopyItemEnrichmentService enrichmentService) {
+        this.certifiedCopyItemService = certifiedCopyItemService;
+        this.enrichmentService = enrichmentService;
+    }
+
+    /**
+     * Creates each of the certified copy items provided, as far as it can be created.
+     * @param certifiedCopyItems the certified copy items to create, each with its requested filing history document
+     *                           IDs populated
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the outcome of creating each item, in the same order as the items provided
+     */
+    public List<CertifiedCopyItemCreationResult> createCertifiedCopyItems(
+            final List<CertifiedCopyItem> certifiedCopyItems,
+            final boolean userGetsFreeCertificates) {
+        final CertifiedCopyItemCreationResult[] results =
+                new CertifiedCopyItemCreationResult[certifiedCopyItems.size()];
+
+        final Map<Integer, RuntimeException> enrichmentFailures = enrichmentService.enrichAll(certifiedCopyItems);
+        final List<Integer> enrichedIndexes = new ArrayList<>();
+        for (int index = 0; index < certifiedCopyItems.size(); index++) {
+            final RuntimeException failure = enrichmentFailures.get(index);
+            if (failure == null) {
+                enrichedIndexes.add(index);
+            } else {
+                results[index] = getEnrichmentFailedResult(certifiedCopyItems.get(index), failure);
+            }
+        }
+
+        if (!enrichedIndexes.isEmpty()) {
+            final List<CertifiedCopyItem> enrichedItems =
+                    enrichedIndexes.stream().map(certifiedCopyItems::get).toList();
+            final Map<Integer, String> saveFailures;
+            try {
+                saveFailures =
+                        certifiedCopyItemService.createCertifiedCopyItems(enrichedItems, userGetsFreeCertificates);
+            } catch (RuntimeException ex) {
+                // The bulk insert failed as a whole (e.g. on a timeout or a lost connection), so any of the items
+                // may or may not have been inserted before it did.
+                final Map<String, Object> logMap = new HashMap<>();
+                logMap.put(CERTIFIED_COPY_ID_LOG_KEY, enrichedItems.stream().map(CertifiedCopyItem::getId).toList());
+                logMap.put(STATUS_LOG_KEY, INTERNAL_SERVER_ERROR);
+                LOGGER.error("Unable to confirm the certified copy items in batch were saved.", ex, logMap);
+                enrichedIndexes.forEach(index -> results[index] =
+                        CertifiedCopyItemCreationResult.failed(INTERNAL_SERVER_ERROR, List.of(SAVE_UNCONFIRMED_ERROR)));
+                return List.of(results);
+            }
+            for (int enriched = 0; enriched < enrichedItems.size(); enriched++) {
+                final CertifiedCopyItem item = enrichedItems.get(enriched);
+                final String saveFailure = saveFailures.get(enriched);
+                results[enrichedIndexes.get(enriched)] = saveFailure == null
+                        ? CertifiedCopyItemCreationResult.created(item)
+                        : getSaveFailedResult(item, saveFailure);
+            }
+        }
+
+        return List.of(results);
+    }
+
+    private static CertifiedCopyItemCreationResult getEnrichmentFailedResult(final CertifiedCopyItem item,
+                                                                             final RuntimeException failure) {
+        final HttpStatus status;
+        final String error;
+        if (failure instanceof ResponseStatusException responseStatusException) {
+            // The HTTP status mapping made by the lookup (400, 500 etc) is preserved, as for a single item.
+            status = HttpStatus.valueOf(responseStatusException.getStatusCode().value());
+            error = responseStatusException.getReason();
+        } else {
+            status = INTERNAL_SERVER_ERROR;
+            error = failure.getMessage();
+        }
+        final Map<String, Object> logMap = new HashMap<>();
+        logMap.put(COMPANY_NUMBER_LOG_KEY, item.getData().getCompanyNumber());
+        logMap.put(STATUS_LOG_KEY, status);
+        LOGGER.error("Unable to enrich certified copy item in batch, so it has not been created.", failure, logMap);
+        return CertifiedCopyItemCreationResult.failed(status,
+                List.of(error != null ? error : status.getReasonPhrase()));
+    }
+
+    private static CertifiedCopyItemCreationResult getSaveFailedResult(final CertifiedCopyItem item,
+                                                                       final String saveFailure) {
+        final Map<String, Object> logMap = new HashMap<>();
+        logMap.put(CERTIFIED_COPY_ID_LOG_KEY, item.getId());
+        logMap.put(COMPANY_NUMBER_LOG_KEY, item.getData().getCompanyNumber());
+        logMap.put(STATUS_LOG_KEY, INTERNAL_SERVER_ERROR);
+        LOGGER.error("Unable to save certified copy item in batch: " + saveFailure, logMap);
+        // The database error is logged rather than returned, as it is of no use to the client.
+        return CertifiedCopyItemCreationResult.failed(INTERNAL_SERVER_ERROR, List.of(SAVE_ERROR));
+    }
+}
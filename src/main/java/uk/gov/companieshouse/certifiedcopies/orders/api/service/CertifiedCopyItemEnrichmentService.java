@@ -0,0 +1,212 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.springframework.util.CollectionUtils.isEmpty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemData;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
+
+/**
+ * Service that enriches a newly requested certified copy item with the data looked up from the company profile and
+ * filing history APIs.
+ */
+@Service
+public class CertifiedCopyItemEnrichmentService {
+
+    private final CompanyService companyService;
+    private final FilingHistoryDocumentService filingHistoryDocumentService;
+    private final UpstreamLookupService lookupService;
+    private final UpstreamLookupConfig lookupConfig;
+
+    public CertifiedCopyItemEnrichmentService(final CompanyService companyService,
+                                              final FilingHistoryDocumentService filingHistoryDocumentService,
+                                              final UpstreamLookupService lookupService,
+                                              final UpstreamLookupConfig lookupConfig) {
+        this.companyService = companyService;
+        this.filingHistoryDocumentService = filingHistoryDocumentService;
+        this.lookupService = lookupService;
+        this.lookupConfig = lookupConfig;
+    }
+
+    /**
+     * Populates the company name and the fully populated filing history documents on the item provided. The company
+     * name and the filing history documents do not depend on each other, so where concurrent lookups are configured,
+     * they are looked up at the same time, and the first lookup to fail cancels the other.
+     * @param item the item to be enriched, with its company number and requested filing history document IDs
+     *             populated
+     */
+    public void enrich(final CertifiedCopyItem item) {
+        final CertifiedCopyItemData data = item.getData();
+        final String companyNumber = data.getCompanyNumber();
+        final List<FilingHistoryDocument> filingsRequested = data.getItemOptions().getFilingHistoryDocuments();
+
+        if (!lookupConfig.isConcurrent()) {
+            data.setCompanyName(companyService.getCompanyName(companyNumber));
+            data.getItemOptions().setFilingHistoryDocuments(
+                    filingHistoryDocumentService.getFilingHistoryDocuments(companyNumber, filingsRequested));
+            return;
+        }
+
+        try (final UpstreamLookupScope scope = lookupService.openScope(lookupConfig.getMaxConcurrentPerRequest())) {
+            final Future<String> companyName = scope.fork(() -> companyService.getCompanyName(companyNumber));
+            final Future<List<FilingHistoryDocument>> filings = scope.forkFanOut(() ->
+                    filingHistoryDocumentService.getFilingHistoryDocuments(companyNumber, filingsRequested));
+            scope.join();
+            data.setCompanyName(companyName.resultNow());
+            data.getItemOptions().setFilingHistoryDocuments(filings.resultNow());
+        }
+    }
+
+    /**
+     * Enriches each of the items provided, as {@link #enrich(CertifiedCopyItem)} would, sharing the lookups across
+     * the items: the company name is looked up once per company, and the filing history documents requested by all
+     * the items for a company are looked up together, once each. Where concurrent lookups are configured, the
+     * lookups for the different companies are made at the same time. An item that cannot be enriched does not stop
+     * the others from being enriched.
+     * @param items the items to be enriched, each with its company number and requested filing history document IDs
+     *              populated
+     * @return the exception each item that could not be enriched failed with, keyed by the item's index in the items
+     *         provided, which is empty should all the items have been enriched
+     */
+    public Map<Integer, RuntimeException> enrichAll(final List<CertifiedCopyItem> items) {
+        final Map<String, List<Integer>> itemsByCompany = new LinkedHashMap<>();
+        for (int index = 0; index < items.size(); index++) {
+            itemsByCompany.computeIfAbsent(items.get(index).getData().getCompanyNumber(), number -> new ArrayList<>())
+                    .add(index);
+        }
+
+        final Map<String, CompanyLookups> lookups = lookUpCompanies(items, itemsByCompany);
+
+        final Map<Integer, RuntimeException> failures = new HashMap<>();
+        itemsByCompany.forEach((companyNumber, indexes) -> {
+            final CompanyLookups lookup = lookups.get(companyNumber);
+            for (final int index : indexes) {
+                final CertifiedCopyItem item = items.get(index);
+                final List<FilingHistoryDocument> filingsRequested =
+                        item.getData().getItemOptions().getFilingHistoryDocuments();
+                if (lookup.companyName().failure() != null) {
+                    failures.put(index, lookup.companyName().failure());
+                } else if (isEmpty(filingsRequested) || (lookup.filings().failure() != null && indexes.size() > 1)) {
+                    // Enriched on its own, so that it only fails should its own lookups fail, as it would on its own.
+                    final RuntimeException failure = Outcome.of(() -> {
+                        enrich(item);
+                        return item;
+                    }).failure();
+                    if (failure != null) {
+                        failures.put(index, failure);
+                    }
+                } else if (lookup.filings().failure() != null) {
+                    failures.put(index, lookup.filings().failure());
+                } else {
+                    item.getData().setCompanyName(lookup.companyName().result());
+                    item.getData().getItemOptions().setFilingHistoryDocuments(filingsRequested.stream()
+                            .map(filing -> FilingHistoryDocumentService.copyOf(
+                                    lookup.filings().result().get(filing.getFilingHistoryId())))
+                            .toList());
+                }
+            }
+        });
+        return failures;
+    }
+
+    /**
+     * Looks up the company name, and the distinct filing history documents requested by the items, for each company.
+     * @param items the items to be enriched
+     * @param itemsByCompany the indexes of the items, keyed by company number
+     * @return the lookups made, keyed by company number
+     */
+    private Map<String, CompanyLookups> lookUpCompanies(final List<CertifiedCopyItem> items,
+                                                        final Map<String, List<Integer>> itemsByCompany) {
+        final Map<String, CompanyLookups> lookups = new HashMap<>();
+        if (!lookupConfig.isConcurrent()) {
+            itemsByCompany.forEach((companyNumber, indexes) -> {
+                final List<FilingHistoryDocument> filingsRequested = getDistinctFilingsRequested(items, indexes);
+                lookups.put(companyNumber, new CompanyLookups(
+                        Outcome.of(() -> companyService.getCompanyName(companyNumber)),
+                        Outcome.of(() -> lookUpFilings(companyNumber, filingsRequested))));
+            });
+            return lookups;
+        }
+
+        try (final UpstreamLookupScope scope = lookupService.openScope(lookupConfig.getMaxConcurrentPerRequest())) {
+            final Map<String, Future<Outcome<String>>> companyNames = new HashMap<>();
+            final Map<String, Future<Outcome<Map<String, FilingHistoryDocument>>>> filings = new HashMap<>();
+            itemsByCompany.forEach((companyNumber, indexes) -> {
+                final List<FilingHistoryDocument> filingsRequested = getDistinctFilingsRequested(items, indexes);
+                // Each lookup reports its own failure, so that no company's failure cancels the others' lookups.
+                companyNames.put(companyNumber,
+                        scope.fork(() -> Outcome.of(() -> companyService.getCompanyName(companyNumber))));
+                filings.put(companyNumber,
+                        scope.forkFanOut(() -> Outcome.of(() -> lookUpFilings(companyNumber, filingsRequested))));
+            });
+            scope.join();
+            itemsByCompany.keySet().forEach(companyNumber -> lookups.put(companyNumber, new CompanyLookups(
+                    companyNames.get(companyNumber).resultNow(), filings.get(companyNumber).resultNow())));
+        }
+        return lookups;
+    }
+
+    /**
+     * Looks up the filing history documents requested for the company.
+     * @param companyNumber the company number
+     * @param filingsRequested the distinct filing history documents requested, which may be empty
+     * @return the fully populated documents, keyed by filing history document ID
+     */
+    private Map<String, FilingHistoryDocument> lookUpFilings(final String companyNumber,
+                                                             final List<FilingHistoryDocument> filingsRequested) {
+        final Map<String, FilingHistoryDocument> filings = new HashMap<>();
+        if (filingsRequested.isEmpty()) {
+            return filings;
+        }
+        final List<FilingHistoryDocument> found =
+                filingHistoryDocumentService.getFilingHistoryDocuments(companyNumber, filingsRequested);
+        for (int index = 0; index < filingsRequested.size(); index++) {
+            filings.put(filingsRequested.get(index).getFilingHistoryId(), found.get(index));
+        }
+        return filings;
+    }
+
+    private static List<FilingHistoryDocument> getDistinctFilingsRequested(final List<CertifiedCopyItem> items,
+                                                                           final List<Integer> indexes) {
+        final Map<String, FilingHistoryDocument> distinct = new LinkedHashMap<>();
+        for (final int index : indexes) {
+            final List<FilingHistoryDocument> filingsRequested =
+                    items.get(index).getData().getItemOptions().getFilingHistoryDocuments();
+            if (filingsRequested != null) {
+                filingsRequested.forEach(filing -> distinct.putIfAbsent(filing.getFilingHistoryId(), filing));
+            }
+        }
+        return new ArrayList<>(distinct.values());
+    }
+
+    /**
+     * The lookups made for a company on behalf of all the items for that company.
+     * @param companyName the company name lookup
+     * @param filings the filing history documents lookup, keyed by filing history document ID
+     */
+    private record CompanyLookups(Outcome<String> companyName, Outcome<Map<String, FilingHistoryDocument>> filings) {
+    }
+
+    /**
+     * The outcome of a lookup: either its result, or the exception it failed with.
+     */
+    private record Outcome<T>(T result, RuntimeException failure) {
+
+        static <T> Outcome<T> of(final Supplier<T> lookup) {
+            try {
+                return new Outcome<>(lookup.get(), null);
+            } catch (RuntimeException ex) {
+                return new Outcome<>(null, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ExportConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.mapper.CertifiedCopyItemMapper;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemRepository;
+
+/**
+ * Service that exports the certified copy items created within a date range as newline delimited JSON (NDJSON), one
+ * item, rendered as for <code>GET /orderable/certified-copies/{id}</code>, per line.
+ * <p>
+ * Each item is written to the output as it is read from the database cursor, and the cursor only fetches its next
+ * batch once the previous batch has been written. A client reading slowly therefore holds the export back, rather
+ * than items piling up in memory, which stays constant however many items are exported.
+ */
+@Service
+public class CertifiedCopyItemExportService {
+
+    private static final int NEWLINE = '\n';
+
+    private final CertifiedCopyItemRepository repository;
+    private final CertifiedCopyItemMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final ExportConfig config;
+
+    public CertifiedCopyItemExportService(final CertifiedCopyItemRepository repository,
+                                          final CertifiedCopyItemMapper mapper,
+                                          final ObjectMapper objectMapper,
+                                          final ExportConfig config) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.config = config;
+    }
+
+    /**
+     * Writes the certified copy items created within the range to the output, oldest first, one per line. The items
+     * are exported with the costs they were last priced at.
+     * @param from when the range starts (inclusive)
+     * @param to when the range ends (exclusive)
+     * @param output the output to write the items to, which is left open
+     * @return the number of items exported
+     * @throws IOException should the items not be written to the output, e.g. as the client has gone away
+     */
+    public long exportCertifiedCopyItems(final LocalDateTime from,
+                                         final LocalDateTime to,
+                                         final OutputStream output) throws IOException {
+        long exported = 0;
+        try (Stream<CertifiedCopyItem> items =
+                     repository.streamByCreatedAtBetween(from, to, config.getCursorBatchSize())) {
+            for (final CertifiedCopyItem item : (Iterable<CertifiedCopyItem>) items::iterator) {
+                // Each line is rendered on its own, as writing straight to the output would close it.
+                output.write(objectMapper.writeValueAsBytes(
+                        mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(item.getData())));
+                output.write(NEWLINE);
+                exported++;
+            }
+        }
+        output.flush();
+        return exported;
+    }
+}
@@ -1,20 +1,36 @@
 package uk.gov.companieshouse.certifiedcopies.orders.api.service;
 
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+import jakarta.json.JsonMergePatch;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemData;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemPage;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryMethod;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryTimescale;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemCostCalculation;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemCosts;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemCursor;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemOwner;
 import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemRepository;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.PatchMerger;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.PatchUpdateConverter;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CertifiedCopyItemService {
@@ -25,23 +41,38 @@ public class CertifiedCopyItemService {
     private final IdGeneratorService idGenerator;
     private final CertifiedCopyCostCalculatorService costCalculatorService;
     private final DescriptionProviderService descriptionProvider;
+    private final PatchMerger patcher;
+    private final PatchUpdateConverter patchUpdateConverter;
 
     public static final String DESCRIPTION_IDENTIFIER = "certified-copy";
     public static final String KIND = "item#certified-copy";
     private static final String COMPANY_NUMBER_KEY = "company_number";
 
+    private static final String DATA_FIELD = "data";
+    private static final String COMPANY_NUMBER_PATH = DATA_FIELD + "." + COMPANY_NUMBER_KEY;
+
+    /** The fields a patch may change without the item having to be priced again. */
+    private static final Set<String> UNPRICED_FIELDS = Set.of(COMPANY_NUMBER_KEY, "customer_reference");
+
+    /** How many times a patch is re-applied should the item be updated by another request while it is priced. */
+    private static final int MAX_PATCH_ATTEMPTS = 3;
+
     public CertifiedCopyItemService(final CertifiedCopyItemRepository repository,
                                     final EtagGeneratorService etagGenerator,
                                     final LinksGeneratorService linksGenerator,
                                     final IdGeneratorService idGenerator,
                                     final CertifiedCopyCostCalculatorService calculatorService,
-                                    final DescriptionProviderService descriptionProvider) {
+                                    final DescriptionProviderService descriptionProvider,
+                                    final PatchMerger patcher,
+                                    final PatchUpdateConverter patchUpdateConverter) {
         this.repository = repository;
         this.etagGenerator = etagGenerator;
         this.linksGenerator = linksGenerator;
         this.idGenerator = idGenerator;
         this.costCalculatorService = calculatorService;
         this.descriptionProvider = descriptionProvider;
+        this.patcher = patcher;
+        this.patchUpdateConverter = patchUpdateConverter;
     }
 
     private void populateDescriptions(final CertifiedCopyItem certifiedCopyItem) {
@@ -56,6 +87,90 @@ public class CertifiedCopyItemService {
     }
 
     public CertifiedCopyItem createCertifiedCopyItem(final CertifiedCopyItem certifiedCopyItem, final boolean userGetsFreeCertificates) {
+        initialiseCertifiedCopyItem(certifiedCopyItem);
+        populateItemCosts(certifiedCopyItem, costCalculatorService, userGetsFreeCertificates);
+
+        return repository.save(certifiedCopyItem);
+    }
+
+    /**
+     * Prices the certified copy items, already enriched with their company and filing history details, and saves them
+     * to the database together, in a single unordered bulk insert.
+     *
+     * @param certifiedCopyItems the certified copy items to save, of which there must be at least one
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the error reported for each item that could not be saved, keyed by the item's index in the items
+     *         provided, which is empty where all the items were saved
+     */
+    public Map<Integer, String> createCertifiedCopyItems(final List<CertifiedCopyItem> certifiedCopyItems,
+                                                         final boolean userGetsFreeCertificates) {
+        for (final CertifiedCopyItem certifiedCopyItem : certifiedCopyItems) {
+            initialiseCertifiedCopyItem(certifiedCopyItem);
+            populateItemCosts(certifiedCopyItem, costCalculatorService, userGetsFreeCertificates);
+        }
+
+        return repository.insertAllUnordered(certifiedCopyItems);
+    }
+
+    /**
+     * Saves the certified copy item, yet to be enriched with its company and filing history details, to the database
+     * as a pending item, without pricing it.
+     *
+     * @param certifiedCopyItem the certified copy item to save
+     * @return the pending certified copy item resulting from the save
+     */
+    public CertifiedCopyItem createPendingCertifiedCopyItem(final CertifiedCopyItem certifiedCopyItem) {
+        initialiseCertifiedCopyItem(certifiedCopyItem);
+        certifiedCopyItem.setStatus(ItemStatus.PENDING);
+
+        return repository.save(certifiedCopyItem);
+    }
+
+    /**
+     * Prices the pending certified copy item, now enriched with its company and filing history details, and saves it
+     * to the database as a ready item.
+     *
+     * @param enrichedCertifiedCopyItem the enriched certified copy item to save
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the ready certified copy item resulting from the save
+     */
+    public CertifiedCopyItem completeCertifiedCopyItem(final CertifiedCopyItem enrichedCertifiedCopyItem,
+                                                       final boolean userGetsFreeCertificates) {
+        enrichedCertifiedCopyItem.setUpdatedAt(LocalDateTime.now());
+        enrichedCertifiedCopyItem.setEtag(etagGenerator.generateEtag());
+        populateItemCosts(enrichedCertifiedCopyItem, costCalculatorService, userGetsFreeCertificates);
+        enrichedCertifiedCopyItem.setStatus(ItemStatus.READY);
+
+        return repository.save(enrichedCertifiedCopyItem);
+    }
+
+    /**
+     * Saves the certified copy item as failed, as it could not be completed, provided it is still pending. The item is
+     * updated in a single operation, without being read first, so that this succeeds however the item's completion
+     * failed.
+     *
+     * @param id the ID of the pending certified copy item that could not be completed
+     * @return whether the item was still pending, and so has been saved as failed
+     */
+    public boolean failPendingCertifiedCopyItem(final String id) {
+        final Update update = new Update().set("data.status", ItemStatus.FAILED.getJsonName());
+        setEtagAndUpdatedAt(update);
+        return repository.updatePendingItem(id, update).isPresent();
+    }
+
+    /**
+     * Gets the IDs of the certified copy items still pending that were created before the time given, oldest first.
+     *
+     * @param createdBefore the time the items must have been created before
+     * @param limit the maximum number of IDs to get
+     * @return the IDs of the items created first
+     */
+    public List<String> getPendingCertifiedCopyItemIdsCreatedBefore(final LocalDateTime createdBefore,
+                                                                    final int limit) {
+        return repository.findPendingIdsCreatedBefore(createdBefore, limit);
+    }
+
+    private void initialiseCertifiedCopyItem(final CertifiedCopyItem certifiedCopyItem) {
         final LocalDateTime now = LocalDateTime.now();
         certifiedCopyItem.setCreatedAt(now);
         certifiedCopyItem.setUpdatedAt(now);
@@ -72,9 +187,6 @@ public class CertifiedCopyItemService {
             certifiedCopyItem.getData().setPostalDelivery(Boolean.FALSE);
         }
         certifiedCopyItem.getData().setKind(KIND);
-        populateItemCosts(certifiedCopyItem, costCalculatorService, userGetsFreeCertificates);
-
-        return repository.save(certifiedCopyItem);
     }
 
     /**
@@ -93,6 +205,133 @@ public class CertifiedCopyItemService {
         return repository.save(updatedCertifiedCopyItem);
     }
 
+    /**
+     * Applies the merge patch to the stored certified copy item as a MongoDB <code>$set</code>/<code>$unset</code> of
+     * the fields it changes, together with the item's new etag and update time, rather than rewriting the whole item.
+     * <ul>
+     *     <li>A patch changing only fields that have no bearing on the item's costs is applied in a single
+     *     operation, without the item being read first.</li>
+     *     <li>A patch changing any other field is merged into the item read first, so that the item can be priced
+     *     again, and is then applied together with the new costs, on condition that the item has not been updated
+     *     since it was read.</li>
+     * </ul>
+     * Where the client provides the etags it expects the item to have (<code>If-Match</code>), the patch is only
+     * applied should the item still have one of them, making concurrent patches of the same item safe.
+     *
+     * @param id the ID of the certified copy item to patch
+     * @param mergePatch the merge patch, assumed to have been validated
+     * @param expectedEtags the etags one of which the item must have to be patched, or <code>null</code> should the
+     *                      item be patched whatever its etag
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the patched certified copy item, priced, or empty should no item be found
+     * @throws ResponseStatusException with 409 Conflict should the item not be ready to be patched, or keep being
+     *         updated by other requests, or with 412 Precondition Failed should the item not have any of the etags
+     *         expected
+     */
+    public Optional<CertifiedCopyItem> patchCertifiedCopyItem(final String id,
+                                                              final JsonMergePatch mergePatch,
+                                                              final Collection<String> expectedEtags,
+                                                              final boolean userGetsFreeCertificates) {
+        final Update update = patchUpdateConverter.toUpdate(mergePatch, DATA_FIELD);
+        final Map<String, Object> changedPaths = patchUpdateConverter.getChangedPaths(update);
+        final Optional<CertifiedCopyItem> patchedItem = UNPRICED_FIELDS.containsAll(getChangedFields(changedPaths))
+                ? patchUnpricedFields(id, update, changedPaths, expectedEtags)
+                : patchPricedFields(id, mergePatch, expectedEtags, userGetsFreeCertificates);
+
+        patchedItem.ifPresent(item -> populateItemCosts(item, costCalculatorService, userGetsFreeCertificates));
+        return patchedItem;
+    }
+
+    private Optional<CertifiedCopyItem> patchUnpricedFields(final String id,
+                                                            final Update update,
+                                                            final Map<String, Object> changedPaths,
+                                                            final Collection<String> expectedEtags) {
+        if (changedPaths.containsKey(COMPANY_NUMBER_PATH)) {
+            setDescriptions(update, (String) changedPaths.get(COMPANY_NUMBER_PATH));
+        }
+        setEtagAndUpdatedAt(update);
+
+        final Optional<CertifiedCopyItem> patchedItem = repository.updateReadyItem(id, expectedEtags, update);
+        if (patchedItem.isPresent()) {
+            return patchedItem;
+        }
+        // Only now is the item read, to tell why it could not be patched.
+        final Optional<CertifiedCopyItem> unpatchedItem = repository.findById(id);
+        if (unpatchedItem.isPresent()) {
+            throw isReady(unpatchedItem.get()) && expectedEtags != null ? preconditionFailed(id) : notReady(id);
+        }
+        return unpatchedItem;
+    }
+
+    private Optional<CertifiedCopyItem> patchPricedFields(final String id,
+                                                          final JsonMergePatch mergePatch,
+                                                          final Collection<String> expectedEtags,
+                                                          final boolean userGetsFreeCertificates) {
+        for (int attempt = 0; attempt < MAX_PATCH_ATTEMPTS; attempt++) {
+            final Optional<CertifiedCopyItem> retrievedItem = repository.findById(id);
+            if (retrievedItem.isEmpty()) {
+                return retrievedItem;
+            }
+            if (!isReady(retrievedItem.get())) {
+                throw notReady(id);
+            }
+            if (expectedEtags != null && !expectedEtags.contains(retrievedItem.get().getEtag())) {
+                throw preconditionFailed(id);
+            }
+
+            final CertifiedCopyItem patchedItem =
+                    patcher.mergePatch(mergePatch, retrievedItem.get(), CertifiedCopyItem.class);
+            populateItemCosts(patchedItem, costCalculatorService, userGetsFreeCertificates);
+
+            final Update update = patchUpdateConverter.toUpdate(mergePatch, DATA_FIELD);
+            if (patchUpdateConverter.getChangedPaths(update).containsKey(COMPANY_NUMBER_PATH)) {
+                setDescriptions(update, patchedItem.getCompanyNumber());
+            }
+            update.set("data.itemCosts", patchedItem.getItemCosts())
+                    .set("data.postageCost", patchedItem.getPostageCost())
+                    .set("data.totalItemCost", patchedItem.getTotalItemCost());
+            setEtagAndUpdatedAt(update);
+
+            final Optional<CertifiedCopyItem> updatedItem =
+                    repository.updateReadyItem(id, List.of(retrievedItem.get().getEtag()), update);
+            if (updatedItem.isPresent()) {
+                return updatedItem;
+            }
+        }
+        throw new ResponseStatusException(CONFLICT,
+                "Certified copy item " + id + " was updated by other requests while being patched.");
+    }
+
+    private static Set<String> getChangedFields(final Map<String, Object> changedPaths) {
+        return changedPaths.keySet().stream()
+                .map(path -> path.substring(DATA_FIELD.length() + 1).split("\\.")[0])
+                .collect(Collectors.toSet());
+    }
+
+    private void setDescriptions(final Update update, final String companyNumber) {
+        final String description = descriptionProvider.getDescription(companyNumber);
+        final Map<String, String> descriptionValues = new HashMap<>();
+        descriptionValues.put(DESCRIPTION_IDENTIFIER, description);
+        descriptionValues.put(COMPANY_NUMBER_KEY, companyNumber);
+        update.set("data.description", description)
+                .set("data.descriptionIdentifier", DESCRIPTION_IDENTIFIER)
+                .set("data.descriptionValues", descriptionValues);
+    }
+
+    private void setEtagAndUpdatedAt(final Update update) {
+        update.set("data.etag", etagGenerator.generateEtag())
+                .set("updatedAt", LocalDateTime.now());
+    }
+
+    private static ResponseStatusException notReady(final String id) {
+        return new ResponseStatusException(CONFLICT, "Certified copy item " + id + " is not ready to be updated.");
+    }
+
+    private static ResponseStatusException preconditionFailed(final String id) {
+        return new ResponseStatusException(PRECONDITION_FAILED,
+                "Certified copy item " + id + " no longer has the etag expected.");
+    }
+
     public void populateItemCosts(final CertifiedCopyItem item, final CertifiedCopyCostCalculatorService calculator, final boolean userGetsFreeCertificates) {
         CertifiedCopyItemData itemData = item.getData();
         List<FilingHistoryDocument> filingHistoryDocumentList = itemData.getItemOptions().getFilingHistoryDocuments();
@@ -126,12 +365,128 @@ public class CertifiedCopyItemService {
         return repository.findById(id);
     }
 
+    /**
+     * Gets the owner of the certified copy item by its ID, reading only the ID of the user who created the item.
+     * @param id the ID of the certified copy item
+     * @return the owner of the item, or empty should no item be found
+     */
+    public Optional<CertifiedCopyItemOwner> getCertifiedCopyItemOwner(final String id) {
+        return repository.findOwnerById(id);
+    }
+
     public Optional<CertifiedCopyItem> getCertifiedCopyItemWithCosts(final String id, final boolean userGetsFreeCertificates) {
         Optional<CertifiedCopyItem>  retrievedItem = repository.findById(id);
 
-        retrievedItem.ifPresent(item -> populateItemCosts(item, costCalculatorService, userGetsFreeCertificates));
+        return retrievedItem.map(item -> getCertifiedCopyItemWithCosts(item, userGetsFreeCertificates));
+    }
+
+    /**
+     * Gets the certified copy items with the IDs provided, read together in a single query, and prices each of those
+     * ready to be priced.
+     * @param ids the IDs of the certified copy items to be retrieved
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the items found, keyed by ID, which has no entry for an ID no item was found for
+     */
+    public Map<String, CertifiedCopyItem> getCertifiedCopyItemsWithCosts(final Collection<String> ids,
+                                                                        final boolean userGetsFreeCertificates) {
+        return getCertifiedCopyItemsWithCosts(getCertifiedCopyItemsById(ids), userGetsFreeCertificates);
+    }
 
+    /**
+     * Prices each of the certified copy items already retrieved that is ready to be priced.
+     * @param retrievedItems the certified copy items retrieved from the DB, keyed by ID
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the items, keyed by ID, each priced where ready
+     */
+    public Map<String, CertifiedCopyItem> getCertifiedCopyItemsWithCosts(
+            final Map<String, CertifiedCopyItem> retrievedItems,
+            final boolean userGetsFreeCertificates) {
+        retrievedItems.values().forEach(item -> getCertifiedCopyItemWithCosts(item, userGetsFreeCertificates));
+        return retrievedItems;
+    }
+
+    /**
+     * Gets the certified copy items with the IDs provided, read together in a single query, and returns them as-is,
+     * without decorating them in any way.
+     * @param ids the IDs of the certified copy items to be retrieved
+     * @return the undecorated items retrieved from the DB, keyed by ID, which has no entry for an ID no item was
+     *         found for
+     */
+    public Map<String, CertifiedCopyItem> getCertifiedCopyItemsById(final Collection<String> ids) {
+        final Map<String, CertifiedCopyItem> items = new HashMap<>();
+        for (final CertifiedCopyItem item : repository.findAllById(ids)) {
+            items.put(item.getId(), item);
+        }
+        return items;
+    }
+
+    /**
+     * Gets a page of the certified copy items created by the user, newest first. One item more than the page holds is
+     * read, to tell whether there is a next page, without the items being counted.
+     * <p>
+     * Items are only priced where their filing history documents are included, as they cannot be priced without them.
+     * Otherwise, each item has the costs it was last priced at.
+     *
+     * @param userId the ID of the user who created the items
+     * @param cursor the opaque cursor the page starts after, or <code>null</code> for the first page
+     * @param limit the maximum number of items on the page
+     * @param includeFilingHistoryDocuments whether the filing history documents of each item are included
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the page of items
+     * @throws ResponseStatusException with 400 Bad Request should the cursor not be one returned with an earlier page
+     */
+    public CertifiedCopyItemPage getCertifiedCopyItemsByUserId(final String userId,
+                                                               final String cursor,
+                                                               final int limit,
+                                                               final boolean includeFilingHistoryDocuments,
+                                                               final boolean userGetsFreeCertificates) {
+        final CertifiedCopyItemCursor after = cursor != null ? decodeCursor(cursor) : null;
+        final List<CertifiedCopyItem> items = new ArrayList<>(
+                repository.findPageByUserId(userId, after, limit + 1, includeFilingHistoryDocuments));
+
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items.subList(limit, items.size()).clear();
+            final CertifiedCopyItem last = items.get(limit - 1);
+            nextCursor = new CertifiedCopyItemCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        if (includeFilingHistoryDocuments) {
+            items.forEach(item -> getCertifiedCopyItemWithCosts(item, userGetsFreeCertificates));
+        }
+        return new CertifiedCopyItemPage(items, nextCursor);
+    }
+
+    private static CertifiedCopyItemCursor decodeCursor(final String cursor) {
+        try {
+            return CertifiedCopyItemCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(BAD_REQUEST, "Cursor " + cursor + " is not valid.", ex);
+        }
+    }
+
+    /**
+     * Prices the certified copy item already retrieved, should it be ready to be priced.
+     * @param retrievedItem the certified copy item retrieved from the DB
+     * @param userGetsFreeCertificates whether the user is entitled to free certified copies
+     * @return the item, priced where ready
+     */
+    public CertifiedCopyItem getCertifiedCopyItemWithCosts(final CertifiedCopyItem retrievedItem,
+                                                           final boolean userGetsFreeCertificates) {
+        // An item created asynchronously cannot be priced until its filing history documents have been looked up.
+        if (isReady(retrievedItem)) {
+            populateItemCosts(retrievedItem, costCalculatorService, userGetsFreeCertificates);
+        }
         return retrievedItem;
     }
 
+    /**
+     * Determines whether the certified copy item is ready, i.e. was either created synchronously, or has since been
+     * completed, having been created asynchronously.
+     * @param item the certified copy item
+     * @return whether the item is ready (<code>true</code>), or still pending, or failed (<code>false</code>)
+     */
+    public static boolean isReady(final CertifiedCopyItem item) {
+        return item.getStatus() == null || item.getStatus() == ItemStatus.READY;
+    }
+
 }
@@ -1,5 +1,16 @@
 package uk.gov.companieshouse.certifiedcopies.orders.api.service;
 
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamDependency.COMPANY_PROFILE;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -7,33 +18,71 @@ import org.springframework.web.util.UriTemplate;
 import uk.gov.companieshouse.api.ApiClient;
 import uk.gov.companieshouse.api.error.ApiErrorResponseException;
 import uk.gov.companieshouse.api.handler.exception.URIValidationException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CompanyNameCacheConfig;
 import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
 
 @Service
 public class CompanyService {
 
+    private static final String COMPANY_NAME_CACHE = "company-names";
+
     private final ApiClientService apiClientService;
+    private final UpstreamCallService upstreamCalls;
+
+    /** The cached company names, keyed by company number, or <code>null</code> where caching is disabled. */
+    private final LoadingCache<String, Optional<String>> companyNames;
 
     private static final UriTemplate GET_COMPANY_URI =
             new UriTemplate("/company/{companyNumber}");
 
-    public CompanyService(final ApiClientService apiClientService) {
+    public CompanyService(final ApiClientService apiClientService,
+                          final UpstreamCallService upstreamCalls,
+                          final CompanyNameCacheConfig cacheConfig,
+                          final MeterRegistry meterRegistry,
+                          final @Qualifier("upstreamLookupExecutor") Executor refreshExecutor) {
         this.apiClientService = apiClientService;
+        this.upstreamCalls = upstreamCalls;
+        this.companyNames = cacheConfig.isEnabled()
+                ? buildCompanyNameCache(cacheConfig, meterRegistry, refreshExecutor) : null;
     }
 
     /**
-     * Interrogates the company profiles API to get the company name for the company number provided.
+     * Gets the company name for the company number provided. Where caching is enabled, the name is served from the
+     * cache, and only looked up from the company profiles API when it is not cached yet, or has been cached for
+     * longer than its maximum staleness. A cached name older than its time to live is still served, while it is
+     * refreshed in the background.
      * @param companyNumber the number of the company
      * @return the name for the company
      */
     public String getCompanyName(final String companyNumber) {
+        if (companyNames == null) {
+            return lookUpCompanyName(companyNumber);
+        }
+        try {
+            return companyNames.getUnchecked(companyNumber).orElse(null);
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof ResponseStatusException responseStatusException) {
+                // Unwrapped so that the HTTP status mapping made by the lookup (400, 500) is preserved.
+                throw responseStatusException;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Interrogates the company profiles API to get the company name for the company number provided.
+     * @param companyNumber the number of the company
+     * @return the name for the company
+     */
+    private String lookUpCompanyName(final String companyNumber) {
 
         final ApiClient apiClient = apiClientService.getInternalApiClient();
         final String uri = GET_COMPANY_URI.expand(companyNumber).toString();
         final String companyName;
 
         try {
-            companyName = apiClient.company().get(uri).execute().getData().getCompanyName();
+            companyName = upstreamCalls.call(COMPANY_PROFILE, uri, () -> apiClient.company().get(uri).execute())
+                    .getData().getCompanyName();
         } catch (ApiErrorResponseException ex) {
             throw getResponseStatusException(ex, apiClient, companyNumber, uri);
         } catch (URIValidationException ex) {
@@ -46,6 +95,31 @@ public class CompanyService {
         return companyName;
     }
 
+    /**
+     * Builds the size bounded company name cache. Entries are refreshed asynchronously on the executor provided once
+     * their time to live has elapsed, and evicted once their maximum staleness has also elapsed. Hit, miss, load and
+     * eviction statistics are published to the meter registry provided under the cache name
+     * <code>company-names</code>.
+     * @param config the cache configuration
+     * @param meterRegistry the meter registry the cache statistics are published to
+     * @param refreshExecutor the executor on which stale entries are refreshed
+     * @return the cache
+     */
+    private LoadingCache<String, Optional<String>> buildCompanyNameCache(final CompanyNameCacheConfig config,
+                                                                         final MeterRegistry meterRegistry,
+                                                                         final Executor refreshExecutor) {
+        final LoadingCache<String, Optional<String>> cache = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .refreshAfterWrite(config.getTimeToLive())
+                .expireAfterWrite(config.getTimeToLive().plus(config.getMaximumStaleness()))
+                .recordStats()
+                .build(CacheLoader.asyncReloading(
+                        CacheLoader.from(companyNumber -> Optional.ofNullable(lookUpCompanyName(companyNumber))),
+                        refreshExecutor));
+        GuavaCacheMetrics.monitor(meterRegistry, cache, COMPANY_NAME_CACHE);
+        return cache;
+    }
+
     /**
      * Creates an appropriate exception to report the underlying problem.
      * @param apiException the API exception caught
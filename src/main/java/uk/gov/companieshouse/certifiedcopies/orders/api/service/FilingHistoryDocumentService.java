@@ -1,25 +1,44 @@
 package uk.gov.companieshouse.certifiedcopies.orders.api.service;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriTemplate;
 import uk.gov.companieshouse.api.ApiClient;
 import uk.gov.companieshouse.api.error.ApiErrorResponseException;
 import uk.gov.companieshouse.api.handler.exception.URIValidationException;
+import uk.gov.companieshouse.api.handler.filinghistory.request.FilingHistoryList;
 import uk.gov.companieshouse.api.model.filinghistory.FilingApi;
+import uk.gov.companieshouse.api.model.filinghistory.FilingHistoryApi;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.FilingHistoryCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.FilingHistoryResolutionConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
 import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
 import uk.gov.companieshouse.logging.Logger;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.util.CollectionUtils.isEmpty;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.createLogMapWithCompanyNumber;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.logErrorWithStatus;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.FilingHistoryResolutionStrategy.ADAPTIVE;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.FilingHistoryResolutionStrategy.INDIVIDUAL_LOOKUPS;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.FilingHistoryResolutionStrategy.LIST_SCAN;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamDependency.FILING_HISTORY;
 
 @Service
 public class FilingHistoryDocumentService {
@@ -30,18 +49,45 @@ public class FilingHistoryDocumentService {
             GET_FILING_HISTORY_DOCUMENT =
             new UriTemplate("/company/{companyNumber}/filing-history/{filingHistoryId}");
 
+    private static final UriTemplate GET_FILING_HISTORY =
+            new UriTemplate("/company/{companyNumber}/filing-history");
+
+    private static final String FILING_CACHE = "filing-history-documents";
+
     private final ApiClientService apiClientService;
+    private final UpstreamCallService upstreamCalls;
+    private final UpstreamLookupService lookupService;
+    private final UpstreamLookupConfig lookupConfig;
+    private final FilingHistoryResolutionConfig resolutionConfig;
+
+    /** The cached filing history documents, or <code>null</code> where caching is disabled. */
+    private final LoadingCache<FilingKey, FilingHistoryDocument> filings;
 
-    public FilingHistoryDocumentService(final ApiClientService apiClientService) {
+    public FilingHistoryDocumentService(final ApiClientService apiClientService,
+                                        final UpstreamCallService upstreamCalls,
+                                        final UpstreamLookupService lookupService,
+                                        final UpstreamLookupConfig lookupConfig,
+                                        final FilingHistoryResolutionConfig resolutionConfig,
+                                        final FilingHistoryCacheConfig cacheConfig,
+                                        final MeterRegistry meterRegistry) {
         this.apiClientService = apiClientService;
+        this.upstreamCalls = upstreamCalls;
+        this.lookupService = lookupService;
+        this.lookupConfig = lookupConfig;
+        this.resolutionConfig = resolutionConfig;
+        this.filings = cacheConfig.isEnabled() ? buildFilingCache(cacheConfig, meterRegistry) : null;
     }
 
     /**
      * Gets fully populated filing history documents for the partially populated filing history documents provided.
+     * Depending on the {@link FilingHistoryResolutionStrategy} configured, and on the number of documents requested,
+     * the documents are either looked up individually, or found by scanning the company's filing history list.
+     * Where concurrent lookups are configured, individual lookups are made concurrently, and the first lookup to fail
+     * cancels the others.
      * @param companyNumber the company number
      * @param filingHistoryDocumentsRequested the filing history documents requested, assumed to have their IDs
      *                                        populated at least, and of which there must be at least one
-     * @return fully populated documents
+     * @return fully populated documents, in the order in which they were requested
      */
     public List<FilingHistoryDocument> getFilingHistoryDocuments(
             final String companyNumber,
@@ -52,23 +98,171 @@ public class FilingHistoryDocumentService {
         LOGGER.info(filingHistoryDocumentsRequested.size() + " filing history document(s) requested for company number "
                 + companyNumber + ".", logMap);
         final List<FilingHistoryDocument> filings =
-                filingHistoryDocumentsRequested.stream()
-                .map(filing -> getFilingHistoryDocument(companyNumber, filing.getFilingHistoryId()))
-                .collect(toList());
+                chooseStrategy(filingHistoryDocumentsRequested.size()) == LIST_SCAN
+                        ? scanFilingHistory(companyNumber, filingHistoryDocumentsRequested)
+                        : lookUpIndividually(companyNumber, filingHistoryDocumentsRequested);
         LOGGER.info("Returning " + filings.size() + " filing history document(s) for company number "
                 + companyNumber + ".", logMap);
         return filings;
     }
 
     /**
-     * Gets the fully populated filing history document for the filing history document ID provided.
+     * Chooses the strategy to resolve the number of filing history documents requested with.
+     * @param documentsRequested the number of filing history documents requested
+     * @return {@link FilingHistoryResolutionStrategy#LIST_SCAN} or
+     * {@link FilingHistoryResolutionStrategy#INDIVIDUAL_LOOKUPS}
+     */
+    FilingHistoryResolutionStrategy chooseStrategy(final int documentsRequested) {
+        final FilingHistoryResolutionStrategy strategy = resolutionConfig.getStrategy();
+        if (strategy != ADAPTIVE) {
+            return strategy;
+        }
+        return documentsRequested >= resolutionConfig.getListScanThreshold() ? LIST_SCAN : INDIVIDUAL_LOOKUPS;
+    }
+
+    /**
+     * Looks up each of the filing history documents requested individually.
+     * @param companyNumber the company number
+     * @param filingHistoryDocumentsRequested the filing history documents requested
+     * @return fully populated documents, in the order in which they were requested
+     */
+    private List<FilingHistoryDocument> lookUpIndividually(
+            final String companyNumber,
+            final List<FilingHistoryDocument> filingHistoryDocumentsRequested) {
+        if (lookupConfig.isConcurrent() && filingHistoryDocumentsRequested.size() > 1) {
+            return lookupService.mapInOrder(filingHistoryDocumentsRequested,
+                    filing -> getFilingHistoryDocument(companyNumber, filing.getFilingHistoryId()),
+                    lookupConfig.getMaxConcurrentPerRequest());
+        }
+        return filingHistoryDocumentsRequested.stream()
+                .map(filing -> getFilingHistoryDocument(companyNumber, filing.getFilingHistoryId()))
+                .collect(toList());
+    }
+
+    /**
+     * Resolves the filing history documents requested by scanning the company's filing history list, then looking up
+     * individually any documents that the scan did not find.
+     * @param companyNumber the company number
+     * @param filingHistoryDocumentsRequested the filing history documents requested
+     * @return fully populated documents, in the order in which they were requested
+     */
+    private List<FilingHistoryDocument> scanFilingHistory(
+            final String companyNumber,
+            final List<FilingHistoryDocument> filingHistoryDocumentsRequested) {
+        final Map<String, FilingHistoryDocument> found =
+                findInFilingHistory(companyNumber, filingHistoryDocumentsRequested);
+        final List<FilingHistoryDocument> notFound = filingHistoryDocumentsRequested.stream()
+                .filter(filing -> !found.containsKey(filing.getFilingHistoryId()))
+                .toList();
+        if (!notFound.isEmpty()) {
+            LOGGER.info(notFound.size() + " filing history document(s) not found in the filing history of company "
+                    + "number " + companyNumber + ", looking them up individually.",
+                    createLogMapWithCompanyNumber(companyNumber));
+            lookUpIndividually(companyNumber, notFound)
+                    .forEach(filing -> found.putIfAbsent(filing.getFilingHistoryId(), filing));
+        }
+        return filingHistoryDocumentsRequested.stream()
+                .map(filing -> copyOf(found.get(filing.getFilingHistoryId())))
+                .toList();
+    }
+
+    /**
+     * Pages through the company's filing history list until either all the filing history documents requested have
+     * been found, the list is exhausted, or the maximum number of pages configured has been scanned. Any failure of
+     * the scan is logged rather than propagated, as the documents not found can still be looked up individually.
+     * @param companyNumber the company number
+     * @param filingHistoryDocumentsRequested the filing history documents requested
+     * @return the documents found, keyed by filing history document ID
+     */
+    private Map<String, FilingHistoryDocument> findInFilingHistory(
+            final String companyNumber,
+            final List<FilingHistoryDocument> filingHistoryDocumentsRequested) {
+        final Map<String, FilingHistoryDocument> found = new HashMap<>();
+        final Set<String> filingHistoryIdsSought = filingHistoryDocumentsRequested.stream()
+                .map(FilingHistoryDocument::getFilingHistoryId)
+                .collect(toSet());
+        final ApiClient apiClient = apiClientService.getInternalApiClient();
+        final String uri = GET_FILING_HISTORY.expand(companyNumber).toString();
+        final int pageSize = resolutionConfig.getPageSize();
+        try {
+            for (int page = 0;
+                 page < resolutionConfig.getMaxPages() && found.size() < filingHistoryIdsSought.size();
+                 page++) {
+                final int startIndex = page * pageSize;
+                final FilingHistoryApi history = upstreamCalls.call(FILING_HISTORY,
+                        uri + "?items_per_page=" + pageSize + "&start_index=" + startIndex, () -> {
+                            final FilingHistoryList list = apiClient.filingHistory().list(uri);
+                            list.addQueryParams("items_per_page", Integer.toString(pageSize));
+                            list.addQueryParams("start_index", Integer.toString(startIndex));
+                            return list.execute();
+                        }).getData();
+                if (history == null || isEmpty(history.getItems())) {
+                    break;
+                }
+                history.getItems().stream()
+                        .filter(filing -> isInFilingsSought(filing, filingHistoryIdsSought))
+                        .forEach(filing -> found.put(filing.getTransactionId(), cache(companyNumber, filing)));
+                if (history.getItems().size() < pageSize) {
+                    break;
+                }
+            }
+        } catch (ApiErrorResponseException | URIValidationException ex) {
+            LOGGER.error("Error scanning filing history " + uri + ", looking filings up individually instead.",
+                    ex, createLogMapWithCompanyNumber(companyNumber));
+        }
+        return found;
+    }
+
+    /**
+     * Converts the filing provided, caching the result where caching is enabled.
+     * @param companyNumber the company number
+     * @param filing the filing found in the filing history list
+     * @return the filing history document
+     */
+    private FilingHistoryDocument cache(final String companyNumber, final FilingApi filing) {
+        final FilingHistoryDocument document = toFilingHistoryDocument(filing);
+        if (filings != null) {
+            filings.put(new FilingKey(companyNumber, filing.getTransactionId()), document);
+        }
+        return document;
+    }
+
+    /**
+     * Gets the fully populated filing history document for the filing history document ID provided. A filing never
+     * changes once it has been filed, so where caching is enabled, the document is served from the cache, and only
+     * looked up from the filing history API when it is not cached yet.
      * @param companyNumber the company number
      * @param filingHistoryDocumentId the filing history document ID
-     * @return fully populated document
+     * @return fully populated document, which is the caller's own copy, free to be modified
      */
     public FilingHistoryDocument getFilingHistoryDocument(
             final String companyNumber,
             final String filingHistoryDocumentId) {
+        if (filings == null) {
+            return lookUpFilingHistoryDocument(companyNumber, filingHistoryDocumentId);
+        }
+        try {
+            // Copied so that changes the caller makes (e.g. setting the cost) do not leak into the cache.
+            return copyOf(filings.getUnchecked(new FilingKey(companyNumber, filingHistoryDocumentId)));
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof ResponseStatusException responseStatusException) {
+                // Unwrapped so that the HTTP status mapping made by the lookup (400, 500) is preserved.
+                throw responseStatusException;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Looks up the fully populated filing history document for the filing history document ID provided from the
+     * filing history API. Where hedging is enabled, a slow lookup is sent a second time, and the first response used.
+     * @param companyNumber the company number
+     * @param filingHistoryDocumentId the filing history document ID
+     * @return fully populated document
+     */
+    private FilingHistoryDocument lookUpFilingHistoryDocument(
+            final String companyNumber,
+            final String filingHistoryDocumentId) {
 
         final Map<String, Object> logMap = createLogMapWithCompanyNumber(companyNumber);
         LOGGER.info("Getting filing history document " + filingHistoryDocumentId + " for company number "
@@ -76,12 +270,9 @@ public class FilingHistoryDocumentService {
         final ApiClient apiClient = apiClientService.getInternalApiClient();
         final String uri = GET_FILING_HISTORY_DOCUMENT.expand(companyNumber, filingHistoryDocumentId).toString();
         try {
-            final FilingApi filing = apiClient.filing().get(uri).execute().getData();
-            return new FilingHistoryDocument(filing.getDate().toString(),
-                        filing.getDescription(),
-                        filing.getDescriptionValues(),
-                        filing.getTransactionId(),
-                        filing.getType());
+            final FilingApi filing = upstreamCalls.callHedged(FILING_HISTORY, uri,
+                    () -> apiClient.filing().get(uri).execute()).getData();
+            return toFilingHistoryDocument(filing);
         } catch (ApiErrorResponseException ex) {
             throw getResponseStatusException(ex, apiClient, companyNumber, filingHistoryDocumentId, uri);
         } catch (URIValidationException ex) {
@@ -94,6 +285,66 @@ public class FilingHistoryDocumentService {
 
     }
 
+    /**
+     * Converts the filing provided to a filing history document.
+     * @param filing the filing returned by the filing history API
+     * @return the filing history document
+     */
+    private static FilingHistoryDocument toFilingHistoryDocument(final FilingApi filing) {
+        return new FilingHistoryDocument(filing.getDate().toString(),
+                filing.getDescription(),
+                filing.getDescriptionValues(),
+                filing.getTransactionId(),
+                filing.getType());
+    }
+
+    /**
+     * Builds the filing history document cache, bounded by the total weight of the documents cached. Hit, miss, load
+     * and eviction statistics are published to the meter registry provided under the cache name
+     * <code>filing-history-documents</code>.
+     * @param config the cache configuration
+     * @param meterRegistry the meter registry the cache statistics are published to
+     * @return the cache
+     */
+    private LoadingCache<FilingKey, FilingHistoryDocument> buildFilingCache(final FilingHistoryCacheConfig config,
+                                                                           final MeterRegistry meterRegistry) {
+        final LoadingCache<FilingKey, FilingHistoryDocument> cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaximumWeight())
+                .weigher(FilingHistoryDocumentService::weigh)
+                .expireAfterAccess(config.getTimeToIdle())
+                .recordStats()
+                .build(CacheLoader.from(key -> lookUpFilingHistoryDocument(key.companyNumber(), key.transactionId())));
+        GuavaCacheMetrics.monitor(meterRegistry, cache, FILING_CACHE);
+        return cache;
+    }
+
+    /**
+     * Weighs a cached filing history document by the size of its description values, which make up the bulk of it.
+     * @param key the cache key
+     * @param filing the filing history document
+     * @return the weight of the document
+     */
+    private static int weigh(final FilingKey key, final FilingHistoryDocument filing) {
+        final Map<String, Object> descriptionValues = filing.getFilingHistoryDescriptionValues();
+        return 1 + (descriptionValues != null ? descriptionValues.size() : 0);
+    }
+
+    /**
+     * Copies the filing history document provided, including its description values map.
+     * @param filing the filing history document to copy
+     * @return the copy
+     */
+    static FilingHistoryDocument copyOf(final FilingHistoryDocument filing) {
+        final Map<String, Object> descriptionValues = filing.getFilingHistoryDescriptionValues();
+        final FilingHistoryDocument copy = new FilingHistoryDocument(filing.getFilingHistoryDate(),
+                filing.getFilingHistoryDescription(),
+                descriptionValues != null ? new LinkedHashMap<>(descriptionValues) : null,
+                filing.getFilingHistoryId(),
+                filing.getFilingHistoryType());
+        copy.setFilingHistoryCost(filing.getFilingHistoryCost());
+        return copy;
+    }
+
     /**
      * Validates that at least one filing history document (filing) has been requested.
      * @param companyNumber the company for which the filings have been requested
@@ -114,15 +365,11 @@ public class FilingHistoryDocumentService {
     /**
      * Indicates whether the filing provided is amongst those requested.
      * @param filing the filing to check
-     * @param filingHistoryDocumentsRequested the filings requested
+     * @param filingHistoryIdsSought the IDs of the filings requested, collected once per scan rather than per filing
      * @return <code>true</code> where the filing is one of those sought, <code>false</code> otherwise
      */
-    boolean isInFilingsSought(final FilingApi filing,
-                              final List<FilingHistoryDocument> filingHistoryDocumentsRequested) {
-        final List<String> filingHistoryIds = filingHistoryDocumentsRequested.stream()
-                        .map(FilingHistoryDocument::getFilingHistoryId)
-                        .toList();
-        return filingHistoryIds.contains(filing.getTransactionId());
+    boolean isInFilingsSought(final FilingApi filing, final Set<String> filingHistoryIdsSought) {
+        return filingHistoryIdsSought.contains(filing.getTransactionId());
     }
 
     /**
@@ -158,4 +405,12 @@ public class FilingHistoryDocumentService {
         return propagatedException;
     }
 
+    /**
+     * Identifies a filing history document: transaction IDs are only unique within a company.
+     * @param companyNumber the company number
+     * @param transactionId the filing history document (transaction) ID
+     */
+    private record FilingKey(String companyNumber, String transactionId) {
+    }
+
 }
@@ -0,0 +1,20 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+/**
+ * Values of this represent the ways in which {@link FilingHistoryDocumentService} can resolve the filing history
+ * documents requested.
+ */
+public enum FilingHistoryResolutionStrategy {
+    /** Each filing is looked up individually from <code>/company/{companyNumber}/filing-history/{id}</code>. */
+    INDIVIDUAL_LOOKUPS,
+    /**
+     * The filings are found by paging through <code>/company/{companyNumber}/filing-history</code>, and any not
+     * found in it are looked up individually.
+     */
+    LIST_SCAN,
+    /**
+     * {@link #LIST_SCAN} where enough filings are requested to make it worthwhile, {@link #INDIVIDUAL_LOOKUPS}
+     * otherwise.
+     */
+    ADAPTIVE
+}
@@ -0,0 +1,68 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.CERTIFIED_COPY_ID_LOG_KEY;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils.STATUS_LOG_KEY;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.AsyncCreateConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+import uk.gov.companieshouse.logging.Logger;
+
+/**
+ * Sweeps up the certified copy items created asynchronously that have been pending for longer than the configured
+ * deadline, and saves them as failed, so that no item is left pending forever should the application have stopped, or
+ * been unable to save the item's outcome, while completing it. Each item is only failed should it still be pending,
+ * so any number of instances may sweep at once.
+ */
+@Component
+public class PendingCertifiedCopyItemSweeper {
+
+    private static final Logger LOGGER = LoggingUtils.getLogger();
+
+    /** The number of pending items read at a time. */
+    static final int SWEEP_BATCH_SIZE = 100;
+
+    private final CertifiedCopyItemService certifiedCopyItemService;
+    private final AsyncCreateConfig config;
+
+    public PendingCertifiedCopyItemSweeper(final CertifiedCopyItemService certifiedCopyItemService,
+                                           final AsyncCreateConfig config) {
+        this.certifiedCopyItemService = certifiedCopyItemService;
+        this.config = config;
+    }
+
+    /**
+     * Saves each item pending past the deadline as failed. A sweep failing part way through is logged rather than
+     * thrown, and the items it leaves pending are swept up by the next.
+     */
+    @Scheduled(fixedDelayString = "#{@asyncCreateConfig.pendingSweepInterval.toMillis()}",
+            initialDelayString = "#{@asyncCreateConfig.pendingSweepInterval.toMillis()}")
+    public void failAbandonedItems() {
+        final LocalDateTime createdBefore = LocalDateTime.now().minus(config.getPendingDeadline());
+        try {
+            List<String> ids;
+            do {
+                ids = certifiedCopyItemService.getPendingCertifiedCopyItemIdsCreatedBefore(createdBefore,
+                        SWEEP_BATCH_SIZE);
+                ids.forEach(this::failAbandonedItem);
+            } while (ids.size() == SWEEP_BATCH_SIZE);
+        } catch (RuntimeException ex) {
+            LOGGER.error("Unable to sweep up the certified copy items left pending.", ex);
+        }
+    }
+
+    private void failAbandonedItem(final String id) {
+        if (certifiedCopyItemService.failPendingCertifiedCopyItem(id)) {
+            final Map<String, Object> logMap = new HashMap<>();
+            logMap.put(CERTIFIED_COPY_ID_LOG_KEY, id);
+            logMap.put(STATUS_LOG_KEY, ItemStatus.FAILED);
+            LOGGER.error("Certified copy item left pending past the deadline, so it has failed.", logMap);
+        }
+    }
+}
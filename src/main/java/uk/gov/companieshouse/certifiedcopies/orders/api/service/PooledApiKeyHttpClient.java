@@ -0,0 +1,51 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import uk.gov.companieshouse.api.http.ApiKeyHttpClient;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamHttpConfig;
+
+/**
+ * {@link ApiKeyHttpClient} that sends its requests over the shared, pooled {@link HttpTransport} rather than over a
+ * transport of its own, and applies the configured connect and read timeouts to them. The request factory is built
+ * once, on first use, rather than for every request made.
+ */
+class PooledApiKeyHttpClient extends ApiKeyHttpClient {
+
+    private final HttpTransport transport;
+    private final UpstreamHttpConfig config;
+
+    /** The request factory, or <code>null</code> until it is first needed. */
+    private HttpRequestFactory requestFactory;
+
+    PooledApiKeyHttpClient(final String apiKey, final HttpTransport transport, final UpstreamHttpConfig config) {
+        super(apiKey);
+        this.transport = transport;
+        this.config = config;
+    }
+
+    @Override
+    public synchronized HttpRequestFactory getHttpRequestFactory() {
+        if (requestFactory == null) {
+            // The SDK's initializer still authorises the request and sets its headers. Its own request factory is
+            // only built the once, to get hold of that initializer.
+            final HttpRequestInitializer authorisation = super.getHttpRequestFactory().getInitializer();
+            requestFactory = transport.createRequestFactory(request -> {
+                if (authorisation != null) {
+                    authorisation.initialize(request);
+                }
+                request.setConnectTimeout((int) config.getConnectTimeout().toMillis());
+                request.setReadTimeout((int) config.getReadTimeout().toMillis());
+            });
+        }
+        return requestFactory;
+    }
+
+    @Override
+    public synchronized void setRequestId(final String requestId) {
+        super.setRequestId(requestId);
+        // The SDK's initializer may have captured the previous request ID, and so is got again.
+        requestFactory = null;
+    }
+}
@@ -0,0 +1,13 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+/**
+ * Thrown should a call to a Companies House API be rejected before it is made, by the circuit breaker or the
+ * concurrency limiter of the API. It is mapped to 503 Service Unavailable by {@link UpstreamCallService} once the
+ * call has failed, so that the layers it passes through on the way can tell a call rejected from a call made.
+ */
+class UpstreamCallRejectedException extends RuntimeException {
+
+    UpstreamCallRejectedException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,529 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.springframework.http.HttpStatus.GONE;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.api.error.ApiErrorResponseException;
+import uk.gov.companieshouse.api.model.ApiResponse;
+import uk.gov.companieshouse.api.handler.exception.URIValidationException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CircuitBreakerConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ConcurrencyLimitConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.NotFoundCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
+
+/**
+ * Service through which every call to the Companies House APIs is made. Where single flight is configured,
+ * concurrent calls for the same URI are coalesced: the first caller starts the call, and every caller that arrives
+ * while it is in flight shares its result, or its exception, rather than calling the API again.
+ * <p>
+ * Where the negative cache is enabled, a "not found" response is also remembered for a short while, and repeated
+ * calls for the same URI are answered with it without calling the API again.
+ * <p>
+ * Where circuit breakers are enabled, each API is called through its own {@link UpstreamCircuitBreaker}. While a
+ * breaker is open, calls to its API fail straight away with 503 Service Unavailable. The state of each breaker is
+ * published as the <code>upstream.circuit.state</code> gauges, and the calls it rejects as the
+ * <code>upstream.circuit.calls.rejected</code> counter, both tagged by dependency.
+ * <p>
+ * Where concurrency limits are enabled, the calls each API has in flight are also bounded by its own adaptive
+ * {@link UpstreamConcurrencyLimiter}. A call over the limit queues briefly, and fails with 503 Service Unavailable
+ * should no call in flight complete in time. The limit, calls in flight and calls queued of each limiter are
+ * published as the <code>upstream.limiter.*</code> gauges, and the calls it rejects as the
+ * <code>upstream.limiter.calls.rejected</code> counter, all tagged by dependency.
+ * <p>
+ * Where a call is hedged (see {@link #callHedged(UpstreamDependency, String, UpstreamCall)}), each attempt at it is
+ * guarded, limited and timed on its own, as a separate call to the API.
+ * <p>
+ * Every call that reaches an API is timed by the <code>upstream.calls</code> timer, tagged by dependency, outcome
+ * (<code>SUCCESS</code>, <code>CLIENT_ERROR</code>, <code>SERVER_ERROR</code> or <code>UNKNOWN</code>) and HTTP
+ * status. Its percentile histogram and SLO buckets are configured through the
+ * <code>management.metrics.distribution.*</code> properties.
+ */
+@Service
+public class UpstreamCallService {
+
+    /**
+     * A call to a Companies House API, made through the API SDK.
+     * @param <T> the type of the call result
+     */
+    @FunctionalInterface
+    public interface UpstreamCall<T> {
+        T execute() throws ApiErrorResponseException, URIValidationException;
+    }
+
+    /**
+     * A "not found" response cached. The status and content of the response are cached, rather than the exception
+     * reporting it, so that each caller answered from the cache is thrown an exception of its own.
+     * @param statusCode the HTTP status the API responded with
+     * @param statusMessage the HTTP status message the API responded with
+     * @param content the body of the response, if any
+     */
+    private record NotFoundResponse(int statusCode, String statusMessage, String content) {
+
+        private static NotFoundResponse of(final ApiErrorResponseException exception) {
+            return new NotFoundResponse(exception.getStatusCode(), exception.getStatusMessage(),
+                    exception.getContent());
+        }
+
+        private ApiErrorResponseException toException() {
+            return ApiErrorResponseException.fromHttpResponseException(
+                    new HttpResponseException.Builder(statusCode, statusMessage, new HttpHeaders())
+                            .setContent(content)
+                            .build());
+        }
+    }
+
+    private static final String NOT_FOUND_CACHE = "upstream-not-found";
+    private static final String CALL_TIMER = "upstream.calls";
+    private static final String NO_STATUS = "NONE";
+
+    private final UpstreamLookupConfig config;
+    private final UpstreamHedgingService hedging;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<Object>> callsInFlight = new ConcurrentHashMap<>();
+    private final Map<UpstreamDependency, Counter> coalescedCalls = new EnumMap<>(UpstreamDependency.class);
+    private final Map<UpstreamDependency, UpstreamCircuitBreaker> circuitBreakers =
+            new EnumMap<>(UpstreamDependency.class);
+    private final Map<UpstreamDependency, Counter> rejectedCalls = new EnumMap<>(UpstreamDependency.class);
+    private final Map<UpstreamDependency, UpstreamConcurrencyLimiter> limiters =
+            new EnumMap<>(UpstreamDependency.class);
+    private final Map<UpstreamDependency, Counter> limitedCalls = new EnumMap<>(UpstreamDependency.class);
+
+    /** The "not found" responses cached, keyed by URI, or <code>null</code> where negative caching is disabled. */
+    private final Cache<String, NotFoundResponse> notFoundResponses;
+
+    public UpstreamCallService(final UpstreamLookupConfig config,
+                               final NotFoundCacheConfig notFoundCacheConfig,
+                               final CircuitBreakerConfig circuitBreakerConfig,
+                               final ConcurrencyLimitConfig concurrencyLimitConfig,
+                               final UpstreamHedgingService hedging,
+                               final @Qualifier("upstreamLookupExecutor") Executor executor,
+                               final MeterRegistry meterRegistry) {
+        this.config = config;
+        this.hedging = hedging;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.notFoundResponses = notFoundCacheConfig.isEnabled()
+                ? buildNotFoundCache(notFoundCacheConfig, meterRegistry) : null;
+        for (final UpstreamDependency dependency : UpstreamDependency.values()) {
+            coalescedCalls.put(dependency, Counter.builder("upstream.calls.coalesced")
+                    .description("Upstream calls answered by sharing a call already in flight for the same URI")
+                    .tag("dependency", dependency.getTagValue())
+                    .register(meterRegistry));
+            if (circuitBreakerConfig.isEnabled()) {
+                registerCircuitBreaker(dependency, circuitBreakerConfig, meterRegistry);
+            }
+            if (concurrencyLimitConfig.isEnabled()) {
+                registerConcurrencyLimiter(dependency, concurrencyLimitConfig, meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Makes the call provided, unless a "not found" response to the same URI is cached, in which case an exception
+     * reporting that response is thrown straight away. Where single flight is configured and a call for the same URI
+     * is already in flight, waits for and shares the outcome of that call. Where the circuit breaker of the API is
+     * open, fails with 503 Service Unavailable instead, as it does should the concurrency limit of the API be
+     * reached, and stay reached for longer than calls may queue.
+     * <p>
+     * A coalesced call is run on the upstream lookup executor rather than on the thread of the caller that started
+     * it, so that the caller giving up on it (e.g. being cancelled by a failed sibling lookup) does not fail it for
+     * the other callers sharing it.
+     * @param dependency the API called
+     * @param uri the URI called, which identifies the call
+     * @param call the call to make
+     * @param <T> the type of the call result
+     * @return the call result, which may be shared with other callers, and so must not be modified
+     * @throws ApiErrorResponseException should the API respond with an error, or be unreachable
+     * @throws URIValidationException should the URI be invalid
+     */
+    public <T> T call(final UpstreamDependency dependency,
+                      final String uri,
+                      final UpstreamCall<T> call) throws ApiErrorResponseException, URIValidationException {
+        try {
+            return callThroughNotFoundCache(dependency, uri, attempt(dependency, uri, call));
+        } catch (UpstreamCallRejectedException rejected) {
+            throw serviceUnavailable(rejected);
+        }
+    }
+
+    /**
+     * Makes the call provided as {@link #call(UpstreamDependency, String, UpstreamCall)} does, but hedges it through
+     * the {@link UpstreamHedgingService} should it be slow. The primary attempt and the hedge each go through the
+     * circuit breaker and the concurrency limiter of the API on their own, so that each holds its own permit, and
+     * has its own outcome recorded.
+     * @param dependency the API called
+     * @param uri the URI called, which identifies the call
+     * @param call the call to make, which must be safe to make twice
+     * @param <T> the type of the call result
+     * @return the call result, which may be shared with other callers, and so must not be modified
+     * @throws ApiErrorResponseException should the API respond with an error, or be unreachable
+     * @throws URIValidationException should the URI be invalid
+     */
+    public <T> T callHedged(final UpstreamDependency dependency,
+                            final String uri,
+                            final UpstreamCall<T> call) throws ApiErrorResponseException, URIValidationException {
+        final UpstreamCall<T> attempt = attempt(dependency, uri, call);
+        try {
+            return callThroughNotFoundCache(dependency, uri, () -> hedging.call(dependency, uri, attempt));
+        } catch (UpstreamCallRejectedException rejected) {
+            throw serviceUnavailable(rejected);
+        }
+    }
+
+    /**
+     * Builds a single attempt at the call provided, guarded by the circuit breaker, limited by the concurrency limiter
+     * and timed.
+     * @param dependency the API called
+     * @param uri the URI called
+     * @param call the call to make
+     * @param <T> the type of the call result
+     * @return the attempt
+     */
+    private <T> UpstreamCall<T> attempt(final UpstreamDependency dependency,
+                                        final String uri,
+                                        final UpstreamCall<T> call) {
+        return guard(dependency, uri, limit(dependency, uri, time(dependency, call)));
+    }
+
+    private <T> T callThroughNotFoundCache(final UpstreamDependency dependency,
+                                           final String uri,
+                                           final UpstreamCall<T> call)
+            throws ApiErrorResponseException, URIValidationException {
+        if (notFoundResponses == null) {
+            return callOnce(dependency, uri, call);
+        }
+        final NotFoundResponse notFound = notFoundResponses.getIfPresent(uri);
+        if (notFound != null) {
+            throw notFound.toException();
+        }
+        try {
+            return callOnce(dependency, uri, call);
+        } catch (ApiErrorResponseException ex) {
+            if (ex.getStatusCode() == NOT_FOUND.value() || ex.getStatusCode() == GONE.value()) {
+                notFoundResponses.put(uri, NotFoundResponse.of(ex));
+            }
+            throw ex;
+        }
+    }
+
+    private <T> T callOnce(final UpstreamDependency dependency,
+                           final String uri,
+                           final UpstreamCall<T> call) throws ApiErrorResponseException, URIValidationException {
+        if (!config.isSingleFlight()) {
+            return call.execute();
+        }
+        final CompletableFuture<Object> started = new CompletableFuture<>();
+        final CompletableFuture<Object> inFlight = callsInFlight.putIfAbsent(uri, started);
+        if (inFlight != null) {
+            coalescedCalls.get(dependency).increment();
+            return await(inFlight, uri);
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    final T result = call.execute();
+                    callsInFlight.remove(uri, started);
+                    started.complete(result);
+                } catch (Throwable failure) {
+                    callsInFlight.remove(uri, started);
+                    started.completeExceptionally(failure);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            // Only expected on shut down. Failed so that callers already sharing the call are not left waiting.
+            callsInFlight.remove(uri, started);
+            started.completeExceptionally(ree);
+        }
+        return await(started, uri);
+    }
+
+    /**
+     * Guards the call provided with the circuit breaker of the API called, where circuit breakers are enabled. The
+     * guarded call fails with an {@link UpstreamCallRejectedException}, without calling the API, while the breaker is
+     * open. Otherwise, it records the outcome of the call: server errors and connection failures count as failures,
+     * whereas client errors (e.g. 404 Not Found) show the API to be working, and so count as successes. A call rejected
+     * by the concurrency limit never reaches the API, and a call abandoned before it completed (e.g. a hedged attempt
+     * that lost) has no known outcome, and so neither has any bearing on the breaker.
+     * @param dependency the API called
+     * @param uri the URI called
+     * @param call the call to guard
+     * @param <T> the type of the call result
+     * @return the guarded call
+     */
+    private <T> UpstreamCall<T> guard(final UpstreamDependency dependency,
+                                      final String uri,
+                                      final UpstreamCall<T> call) {
+        final UpstreamCircuitBreaker breaker = circuitBreakers.get(dependency);
+        if (breaker == null) {
+            return call;
+        }
+        return () -> {
+            final UpstreamCircuitBreaker.Permission permission = breaker.tryAcquirePermission();
+            if (permission == null) {
+                rejectedCalls.get(dependency).increment();
+                throw new UpstreamCallRejectedException(
+                        "The " + dependency.getTagValue() + " API is unavailable, not calling " + uri);
+            }
+            final long start = System.nanoTime();
+            try {
+                final T result = call.execute();
+                breaker.record(permission, false, System.nanoTime() - start);
+                return result;
+            } catch (UpstreamCallRejectedException notCalled) {
+                breaker.release(permission);
+                throw notCalled;
+            } catch (Throwable failure) {
+                if (Thread.currentThread().isInterrupted()) {
+                    breaker.release(permission);
+                } else {
+                    breaker.record(permission, isServerFailure(failure), System.nanoTime() - start);
+                }
+                throw failure;
+            }
+        };
+    }
+
+    /**
+     * Limits the call provided by the concurrency limiter of the API called, where concurrency limits are enabled.
+     * The limited call waits briefly for a permit should the limit be reached, and fails with an
+     * {@link UpstreamCallRejectedException}, without calling the API, should it not get one. Otherwise, it adjusts
+     * the limit from the outcome and round trip time of the call, unless the call was abandoned before it completed
+     * (e.g. a hedged attempt that lost).
+     * @param dependency the API called
+     * @param uri the URI called
+     * @param call the call to limit
+     * @param <T> the type of the call result
+     * @return the limited call
+     */
+    private <T> UpstreamCall<T> limit(final UpstreamDependency dependency,
+                                      final String uri,
+                                      final UpstreamCall<T> call) {
+        final UpstreamConcurrencyLimiter limiter = limiters.get(dependency);
+        if (limiter == null) {
+            return call;
+        }
+        return () -> {
+            if (!acquire(limiter, uri)) {
+                limitedCalls.get(dependency).increment();
+                throw new UpstreamCallRejectedException(
+                        "Too many calls in flight to the " + dependency.getTagValue() + " API, not calling " + uri);
+            }
+            final long start = System.nanoTime();
+            try {
+                final T result = call.execute();
+                limiter.release(false, System.nanoTime() - start);
+                return result;
+            } catch (Throwable failure) {
+                if (Thread.currentThread().isInterrupted()) {
+                    limiter.release();
+                } else {
+                    limiter.release(isServerFailure(failure), System.nanoTime() - start);
+                }
+                throw failure;
+            }
+        };
+    }
+
+    /**
+     * Times the call provided with the <code>upstream.calls</code> timer, tagged by the API called, and by the outcome
+     * and HTTP status of the call.
+     * @param dependency the API called
+     * @param call the call to time
+     * @param <T> the type of the call result
+     * @return the timed call
+     */
+    private <T> UpstreamCall<T> time(final UpstreamDependency dependency, final UpstreamCall<T> call) {
+        return () -> {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                final T result = call.execute();
+                sample.stop(callTimer(dependency,
+                        result instanceof ApiResponse<?> response ? response.getStatusCode() : HttpStatus.OK.value()));
+                return result;
+            } catch (Throwable failure) {
+                sample.stop(callTimer(dependency,
+                        failure instanceof ApiErrorResponseException apiException ? apiException.getStatusCode() : 0));
+                throw failure;
+            }
+        };
+    }
+
+    /**
+     * Gets the <code>upstream.calls</code> timer for the API and HTTP status provided.
+     * @param dependency the API called
+     * @param statusCode the HTTP status the API responded with, or <code>0</code> where it did not respond
+     * @return the timer
+     */
+    private Timer callTimer(final UpstreamDependency dependency, final int statusCode) {
+        final HttpStatus.Series series = HttpStatus.Series.resolve(statusCode);
+        final String outcome = series == null ? "UNKNOWN" : switch (series) {
+            case SUCCESSFUL -> "SUCCESS";
+            case CLIENT_ERROR -> "CLIENT_ERROR";
+            case SERVER_ERROR -> "SERVER_ERROR";
+            default -> "UNKNOWN";
+        };
+        return Timer.builder(CALL_TIMER)
+                .description("Calls made to the Companies House APIs")
+                .tag("dependency", dependency.getTagValue())
+                .tag("outcome", outcome)
+                .tag("status", statusCode == 0 ? NO_STATUS : Integer.toString(statusCode))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Maps the rejection of a call, by the circuit breaker or the concurrency limiter of the API called, to 503
+     * Service Unavailable.
+     * @param rejected the rejection
+     * @return the 503 Service Unavailable exception to throw
+     */
+    private static ResponseStatusException serviceUnavailable(final UpstreamCallRejectedException rejected) {
+        return new ResponseStatusException(SERVICE_UNAVAILABLE, rejected.getMessage(), rejected);
+    }
+
+    private static boolean acquire(final UpstreamConcurrencyLimiter limiter, final String uri) {
+        try {
+            return limiter.tryAcquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(INTERNAL_SERVER_ERROR, "Interrupted waiting to call " + uri, ie);
+        }
+    }
+
+    /**
+     * Indicates whether the failure provided shows the API called to be failing (a server error, or a connection
+     * failure, which the SDK reports as a 500), rather than the call to be at fault.
+     * @param failure the failure of the call
+     * @return whether the API called is failing
+     */
+    private static boolean isServerFailure(final Throwable failure) {
+        return failure instanceof ApiErrorResponseException apiException
+                && apiException.getStatusCode() >= INTERNAL_SERVER_ERROR.value();
+    }
+
+    private void registerConcurrencyLimiter(final UpstreamDependency dependency,
+                                            final ConcurrencyLimitConfig config,
+                                            final MeterRegistry meterRegistry) {
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, System::nanoTime);
+        final String tagValue = dependency.getTagValue();
+        limiters.put(dependency, limiter);
+        limitedCalls.put(dependency, Counter.builder("upstream.limiter.calls.rejected")
+                .description("Upstream calls failed as the concurrency limit of the API called stayed reached")
+                .tag("dependency", tagValue)
+                .register(meterRegistry));
+        Gauge.builder("upstream.limiter.limit", limiter, UpstreamConcurrencyLimiter::getLimit)
+                .description("The adaptive limit on the calls in flight to the API")
+                .tag("dependency", tagValue)
+                .register(meterRegistry);
+        Gauge.builder("upstream.limiter.in.flight", limiter, UpstreamConcurrencyLimiter::getInFlight)
+                .description("The calls in flight to the API")
+                .tag("dependency", tagValue)
+                .register(meterRegistry);
+        Gauge.builder("upstream.limiter.queued", limiter, UpstreamConcurrencyLimiter::getQueued)
+                .description("The calls queued for the concurrency limit of the API")
+                .tag("dependency", tagValue)
+                .register(meterRegistry);
+        TimeGauge.builder("upstream.limiter.rtt.baseline", limiter, TimeUnit.NANOSECONDS,
+                        l -> l.getBaselineRtt(TimeUnit.NANOSECONDS))
+                .description("The minimum round trip time of recent calls to the API, the baseline for congestion")
+                .tag("dependency", tagValue)
+                .register(meterRegistry);
+    }
+
+    private void registerCircuitBreaker(final UpstreamDependency dependency,
+                                        final CircuitBreakerConfig config,
+                                        final MeterRegistry meterRegistry) {
+        final UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(dependency, config, System::nanoTime);
+        circuitBreakers.put(dependency, breaker);
+        rejectedCalls.put(dependency, Counter.builder("upstream.circuit.calls.rejected")
+                .description("Upstream calls failed fast as the circuit breaker of the API called was open")
+                .tag("dependency", dependency.getTagValue())
+                .register(meterRegistry));
+        for (final UpstreamCircuitBreaker.State state : UpstreamCircuitBreaker.State.values()) {
+            Gauge.builder("upstream.circuit.state", breaker, b -> b.getState() == state ? 1 : 0)
+                    .description("Whether the circuit breaker of the API called is in the state tagged (1), or not (0)")
+                    .tag("dependency", dependency.getTagValue())
+                    .tag("state", state.getTagValue())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Builds the size bounded "not found" response cache. Hit, miss and eviction statistics are published to the
+     * meter registry provided under the cache name <code>upstream-not-found</code>, apart from those of the company
+     * name and filing history document caches.
+     * @param config the cache configuration
+     * @param meterRegistry the meter registry the cache statistics are published to
+     * @return the cache
+     */
+    private static Cache<String, NotFoundResponse> buildNotFoundCache(final NotFoundCacheConfig config,
+                                                                       final MeterRegistry meterRegistry) {
+        final Cache<String, NotFoundResponse> cache = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTimeToLive())
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, NOT_FOUND_CACHE);
+        return cache;
+    }
+
+    /**
+     * Waits for the call provided to complete, rethrowing its failure as is.
+     * @param call the call
+     * @param uri the URI called
+     * @param <T> the type of the call result
+     * @return the call result
+     * @throws ApiErrorResponseException should the API respond with an error, or be unreachable
+     * @throws URIValidationException should the URI be invalid
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T await(final CompletableFuture<?> call, final String uri)
+            throws ApiErrorResponseException, URIValidationException {
+        try {
+            return (T) call.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(INTERNAL_SERVER_ERROR, "Interrupted waiting for call to " + uri, ie);
+        } catch (ExecutionException ee) {
+            // Rethrown as is so that each caller maps the failure to the same HTTP status it would have otherwise.
+            final Throwable failure = ee.getCause();
+            if (failure instanceof ApiErrorResponseException apiException) {
+                throw apiException;
+            }
+            if (failure instanceof URIValidationException uriException) {
+                throw uriException;
+            }
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            throw new ResponseStatusException(INTERNAL_SERVER_ERROR, "Error calling " + uri, failure);
+        }
+    }
+}
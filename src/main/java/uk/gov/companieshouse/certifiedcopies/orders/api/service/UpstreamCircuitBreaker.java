@@ -0,0 +1,176 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import java.util.function.LongSupplier;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CircuitBreakerConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.logging.LoggingUtils;
+
+/**
+ * Circuit breaker guarding the calls to a single Companies House API.
+ * <ul>
+ *     <li>While <b>closed</b>, every call is permitted, and the outcomes of the most recent calls are kept in a
+ *     sliding window. Once the window holds the minimum number of calls, and either its failure rate or its slow
+ *     call rate reaches its threshold, the breaker opens.</li>
+ *     <li>While <b>open</b>, no call is permitted until the configured wait has elapsed, after which the breaker is
+ *     half open.</li>
+ *     <li>While <b>half open</b>, only the configured number of probe calls is permitted. Once they have all
+ *     completed, the breaker closes again, or re-opens should their failure or slow call rate reach its
+ *     threshold.</li>
+ * </ul>
+ * Each permission is issued for the state the breaker was in at the time. The outcome of a call permitted in an
+ * earlier state (e.g. a call still in flight from before the breaker opened) has no bearing on the current state, and
+ * is ignored, so that only the probes permitted while half open decide whether the breaker closes again.
+ */
+class UpstreamCircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN;
+
+        String getTagValue() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    /**
+     * The permission to make a call, issued for the state the breaker was in at the time.
+     * @param generation the number of state transitions the breaker had made when the permission was issued
+     */
+    record Permission(long generation) {
+    }
+
+    private final UpstreamDependency dependency;
+    private final CircuitBreakerConfig config;
+    private final LongSupplier nanoClock;
+
+    /** The sliding window: whether each of the most recent calls failed, and whether it was slow. */
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int calls;
+    private int next;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesPermitted;
+    private int probesCompleted;
+    private int probeFailures;
+    private int slowProbes;
+
+    UpstreamCircuitBreaker(final UpstreamDependency dependency,
+                           final CircuitBreakerConfig config,
+                           final LongSupplier nanoClock) {
+        this.dependency = dependency;
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.failed = new boolean[config.getSlidingWindowSize()];
+        this.slow = new boolean[config.getSlidingWindowSize()];
+    }
+
+    /**
+     * Asks for permission to make a call. A call permitted must have its outcome recorded through
+     * {@link #record(Permission, boolean, long)}, or its permission given back through {@link #release(Permission)}.
+     * @return the permission to make the call, or <code>null</code> should the call fail fast
+     */
+    synchronized Permission tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < config.getWaitDurationInOpenState().toNanos()) {
+                return null;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesPermitted >= config.getPermittedCallsInHalfOpenState()) {
+                return null;
+            }
+            probesPermitted++;
+        }
+        return new Permission(generation);
+    }
+
+    /**
+     * Records the outcome of a call permitted, unless it was permitted in an earlier state than the current one.
+     * @param permission the permission the call was made with
+     * @param callFailed whether the call failed
+     * @param durationNanos how long the call took, in nanoseconds
+     */
+    synchronized void record(final Permission permission, final boolean callFailed, final long durationNanos) {
+        if (permission.generation() != generation) {
+            // A call permitted in an earlier state, which has no bearing on the current one.
+            return;
+        }
+        final boolean callSlow = durationNanos >= config.getSlowCallDurationThreshold().toNanos();
+        switch (state) {
+            case HALF_OPEN -> {
+                probesCompleted++;
+                probeFailures += callFailed ? 1 : 0;
+                slowProbes += callSlow ? 1 : 0;
+                if (probesCompleted >= config.getPermittedCallsInHalfOpenState()) {
+                    transitionTo(thresholdReached(probeFailures, slowProbes, probesCompleted)
+                            ? State.OPEN : State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                if (calls == failed.length) {
+                    failures -= failed[next] ? 1 : 0;
+                    slowCalls -= slow[next] ? 1 : 0;
+                } else {
+                    calls++;
+                }
+                failed[next] = callFailed;
+                slow[next] = callSlow;
+                failures += callFailed ? 1 : 0;
+                slowCalls += callSlow ? 1 : 0;
+                next = (next + 1) % failed.length;
+                if (calls >= Math.min(config.getMinimumNumberOfCalls(), failed.length)
+                        && thresholdReached(failures, slowCalls, calls)) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            default -> {
+                // No call is permitted while open, so there is no outcome to record.
+            }
+        }
+    }
+
+    /**
+     * Gives back a permission acquired for a call that was never made, e.g. as it was rejected by the concurrency
+     * limit, so that it has no bearing on the breaker.
+     * @param permission the permission given back
+     */
+    synchronized void release(final Permission permission) {
+        if (permission.generation() == generation && state == State.HALF_OPEN && probesPermitted > probesCompleted) {
+            probesPermitted--;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private boolean thresholdReached(final int failedCalls, final int slowCallCount, final int callCount) {
+        return failedCalls * 100 >= config.getFailureRateThreshold() * callCount
+                || slowCallCount * 100 >= config.getSlowCallRateThreshold() * callCount;
+    }
+
+    private void transitionTo(final State newState) {
+        LoggingUtils.getLogger().info("Circuit breaker for the " + dependency.getTagValue() + " API transitioned from "
+                + state + " to " + newState + ".");
+        state = newState;
+        generation++;
+        probesPermitted = 0;
+        probesCompleted = 0;
+        probeFailures = 0;
+        slowProbes = 0;
+        if (newState == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+        } else if (newState == State.CLOSED) {
+            calls = 0;
+            next = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
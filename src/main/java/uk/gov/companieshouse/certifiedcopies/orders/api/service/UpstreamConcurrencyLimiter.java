@@ -0,0 +1,197 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ConcurrencyLimitConfig;
+
+/**
+ * Adaptive limit on the number of calls in flight to a single Companies House API, adjusted by AIMD (additive
+ * increase, multiplicative decrease) from the outcome and round trip time (RTT) of every call.
+ * <ul>
+ *     <li>A call that succeeds within the RTT tolerance of the baseline RTT grows the limit by <code>1 / limit</code>,
+ *     so by one once a whole limit's worth of calls has succeeded. The limit only grows while at least half of it is
+ *     in use, so that an idle API does not accumulate a limit it has never been shown to cope with.</li>
+ *     <li>A call that fails with a server error, or exceeds the RTT tolerance, multiplies the limit by the backoff
+ *     ratio, at most once in each RTT window, so that a burst of failures cuts the limit once rather than once for
+ *     every call in it.</li>
+ * </ul>
+ * The baseline RTT is the minimum RTT of the calls that succeeded over the last {@value #BASELINE_WINDOWS} RTT windows,
+ * those that exceeded the RTT tolerance included. Should the API get slower for good, the baseline catches up with it
+ * once the faster RTTs have aged out of those windows, and the limit then grows again.
+ * <p>
+ * A call over the limit queues for a short while for a call in flight to complete, and is rejected should it not.
+ */
+class UpstreamConcurrencyLimiter {
+
+    /** The number of RTT windows the baseline RTT is the minimum RTT over. */
+    static final int BASELINE_WINDOWS = 10;
+
+    private final ConcurrencyLimitConfig config;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    /** The minimum RTT recorded in each of the most recent RTT windows, or <code>Long.MAX_VALUE</code> for none. */
+    private final long[] windowMinRttNanos = new long[BASELINE_WINDOWS];
+    private int window;
+    private long windowStart;
+    private boolean backedOffInWindow;
+
+    UpstreamConcurrencyLimiter(final ConcurrencyLimitConfig config, final LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.limit = Math.clamp(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+        Arrays.fill(windowMinRttNanos, Long.MAX_VALUE);
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    /**
+     * Acquires a permit to make a call, queueing for no longer than the maximum queue wait configured. A permit
+     * acquired must be released through {@link #release(boolean, long)}, or {@link #release()}.
+     * @return whether a permit was acquired (<code>true</code>), or the call must be rejected (<code>false</code>)
+     * @throws InterruptedException should the caller be interrupted while queueing
+     */
+    boolean tryAcquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= config.getMaxQueueSize()) {
+                return false;
+            }
+            queued++;
+            try {
+                long remainingNanos = config.getMaxQueueWait().toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    remainingNanos = permitReleased.awaitNanos(remainingNanos);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a call that has completed, adjusting the limit from its outcome.
+     * @param failed whether the call failed with a server error, or could not reach the API
+     * @param rttNanos the round trip time of the call, in nanoseconds
+     */
+    void release(final boolean failed, final long rttNanos) {
+        lock.lock();
+        try {
+            advanceWindow();
+            final long baselineRttNanos = baselineRttNanos();
+            final boolean congested = failed
+                    || (baselineRttNanos > 0 && rttNanos > baselineRttNanos * config.getRttTolerance());
+            if (!failed) {
+                // A failed call may have failed fast (e.g. connection refused), so says nothing of the RTT.
+                windowMinRttNanos[window] = Math.min(windowMinRttNanos[window], rttNanos);
+            }
+            if (congested) {
+                if (!backedOffInWindow) {
+                    limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+                    backedOffInWindow = true;
+                }
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(config.getMaxLimit(), limit + 1 / limit);
+            }
+            inFlight--;
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a call abandoned before it completed (e.g. a hedged attempt that lost), without
+     * adjusting the limit, as the outcome of the call is unknown.
+     */
+    void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double getBaselineRtt(final TimeUnit unit) {
+        lock.lock();
+        try {
+            return (double) baselineRttNanos() / unit.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves on to a new RTT window, forgetting the oldest, should the current window have elapsed. Must be called
+     * with the lock held.
+     */
+    private void advanceWindow() {
+        final long windowNanos = config.getRttWindow().toNanos();
+        final long windowsElapsed = (nanoClock.getAsLong() - windowStart) / windowNanos;
+        if (windowsElapsed == 0) {
+            return;
+        }
+        for (int elapsed = 0; elapsed < Math.min(windowsElapsed, BASELINE_WINDOWS); elapsed++) {
+            window = (window + 1) % BASELINE_WINDOWS;
+            windowMinRttNanos[window] = Long.MAX_VALUE;
+        }
+        windowStart += windowsElapsed * windowNanos;
+        backedOffInWindow = false;
+    }
+
+    /**
+     * Gets the baseline RTT. Must be called with the lock held.
+     * @return the minimum RTT over the most recent RTT windows, or <code>0</code> should none have been recorded
+     */
+    private long baselineRttNanos() {
+        final long minimum = Arrays.stream(windowMinRttNanos).min().orElse(Long.MAX_VALUE);
+        return minimum == Long.MAX_VALUE ? 0 : minimum;
+    }
+}
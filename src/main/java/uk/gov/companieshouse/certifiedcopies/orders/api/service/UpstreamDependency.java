@@ -0,0 +1,22 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+/**
+ * Values of this represent the Companies House APIs this API looks data up from.
+ */
+public enum UpstreamDependency {
+    COMPANY_PROFILE("company-profile"),
+    FILING_HISTORY("filing-history");
+
+    private final String tagValue;
+
+    UpstreamDependency(final String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    /**
+     * @return the value used to identify the dependency in metrics and configuration
+     */
+    public String getTagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,314 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.api.error.ApiErrorResponseException;
+import uk.gov.companieshouse.api.handler.exception.URIValidationException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.HedgingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamCallService.UpstreamCall;
+
+/**
+ * Service that hedges slow calls to the Companies House APIs. Where hedging is enabled, a call that has not completed
+ * within the configured percentile of recent call latencies is sent a second time. Whichever attempt responds first
+ * is used, and the other is cancelled. Hedges are paid for out of a budget that grows by a configured fraction of
+ * every call made, so that hedging never adds more than that fraction of extra load, however slow the API gets.
+ * <p>
+ * The latency of an attempt cancelled before it responded is unknown, but is at least as long as it had taken by
+ * then, and so is recorded as that long, rather than left out of the latencies the hedging delay is derived from.
+ * <p>
+ * The hedges sent, the hedges not sent for lack of budget, the winning attempts and the current hedging delay are
+ * published as the <code>upstream.hedging.*</code> meters, tagged by dependency.
+ */
+@Service
+public class UpstreamHedgingService {
+
+    /** Identifies the attempts at a call, as published in the winner statistics. */
+    enum Attempt {
+        PRIMARY,
+        HEDGE;
+
+        String getTagValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final HedgingConfig config;
+    private final ExecutorService executor;
+    private final HedgeBudget budget;
+    private final Map<UpstreamDependency, LatencyWindow> latencies = new EnumMap<>(UpstreamDependency.class);
+    private final Map<UpstreamDependency, Counter> hedgesSent = new EnumMap<>(UpstreamDependency.class);
+    private final Map<UpstreamDependency, Counter> hedgesDenied = new EnumMap<>(UpstreamDependency.class);
+    private final Map<UpstreamDependency, Map<Attempt, Counter>> wins = new EnumMap<>(UpstreamDependency.class);
+
+    public UpstreamHedgingService(final HedgingConfig config,
+                                  final @Qualifier("upstreamLookupExecutor") ExecutorService executor,
+                                  final MeterRegistry meterRegistry) {
+        this.config = config;
+        this.executor = executor;
+        this.budget = new HedgeBudget(config.getBudget(), config.getBudgetBurst());
+        for (final UpstreamDependency dependency : UpstreamDependency.values()) {
+            final String tagValue = dependency.getTagValue();
+            final LatencyWindow window = new LatencyWindow(config.getWindowSize());
+            latencies.put(dependency, window);
+            hedgesSent.put(dependency, Counter.builder("upstream.hedging.hedges")
+                    .description("Upstream calls sent a second time as they had not responded within the hedging delay")
+                    .tag("dependency", tagValue)
+                    .register(meterRegistry));
+            hedgesDenied.put(dependency, Counter.builder("upstream.hedging.budget.exhausted")
+                    .description("Upstream calls not hedged, though slow, as the hedging budget was spent")
+                    .tag("dependency", tagValue)
+                    .register(meterRegistry));
+            final Map<Attempt, Counter> winners = new EnumMap<>(Attempt.class);
+            for (final Attempt attempt : Attempt.values()) {
+                winners.put(attempt, Counter.builder("upstream.hedging.wins")
+                        .description("Hedged upstream calls, by the attempt that responded first")
+                        .tag("dependency", tagValue)
+                        .tag("attempt", attempt.getTagValue())
+                        .register(meterRegistry));
+            }
+            wins.put(dependency, winners);
+            TimeGauge.builder("upstream.hedging.delay", window,
+                            NANOSECONDS, w -> w.percentile(config.getPercentile()))
+                    .description("How long an upstream call is currently given before it is hedged")
+                    .tag("dependency", tagValue)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Makes the call provided, hedging it should it not complete within the hedging delay, and hedging be enabled.
+     * The call is made on the caller's thread where hedging is disabled, and on the upstream lookup executor
+     * otherwise.
+     * @param dependency the API called
+     * @param uri the URI called
+     * @param call the call to make, which must be safe to make twice, and which is made once for each attempt
+     * @param <T> the type of the call result
+     * @return the result of whichever attempt responded first
+     * @throws ApiErrorResponseException should the API respond with an error, or be unreachable
+     * @throws URIValidationException should the URI be invalid
+     */
+    public <T> T call(final UpstreamDependency dependency,
+                      final String uri,
+                      final UpstreamCall<T> call) throws ApiErrorResponseException, URIValidationException {
+        if (!config.isEnabled()) {
+            return call.execute();
+        }
+        budget.deposit();
+        final LatencyWindow window = latencies.get(dependency);
+        final Race<T> race = new Race<>(call, window);
+        try {
+            race.start(executor, Attempt.PRIMARY);
+            final long delay = window.size() >= config.getMinimumSamples()
+                    ? Math.max(window.percentile(config.getPercentile()), config.getMinimumDelay().toNanos())
+                    : -1;
+            if (delay >= 0 && !race.awaitFor(delay) && !race.winner.isDone()) {
+                if (budget.withdraw()) {
+                    hedgesSent.get(dependency).increment();
+                    race.start(executor, Attempt.HEDGE);
+                } else {
+                    hedgesDenied.get(dependency).increment();
+                }
+            }
+            final T result = UpstreamCallService.await(race.winner, uri);
+            if (race.hedged()) {
+                wins.get(dependency).get(race.winningAttempt.get()).increment();
+            }
+            return result;
+        } finally {
+            race.cancelAll();
+        }
+    }
+
+    /**
+     * The attempts at a single call, of which the first to respond successfully wins. An attempt that fails only
+     * fails the call where no other attempt is still pending.
+     * @param <T> the type of the call result
+     */
+    private static final class Race<T> {
+
+        private final UpstreamCall<T> call;
+        private final LatencyWindow window;
+        private final CompletableFuture<T> winner = new CompletableFuture<>();
+        private final AtomicReference<Attempt> winningAttempt = new AtomicReference<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final List<AttemptInFlight> attempts = new CopyOnWriteArrayList<>();
+
+        private Race(final UpstreamCall<T> call, final LatencyWindow window) {
+            this.call = call;
+            this.window = window;
+        }
+
+        private void start(final ExecutorService executor, final Attempt attempt) {
+            pending.incrementAndGet();
+            final AttemptInFlight inFlight = new AttemptInFlight();
+            try {
+                inFlight.future = executor.submit(() -> run(attempt, inFlight));
+                attempts.add(inFlight);
+            } catch (RejectedExecutionException ree) {
+                // Only expected on shut down.
+                fail(ree);
+            }
+        }
+
+        private void run(final Attempt attempt, final AttemptInFlight inFlight) {
+            try {
+                final T result = call.execute();
+                inFlight.recordLatency(window);
+                if (winningAttempt.compareAndSet(null, attempt)) {
+                    winner.complete(result);
+                }
+            } catch (Throwable failure) {
+                inFlight.recordLatency(window);
+                fail(failure);
+            }
+        }
+
+        private void fail(final Throwable failure) {
+            if (pending.decrementAndGet() == 0) {
+                winner.completeExceptionally(failure);
+            }
+        }
+
+        /**
+         * Waits for the call to complete, for no longer than the delay provided.
+         * @param delayNanos the delay, in nanoseconds
+         * @return whether the call completed within the delay (<code>true</code>), or not (<code>false</code>)
+         */
+        private boolean awaitFor(final long delayNanos) {
+            try {
+                winner.get(delayNanos, NANOSECONDS);
+                return true;
+            } catch (TimeoutException te) {
+                return false;
+            } catch (ExecutionException ee) {
+                return true;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(INTERNAL_SERVER_ERROR, "Interrupted waiting for call", ie);
+            }
+        }
+
+        private boolean hedged() {
+            return attempts.size() > 1;
+        }
+
+        /**
+         * Cancels every attempt still in flight, interrupting its thread so that its connection is closed. The
+         * latency of each attempt cancelled is recorded as however long it had taken by then.
+         */
+        private void cancelAll() {
+            for (final AttemptInFlight attempt : attempts) {
+                attempt.recordLatency(window);
+                attempt.future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * An attempt at a call, the latency of which is recorded once only: when it completes, or when it is cancelled,
+     * whichever comes first.
+     */
+    private static final class AttemptInFlight {
+
+        private final long start = System.nanoTime();
+        private final AtomicBoolean latencyRecorded = new AtomicBoolean();
+        private Future<?> future;
+
+        private void recordLatency(final LatencyWindow window) {
+            if (latencyRecorded.compareAndSet(false, true)) {
+                window.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * The latencies of the most recent calls to a dependency, from which the hedging delay is derived. The sorted
+     * latencies are only recomputed every tenth of the window, so that a percentile is cheap to look up.
+     */
+    static final class LatencyWindow {
+
+        private final long[] samples;
+        private final int recomputeEvery;
+        private int size;
+        private int next;
+        private int sinceSorted;
+        private long[] sorted = new long[0];
+
+        LatencyWindow(final int windowSize) {
+            this.samples = new long[windowSize];
+            this.recomputeEvery = Math.max(1, windowSize / 10);
+        }
+
+        synchronized void record(final long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+            sinceSorted++;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long percentile(final double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            if (sorted.length != size || sinceSorted >= recomputeEvery) {
+                sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                sinceSorted = 0;
+            }
+            return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * The budget hedges are paid for from. Every call deposits the configured fraction of a hedge, and every hedge
+     * withdraws a whole one, up to the configured burst.
+     */
+    static final class HedgeBudget {
+
+        private final double depositPerCall;
+        private final double maximum;
+        private double balance;
+
+        HedgeBudget(final double depositPerCall, final double maximum) {
+            this.depositPerCall = depositPerCall;
+            this.maximum = maximum;
+        }
+
+        synchronized void deposit() {
+            balance = Math.min(maximum, balance + depositPerCall);
+        }
+
+        synchronized boolean withdraw() {
+            if (balance < 1) {
+                return false;
+            }
+            balance--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs a group of upstream lookups made on behalf of a single request concurrently, in the manner of a structured
+ * concurrency "shut down on failure" scope: lookups are forked, then joined together, and the first lookup to fail
+ * cancels all the others and has its exception rethrown to the request thread.
+ * <p>
+ * Instances are obtained from {@link UpstreamLookupService#openScope(int)} and must be closed, which cancels any
+ * lookups still in flight. Instances are not thread safe, and are intended to be used by the request thread only.
+ */
+public final class UpstreamLookupScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore nodePermits;
+    private final Semaphore requestPermits;
+    private final RequestAttributes requestAttributes;
+    private final List<Future<?>> forks = new ArrayList<>();
+    private final BlockingQueue<Future<?>> completed = new LinkedBlockingQueue<>();
+    private Throwable failure;
+
+    UpstreamLookupScope(final ExecutorService executor,
+                        final Semaphore nodePermits,
+                        final int maxConcurrentLookups) {
+        this.executor = executor;
+        this.nodePermits = nodePermits;
+        this.requestPermits = new Semaphore(maxConcurrentLookups);
+        this.requestAttributes = RequestContextHolder.getRequestAttributes();
+    }
+
+    /**
+     * Starts the lookup provided. It is run once both a per request and a per node permit are available.
+     * @param lookup the lookup to run
+     * @param <T> the type of the lookup result
+     * @return the {@link Future} through which the result can be obtained once {@link #join()} has returned
+     */
+    public <T> Future<T> fork(final Callable<T> lookup) {
+        return start(() -> runWithPermits(lookup));
+    }
+
+    /**
+     * Starts the lookup provided, which itself fans out into further lookups forked in a scope of its own (for
+     * example, {@link FilingHistoryDocumentService#getFilingHistoryDocuments}). It takes no permits of its own, so
+     * that it cannot hold on to a permit the lookups it fans out into are waiting for.
+     * @param lookup the lookup to run
+     * @param <T> the type of the lookup result
+     * @return the {@link Future} through which the result can be obtained once {@link #join()} has returned
+     */
+    public <T> Future<T> forkFanOut(final Callable<T> lookup) {
+        return start(() -> runInRequestContext(lookup));
+    }
+
+    /**
+     * Waits until either all the lookups forked have completed, or one of them has failed, in which case all the
+     * lookups still in flight are cancelled and the exception thrown by the failed lookup is propagated.
+     */
+    public void join() {
+        awaitForks(false);
+        throwIfFailed();
+    }
+
+    /**
+     * Waits until either all the lookups forked have completed, or one of them has failed. On failure, the lookups
+     * forked after the failed one are cancelled, while those forked before it are still awaited, so that the
+     * exception propagated is always that of the earliest forked lookup to fail. This reports the same error a
+     * sequential run of the lookups would have reported.
+     */
+    public void joinInForkOrder() {
+        awaitForks(true);
+        throwIfFailed();
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private <T> Future<T> start(final Callable<T> task) {
+        final FutureTask<T> fork = new FutureTask<>(task) {
+            @Override
+            protected void done() {
+                completed.add(this);
+            }
+        };
+        forks.add(fork);
+        executor.execute(fork);
+        return fork;
+    }
+
+    private <T> T runWithPermits(final Callable<T> lookup) throws Exception {
+        requestPermits.acquire();
+        try {
+            nodePermits.acquire();
+            try {
+                return runInRequestContext(lookup);
+            } finally {
+                nodePermits.release();
+            }
+        } finally {
+            requestPermits.release();
+        }
+    }
+
+    private <T> T runInRequestContext(final Callable<T> lookup) throws Exception {
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try {
+            return lookup.call();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void awaitForks(final boolean earliestFailureWins) {
+        int earliestFailed = forks.size();
+        try {
+            for (int done = 0; done < forks.size(); done++) {
+                final Future<?> fork = completed.take();
+                if (fork.state() == Future.State.FAILED) {
+                    final int failed = forks.indexOf(fork);
+                    if (failed < earliestFailed) {
+                        earliestFailed = failed;
+                        failure = fork.exceptionNow();
+                        cancel(forks.subList(earliestFailureWins ? failed + 1 : 0, forks.size()));
+                    }
+                }
+                if (earliestFailed < forks.size()
+                        && (!earliestFailureWins || forks.subList(0, earliestFailed).stream().allMatch(Future::isDone))) {
+                    break;
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            failure = ie;
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        cancel(forks);
+    }
+
+    private static void cancel(final List<Future<?>> forksToCancel) {
+        forksToCancel.forEach(fork -> fork.cancel(true));
+    }
+
+    private void throwIfFailed() {
+        if (failure instanceof RuntimeException runtimeException) {
+            // Rethrown as is so that the HTTP status mapping made by the lookup (400, 500 etc) is preserved.
+            throw runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure != null) {
+            throw new ResponseStatusException(INTERNAL_SERVER_ERROR,
+                    "Upstream lookup failed: " + failure.getMessage(), failure);
+        }
+    }
+}
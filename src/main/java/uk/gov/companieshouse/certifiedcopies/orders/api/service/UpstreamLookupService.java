@@ -0,0 +1,59 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
+
+/**
+ * Service that runs upstream lookups concurrently, bounding the number in flight both per request and per node
+ * (application instance).
+ */
+@Service
+public class UpstreamLookupService {
+
+    private final ExecutorService executor;
+    private final Semaphore nodePermits;
+
+    public UpstreamLookupService(final UpstreamLookupConfig config,
+                                 final @Qualifier("upstreamLookupExecutor") ExecutorService executor) {
+        this.executor = executor;
+        this.nodePermits = new Semaphore(config.getMaxConcurrentPerNode());
+    }
+
+    /**
+     * Opens a new {@link UpstreamLookupScope} in which lookups can be forked and joined.
+     * @param maxConcurrentLookups the maximum number of lookups forked in the scope that may run at the same time
+     * @return the new scope, which must be closed by the caller
+     */
+    public UpstreamLookupScope openScope(final int maxConcurrentLookups) {
+        return new UpstreamLookupScope(executor, nodePermits, maxConcurrentLookups);
+    }
+
+    /**
+     * Applies the lookup provided to each of the inputs concurrently, failing fast should any one lookup fail. The
+     * exception propagated is that of the first input (in input order) whose lookup failed, as it would be were the
+     * inputs looked up one after another.
+     * @param inputs the inputs to be looked up
+     * @param lookup the lookup to apply to each input
+     * @param maxConcurrentLookups the maximum number of lookups that may run at the same time
+     * @param <T> the input type
+     * @param <R> the lookup result type
+     * @return the lookup results, in the same order as the inputs they were looked up for
+     */
+    public <T, R> List<R> mapInOrder(final List<T> inputs,
+                                     final Function<T, R> lookup,
+                                     final int maxConcurrentLookups) {
+        try (final UpstreamLookupScope scope = openScope(maxConcurrentLookups)) {
+            final List<Future<R>> results = inputs.stream()
+                    .map(input -> scope.fork(() -> lookup.apply(input)))
+                    .toList();
+            scope.joinInForkOrder();
+            return results.stream().map(Future::resultNow).toList();
+        }
+    }
+}
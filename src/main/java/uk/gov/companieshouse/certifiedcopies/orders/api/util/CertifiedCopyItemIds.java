@@ -0,0 +1,38 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the list of certified copy item IDs requested in the <code>ids</code> query parameter, in the same way both
+ * where the request is authorised and where it is handled, so that the items authorised are those returned.
+ */
+public final class CertifiedCopyItemIds {
+
+    public static final String IDS_PARAMETER = "ids";
+    public static final int MAX_IDS = 100;
+
+    private CertifiedCopyItemIds() {
+    }
+
+    /**
+     * Parses the IDs requested.
+     * @param ids the comma separated IDs, as given, or joined with commas where the parameter is given more than once
+     * @return the IDs, in the order requested, leaving out any that are blank
+     */
+    public static List<String> parse(final String ids) {
+        return Arrays.stream(ids.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Determines whether the number of IDs requested may be got in a single request.
+     * @param ids the IDs requested
+     * @return whether between 1 and {@link #MAX_IDS} IDs were requested
+     */
+    public static boolean isValidCount(final List<String> ids) {
+        return !ids.isEmpty() && ids.size() <= MAX_IDS;
+    }
+}
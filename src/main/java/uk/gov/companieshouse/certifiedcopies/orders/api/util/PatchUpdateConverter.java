@@ -0,0 +1,91 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.util;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonMergePatch;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PatchUpdateConverter {
+
+    /**
+     * Converts the merge patch provided into the MongoDB update that makes the same changes to the stored document,
+     * following the <a href="https://datatracker.ietf.org/doc/html/rfc7396">JSON Merge Patch</a> rules:
+     * <ul>
+     *     <li>a <code>null</code> member removes the field (<code>$unset</code>)</li>
+     *     <li>an object member is merged into the field, member by member</li>
+     *     <li>any other member, including an array, replaces the field (<code>$set</code>)</li>
+     * </ul>
+     * The patch is assumed to have been validated, and to name its fields as they are stored, i.e. in snake case,
+     * with enum values as their JSON names.
+     * @param mergePatch JSON merge patch
+     * @param pathPrefix the path of the stored sub-document the patch applies to, e.g. <code>data</code>
+     * @return the update, with a <code>$set</code> or <code>$unset</code> of every field the patch changes
+     */
+    public Update toUpdate(final JsonMergePatch mergePatch, final String pathPrefix) {
+        final Update update = new Update();
+        final JsonValue patch = mergePatch.toJsonValue();
+        if (patch.getValueType() == JsonValue.ValueType.OBJECT) {
+            addChanges(update, pathPrefix, patch.asJsonObject());
+        }
+        return update;
+    }
+
+    /**
+     * Gets the paths changed by the update provided.
+     * @param update the update
+     * @return the value each path is set to by the update, or <code>null</code> where the path is unset
+     */
+    public Map<String, Object> getChangedPaths(final Update update) {
+        final Map<String, Object> paths = new LinkedHashMap<>();
+        if (update.getUpdateObject().get("$set") instanceof Document set) {
+            paths.putAll(set);
+        }
+        if (update.getUpdateObject().get("$unset") instanceof Document unset) {
+            unset.keySet().forEach(path -> paths.put(path, null));
+        }
+        return paths;
+    }
+
+    private static void addChanges(final Update update, final String path, final JsonObject patch) {
+        patch.forEach((name, value) -> {
+            final String fieldPath = path + "." + name;
+            switch (value.getValueType()) {
+                case NULL -> update.unset(fieldPath);
+                case OBJECT -> addChanges(update, fieldPath, value.asJsonObject());
+                default -> update.set(fieldPath, toStoredValue(value));
+            }
+        });
+    }
+
+    private static Object toStoredValue(final JsonValue value) {
+        return switch (value.getValueType()) {
+            case STRING -> ((JsonString) value).getString();
+            case NUMBER -> toNumber((JsonNumber) value);
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case ARRAY -> ((JsonArray) value).stream().map(PatchUpdateConverter::toStoredValue).toList();
+            case OBJECT -> {
+                final Document document = new Document();
+                value.asJsonObject().forEach((name, member) -> document.append(name, toStoredValue(member)));
+                yield document;
+            }
+            case NULL -> null;
+        };
+    }
+
+    private static Number toNumber(final JsonNumber number) {
+        if (!number.isIntegral()) {
+            return number.doubleValue();
+        }
+        final long value = number.longValue();
+        return value == (int) value ? Integer.valueOf((int) value) : Long.valueOf(value);
+    }
+}
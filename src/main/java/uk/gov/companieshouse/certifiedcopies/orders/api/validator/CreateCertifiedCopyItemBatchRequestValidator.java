@@ -0,0 +1,57 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.validator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemRequestDTO;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.FieldNameConverter;
+
+/**
+ * Implements validation of each of the items in the request payload of the batch create items request. Spring does
+ * not validate the items of a request body list as it does a single request body item, so each item is validated
+ * here instead, both against its bean validation constraints, and as a single create item request would be.
+ */
+@Component
+public class CreateCertifiedCopyItemBatchRequestValidator {
+
+    private final Validator validator;
+    private final FieldNameConverter converter;
+    private final CreateCertifiedCopyItemRequestValidator itemValidator;
+
+    /**
+     * Constructor.
+     * @param validator the validator this relies upon to validate DTOs
+     * @param converter the converter this uses to present field names as they appear in the request JSON payload
+     * @param itemValidator the validator of a single create item request
+     */
+    public CreateCertifiedCopyItemBatchRequestValidator(final Validator validator,
+                                                        final FieldNameConverter converter,
+                                                        final CreateCertifiedCopyItemRequestValidator itemValidator) {
+        this.validator = validator;
+        this.converter = converter;
+        this.itemValidator = itemValidator;
+    }
+
+    /**
+     * Validates the item provided, returning any errors found.
+     * @param item the item to be validated, which may be <code>null</code> should the request payload hold a
+     *             <code>null</code> item
+     * @return the errors found, which will be empty if the item is found to be valid
+     */
+    public List<String> getValidationErrors(final CertifiedCopyItemRequestDTO item) {
+        if (item == null) {
+            return List.of("item: must not be null");
+        }
+        final List<String> errors = new ArrayList<>(validator.validate(item).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> converter.toSnakeCase(violation.getPropertyPath().toString()) + ": "
+                        + violation.getMessage())
+                .toList());
+        if (errors.isEmpty()) {
+            errors.addAll(itemValidator.getValidationErrors(item));
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,59 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests the {@link UpstreamHttpConfig} class.
+ */
+class UpstreamHttpConfigTest {
+
+    private UpstreamHttpConfig configUnderTest;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() {
+        configUnderTest = new UpstreamHttpConfig();
+        configUnderTest.setMaxConnectionsTotal(50);
+        configUnderTest.setMaxConnectionsPerRoute(10);
+        connectionManager = configUnderTest.upstreamConnectionManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("The connection pool is sized as configured")
+    void connectionPoolIsSizedAsConfigured() {
+        assertThat(connectionManager.getMaxTotal(), is(50));
+        assertThat(connectionManager.getDefaultMaxPerRoute(), is(10));
+    }
+
+    @Test
+    @DisplayName("The connection pool gauges report the state of the pool")
+    void connectionPoolGaugesReportPoolState() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+
+        configUnderTest.upstreamConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        assertThat(gauge(registry, "leased"), is(0.0));
+        assertThat(gauge(registry, "pending"), is(0.0));
+        assertThat(gauge(registry, "available"), is(0.0));
+        assertThat(gauge(registry, "max"), is(50.0));
+    }
+
+    private static double gauge(final MeterRegistry registry, final String state) {
+        return registry.get("upstream.http.pool.connections").tag("state", state).gauge().value();
+    }
+}
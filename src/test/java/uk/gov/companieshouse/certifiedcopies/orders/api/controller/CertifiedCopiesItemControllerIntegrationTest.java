@@ -10,6 +10,7 @@ import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,6 +28,7 @@ import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryMethod;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryTimescale;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemCosts;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.Links;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.ProductType;
 import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemRepository;
@@ -36,6 +38,7 @@ import uk.gov.companieshouse.certifiedcopies.orders.api.service.DescriptionProvi
 import uk.gov.companieshouse.certifiedcopies.orders.api.service.FilingHistoryDocumentService;
 import uk.gov.companieshouse.certifiedcopies.orders.api.service.IdGeneratorService;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -46,6 +49,8 @@ import java.util.Optional;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.anyList;
@@ -54,6 +59,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -81,6 +87,9 @@ class CertifiedCopiesItemControllerIntegrationTest extends AbstractMongoConfig {
 
     private static final String TOKEN_PERMISSION_CREATE = String.format(TOKEN_PERMISSION_VALUE, "create");
     private static final String TOKEN_PERMISSION_READ = String.format(TOKEN_PERMISSION_VALUE, "read");
+    private static final String TOKEN_PERMISSION_UPDATE = String.format(TOKEN_PERMISSION_VALUE, "update");
+    private static final String MERGE_PATCH_CONTENT_TYPE = "application/merge-patch+json";
+    private static final String UPDATED_CUSTOMER_REFERENCE = "Certified Copy re-ordered by NJ.";
     private static final String CERTIFIED_COPY_ID = "CCD-123456-123456";
     private static final String COMPANY_NUMBER = "00000000";
     private static final String COMPANY_NAME = "Company Name";
@@ -724,6 +733,219 @@ class CertifiedCopiesItemControllerIntegrationTest extends AbstractMongoConfig {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("Lists the user's certified copy items newest first, one page at a time")
+    void listCertifiedCopyItemsPageByPage() throws Exception {
+        // Given
+        final LocalDateTime createdAt = LocalDateTime.of(2026, 10, 18, 12, 0);
+        saveListedItem("CCD-000000-000001", createdAt.minusMinutes(1), ERIC_IDENTITY_VALUE);
+        saveListedItem("CCD-000000-000002", createdAt, ERIC_IDENTITY_VALUE);
+        saveListedItem("CCD-000000-000003", createdAt, ERIC_IDENTITY_VALUE);
+        saveListedItem("CCD-000000-000004", createdAt.plusMinutes(1), "another user");
+
+        // When and then
+        final String firstPage = mockMvc.perform(get(CERTIFIED_COPIES_URL)
+                .param("user", "me")
+                .param("limit", "2")
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_READ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id", is("CCD-000000-000003")))
+                .andExpect(jsonPath("$.items[1].id", is("CCD-000000-000002")))
+                .andExpect(jsonPath("$.items[0].item_options.filing_history_documents").doesNotExist())
+                .andExpect(jsonPath("$.next_cursor").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get(CERTIFIED_COPIES_URL)
+                .param("user", "me")
+                .param("limit", "2")
+                .param("cursor", objectMapper.readTree(firstPage).get("next_cursor").asText())
+                .param("include", "filing_history_documents")
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_READ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is("CCD-000000-000001")))
+                .andExpect(jsonPath("$.items[0].item_options.filing_history_documents", hasSize(1)))
+                .andExpect(jsonPath("$.next_cursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Gets the certified copy items by ID in the order requested, marking those not found")
+    void getCertifiedCopyItemsByIds() throws Exception {
+        // Given
+        final LocalDateTime createdAt = LocalDateTime.of(2026, 10, 18, 12, 0);
+        saveListedItem("CCD-000000-000001", createdAt, ERIC_IDENTITY_VALUE);
+        saveListedItem("CCD-000000-000002", createdAt, ERIC_IDENTITY_VALUE);
+
+        // When and then
+        mockMvc.perform(get(CERTIFIED_COPIES_URL)
+                .param("ids", "CCD-000000-000002,CCD-000000-000009,CCD-000000-000001")
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_READ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(3)))
+                .andExpect(jsonPath("$.results[0].status", is(200)))
+                .andExpect(jsonPath("$.results[0].item.id", is("CCD-000000-000002")))
+                .andExpect(jsonPath("$.results[1].id", is("CCD-000000-000009")))
+                .andExpect(jsonPath("$.results[1].status", is(404)))
+                .andExpect(jsonPath("$.results[1].item").doesNotExist())
+                .andExpect(jsonPath("$.results[2].item.id", is("CCD-000000-000001")));
+    }
+
+    @Test
+    @DisplayName("Refuses to get certified copy items by ID should any one of them belong to another user")
+    void getCertifiedCopyItemsByIdsRefusesAnotherUsersItem() throws Exception {
+        // Given
+        final LocalDateTime createdAt = LocalDateTime.of(2026, 10, 18, 12, 0);
+        saveListedItem("CCD-000000-000001", createdAt, ERIC_IDENTITY_VALUE);
+        saveListedItem("CCD-000000-000002", createdAt, "another user");
+
+        // When and then
+        mockMvc.perform(get(CERTIFIED_COPIES_URL)
+                .param("ids", "CCD-000000-000001,CCD-000000-000002")
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_READ))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private void saveListedItem(final String id, final LocalDateTime createdAt, final String userId) {
+        final CertifiedCopyItem item = createCertifiedCopyItem(id);
+        item.getData().setId(id);
+        item.setCreatedAt(createdAt);
+        item.setUserId(userId);
+        repository.save(item);
+    }
+
+    @Test
+    @DisplayName("Patches the customer reference in place, leaving the rest of the item intact")
+    void patchCertifiedCopyItemUpdatesCustomerReference() throws Exception {
+        // Given
+        repository.save(createCertifiedCopyItem(CERTIFIED_COPY_ID));
+
+        // When and then
+        mockMvc.perform(patch(CERTIFIED_COPIES_URL + "/" + CERTIFIED_COPY_ID)
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_UPDATE)
+                .contentType(MERGE_PATCH_CONTENT_TYPE)
+                .content("{\"customer_reference\":\"" + UPDATED_CUSTOMER_REFERENCE + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer_reference", is(UPDATED_CUSTOMER_REFERENCE)))
+                .andExpect(jsonPath("$.total_item_cost", is(TOTAL_ITEM_COST)));
+
+        final CertifiedCopyItem retrievedCopy = assertItemSavedCorrectly(CERTIFIED_COPY_ID);
+        assertThat(retrievedCopy.getData().getCustomerReference(), is(UPDATED_CUSTOMER_REFERENCE));
+        assertThat(retrievedCopy.getData().getEtag(), is(not(TOKEN_ETAG)));
+        assertThat(retrievedCopy.getData().getCompanyName(), is(COMPANY_NAME));
+        assertThat(retrievedCopy.getUserId(), is(ERIC_IDENTITY_VALUE));
+        assertThat(retrievedCopy.getUpdatedAt(), is(notNullValue()));
+        assertFilingSavedCorrectly(retrievedCopy);
+    }
+
+    @Test
+    @DisplayName("Patches the quantity in place, storing the costs recalculated")
+    void patchCertifiedCopyItemUpdatesQuantityAndCosts() throws Exception {
+        // Given
+        repository.save(createCertifiedCopyItem(CERTIFIED_COPY_ID));
+
+        // When and then
+        mockMvc.perform(patch(CERTIFIED_COPIES_URL + "/" + CERTIFIED_COPY_ID)
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_UPDATE)
+                .contentType(MERGE_PATCH_CONTENT_TYPE)
+                .content("{\"quantity\":" + QUANTITY_3 + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(QUANTITY_3)))
+                .andExpect(jsonPath("$.total_item_cost", is(TOTAL_ITEM_COST_MULTI)));
+
+        final CertifiedCopyItem retrievedCopy = assertItemSavedCorrectly(CERTIFIED_COPY_ID);
+        assertThat(retrievedCopy.getData().getQuantity(), is(QUANTITY_3));
+        assertThat(retrievedCopy.getData().getTotalItemCost(), is(TOTAL_ITEM_COST_MULTI));
+        assertThat(retrievedCopy.getData().getCustomerReference(), is(CUSTOMER_REFERENCE));
+        assertFilingSavedCorrectly(retrievedCopy);
+    }
+
+    @Test
+    @DisplayName("Returns conflict when patching a certified copy item that is still pending")
+    void patchCertifiedCopyItemReturnsConflictWherePending() throws Exception {
+        // Given
+        final CertifiedCopyItem newItem = createCertifiedCopyItem(CERTIFIED_COPY_ID);
+        newItem.setStatus(ItemStatus.PENDING);
+        repository.save(newItem);
+
+        // When and then
+        mockMvc.perform(patch(CERTIFIED_COPIES_URL + "/" + CERTIFIED_COPY_ID)
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_UPDATE)
+                .contentType(MERGE_PATCH_CONTENT_TYPE)
+                .content("{\"customer_reference\":\"" + UPDATED_CUSTOMER_REFERENCE + "\"}"))
+                .andExpect(status().isConflict());
+
+        final CertifiedCopyItem retrievedCopy = assertItemSavedCorrectly(CERTIFIED_COPY_ID);
+        assertThat(retrievedCopy.getData().getCustomerReference(), is(CUSTOMER_REFERENCE));
+        assertThat(retrievedCopy.getData().getEtag(), is(TOKEN_ETAG));
+    }
+
+    @Test
+    @DisplayName("Patches a certified copy item that still has the etag given in If-Match")
+    void patchCertifiedCopyItemWithMatchingEtag() throws Exception {
+        // Given
+        repository.save(createCertifiedCopyItem(CERTIFIED_COPY_ID));
+
+        // When and then
+        mockMvc.perform(patch(CERTIFIED_COPIES_URL + "/" + CERTIFIED_COPY_ID)
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_UPDATE)
+                .header(HttpHeaders.IF_MATCH, "\"" + TOKEN_ETAG + "\"")
+                .contentType(MERGE_PATCH_CONTENT_TYPE)
+                .content("{\"customer_reference\":\"" + UPDATED_CUSTOMER_REFERENCE + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.etag", is(not(TOKEN_ETAG))));
+
+        final CertifiedCopyItem retrievedCopy = assertItemSavedCorrectly(CERTIFIED_COPY_ID);
+        assertThat(retrievedCopy.getData().getCustomerReference(), is(UPDATED_CUSTOMER_REFERENCE));
+    }
+
+    @Test
+    @DisplayName("Returns precondition failed when patching a certified copy item that no longer has the etag given "
+            + "in If-Match")
+    void patchCertifiedCopyItemReturnsPreconditionFailedWhereEtagChanged() throws Exception {
+        // Given
+        repository.save(createCertifiedCopyItem(CERTIFIED_COPY_ID));
+
+        // When and then
+        mockMvc.perform(patch(CERTIFIED_COPIES_URL + "/" + CERTIFIED_COPY_ID)
+                .header(REQUEST_ID_HEADER_NAME, REQUEST_ID_VALUE)
+                .header(ERIC_IDENTITY_TYPE, ERIC_IDENTITY_TYPE_OAUTH2_VALUE)
+                .header(ERIC_IDENTITY, ERIC_IDENTITY_VALUE)
+                .header(ERIC_AUTHORISED_TOKEN_PERMISSIONS, TOKEN_PERMISSION_UPDATE)
+                .header(HttpHeaders.IF_MATCH, "\"stale etag\"")
+                .contentType(MERGE_PATCH_CONTENT_TYPE)
+                .content("{\"quantity\":" + QUANTITY_3 + "}"))
+                .andExpect(status().isPreconditionFailed());
+
+        final CertifiedCopyItem retrievedCopy = assertItemSavedCorrectly(CERTIFIED_COPY_ID);
+        assertThat(retrievedCopy.getData().getQuantity(), is(QUANTITY_1));
+        assertThat(retrievedCopy.getData().getEtag(), is(TOKEN_ETAG));
+    }
+
     private CertifiedCopyItem createCertifiedCopyItem(String id) {
         final CertifiedCopyItemData certifiedCopyItemData = new CertifiedCopyItemData();
         certifiedCopyItemData.setCompanyName(COMPANY_NAME);
@@ -2,14 +2,31 @@ package uk.gov.companieshouse.certifiedcopies.orders.api.controller;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static uk.gov.companieshouse.api.util.security.EricConstants.ERIC_IDENTITY;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.util.TestConstants.ERIC_IDENTITY_TYPE_API_KEY_VALUE;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.util.TestConstants.ERIC_IDENTITY_TYPE_OAUTH2_VALUE;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.util.TestConstants.ERIC_IDENTITY_VALUE;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.util.TestConstants.REQUEST_ID_VALUE;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import jakarta.json.JsonMergePatch;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,16 +35,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import uk.gov.companieshouse.api.error.ApiError;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemBatchDTO;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemBatchResultDTO;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemPageDTO;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemRequestDTO;
 import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemResponseDTO;
 import uk.gov.companieshouse.certifiedcopies.orders.api.mapper.CertifiedCopyItemMapper;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemCreationResult;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemData;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemOptions;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemPage;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemBatchCreationService;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemExportService;
 import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemService;
-import uk.gov.companieshouse.certifiedcopies.orders.api.util.PatchMerger;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.EricHeaderHelper;
+import uk.gov.companieshouse.certifiedcopies.orders.api.validator.CreateCertifiedCopyItemBatchRequestValidator;
 import uk.gov.companieshouse.certifiedcopies.orders.api.validator.PatchItemRequestValidator;
+import uk.gov.companieshouse.certifiedcopies.orders.api.interceptor.CertifiedCopyItemHolder;
 import uk.gov.companieshouse.certifiedcopies.orders.api.interceptor.EricAuthoriser;
 
 /**
@@ -37,6 +66,8 @@ import uk.gov.companieshouse.certifiedcopies.orders.api.interceptor.EricAuthoris
 class CertifiedCopiesItemControllerTest {
 
     private static final String ID = "CCD-123456-123456";
+    private static final LocalDateTime EXPORT_FROM = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final LocalDateTime EXPORT_TO = LocalDateTime.of(2026, 10, 18, 0, 0);
 
     @InjectMocks
     private CertifiedCopiesItemController controllerUnderTest;
@@ -56,9 +87,6 @@ class CertifiedCopiesItemControllerTest {
     @Mock
     private CertifiedCopyItemMapper mapper;
 
-    @Mock
-    private PatchMerger merger;
-
     @Mock
     private JsonMergePatch patch;
 
@@ -71,6 +99,18 @@ class CertifiedCopiesItemControllerTest {
     @Mock
     private EricAuthoriser EricAuthoriser;
 
+    @Mock
+    private CertifiedCopyItemHolder itemHolder;
+
+    @Mock
+    private CertifiedCopyItemExportService exportService;
+
+    @Mock
+    private CreateCertifiedCopyItemBatchRequestValidator createBatchRequestValidator;
+
+    @Mock
+    private CertifiedCopyItemBatchCreationService batchCreationService;
+
     private HttpServletRequest request;
 
     private boolean entitledToFreeCertificates;
@@ -87,6 +127,20 @@ class CertifiedCopiesItemControllerTest {
         assertThat(response.getBody(), is(dto));
     }
 
+    @Test
+    @DisplayName("Get certified copy item resource returned from the item read to authorise the request")
+    void getCertifiedCopyItemUsesItemHeld() {
+        when(itemHolder.getItem(ID)).thenReturn(Optional.of(item));
+        when(certifiedCopyItemService.getCertifiedCopyItemWithCosts(item, entitledToFreeCertificates)).thenReturn(item);
+        when(item.getData()).thenReturn(data);
+        when(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(data)).thenReturn(dto);
+        ResponseEntity<Object> response = controllerUnderTest.getCertifiedCopy(ID, REQUEST_ID_VALUE, request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody(), is(dto));
+        verify(certifiedCopyItemService, never()).getCertifiedCopyItemWithCosts(ID, entitledToFreeCertificates);
+    }
+
     @Test
     @DisplayName("Get certified copy item resource returns HTTP NOT FOUND")
     void getCertifiedCopyItemNotFound() {
@@ -96,35 +150,229 @@ class CertifiedCopiesItemControllerTest {
         assertThat(response.getStatusCode(), is(HttpStatus.NOT_FOUND));
     }
 
+    @Test
+    @DisplayName("List certified copy items returns the page of the current user's items, and the next cursor")
+    void getCertifiedCopiesReturnsPage() {
+        final HttpServletRequest listRequest = mock(HttpServletRequest.class);
+        when(listRequest.getHeader(ERIC_IDENTITY)).thenReturn(ERIC_IDENTITY_VALUE);
+        when(certifiedCopyItemService.getCertifiedCopyItemsByUserId(ERIC_IDENTITY_VALUE, "cursor", 10, false,
+                entitledToFreeCertificates)).thenReturn(new CertifiedCopyItemPage(List.of(item), "next"));
+        when(item.getData()).thenReturn(data);
+        when(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(data)).thenReturn(dto);
+
+        final ResponseEntity<Object> response = controllerUnderTest.getCertifiedCopies("me", "cursor", 10, null,
+                REQUEST_ID_VALUE, listRequest);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        final CertifiedCopyItemPageDTO page = (CertifiedCopyItemPageDTO) response.getBody();
+        assertThat(page.getItems(), is(List.of(dto)));
+        assertThat(page.getNextCursor(), is("next"));
+    }
+
+    @Test
+    @DisplayName("List certified copy items returns HTTP BAD REQUEST for another user's items, or too large a page")
+    void getCertifiedCopiesRejectsInvalidRequest() {
+        final HttpServletRequest listRequest = mock(HttpServletRequest.class);
+
+        final ResponseEntity<Object> response = controllerUnderTest.getCertifiedCopies("someone-else", null, 101,
+                "everything", REQUEST_ID_VALUE, listRequest);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        assertThat(((ApiErrors) response.getBody()).getErrors().size(), is(3));
+        verify(certifiedCopyItemService, never())
+                .getCertifiedCopyItemsByUserId(any(), any(), anyInt(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Get certified copy items by ID returns the items in the order requested, marking those not found")
+    void getCertifiedCopiesByIdsReturnsItemsInOrder() {
+        final HttpServletRequest getRequest = mock(HttpServletRequest.class);
+        when(certifiedCopyItemService.getCertifiedCopyItemsWithCosts(Set.of(ID, "CCD-000000-000009"),
+                entitledToFreeCertificates)).thenReturn(Map.of(ID, item));
+        when(item.getData()).thenReturn(data);
+        when(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(data)).thenReturn(dto);
+
+        final ResponseEntity<Object> response = controllerUnderTest.getCertifiedCopiesByIds(
+                "CCD-000000-000009, " + ID, REQUEST_ID_VALUE, getRequest);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        final List<CertifiedCopyItemBatchResultDTO> results =
+                ((CertifiedCopyItemBatchDTO) response.getBody()).getResults();
+        assertThat(results.get(0).getId(), is("CCD-000000-000009"));
+        assertThat(results.get(0).getStatus(), is(HttpStatus.NOT_FOUND.value()));
+        assertThat(results.get(1).getId(), is(ID));
+        assertThat(results.get(1).getItem(), is(dto));
+    }
+
+    @Test
+    @DisplayName("Get certified copy items by ID uses the items already read to authorise the request")
+    void getCertifiedCopiesByIdsUsesItemsHeld() {
+        final HttpServletRequest getRequest = mock(HttpServletRequest.class);
+        when(itemHolder.getItems(Set.of(ID))).thenReturn(Optional.of(Map.of(ID, item)));
+        when(certifiedCopyItemService.getCertifiedCopyItemsWithCosts(Map.of(ID, item), entitledToFreeCertificates))
+                .thenReturn(Map.of(ID, item));
+        when(item.getData()).thenReturn(data);
+        when(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(data)).thenReturn(dto);
+
+        final ResponseEntity<Object> response =
+                controllerUnderTest.getCertifiedCopiesByIds(ID, REQUEST_ID_VALUE, getRequest);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(((CertifiedCopyItemBatchDTO) response.getBody()).getResults().get(0).getItem(), is(dto));
+        verify(certifiedCopyItemService, never())
+                .getCertifiedCopyItemsWithCosts(Set.of(ID), entitledToFreeCertificates);
+    }
+
+    @Test
+    @DisplayName("Create certified copy items batch reports the outcome for each item, in request order")
+    void createCertifiedCopiesReportsOutcomeForEachItem() {
+        final HttpServletRequest batchRequest = mock(HttpServletRequest.class);
+        when(batchRequest.getHeader(ERIC_IDENTITY)).thenReturn(ERIC_IDENTITY_VALUE);
+        final CertifiedCopyItemRequestDTO invalidRequest = new CertifiedCopyItemRequestDTO();
+        final CertifiedCopyItemRequestDTO validRequest = new CertifiedCopyItemRequestDTO();
+        final CertifiedCopyItem validItem = new CertifiedCopyItem();
+        when(createBatchRequestValidator.getValidationErrors(invalidRequest))
+                .thenReturn(List.of("company_number: must not be null"));
+        when(createBatchRequestValidator.getValidationErrors(validRequest)).thenReturn(List.of());
+        when(mapper.certifiedCopyItemRequestDTOToCertifiedCopyItem(validRequest)).thenReturn(validItem);
+        when(batchCreationService.createCertifiedCopyItems(List.of(validItem), entitledToFreeCertificates))
+                .thenReturn(List.of(CertifiedCopyItemCreationResult.created(validItem)));
+        when(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(validItem.getData())).thenReturn(dto);
+
+        final ResponseEntity<Object> response = controllerUnderTest.createCertifiedCopies(
+                List.of(invalidRequest, validRequest), batchRequest, REQUEST_ID_VALUE);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        final List<CertifiedCopyItemBatchResultDTO> results =
+                ((CertifiedCopyItemBatchDTO) response.getBody()).getResults();
+        assertThat(results.get(0).getStatus(), is(HttpStatus.BAD_REQUEST.value()));
+        assertThat(results.get(0).getErrors(), is(List.of("company_number: must not be null")));
+        assertThat(results.get(1).getStatus(), is(HttpStatus.CREATED.value()));
+        assertThat(results.get(1).getItem(), is(dto));
+        assertThat(validItem.getUserId(), is(ERIC_IDENTITY_VALUE));
+    }
+
+    @Test
+    @DisplayName("Create certified copy items batch returns HTTP BAD REQUEST for an empty batch")
+    void createCertifiedCopiesRejectsEmptyBatch() {
+        final ResponseEntity<Object> response = controllerUnderTest.createCertifiedCopies(List.of(),
+                mock(HttpServletRequest.class), REQUEST_ID_VALUE);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        verify(batchCreationService, never()).createCertifiedCopyItems(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Export certified copy items streams the items created within the range to the response")
+    void exportCertifiedCopiesStreamsItems() throws IOException {
+        final HttpServletRequest exportRequest = mock(HttpServletRequest.class);
+        final HttpServletResponse exportResponse = mock(HttpServletResponse.class);
+        final ServletOutputStream output = mock(ServletOutputStream.class);
+        when(exportRequest.getHeader(EricHeaderHelper.ERIC_IDENTITY_TYPE)).thenReturn(ERIC_IDENTITY_TYPE_API_KEY_VALUE);
+        when(exportResponse.getOutputStream()).thenReturn(output);
+        when(exportService.exportCertifiedCopyItems(EXPORT_FROM, EXPORT_TO, output)).thenReturn(2L);
+
+        controllerUnderTest.exportCertifiedCopies(EXPORT_FROM, EXPORT_TO, REQUEST_ID_VALUE, exportRequest,
+                exportResponse);
+
+        verify(exportResponse).setStatus(HttpStatus.OK.value());
+        verify(exportResponse).setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        verify(exportService).exportCertifiedCopyItems(EXPORT_FROM, EXPORT_TO, output);
+    }
+
+    @Test
+    @DisplayName("Export certified copy items returns HTTP UNAUTHORIZED for a user")
+    void exportCertifiedCopiesRejectsUser() throws IOException {
+        final HttpServletRequest exportRequest = mock(HttpServletRequest.class);
+        when(exportRequest.getHeader(EricHeaderHelper.ERIC_IDENTITY_TYPE)).thenReturn(ERIC_IDENTITY_TYPE_OAUTH2_VALUE);
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                controllerUnderTest.exportCertifiedCopies(EXPORT_FROM, EXPORT_TO, REQUEST_ID_VALUE, exportRequest,
+                        mock(HttpServletResponse.class)));
+
+        assertThat(exception.getStatusCode(), is(HttpStatus.UNAUTHORIZED));
+        verify(exportService, never()).exportCertifiedCopyItems(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Export certified copy items returns HTTP BAD REQUEST where the range ends before it starts")
+    void exportCertifiedCopiesRejectsEmptyRange() throws IOException {
+        final HttpServletRequest exportRequest = mock(HttpServletRequest.class);
+        when(exportRequest.getHeader(EricHeaderHelper.ERIC_IDENTITY_TYPE)).thenReturn(ERIC_IDENTITY_TYPE_API_KEY_VALUE);
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                controllerUnderTest.exportCertifiedCopies(EXPORT_TO, EXPORT_FROM, REQUEST_ID_VALUE, exportRequest,
+                        mock(HttpServletResponse.class)));
+
+        assertThat(exception.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        verify(exportService, never()).exportCertifiedCopyItems(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Update request updates successfully")
     void updateUpdatesSuccessfully() {
         // Given
-        when(certifiedCopyItemService.getCertifiedCopyItemById(ID)).thenReturn(Optional.of(item));
-        when(merger.mergePatch(patch, item, CertifiedCopyItem.class)).thenReturn(item);
+        when(certifiedCopyItemService.patchCertifiedCopyItem(ID, patch, null, entitledToFreeCertificates))
+                .thenReturn(Optional.of(item));
         when(item.getCompanyNumber()).thenReturn("12345678");
-        when(certifiedCopyItemService.saveCertifiedCopyItem(item, entitledToFreeCertificates)).thenReturn(item);
         when(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(item.getData())).thenReturn(dto);
 
         // When
         final ResponseEntity<Object> response = controllerUnderTest.updateCertifiedCopyItem(patch, ID,
-                REQUEST_ID_VALUE, request);
+                REQUEST_ID_VALUE, null, request);
 
         // Then
         assertThat(response.getStatusCode(), is(HttpStatus.OK));
         assertThat(response.getBody(), is(dto));
     }
 
+    @Test
+    @DisplayName("Update request patches only an item with one of the strong etags listed in If-Match")
+    void updatePassesStrongIfMatchEtagsOn() {
+        when(certifiedCopyItemService.patchCertifiedCopyItem(ID, patch, List.of("etag1", "etag2"),
+                entitledToFreeCertificates)).thenReturn(Optional.of(item));
+
+        final ResponseEntity<Object> response = controllerUnderTest.updateCertifiedCopyItem(patch, ID,
+                REQUEST_ID_VALUE, "\"etag1\", W/\"etag3\", etag2", request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+    }
+
+    @Test
+    @DisplayName("Update request patches an item whatever its etag where If-Match is any")
+    void updateIgnoresIfMatchAny() {
+        when(certifiedCopyItemService.patchCertifiedCopyItem(ID, patch, null, entitledToFreeCertificates))
+                .thenReturn(Optional.of(item));
+
+        final ResponseEntity<Object> response = controllerUnderTest.updateCertifiedCopyItem(patch, ID,
+                REQUEST_ID_VALUE, "*", request);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+    }
+
     @Test
     @DisplayName("Update request reports resource not found")
     void updateReportsResourceNotFound() {
-        when(certifiedCopyItemService.getCertifiedCopyItemById(ID)).thenReturn(Optional.empty());
+        when(certifiedCopyItemService.patchCertifiedCopyItem(ID, patch, null, entitledToFreeCertificates))
+                .thenReturn(Optional.empty());
         final ResponseEntity<Object> response = controllerUnderTest.updateCertifiedCopyItem(patch, ID,
-                REQUEST_ID_VALUE, request);
+                REQUEST_ID_VALUE, null, request);
         assertThat(response.getStatusCode(), is(HttpStatus.NOT_FOUND));
 
     }
 
+    @Test
+    @DisplayName("Update request reports conflict where the item is still pending")
+    void updateReportsConflictWhereItemPending() {
+        when(certifiedCopyItemService.patchCertifiedCopyItem(ID, patch, null, entitledToFreeCertificates))
+                .thenThrow(new ResponseStatusException(HttpStatus.CONFLICT));
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> controllerUnderTest.updateCertifiedCopyItem(patch, ID, REQUEST_ID_VALUE, null, request));
+
+        assertThat(exception.getStatusCode(), is(HttpStatus.CONFLICT));
+    }
+
     @Test
     @DisplayName("Update certified copy item patched certified copy has validation errors")
     void updateCertifiedCopyItemMergedValidationErrors() {
@@ -132,7 +380,7 @@ class CertifiedCopiesItemControllerTest {
         when(validator.getValidationErrors(patch)).thenReturn(errors);
 
         ResponseEntity<Object> response = controllerUnderTest.updateCertifiedCopyItem(patch, ID,
-                REQUEST_ID_VALUE, request);
+                REQUEST_ID_VALUE, null, request);
         assertThat(response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
     }
 
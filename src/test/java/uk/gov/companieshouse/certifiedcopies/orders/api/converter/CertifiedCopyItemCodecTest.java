@@ -0,0 +1,174 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.converter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.gson.Gson;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.MongoCodecConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.MongoConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemData;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemOptions;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CollectionLocation;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryMethod;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryTimescale;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemCosts;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.Links;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.NoIsSnakeCaseFieldNamingStrategy;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ProductType;
+
+/**
+ * Unit tests the {@link CertifiedCopyItemCodec} class for round trip equality against the reflective
+ * {@link MappingMongoConverter}, configured as it is by {@link MongoConfig} where the codec is not enabled.
+ */
+class CertifiedCopyItemCodecTest {
+
+    private static final String ITEM_ID = "CCD-123456-123456";
+    private static final String OBJECT_ID = "6529a3f1c2e4b84d1f0a1b2c";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 18, 9, 30, 15);
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 10, 18, 10, 45, 0);
+
+    private final CertifiedCopyItemCodec codecUnderTest = new CertifiedCopyItemCodec();
+
+    private MappingMongoConverter reflectiveConverter;
+
+    @BeforeEach
+    void setUp() {
+        final MongoCustomConversions conversions = new MongoConfig(new MongoCodecConfig()).customConversions();
+        final MongoMappingContext context = new MongoMappingContext();
+        context.setFieldNamingStrategy(new NoIsSnakeCaseFieldNamingStrategy());
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        reflectiveConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        reflectiveConverter.setTypeMapper(new DefaultMongoTypeMapper(null));
+        reflectiveConverter.setCustomConversions(conversions);
+        reflectiveConverter.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("encode produces the same document, field for field and in order, as the reflective converter")
+    void encodeProducesSameDocumentAsReflectiveConverter() {
+        // Given
+        final CertifiedCopyItem item = fullyPopulatedItem();
+
+        // When
+        final Document encoded = codecUnderTest.encode(item);
+
+        // Then
+        assertThat(encoded.toJson(), is(writeReflectively(item).toJson()));
+    }
+
+    @Test
+    @DisplayName("decode produces the same item as the reflective converter")
+    void decodeProducesSameItemAsReflectiveConverter() {
+        // Given
+        final Document document = writeReflectively(fullyPopulatedItem());
+
+        // When
+        final CertifiedCopyItem decoded = codecUnderTest.decode(document);
+
+        // Then
+        assertSameItem(decoded, reflectiveConverter.read(CertifiedCopyItem.class, document));
+    }
+
+    @Test
+    @DisplayName("encode and decode agree with the reflective converter on a sparse item with an ObjectId ID")
+    void sparseItemRoundTripsAsReflectiveConverter() {
+        // Given
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setId(OBJECT_ID);
+        item.setCreatedAt(CREATED_AT);
+        final Document document = writeReflectively(item);
+
+        // When
+        final Document encoded = codecUnderTest.encode(item);
+        final CertifiedCopyItem decoded = codecUnderTest.decode(document);
+
+        // Then
+        assertThat(encoded.toJson(), is(document.toJson()));
+        assertSameItem(decoded, reflectiveConverter.read(CertifiedCopyItem.class, document));
+        assertSameItem(codecUnderTest.decode(encoded), item);
+    }
+
+    private Document writeReflectively(final CertifiedCopyItem item) {
+        final Document document = new Document();
+        reflectiveConverter.write(item, document);
+        return document;
+    }
+
+    private static void assertSameItem(final CertifiedCopyItem actual, final CertifiedCopyItem expected) {
+        assertThat(actual.getId(), is(expected.getId()));
+        assertThat(actual.getCreatedAt(), is(expected.getCreatedAt()));
+        assertThat(actual.getUpdatedAt(), is(expected.getUpdatedAt()));
+        assertThat(actual.getUserId(), is(expected.getUserId()));
+        assertThat(actual.getFilingHistoryCost(), is(expected.getFilingHistoryCost()));
+        // The nested types do not implement equals(), so are compared as rendered.
+        assertThat(new Gson().toJson(actual.getData()), is(new Gson().toJson(expected.getData())));
+    }
+
+    private static CertifiedCopyItem fullyPopulatedItem() {
+        final FilingHistoryDocument filing = new FilingHistoryDocument("2009-08-23",
+                "change-person-director-company-with-change-date",
+                Map.of("change_date", "2009-08-23",
+                        "officer", Map.of("forename", "John", "surname", "Smith"),
+                        "original_description", List.of("Director's details changed", "2009-08-23")),
+                "MjcyNjU0ODAxNmFkaXF6a2N4",
+                "CH01");
+        filing.setFilingHistoryCost("15");
+
+        final CertifiedCopyItemOptions options = new CertifiedCopyItemOptions();
+        options.setCollectionLocation(CollectionLocation.CARDIFF);
+        options.setContactNumber("0123456789");
+        options.setDeliveryMethod(DeliveryMethod.POSTAL);
+        options.setDeliveryTimescale(DeliveryTimescale.SAME_DAY);
+        options.setFilingHistoryDocuments(List.of(filing));
+        options.setForename("John");
+        options.setSurname("Smith");
+
+        final Links links = new Links();
+        links.setSelf("/orderable/certified-copies/" + ITEM_ID);
+
+        final CertifiedCopyItemData data = new CertifiedCopyItemData();
+        data.setCompanyName("THE COMPANY");
+        data.setCompanyNumber("00006400");
+        data.setCustomerReference("Certified copy ordered by NJ.");
+        data.setDescription("certified copy for company 00006400");
+        data.setDescriptionIdentifier("certified-copy");
+        data.setDescriptionValues(Map.of("certified-copy", "certified copy for company 00006400",
+                "company_number", "00006400"));
+        data.setEtag("9d39ea69b64c80ca42ed72328b48c303c4445e28");
+        data.setItemCosts(List.of(new ItemCosts("0", "15", "15", ProductType.CERTIFIED_COPY_SAME_DAY)));
+        data.setItemOptions(options);
+        data.setKind("item#certified-copy");
+        data.setLinks(links);
+        data.setPostageCost("0");
+        data.setPostalDelivery(true);
+        data.setQuantity(2);
+        data.setTotalItemCost("30");
+        data.setFilingHistoryCost("15");
+        data.setStatus(ItemStatus.PENDING);
+
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setData(data);
+        item.setId(ITEM_ID);
+        item.setCreatedAt(CREATED_AT);
+        item.setUpdatedAt(UPDATED_AT);
+        item.setUserId("demo@ch.gov.uk");
+        item.setFilingHistoryCost("15");
+        return item;
+    }
+}
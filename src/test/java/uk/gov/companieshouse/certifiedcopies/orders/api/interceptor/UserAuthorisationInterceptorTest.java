@@ -8,11 +8,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerMapping;
 
 import uk.gov.companieshouse.api.util.security.EricConstants;
 import uk.gov.companieshouse.api.util.security.SecurityConstants;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemOwner;
 import uk.gov.companieshouse.certifiedcopies.orders.api.service.CertifiedCopyItemService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,8 +22,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.util.TestConstants.ERIC_IDENTITY_VALUE;
 import static uk.gov.companieshouse.certifiedcopies.orders.api.util.TestConstants.ERIC_IDENTITY_HEADER_NAME;
@@ -44,7 +50,11 @@ class UserAuthorisationInterceptorTest {
     @Mock
     private CertifiedCopyItemService service;
 
+    @Mock
+    private CertifiedCopyItemHolder itemHolder;
+
     private static final String ITEM_ID = "CHS00000000000000002";
+    private static final String MISSING_ITEM_ID = "CHS00000000000000003";
     private static final String ALTERNATIVE_CREATED_BY = "xyz321";
     private static final String INVALID_IDENTITY_TYPE_VALUE = "test";
 
@@ -65,6 +75,7 @@ class UserAuthorisationInterceptorTest {
         when(service.getCertifiedCopyItemById(ITEM_ID)).thenReturn(Optional.of(item));
 
         Assertions.assertTrue(userAuthorisationInterceptor.preHandle(request, response, null));
+        verify(itemHolder).setItem(item);
     }
 
     @Test
@@ -76,6 +87,80 @@ class UserAuthorisationInterceptorTest {
         Assertions.assertTrue(userAuthorisationInterceptor.preHandle(request, response, null));
     }
 
+    @Test
+    @DisplayName("Authorise a GET listing the user's own items for a user, without reading any item")
+    public void willAuthoriseIfGetOfCollectionAndOAuth2() {
+        when(request.getMethod()).thenReturn(HttpMethod.GET.toString());
+        when(request.getHeader(ERIC_IDENTITY_TYPE_HEADER_NAME)).thenReturn(ERIC_IDENTITY_TYPE_OAUTH2_VALUE);
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(new HashMap<>());
+        when(request.getParameter("user")).thenReturn("me");
+
+        Assertions.assertTrue(userAuthorisationInterceptor.preHandle(request, response, null));
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("Authorise a GET of the items listed by ID for a user who created every item found, holding the items")
+    public void willAuthoriseIfGetOfItemsByIdAllCreatedByUser() {
+        CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setId(ITEM_ID);
+        item.setUserId(ERIC_IDENTITY_VALUE);
+        Map<String, CertifiedCopyItem> items = Map.of(ITEM_ID, item);
+
+        when(request.getMethod()).thenReturn(HttpMethod.GET.toString());
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(new HashMap<>());
+        when(request.getParameterValues("ids")).thenReturn(new String[] {ITEM_ID + ", " + MISSING_ITEM_ID});
+        doReturn(ERIC_IDENTITY_VALUE).when(request).getHeader(ERIC_IDENTITY_HEADER_NAME);
+        doReturn(ERIC_IDENTITY_TYPE_OAUTH2_VALUE).when(request).getHeader(ERIC_IDENTITY_TYPE_HEADER_NAME);
+        when(service.getCertifiedCopyItemsById(Set.of(ITEM_ID, MISSING_ITEM_ID))).thenReturn(items);
+
+        Assertions.assertTrue(userAuthorisationInterceptor.preHandle(request, response, null));
+        verify(itemHolder).setItems(Set.of(ITEM_ID, MISSING_ITEM_ID), items);
+    }
+
+    @Test
+    @DisplayName("Does not authorise a GET of the items listed by ID for a user who did not create every item found")
+    public void doesNotAuthoriseIfGetOfItemsByIdNotAllCreatedByUser() {
+        CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setId(ITEM_ID);
+        item.setUserId(ALTERNATIVE_CREATED_BY);
+
+        when(request.getMethod()).thenReturn(HttpMethod.GET.toString());
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(new HashMap<>());
+        when(request.getParameterValues("ids")).thenReturn(new String[] {ITEM_ID});
+        doReturn(ERIC_IDENTITY_VALUE).when(request).getHeader(ERIC_IDENTITY_HEADER_NAME);
+        doReturn(ERIC_IDENTITY_TYPE_OAUTH2_VALUE).when(request).getHeader(ERIC_IDENTITY_TYPE_HEADER_NAME);
+        when(service.getCertifiedCopyItemsById(Set.of(ITEM_ID))).thenReturn(Map.of(ITEM_ID, item));
+
+        Assertions.assertFalse(userAuthorisationInterceptor.preHandle(request, response, null));
+        verify(response).setStatus(HttpStatus.UNAUTHORIZED.value());
+        verifyNoInteractions(itemHolder);
+    }
+
+    @Test
+    @DisplayName("Does not authorise any other GET of the collection for a user, such as an export")
+    public void doesNotAuthoriseIfOtherGetOfCollectionAndOAuth2() {
+        when(request.getMethod()).thenReturn(HttpMethod.GET.toString());
+        when(request.getHeader(ERIC_IDENTITY_TYPE_HEADER_NAME)).thenReturn(ERIC_IDENTITY_TYPE_OAUTH2_VALUE);
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(new HashMap<>());
+
+        Assertions.assertFalse(userAuthorisationInterceptor.preHandle(request, response, null));
+        verify(response).setStatus(HttpStatus.UNAUTHORIZED.value());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("Does not authorise a request other than a GET or POST of the collection for a user")
+    public void doesNotAuthoriseIfDeleteOfCollectionAndOAuth2() {
+        when(request.getMethod()).thenReturn(HttpMethod.DELETE.toString());
+        when(request.getHeader(ERIC_IDENTITY_TYPE_HEADER_NAME)).thenReturn(ERIC_IDENTITY_TYPE_OAUTH2_VALUE);
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(new HashMap<>());
+
+        Assertions.assertFalse(userAuthorisationInterceptor.preHandle(request, response, null));
+        verify(response).setStatus(HttpStatus.UNAUTHORIZED.value());
+        verifyNoInteractions(service);
+    }
+
     @Test
     @DisplayName("Does not authorise if authenticated user did not create the certified-copy when request method is GET")
     public void doesNotAuthoriseIfAuthenticatedUserDidNotCreateTheCertifiedCopyWhenRequestMethodGet() {
@@ -95,6 +180,26 @@ class UserAuthorisationInterceptorTest {
         Assertions.assertFalse(userAuthorisationInterceptor.preHandle(request, response, null));
     }
 
+    @Test
+    @DisplayName("Authorise if authenticated user created the certified-copy when request method is PATCH, "
+            + "reading only the owner of the certified-copy")
+    public void willAuthoriseIfAuthorisedUserCreatedTheCertifiedCopyWhenRequestMethodIsPatch() {
+        Map<String, String> map = new HashMap<>();
+        map.put("id", ITEM_ID);
+
+        CertifiedCopyItemOwner owner = () -> ERIC_IDENTITY_VALUE;
+
+        when(request.getMethod()).thenReturn(HttpMethod.PATCH.toString());
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(map);
+        doReturn(ERIC_IDENTITY_VALUE).when(request).getHeader(ERIC_IDENTITY_HEADER_NAME);
+        doReturn(ERIC_IDENTITY_TYPE_OAUTH2_VALUE).when(request).getHeader(ERIC_IDENTITY_TYPE_HEADER_NAME);
+        when(service.getCertifiedCopyItemOwner(ITEM_ID)).thenReturn(Optional.of(owner));
+
+        Assertions.assertTrue(userAuthorisationInterceptor.preHandle(request, response, null));
+        verify(service, never()).getCertifiedCopyItemById(ITEM_ID);
+        verifyNoInteractions(itemHolder);
+    }
+
     @Test
     @DisplayName("Does not Authorise if request method is GET and there is no user")
     public void willNotAuthoriseIfMethodIsGetAndNoIdentity() {
@@ -119,6 +224,24 @@ class UserAuthorisationInterceptorTest {
         Assertions.assertFalse(userAuthorisationInterceptor.preHandle(request, response, null));
     }
 
+    @Test
+    @DisplayName("Does not authorise if the certified-copy has no user id when request method is GET")
+    public void willNotAuthoriseIfCertifiedCopyHasNoUserId() {
+        Map<String, String> map = new HashMap<>();
+        map.put("id", ITEM_ID);
+
+        CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setId(ITEM_ID);
+
+        when(request.getMethod()).thenReturn(HttpMethod.GET.toString());
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(map);
+        doReturn(ERIC_IDENTITY_VALUE).when(request).getHeader(ERIC_IDENTITY_HEADER_NAME);
+        doReturn(ERIC_IDENTITY_TYPE_OAUTH2_VALUE).when(request).getHeader(ERIC_IDENTITY_TYPE_HEADER_NAME);
+        when(service.getCertifiedCopyItemById(ITEM_ID)).thenReturn(Optional.of(item));
+
+        Assertions.assertFalse(userAuthorisationInterceptor.preHandle(request, response, null));
+    }
+
     @Test
     @DisplayName("Does not Authorise an external API key is used")
     public void willNotAuthoriseIfRequestIsExternalAPIKey() {
@@ -0,0 +1,173 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemIndexes.COMPANY_NUMBER;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemIndexes.CREATED_AT;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemIndexes.PENDING_CREATED_AT;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemIndexes.USER_ID_CREATED_AT_ID;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.IndexManagementConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+
+/**
+ * Unit tests the {@link CertifiedCopyItemIndexManager} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CertifiedCopyItemIndexManagerTest {
+
+    private static final IndexInfo ID_INDEX_INFO = indexInfo("_id_", "_id", Direction.ASC);
+    private static final String USER_ID = "user_id_v1";
+    private static final IndexInfo USER_ID_INDEX_INFO = indexInfo(USER_ID, "user_id", Direction.ASC);
+    private static final IndexInfo COMPANY_NUMBER_INDEX_INFO =
+            indexInfo(COMPANY_NUMBER, "data.company_number", Direction.ASC);
+    private static final IndexInfo CREATED_AT_INDEX_INFO = indexInfo(CREATED_AT, "created_at", Direction.ASC);
+    private static final IndexInfo USER_ID_CREATED_AT_ID_INDEX_INFO = new IndexInfo(List.of(
+            IndexField.create("user_id", Direction.ASC),
+            IndexField.create("created_at", Direction.DESC),
+            IndexField.create("_id", Direction.DESC)), USER_ID_CREATED_AT_ID, false, false, null);
+    private static final IndexInfo PENDING_CREATED_AT_INDEX_INFO = new IndexInfo(List.of(
+            IndexField.create("data.status", Direction.ASC),
+            IndexField.create("created_at", Direction.ASC)), PENDING_CREATED_AT, false, false, null);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Captor
+    private ArgumentCaptor<Index> indexCaptor;
+
+    private IndexManagementConfig config;
+
+    private CertifiedCopyItemIndexManager indexManagerUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        config = new IndexManagementConfig();
+        indexManagerUnderTest = new CertifiedCopyItemIndexManager(mongoTemplate, config);
+    }
+
+    @Test
+    @DisplayName("The collection is reported in sync when it has exactly the declared indexes")
+    void reportsInSync() {
+        givenLiveIndexes(ID_INDEX_INFO, COMPANY_NUMBER_INDEX_INFO, CREATED_AT_INDEX_INFO,
+                USER_ID_CREATED_AT_ID_INDEX_INFO, PENDING_CREATED_AT_INDEX_INFO);
+
+        final IndexDriftReport report = indexManagerUnderTest.getDriftReport();
+
+        assertThat(report.inSync(), is(true));
+        assertThat(report.present(), contains(COMPANY_NUMBER, CREATED_AT, USER_ID_CREATED_AT_ID, PENDING_CREATED_AT));
+        assertThat(report.missing(), is(empty()));
+        assertThat(report.changed(), is(empty()));
+        assertThat(report.unexpected(), is(empty()));
+    }
+
+    @Test
+    @DisplayName("Missing, changed and undeclared indexes are reported as drift")
+    void reportsDrift() {
+        givenLiveIndexes(ID_INDEX_INFO,
+                indexInfo(COMPANY_NUMBER, "data.company_number", Direction.DESC),
+                indexInfo("user_id_1", "user_id", Direction.ASC));
+
+        final IndexDriftReport report = indexManagerUnderTest.getDriftReport();
+
+        assertThat(report.inSync(), is(false));
+        assertThat(report.present(), is(empty()));
+        assertThat(report.missing(), contains(CREATED_AT, USER_ID_CREATED_AT_ID, PENDING_CREATED_AT));
+        assertThat(report.changed(), contains(COMPANY_NUMBER));
+        assertThat(report.unexpected(), contains("user_id_1"));
+    }
+
+    @Test
+    @DisplayName("The user_id index is reported as unexpected, as the user_id, created_at and _id index covers it")
+    void reportsUserIdIndexUnexpected() {
+        givenLiveIndexes(ID_INDEX_INFO, USER_ID_INDEX_INFO, COMPANY_NUMBER_INDEX_INFO, CREATED_AT_INDEX_INFO,
+                USER_ID_CREATED_AT_ID_INDEX_INFO, PENDING_CREATED_AT_INDEX_INFO);
+
+        final IndexDriftReport report = indexManagerUnderTest.getDriftReport();
+
+        assertThat(report.inSync(), is(false));
+        assertThat(report.missing(), is(empty()));
+        assertThat(report.unexpected(), contains(USER_ID));
+    }
+
+    @Test
+    @DisplayName("Only the declared indexes missing are created at startup, in the background")
+    void createsMissingIndexes() {
+        givenLiveIndexes(ID_INDEX_INFO, USER_ID_CREATED_AT_ID_INDEX_INFO, PENDING_CREATED_AT_INDEX_INFO);
+
+        indexManagerUnderTest.verifyIndexes();
+
+        verify(indexOperations, times(2)).ensureIndex(indexCaptor.capture());
+        final List<Index> created = indexCaptor.getAllValues();
+        assertThat(created.get(0).getIndexOptions().getString("name"), is(COMPANY_NUMBER));
+        assertThat(created.get(1).getIndexOptions().getString("name"), is(CREATED_AT));
+        assertThat(created.get(0).getIndexOptions().getBoolean("background"), is(true));
+    }
+
+    @Test
+    @DisplayName("Missing indexes are only reported at startup when their creation is disabled")
+    void doesNotCreateMissingIndexesWhenDisabled() {
+        config.setCreateMissing(false);
+        givenLiveIndexes(ID_INDEX_INFO);
+
+        indexManagerUnderTest.verifyIndexes();
+
+        verify(indexOperations, never()).ensureIndex(any());
+    }
+
+    @Test
+    @DisplayName("The indexes are not verified at startup when index management is disabled")
+    void doesNotVerifyIndexesWhenDisabled() {
+        config.setEnabled(false);
+
+        indexManagerUnderTest.verifyIndexes();
+
+        verify(mongoTemplate, never()).indexOps(CertifiedCopyItem.class);
+    }
+
+    @Test
+    @DisplayName("An error verifying the indexes at startup does not stop the application from starting")
+    void toleratesErrorVerifyingIndexes() {
+        when(mongoTemplate.indexOps(CertifiedCopyItem.class)).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenThrow(new UncategorizedMongoDbException("Timed out", null));
+
+        assertDoesNotThrow(indexManagerUnderTest::verifyIndexes);
+        verify(indexOperations, never()).ensureIndex(any());
+    }
+
+    private void givenLiveIndexes(final IndexInfo... indexes) {
+        when(mongoTemplate.indexOps(CertifiedCopyItem.class)).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(indexes));
+    }
+
+    private static IndexInfo indexInfo(final String name, final String key, final Direction direction) {
+        return new IndexInfo(List.of(IndexField.create(key, direction)), name, false, false, null);
+    }
+}
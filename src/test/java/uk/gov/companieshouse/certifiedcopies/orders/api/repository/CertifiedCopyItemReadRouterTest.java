@@ -0,0 +1,235 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.repository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ReadRoutingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemReadRouter.RoutedRead;
+
+/**
+ * Unit tests the {@link CertifiedCopyItemReadRouter} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CertifiedCopyItemReadRouterTest {
+
+    private static final String ITEM_URI = "/orderable/certified-copies/CCD-123456-123456";
+    private static final ReadPreference SECONDARY_PREFERRED = ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS);
+    private static final CausalConsistencyToken TOKEN = new CausalConsistencyToken(new BsonTimestamp(1760779815, 3),
+            new BsonDocument("clusterTime", new BsonTimestamp(1760779815, 3))
+                    .append("signature", new BsonDocument("keyId", new BsonInt64(0L))));
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoTemplate sessionBoundTemplate;
+
+    @Mock
+    private MongoDatabaseFactory databaseFactory;
+
+    @Mock
+    private ClientSession session;
+
+    @Mock
+    private CausalConsistencyTracker tracker;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** The operations and query each read was made with, in the order the reads were made. */
+    private final List<MongoOperations> operationsRead = new ArrayList<>();
+    private final List<Query> queriesRead = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("read makes the read from the primary, unrecorded, where routing is disabled")
+    void readMadeFromPrimaryWhereDisabled() {
+        // Given
+        givenRequest("GET");
+        final CertifiedCopyItemReadRouter routerUnderTest = routerWithRoutingEnabled(false);
+
+        // When
+        final Optional<CertifiedCopyItem> item = readItem(routerUnderTest, RoutedRead.FIND_BY_ID, true);
+
+        // Then
+        assertThat(item.isPresent(), is(true));
+        assertThat(operationsRead, is(List.of(mongoTemplate)));
+        assertThat(queriesRead.get(0).getReadPreference(), is(nullValue()));
+        assertThat(meterRegistry.find("mongodb.reads").timer(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("read routes a read made to serve a GET to a secondary")
+    void readRoutesGetToSecondary() {
+        // Given
+        givenRequest("GET");
+        final CertifiedCopyItemReadRouter routerUnderTest = routerWithRoutingEnabled(true);
+
+        // When
+        final Optional<CertifiedCopyItem> item = readItem(routerUnderTest, RoutedRead.FIND_BY_ID, true);
+
+        // Then
+        assertThat(item.isPresent(), is(true));
+        assertThat(operationsRead, is(List.of(mongoTemplate)));
+        assertThat(queriesRead.get(0).getReadPreference(), is(SECONDARY_PREFERRED));
+        assertThat(readCount("secondary", "none"), is(1L));
+    }
+
+    @Test
+    @DisplayName("read makes a routed read that finds nothing again from the primary")
+    void readMakesNotFoundReadAgainFromPrimary() {
+        // Given
+        givenRequest("GET");
+        final CertifiedCopyItemReadRouter routerUnderTest = routerWithRoutingEnabled(true);
+
+        // When
+        final Optional<CertifiedCopyItem> item = readItem(routerUnderTest, RoutedRead.FIND_BY_ID, false);
+
+        // Then
+        assertThat(item.isPresent(), is(true));
+        assertThat(queriesRead.size(), is(2));
+        assertThat(queriesRead.get(1).getReadPreference(), is(nullValue()));
+        assertThat(readCount("primary", "none"), is(1L));
+        assertThat(fallbackCount("not_found"), is(1.0));
+    }
+
+    @Test
+    @DisplayName("read makes a routed read that fails again from the primary")
+    void readMakesFailedReadAgainFromPrimary() {
+        // Given
+        givenRequest("GET");
+        final CertifiedCopyItemReadRouter routerUnderTest = routerWithRoutingEnabled(true);
+
+        // When
+        final Optional<CertifiedCopyItem> item = routerUnderTest.read(RoutedRead.FIND_BY_ID, new Query(),
+                (operations, query) -> {
+                    if (query.getReadPreference() != null) {
+                        throw new DataAccessResourceFailureException("Timed out waiting for the secondary");
+                    }
+                    return Optional.of(new CertifiedCopyItem());
+                },
+                Optional::isPresent);
+
+        // Then
+        assertThat(item.isPresent(), is(true));
+        assertThat(fallbackCount("error"), is(1.0));
+    }
+
+    @Test
+    @DisplayName("read routes an owner lookup, but not any other read, made to serve a PATCH")
+    void readRoutesOnlyOwnerLookupOfPatch() {
+        // Given
+        givenRequest("PATCH");
+        final CertifiedCopyItemReadRouter routerUnderTest = routerWithRoutingEnabled(true);
+
+        // When
+        readItem(routerUnderTest, RoutedRead.FIND_OWNER_BY_ID, true);
+        readItem(routerUnderTest, RoutedRead.FIND_BY_ID, true);
+
+        // Then
+        assertThat(queriesRead.get(0).getReadPreference(), is(SECONDARY_PREFERRED));
+        assertThat(queriesRead.get(1).getReadPreference(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("read makes the routed read in a causally consistent session advanced to the token presented")
+    void readMadeCausallyWhereTokenPresented() {
+        // Given
+        givenRequest("GET");
+        when(tracker.getPresentedToken()).thenReturn(Optional.of(TOKEN));
+        when(mongoTemplate.getMongoDatabaseFactory()).thenReturn(databaseFactory);
+        when(databaseFactory.getSession(any(ClientSessionOptions.class))).thenReturn(session);
+        when(mongoTemplate.withSession(session)).thenReturn(sessionBoundTemplate);
+        final CertifiedCopyItemReadRouter routerUnderTest = routerWithRoutingEnabled(true);
+
+        // When
+        final Optional<CertifiedCopyItem> item = readItem(routerUnderTest, RoutedRead.FIND_BY_ID, true);
+
+        // Then
+        assertThat(item.isPresent(), is(true));
+        assertThat(operationsRead, is(List.of(sessionBoundTemplate)));
+        verify(session).advanceClusterTime(TOKEN.clusterTime());
+        verify(session).advanceOperationTime(TOKEN.operationTime());
+        verify(session).close();
+        assertThat(readCount("secondary", "causal"), is(1L));
+    }
+
+    @Test
+    @DisplayName("A causal consistency token decodes to the token encoded, and an invalid token is refused")
+    void causalConsistencyTokenRoundTrips() {
+        assertThat(CausalConsistencyToken.decode(TOKEN.encode()), is(TOKEN));
+        assertThrows(IllegalArgumentException.class, () -> CausalConsistencyToken.decode("bm90LWEtdG9rZW4"));
+    }
+
+    private CertifiedCopyItemReadRouter routerWithRoutingEnabled(final boolean enabled) {
+        final ReadRoutingConfig config = new ReadRoutingConfig();
+        config.setEnabled(enabled);
+        return new CertifiedCopyItemReadRouter(mongoTemplate, tracker, config, meterRegistry);
+    }
+
+    /**
+     * Reads an item, recording the operations and query each read is made with.
+     * @param foundOnSecondary whether the item is found by a read routed to a secondary
+     */
+    private Optional<CertifiedCopyItem> readItem(final CertifiedCopyItemReadRouter router,
+                                                 final RoutedRead read,
+                                                 final boolean foundOnSecondary) {
+        return router.read(read, new Query(),
+                (operations, query) -> {
+                    operationsRead.add(operations);
+                    queriesRead.add(query);
+                    return foundOnSecondary || query.getReadPreference() == null
+                            ? Optional.of(new CertifiedCopyItem())
+                            : Optional.empty();
+                },
+                Optional::isPresent);
+    }
+
+    private long readCount(final String route, final String session) {
+        return meterRegistry.get("mongodb.reads").tag("route", route).tag("session", session).timer().count();
+    }
+
+    private double fallbackCount(final String reason) {
+        return meterRegistry.get("mongodb.reads.fallbacks").tag("reason", reason).counter().count();
+    }
+
+    private static void givenRequest(final String method) {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(method, ITEM_URI)));
+    }
+}
@@ -0,0 +1,169 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.AsyncCreateConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+
+/**
+ * Unit tests the {@link CertifiedCopyItemAsyncCreationService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CertifiedCopyItemAsyncCreationServiceTest {
+
+    private static final String ID = "CCD-123456-123456";
+    private static final boolean USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS = false;
+
+    @Mock
+    private CertifiedCopyItemService certifiedCopyItemService;
+
+    @Mock
+    private CertifiedCopyItemEnrichmentService enrichmentService;
+
+    private AsyncCreateConfig config;
+
+    private CertifiedCopyItem requestedItem;
+
+    private CertifiedCopyItem pendingItem;
+
+    @BeforeEach
+    void setUp() {
+        config = new AsyncCreateConfig();
+        config.setWorkerPoolSize(1);
+        config.setWorkerQueueCapacity(1);
+        requestedItem = new CertifiedCopyItem();
+        requestedItem.setId(ID);
+        requestedItem.setStatus(ItemStatus.PENDING);
+        pendingItem = new CertifiedCopyItem();
+        pendingItem.setId(ID);
+        pendingItem.setStatus(ItemStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItem returns the pending item, and completes a fresh copy of it in the background")
+    void createCertifiedCopyItemCompletesItemInBackground() {
+        givenPendingItemSaved();
+        when(certifiedCopyItemService.getCertifiedCopyItemById(ID)).thenReturn(Optional.of(pendingItem));
+
+        final CertifiedCopyItem itemReturned = serviceRunningTasks(Runnable::run)
+                .createCertifiedCopyItem(requestedItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(itemReturned, is(requestedItem));
+        verify(enrichmentService).enrich(pendingItem);
+        verify(certifiedCopyItemService).completeCertifiedCopyItem(pendingItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+        verify(enrichmentService, never()).enrich(requestedItem);
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItem saves the item as failed should it not be possible to enrich it")
+    void createCertifiedCopyItemFailsItemThatCannotBeEnriched() {
+        givenPendingItemSaved();
+        when(certifiedCopyItemService.getCertifiedCopyItemById(ID)).thenReturn(Optional.of(pendingItem));
+        doThrow(new ResponseStatusException(NOT_FOUND, "Error getting company name for company number 00000000"))
+                .when(enrichmentService).enrich(pendingItem);
+
+        serviceRunningTasks(Runnable::run).createCertifiedCopyItem(requestedItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        verify(certifiedCopyItemService).failPendingCertifiedCopyItem(ID);
+        verify(certifiedCopyItemService, never()).completeCertifiedCopyItem(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItem saves the item as failed should it not be possible to save it as ready")
+    void createCertifiedCopyItemFailsItemThatCannotBeCompleted() {
+        givenPendingItemSaved();
+        when(certifiedCopyItemService.getCertifiedCopyItemById(ID)).thenReturn(Optional.of(pendingItem));
+        when(certifiedCopyItemService.completeCertifiedCopyItem(pendingItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS))
+                .thenThrow(new DataAccessResourceFailureException("Timed out waiting for a server"));
+
+        serviceRunningTasks(Runnable::run).createCertifiedCopyItem(requestedItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        verify(certifiedCopyItemService).failPendingCertifiedCopyItem(ID);
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItem saves the item as failed should it not be possible to read it back")
+    void createCertifiedCopyItemFailsItemThatCannotBeRead() {
+        givenPendingItemSaved();
+        when(certifiedCopyItemService.getCertifiedCopyItemById(ID))
+                .thenThrow(new DataAccessResourceFailureException("Timed out waiting for a server"));
+
+        serviceRunningTasks(Runnable::run).createCertifiedCopyItem(requestedItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        verify(certifiedCopyItemService).failPendingCertifiedCopyItem(ID);
+        verify(enrichmentService, never()).enrich(any());
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItem refuses an item with 503 Service Unavailable, without saving it, "
+            + "while the worker pool is full")
+    void createCertifiedCopyItemRefusesItemWhilePoolFull() {
+        final List<Runnable> tasksQueued = new ArrayList<>();
+        final CertifiedCopyItemAsyncCreationService serviceUnderTest = serviceRunningTasks(tasksQueued::add);
+        givenPendingItemSaved();
+        serviceUnderTest.createCertifiedCopyItem(requestedItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+        serviceUnderTest.createCertifiedCopyItem(requestedItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        final CertifiedCopyItem anotherItem = new CertifiedCopyItem();
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.createCertifiedCopyItem(anotherItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(SERVICE_UNAVAILABLE));
+        verify(certifiedCopyItemService, never()).createPendingCertifiedCopyItem(anotherItem);
+
+        // Once an item queued has been completed, there is room for another.
+        when(certifiedCopyItemService.getCertifiedCopyItemById(ID)).thenReturn(Optional.of(pendingItem));
+        tasksQueued.get(0).run();
+        when(certifiedCopyItemService.createPendingCertifiedCopyItem(anotherItem)).thenReturn(requestedItem);
+        serviceUnderTest.createCertifiedCopyItem(anotherItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItem saves the item as failed, and refuses it with 503 Service Unavailable, "
+            + "should the worker pool reject it")
+    void createCertifiedCopyItemFailsItemRejectedByPool() {
+        givenPendingItemSaved();
+        final CertifiedCopyItemAsyncCreationService serviceUnderTest = serviceRunningTasks(task -> {
+            throw new RejectedExecutionException("Executor has been shut down");
+        });
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.createCertifiedCopyItem(requestedItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(SERVICE_UNAVAILABLE));
+        verify(certifiedCopyItemService).failPendingCertifiedCopyItem(ID);
+    }
+
+    private CertifiedCopyItemAsyncCreationService serviceRunningTasks(final Executor executor) {
+        return new CertifiedCopyItemAsyncCreationService(certifiedCopyItemService, enrichmentService, executor,
+                config);
+    }
+
+    private void givenPendingItemSaved() {
+        when(certifiedCopyItemService.createPendingCertifiedCopyItem(requestedItem)).thenReturn(requestedItem);
+    }
+}
@@ -0,0 +1,124 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemCreationResult;
+
+/**
+ * Unit tests the {@link CertifiedCopyItemBatchCreationService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CertifiedCopyItemBatchCreationServiceTest {
+
+    private static final boolean USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS = false;
+    private static final String COMPANY_NAME_ERROR = "Error getting company name for company number 00000000";
+
+    @Mock
+    private CertifiedCopyItemService certifiedCopyItemService;
+
+    @Mock
+    private CertifiedCopyItemEnrichmentService enrichmentService;
+
+    private CertifiedCopyItemBatchCreationService serviceUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        serviceUnderTest = new CertifiedCopyItemBatchCreationService(certifiedCopyItemService, enrichmentService);
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItems saves the items enriched together, and reports the outcome for each item")
+    void createCertifiedCopyItemsReportsOutcomeForEachItem() {
+        // Given
+        final List<CertifiedCopyItem> items =
+                List.of(itemRequested("00006400"), itemRequested("00000000"), itemRequested("00006401"));
+        when(enrichmentService.enrichAll(items))
+                .thenReturn(Map.of(1, new ResponseStatusException(BAD_REQUEST, COMPANY_NAME_ERROR)));
+        when(certifiedCopyItemService.createCertifiedCopyItems(List.of(items.get(0), items.get(2)),
+                USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS)).thenReturn(Map.of(1, "E11000 duplicate key error"));
+
+        // When
+        final List<CertifiedCopyItemCreationResult> results =
+                serviceUnderTest.createCertifiedCopyItems(items, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        // Then
+        assertThat(results.size(), is(3));
+        assertThat(results.get(0).status(), is(CREATED));
+        assertThat(results.get(0).item(), is(items.get(0)));
+        assertThat(results.get(1).status(), is(BAD_REQUEST));
+        assertThat(results.get(1).item(), is(nullValue()));
+        assertThat(results.get(1).errors(), is(List.of(COMPANY_NAME_ERROR)));
+        assertThat(results.get(2).status(), is(INTERNAL_SERVER_ERROR));
+        assertThat(results.get(2).errors(), is(List.of("Unable to save the certified copy item.")));
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItems reports each item saved as possibly created where the whole save fails")
+    void createCertifiedCopyItemsReportsPossiblyCreatedWhereWholeSaveFails() {
+        // Given
+        final List<CertifiedCopyItem> items = List.of(itemRequested("00006400"), itemRequested("00000000"));
+        when(enrichmentService.enrichAll(items))
+                .thenReturn(Map.of(1, new ResponseStatusException(BAD_REQUEST, COMPANY_NAME_ERROR)));
+        when(certifiedCopyItemService.createCertifiedCopyItems(List.of(items.get(0)),
+                USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS))
+                .thenThrow(new DataAccessResourceFailureException("Timed out waiting for a server"));
+
+        // When
+        final List<CertifiedCopyItemCreationResult> results =
+                serviceUnderTest.createCertifiedCopyItems(items, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        // Then
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0).status(), is(INTERNAL_SERVER_ERROR));
+        assertThat(results.get(0).item(), is(nullValue()));
+        assertThat(results.get(0).errors(),
+                is(List.of("Unable to confirm the certified copy item was saved. It may have been created.")));
+        assertThat(results.get(1).status(), is(BAD_REQUEST));
+        assertThat(results.get(1).errors(), is(List.of(COMPANY_NAME_ERROR)));
+    }
+
+    @Test
+    @DisplayName("createCertifiedCopyItems saves nothing where none of the items can be enriched")
+    void createCertifiedCopyItemsSavesNothingWhereNoneEnriched() {
+        // Given
+        final List<CertifiedCopyItem> items = List.of(itemRequested("00000000"));
+        when(enrichmentService.enrichAll(items))
+                .thenReturn(Map.of(0, new IllegalStateException("Unexpected error")));
+
+        // When
+        final List<CertifiedCopyItemCreationResult> results =
+                serviceUnderTest.createCertifiedCopyItems(items, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        // Then
+        assertThat(results.get(0).status(), is(INTERNAL_SERVER_ERROR));
+        assertThat(results.get(0).errors(), is(List.of("Unexpected error")));
+        verify(certifiedCopyItemService, never()).createCertifiedCopyItems(anyList(), anyBoolean());
+    }
+
+    private static CertifiedCopyItem itemRequested(final String companyNumber) {
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setCompanyNumber(companyNumber);
+        return item;
+    }
+}
@@ -0,0 +1,222 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemOptions;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
+
+/**
+ * Unit tests the {@link CertifiedCopyItemEnrichmentService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CertifiedCopyItemEnrichmentServiceTest {
+
+    private static final String COMPANY_NUMBER = "00006400";
+    private static final String COMPANY_NAME = "THE GIRLS' DAY SCHOOL TRUST";
+    private static final String OTHER_COMPANY_NUMBER = "00000000";
+    private static final String OTHER_COMPANY_NAME = "OTHER COMPANY LIMITED";
+
+    private static final List<FilingHistoryDocument> FILINGS_SOUGHT =
+            singletonList(new FilingHistoryDocument(null, null, null, "1", null));
+    private static final List<FilingHistoryDocument> FILINGS_FOUND =
+            singletonList(new FilingHistoryDocument("2010-02-12", "legacy", null, "1", "288a"));
+
+    @Mock
+    private CompanyService companyService;
+
+    @Mock
+    private FilingHistoryDocumentService filingHistoryDocumentService;
+
+    private ExecutorService executor;
+
+    private UpstreamLookupConfig lookupConfig;
+
+    private CertifiedCopyItemEnrichmentService serviceUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        lookupConfig = new UpstreamLookupConfig();
+        serviceUnderTest = new CertifiedCopyItemEnrichmentService(companyService, filingHistoryDocumentService,
+                new UpstreamLookupService(lookupConfig, executor), lookupConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("enrich() populates the company name and filings looked up concurrently")
+    void enrichPopulatesItemConcurrently() {
+        // Given
+        final CertifiedCopyItem item = itemRequested();
+        when(companyService.getCompanyName(COMPANY_NUMBER)).thenReturn(COMPANY_NAME);
+        when(filingHistoryDocumentService.getFilingHistoryDocuments(COMPANY_NUMBER, FILINGS_SOUGHT))
+                .thenReturn(FILINGS_FOUND);
+
+        // When
+        serviceUnderTest.enrich(item);
+
+        // Then
+        assertThat(item.getData().getCompanyName(), is(COMPANY_NAME));
+        assertThat(item.getItemOptions().getFilingHistoryDocuments(), is(FILINGS_FOUND));
+    }
+
+    @Test
+    @DisplayName("enrich() populates the company name and filings looked up sequentially where so configured")
+    void enrichPopulatesItemSequentially() {
+        // Given
+        lookupConfig.setConcurrent(false);
+        final CertifiedCopyItem item = itemRequested();
+        when(companyService.getCompanyName(COMPANY_NUMBER)).thenReturn(COMPANY_NAME);
+        when(filingHistoryDocumentService.getFilingHistoryDocuments(COMPANY_NUMBER, FILINGS_SOUGHT))
+                .thenReturn(FILINGS_FOUND);
+
+        // When
+        serviceUnderTest.enrich(item);
+
+        // Then
+        assertThat(item.getData().getCompanyName(), is(COMPANY_NAME));
+        assertThat(item.getItemOptions().getFilingHistoryDocuments(), is(FILINGS_FOUND));
+    }
+
+    @Test
+    @DisplayName("enrich() fails fast with the company lookup error, cancelling the filings lookup")
+    void enrichFailsFast() throws InterruptedException {
+        // Given
+        final CertifiedCopyItem item = itemRequested();
+        final CountDownLatch filingsLookupStarted = new CountDownLatch(1);
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        final CountDownLatch filingsLookupInterrupted = new CountDownLatch(1);
+        when(companyService.getCompanyName(COMPANY_NUMBER)).thenAnswer(invocation -> {
+            filingsLookupStarted.await();
+            throw new ResponseStatusException(BAD_REQUEST, "Error getting company name for company number 00006400");
+        });
+        when(filingHistoryDocumentService.getFilingHistoryDocuments(COMPANY_NUMBER, FILINGS_SOUGHT))
+                .thenAnswer(invocation -> {
+                    filingsLookupStarted.countDown();
+                    try {
+                        neverReleased.await();
+                    } catch (InterruptedException ie) {
+                        filingsLookupInterrupted.countDown();
+                    }
+                    return FILINGS_FOUND;
+                });
+
+        // When and then
+        final ResponseStatusException exception =
+                assertThrows(ResponseStatusException.class, () -> serviceUnderTest.enrich(item));
+        assertThat(exception.getStatusCode(), is(BAD_REQUEST));
+        assertThat(filingsLookupInterrupted.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    @DisplayName("enrichAll() looks up each company, and each filing requested for it, only once for the batch")
+    void enrichAllSharesLookups() {
+        // Given
+        final FilingHistoryDocument filingOneSought = new FilingHistoryDocument(null, null, null, "1", null);
+        final FilingHistoryDocument filingTwoSought = new FilingHistoryDocument(null, null, null, "2", null);
+        final List<CertifiedCopyItem> items = List.of(
+                itemRequested(COMPANY_NUMBER, filingOneSought),
+                itemRequested(OTHER_COMPANY_NUMBER, filingOneSought),
+                itemRequested(COMPANY_NUMBER, filingOneSought, filingTwoSought));
+        when(companyService.getCompanyName(COMPANY_NUMBER)).thenReturn(COMPANY_NAME);
+        when(companyService.getCompanyName(OTHER_COMPANY_NUMBER)).thenReturn(OTHER_COMPANY_NAME);
+        when(filingHistoryDocumentService.getFilingHistoryDocuments(COMPANY_NUMBER,
+                List.of(filingOneSought, filingTwoSought))).thenReturn(List.of(
+                        new FilingHistoryDocument("2010-02-12", "legacy", null, "1", "288a"),
+                        new FilingHistoryDocument("2011-03-13", "legacy", null, "2", "363a")));
+        when(filingHistoryDocumentService.getFilingHistoryDocuments(OTHER_COMPANY_NUMBER, List.of(filingOneSought)))
+                .thenReturn(List.of(new FilingHistoryDocument("2012-04-14", "legacy", null, "1", "AA")));
+
+        // When
+        final Map<Integer, RuntimeException> failures = serviceUnderTest.enrichAll(items);
+
+        // Then
+        assertThat(failures.isEmpty(), is(true));
+        verify(companyService, times(1)).getCompanyName(COMPANY_NUMBER);
+        assertThat(items.get(0).getData().getCompanyName(), is(COMPANY_NAME));
+        assertThat(getFilingTypes(items.get(0)), is(List.of("288a")));
+        assertThat(items.get(1).getData().getCompanyName(), is(OTHER_COMPANY_NAME));
+        assertThat(getFilingTypes(items.get(1)), is(List.of("AA")));
+        assertThat(items.get(2).getData().getCompanyName(), is(COMPANY_NAME));
+        assertThat(getFilingTypes(items.get(2)), is(List.of("288a", "363a")));
+        // Each item has its own copy of a filing shared with another item, as it is priced on its own.
+        assertThat(items.get(0).getItemOptions().getFilingHistoryDocuments().get(0)
+                == items.get(2).getItemOptions().getFilingHistoryDocuments().get(0), is(false));
+    }
+
+    @Test
+    @DisplayName("enrichAll() reports the items for a company that cannot be looked up, enriching the others")
+    void enrichAllIsolatesFailures() {
+        // Given
+        final List<CertifiedCopyItem> items = List.of(itemRequested(), itemRequested(OTHER_COMPANY_NUMBER,
+                FILINGS_SOUGHT.get(0)));
+        when(companyService.getCompanyName(COMPANY_NUMBER)).thenReturn(COMPANY_NAME);
+        when(companyService.getCompanyName(OTHER_COMPANY_NUMBER)).thenThrow(
+                new ResponseStatusException(BAD_REQUEST, "Error getting company name for company number 00000000"));
+        when(filingHistoryDocumentService.getFilingHistoryDocuments(COMPANY_NUMBER, FILINGS_SOUGHT))
+                .thenReturn(FILINGS_FOUND);
+        when(filingHistoryDocumentService.getFilingHistoryDocuments(OTHER_COMPANY_NUMBER, FILINGS_SOUGHT))
+                .thenReturn(FILINGS_FOUND);
+
+        // When
+        final Map<Integer, RuntimeException> failures = serviceUnderTest.enrichAll(items);
+
+        // Then
+        assertThat(failures.keySet(), is(Set.of(1)));
+        assertThat(((ResponseStatusException) failures.get(1)).getStatusCode(), is(BAD_REQUEST));
+        assertThat(items.get(0).getData().getCompanyName(), is(COMPANY_NAME));
+        assertThat(getFilingTypes(items.get(0)), is(List.of("288a")));
+    }
+
+    private static List<String> getFilingTypes(final CertifiedCopyItem item) {
+        return item.getItemOptions().getFilingHistoryDocuments().stream()
+                .map(FilingHistoryDocument::getFilingHistoryType)
+                .toList();
+    }
+
+    private static CertifiedCopyItem itemRequested(final String companyNumber,
+                                                   final FilingHistoryDocument... filingsSought) {
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setCompanyNumber(companyNumber);
+        final CertifiedCopyItemOptions options = new CertifiedCopyItemOptions();
+        options.setFilingHistoryDocuments(List.of(filingsSought));
+        item.setItemOptions(options);
+        return item;
+    }
+
+    private static CertifiedCopyItem itemRequested() {
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setCompanyNumber(COMPANY_NUMBER);
+        final CertifiedCopyItemOptions options = new CertifiedCopyItemOptions();
+        options.setFilingHistoryDocuments(FILINGS_SOUGHT);
+        item.setItemOptions(options);
+        return item;
+    }
+}
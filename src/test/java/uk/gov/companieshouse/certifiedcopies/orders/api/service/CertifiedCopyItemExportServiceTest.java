@@ -0,0 +1,112 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ApplicationConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ExportConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.dto.CertifiedCopyItemResponseDTO;
+import uk.gov.companieshouse.certifiedcopies.orders.api.mapper.CertifiedCopyItemMapper;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemData;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemRepository;
+
+/**
+ * Unit tests the {@link CertifiedCopyItemExportService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CertifiedCopyItemExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 10, 18, 0, 0);
+    private static final int CURSOR_BATCH_SIZE = 2;
+
+    @Mock
+    private CertifiedCopyItemRepository repository;
+
+    @Mock
+    private CertifiedCopyItemMapper mapper;
+
+    private final AtomicBoolean cursorClosed = new AtomicBoolean();
+
+    private CertifiedCopyItemExportService serviceUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        final ExportConfig config = new ExportConfig();
+        config.setCursorBatchSize(CURSOR_BATCH_SIZE);
+        serviceUnderTest = new CertifiedCopyItemExportService(repository, mapper,
+                new ApplicationConfig().objectMapper(), config);
+    }
+
+    @Test
+    @DisplayName("exportCertifiedCopyItems writes each item on its own line, and closes the cursor")
+    void exportCertifiedCopyItemsWritesNewlineDelimitedJson() throws IOException {
+
+        // Given
+        givenItems(item("CCD-000000-000001"), item("CCD-000000-000002"), item("CCD-000000-000003"));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        final long exported = serviceUnderTest.exportCertifiedCopyItems(FROM, TO, output);
+
+        // Then
+        assertThat(exported, is(3L));
+        assertThat(output.toString(UTF_8), is("""
+                {"id":"CCD-000000-000001"}
+                {"id":"CCD-000000-000002"}
+                {"id":"CCD-000000-000003"}
+                """));
+        assertThat(cursorClosed.get(), is(true));
+    }
+
+    @Test
+    @DisplayName("exportCertifiedCopyItems closes the cursor should the client go away part way through")
+    void exportCertifiedCopyItemsClosesCursorOnWriteFailure() {
+
+        // Given
+        givenItems(item("CCD-000000-000001"));
+        final OutputStream brokenOutput = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When and then
+        assertThrows(IOException.class, () -> serviceUnderTest.exportCertifiedCopyItems(FROM, TO, brokenOutput));
+        assertThat(cursorClosed.get(), is(true));
+    }
+
+    private void givenItems(final CertifiedCopyItem... items) {
+        when(repository.streamByCreatedAtBetween(FROM, TO, CURSOR_BATCH_SIZE))
+                .thenReturn(Stream.of(items).onClose(() -> cursorClosed.set(true)));
+        when(mapper.certifiedCopyItemDataToCertifiedCopyItemResponseDTO(any())).thenAnswer(invocation -> {
+            final CertifiedCopyItemResponseDTO dto = new CertifiedCopyItemResponseDTO();
+            dto.setId(invocation.<CertifiedCopyItemData>getArgument(0).getId());
+            return dto;
+        });
+    }
+
+    private static CertifiedCopyItem item(final String id) {
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setId(id);
+        return item;
+    }
+}
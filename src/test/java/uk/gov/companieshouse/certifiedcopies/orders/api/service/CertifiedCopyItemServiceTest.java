@@ -3,33 +3,55 @@ package uk.gov.companieshouse.certifiedcopies.orders.api.service;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import org.bson.Document;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ApplicationConfig;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItem;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemOptions;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.CertifiedCopyItemPage;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.DeliveryMethod;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemCostCalculation;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemCosts;
+import uk.gov.companieshouse.certifiedcopies.orders.api.model.ItemStatus;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemCursor;
+import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemOwner;
 import uk.gov.companieshouse.certifiedcopies.orders.api.repository.CertifiedCopyItemRepository;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.PatchMerger;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.PatchUpdateConverter;
+import uk.gov.companieshouse.certifiedcopies.orders.api.util.TestMergePatchFactory;
 
 
 /**
@@ -55,6 +77,9 @@ class CertifiedCopyItemServiceTest {
     private static final Map<String, Object> FILING_HISTORY_DESCRIPTION_VALUES = new HashMap<>();
     private static final String FILING_HISTORY_TYPE = "CH01";
     private static final boolean USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS = false;
+    private static final String ETAG = "etag";
+    private static final String USER_ID = "user";
+    private static final String UPDATED_ETAG = "updated etag";
 
     @InjectMocks
     private CertifiedCopyItemService serviceUnderTest;
@@ -77,6 +102,17 @@ class CertifiedCopyItemServiceTest {
     @Mock
     private CertifiedCopyCostCalculatorService costCalculatorService;
 
+    @Spy
+    private PatchMerger patcher = new PatchMerger(new ApplicationConfig().objectMapper());
+
+    @Spy
+    private PatchUpdateConverter patchUpdateConverter = new PatchUpdateConverter();
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private final TestMergePatchFactory patchFactory = new TestMergePatchFactory(new ApplicationConfig().objectMapper());
+
     private boolean entitledToFreeCertificates;
 
     @Test
@@ -153,6 +189,309 @@ class CertifiedCopyItemServiceTest {
         verify(descriptionProviderService).getDescription(COMPANY_NUMBER);
     }
 
+    @Test
+    @DisplayName("createPendingCertifiedCopyItem saves the certified copy item as pending, without pricing it")
+    void createPendingCertifiedCopyItemSavesPendingItemWithoutCosts() {
+        when(idGeneratorService.autoGenerateId()).thenReturn(ID);
+
+        final CertifiedCopyItemOptions certifiedCopyItemOptions = new CertifiedCopyItemOptions();
+        certifiedCopyItemOptions.setDeliveryMethod(DeliveryMethod.POSTAL);
+        final CertifiedCopyItem certifiedCopyItem = new CertifiedCopyItem();
+        certifiedCopyItem.setItemOptions(certifiedCopyItemOptions);
+        certifiedCopyItem.setQuantity(1);
+        when(repository.save(certifiedCopyItem)).thenReturn(certifiedCopyItem);
+
+        final LocalDateTime intervalStart = LocalDateTime.now();
+
+        serviceUnderTest.createPendingCertifiedCopyItem(certifiedCopyItem);
+
+        final LocalDateTime intervalEnd = LocalDateTime.now();
+
+        verifyCreationTimestampsWithinExecutionInterval(certifiedCopyItem, intervalStart, intervalEnd);
+        assertThat(certifiedCopyItem.getId(), is(ID));
+        assertThat(certifiedCopyItem.getStatus(), is(ItemStatus.PENDING));
+        verify(linksGenerator).generateLinks(ID);
+        verify(costCalculatorService, never()).calculateAllCosts(anyInt(), any(), anyList(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("completeCertifiedCopyItem prices and saves the enriched certified copy item as ready")
+    void completeCertifiedCopyItemPricesAndSavesReadyItem() {
+        final CertifiedCopyItemOptions certifiedCopyItemOptions = new CertifiedCopyItemOptions();
+        certifiedCopyItemOptions.setFilingHistoryDocuments(
+                singletonList(new FilingHistoryDocument(FILING_HISTORY_DATE,
+                        FILING_HISTORY_DESCRIPTION,
+                        FILING_HISTORY_DESCRIPTION_VALUES,
+                        FILING_HISTORY_ID,
+                        FILING_HISTORY_TYPE)));
+        final CertifiedCopyItem certifiedCopyItem = new CertifiedCopyItem();
+        certifiedCopyItem.setItemOptions(certifiedCopyItemOptions);
+        certifiedCopyItem.setQuantity(1);
+        certifiedCopyItem.setStatus(ItemStatus.PENDING);
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+        when(repository.save(certifiedCopyItem)).thenReturn(certifiedCopyItem);
+
+        serviceUnderTest.completeCertifiedCopyItem(certifiedCopyItem, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(certifiedCopyItem.getStatus(), is(ItemStatus.READY));
+        assertThat(certifiedCopyItem.getData().getTotalItemCost(), is(TOTAL_ITEM_COST));
+        verify(etagGenerator).generateEtag();
+    }
+
+    @Test
+    @DisplayName("getCertifiedCopyItemWithCosts does not price an item that is still pending")
+    void getCertifiedCopyItemWithCostsDoesNotPricePendingItem() {
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setStatus(ItemStatus.PENDING);
+        when(repository.findById(ID)).thenReturn(Optional.of(item));
+
+        final Optional<CertifiedCopyItem> itemRetrieved =
+                serviceUnderTest.getCertifiedCopyItemWithCosts(ID, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(itemRetrieved.isPresent(), is(true));
+        verify(costCalculatorService, never()).calculateAllCosts(anyInt(), any(), anyList(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem sets the unpriced fields patched in a single update, without reading the item")
+    void patchCertifiedCopyItemUpdatesUnpricedFieldsWithoutRead() throws IOException {
+        final CertifiedCopyItem updatedItem = getReadyItem();
+        when(etagGenerator.generateEtag()).thenReturn(UPDATED_ETAG);
+        when(descriptionProviderService.getDescription(COMPANY_NUMBER)).thenReturn(DESCRIPTION);
+        when(repository.updateReadyItem(eq(ID), isNull(), updateCaptor.capture()))
+                .thenReturn(Optional.of(updatedItem));
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+
+        final Optional<CertifiedCopyItem> patchedItem = serviceUnderTest.patchCertifiedCopyItem(ID,
+                patchFactory.patchFromJson("{\"company_number\":\"" + COMPANY_NUMBER + "\"}"),
+                null, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(patchedItem.isPresent(), is(true));
+        assertThat(patchedItem.get().getData().getTotalItemCost(), is(TOTAL_ITEM_COST));
+        final Document set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertThat(set.getString("data.company_number"), is(COMPANY_NUMBER));
+        assertThat(set.getString("data.description"), is(DESCRIPTION));
+        assertThat(set.getString("data.etag"), is(UPDATED_ETAG));
+        assertThat(set.containsKey("updatedAt"), is(true));
+        assertThat(set.containsKey("data.itemCosts"), is(false));
+        verify(repository, never()).findById(ID);
+    }
+
+    @Test
+    @DisplayName("failPendingCertifiedCopyItem saves the item as failed in a single update, should it still be pending")
+    void failPendingCertifiedCopyItemUpdatesPendingItem() {
+        when(etagGenerator.generateEtag()).thenReturn(UPDATED_ETAG);
+        when(repository.updatePendingItem(eq(ID), updateCaptor.capture())).thenReturn(Optional.of(getReadyItem()));
+
+        assertThat(serviceUnderTest.failPendingCertifiedCopyItem(ID), is(true));
+
+        final Document set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertThat(set.getString("data.status"), is(ItemStatus.FAILED.getJsonName()));
+        assertThat(set.getString("data.etag"), is(UPDATED_ETAG));
+        assertThat(set.containsKey("updatedAt"), is(true));
+        verify(repository, never()).findById(ID);
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem reports no item where there is no item to patch")
+    void patchCertifiedCopyItemReportsNoItemWhereNotFound() throws IOException {
+        when(repository.updateReadyItem(eq(ID), isNull(), any(Update.class))).thenReturn(Optional.empty());
+        when(repository.findById(ID)).thenReturn(Optional.empty());
+
+        final Optional<CertifiedCopyItem> patchedItem = serviceUnderTest.patchCertifiedCopyItem(ID,
+                patchFactory.patchFromJson("{\"customer_reference\":\"reference\"}"),
+                null, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(patchedItem.isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem reports conflict where the item is not ready to be patched")
+    void patchCertifiedCopyItemReportsConflictWhereNotReady() throws IOException {
+        when(repository.updateReadyItem(eq(ID), isNull(), any(Update.class))).thenReturn(Optional.empty());
+        final CertifiedCopyItem pendingItem = getReadyItem();
+        pendingItem.setStatus(ItemStatus.PENDING);
+        when(repository.findById(ID)).thenReturn(Optional.of(pendingItem));
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.patchCertifiedCopyItem(ID,
+                        patchFactory.patchFromJson("{\"customer_reference\":\"reference\"}"),
+                        null, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(CONFLICT));
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem prices the item patched, and updates it on condition it is unchanged")
+    void patchCertifiedCopyItemPricesAndConditionallyUpdatesPricedFields() throws IOException {
+        final CertifiedCopyItem retrievedItem = getReadyItem();
+        when(repository.findById(ID)).thenReturn(Optional.of(retrievedItem));
+        when(etagGenerator.generateEtag()).thenReturn(UPDATED_ETAG);
+        when(costCalculatorService.calculateAllCosts(eq(2), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+        when(repository.updateReadyItem(eq(ID), eq(List.of(ETAG)), updateCaptor.capture()))
+                .thenReturn(Optional.of(getReadyItem()));
+        when(costCalculatorService.calculateAllCosts(eq(1), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+
+        final Optional<CertifiedCopyItem> patchedItem = serviceUnderTest.patchCertifiedCopyItem(ID,
+                patchFactory.patchFromJson("{\"quantity\":2}"), null, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(patchedItem.isPresent(), is(true));
+        final Document set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertThat(set.getInteger("data.quantity"), is(2));
+        assertThat(set.getString("data.totalItemCost"), is(TOTAL_ITEM_COST));
+        assertThat(set.getString("data.postageCost"), is(POSTAGE_COST));
+        assertThat(set.getString("data.etag"), is(UPDATED_ETAG));
+        assertThat(set.containsKey("data.description"), is(false));
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem re-applies the patch should the item be updated while it is priced")
+    void patchCertifiedCopyItemRetriesWhereItemUpdatedConcurrently() throws IOException {
+        when(repository.findById(ID)).thenReturn(Optional.of(getReadyItem()));
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+        when(repository.updateReadyItem(eq(ID), eq(List.of(ETAG)), any(Update.class)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(getReadyItem()));
+
+        final Optional<CertifiedCopyItem> patchedItem = serviceUnderTest.patchCertifiedCopyItem(ID,
+                patchFactory.patchFromJson("{\"quantity\":2}"), null, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(patchedItem.isPresent(), is(true));
+        verify(repository, times(2)).findById(ID);
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem reports conflict should the item keep being updated while it is priced")
+    void patchCertifiedCopyItemReportsConflictWhereItemKeepsBeingUpdated() throws IOException {
+        when(repository.findById(ID)).thenReturn(Optional.of(getReadyItem()));
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+        when(repository.updateReadyItem(eq(ID), eq(List.of(ETAG)), any(Update.class))).thenReturn(Optional.empty());
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.patchCertifiedCopyItem(ID,
+                        patchFactory.patchFromJson("{\"quantity\":2}"), null, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(CONFLICT));
+        verify(repository, times(3)).findById(ID);
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem reports conflict where the item to be priced is not ready to be patched")
+    void patchCertifiedCopyItemReportsConflictWhereItemToBePricedNotReady() throws IOException {
+        final CertifiedCopyItem pendingItem = getReadyItem();
+        pendingItem.setStatus(ItemStatus.PENDING);
+        when(repository.findById(ID)).thenReturn(Optional.of(pendingItem));
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.patchCertifiedCopyItem(ID,
+                        patchFactory.patchFromJson("{\"quantity\":2}"), null, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(CONFLICT));
+        verify(repository, never()).updateReadyItem(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem sets the unpriced fields patched on condition the item has an etag expected")
+    void patchCertifiedCopyItemConditionallyUpdatesUnpricedFields() throws IOException {
+        when(repository.updateReadyItem(eq(ID), eq(List.of(ETAG)), any(Update.class)))
+                .thenReturn(Optional.of(getReadyItem()));
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+
+        final Optional<CertifiedCopyItem> patchedItem = serviceUnderTest.patchCertifiedCopyItem(ID,
+                patchFactory.patchFromJson("{\"customer_reference\":\"reference\"}"), List.of(ETAG),
+                USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(patchedItem.isPresent(), is(true));
+        verify(repository, never()).findById(ID);
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem reports precondition failed where the item no longer has an etag expected")
+    void patchCertifiedCopyItemReportsPreconditionFailedWhereEtagChanged() throws IOException {
+        when(repository.updateReadyItem(eq(ID), eq(List.of(UPDATED_ETAG)), any(Update.class)))
+                .thenReturn(Optional.empty());
+        when(repository.findById(ID)).thenReturn(Optional.of(getReadyItem()));
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.patchCertifiedCopyItem(ID,
+                        patchFactory.patchFromJson("{\"customer_reference\":\"reference\"}"), List.of(UPDATED_ETAG),
+                        USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(PRECONDITION_FAILED));
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem reports precondition failed without pricing an item lacking an etag expected")
+    void patchCertifiedCopyItemReportsPreconditionFailedBeforePricing() throws IOException {
+        when(repository.findById(ID)).thenReturn(Optional.of(getReadyItem()));
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.patchCertifiedCopyItem(ID,
+                        patchFactory.patchFromJson("{\"quantity\":2}"), List.of(UPDATED_ETAG),
+                        USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(PRECONDITION_FAILED));
+        verify(costCalculatorService, never()).calculateAllCosts(anyInt(), any(), anyList(), anyBoolean());
+        verify(repository, never()).updateReadyItem(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("patchCertifiedCopyItem reports precondition failed, rather than re-applying the patch, should an "
+            + "item with an etag expected be updated while it is priced")
+    void patchCertifiedCopyItemReportsPreconditionFailedWhereUpdatedWhilePriced() throws IOException {
+        final CertifiedCopyItem updatedItem = getReadyItem();
+        updatedItem.setEtag(UPDATED_ETAG);
+        when(repository.findById(ID)).thenReturn(Optional.of(getReadyItem())).thenReturn(Optional.of(updatedItem));
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+        when(repository.updateReadyItem(eq(ID), eq(List.of(ETAG)), any(Update.class))).thenReturn(Optional.empty());
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.patchCertifiedCopyItem(ID,
+                        patchFactory.patchFromJson("{\"quantity\":2}"), List.of(ETAG),
+                        USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(PRECONDITION_FAILED));
+        verify(repository, times(2)).findById(ID);
+    }
+
+    private CertifiedCopyItem getReadyItem() {
+        final CertifiedCopyItemOptions certifiedCopyItemOptions = new CertifiedCopyItemOptions();
+        certifiedCopyItemOptions.setFilingHistoryDocuments(
+                singletonList(new FilingHistoryDocument(FILING_HISTORY_DATE,
+                        FILING_HISTORY_DESCRIPTION,
+                        FILING_HISTORY_DESCRIPTION_VALUES,
+                        FILING_HISTORY_ID,
+                        FILING_HISTORY_TYPE)));
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setId(ID);
+        item.setEtag(ETAG);
+        item.setItemOptions(certifiedCopyItemOptions);
+        item.setQuantity(1);
+        return item;
+    }
+
+    @Test
+    @DisplayName("getCertifiedCopyItemWithCosts prices an item already retrieved that is ready")
+    void getCertifiedCopyItemWithCostsPricesItemAlreadyRetrieved() {
+        final CertifiedCopyItem item = getReadyItem();
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+
+        final CertifiedCopyItem pricedItem =
+                serviceUnderTest.getCertifiedCopyItemWithCosts(item, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        assertThat(pricedItem.getData().getTotalItemCost(), is(TOTAL_ITEM_COST));
+        verify(repository, never()).findById(ID);
+    }
+
     private List<ItemCostCalculation> getItemCostCalculations() {
         List<ItemCosts> itemCosts = new ArrayList<>();
         ItemCosts cost = new ItemCosts();
@@ -182,6 +521,117 @@ class CertifiedCopyItemServiceTest {
         verify(etagGenerator, never()).generateEtag();
     }
 
+    @Test
+    @DisplayName("getCertifiedCopyItemOwner retrieves only the owner of the item")
+    void getCertifiedCopyItemOwnerRetrievesOwnerOnly() {
+
+        // Given
+        final CertifiedCopyItemOwner owner = () -> USER_ID;
+        when(repository.findOwnerById(ID)).thenReturn(Optional.of(owner));
+
+        // When
+        final Optional<CertifiedCopyItemOwner> ownerRetrieved = serviceUnderTest.getCertifiedCopyItemOwner(ID);
+
+        // Then
+        assertThat(ownerRetrieved.map(CertifiedCopyItemOwner::getUserId), is(Optional.of(USER_ID)));
+        verify(repository, never()).findById(ID);
+    }
+
+    @Test
+    @DisplayName("getCertifiedCopyItemsByUserId reads one item more than the page holds to find the next cursor")
+    void getCertifiedCopyItemsByUserIdReturnsCursorWhereMoreItemsRemain() {
+
+        // Given
+        final LocalDateTime createdAt = LocalDateTime.of(2026, 10, 18, 12, 30, 15, 123_000_000);
+        final List<CertifiedCopyItem> items = List.of(
+                getListedItem("3", createdAt.plusSeconds(1)),
+                getListedItem("2", createdAt),
+                getListedItem("1", createdAt));
+        when(repository.findPageByUserId(USER_ID, null, 3, false)).thenReturn(items);
+
+        // When
+        final CertifiedCopyItemPage page = serviceUnderTest.getCertifiedCopyItemsByUserId(USER_ID, null, 2,
+                false, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        // Then
+        assertThat(page.items(), is(items.subList(0, 2)));
+        assertThat(CertifiedCopyItemCursor.decode(page.nextCursor()),
+                is(new CertifiedCopyItemCursor(createdAt, "2")));
+        verify(costCalculatorService, never()).calculateAllCosts(anyInt(), any(), anyList(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("getCertifiedCopyItemsByUserId starts the page after the cursor, and has no cursor on the last page")
+    void getCertifiedCopyItemsByUserIdStartsAfterCursor() {
+
+        // Given
+        final CertifiedCopyItemCursor cursor = new CertifiedCopyItemCursor(LocalDateTime.of(2026, 10, 18, 12, 30), "2");
+        final List<CertifiedCopyItem> items = List.of(getListedItem("1", LocalDateTime.of(2026, 10, 18, 12, 0)));
+        when(repository.findPageByUserId(USER_ID, cursor, 3, false)).thenReturn(items);
+
+        // When
+        final CertifiedCopyItemPage page = serviceUnderTest.getCertifiedCopyItemsByUserId(USER_ID, cursor.encode(), 2,
+                false, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        // Then
+        assertThat(page.items(), is(items));
+        assertThat(page.nextCursor() == null, is(true));
+    }
+
+    @Test
+    @DisplayName("getCertifiedCopyItemsByUserId prices the items listed with their filing history documents")
+    void getCertifiedCopyItemsByUserIdPricesItemsWithFilingHistoryDocuments() {
+
+        // Given
+        when(repository.findPageByUserId(USER_ID, null, 21, true)).thenReturn(List.of(getReadyItem()));
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+
+        // When
+        final CertifiedCopyItemPage page = serviceUnderTest.getCertifiedCopyItemsByUserId(USER_ID, null, 20,
+                true, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        // Then
+        assertThat(page.items().get(0).getData().getTotalItemCost(), is(TOTAL_ITEM_COST));
+    }
+
+    @Test
+    @DisplayName("getCertifiedCopyItemsByUserId reports bad request for a cursor it did not return")
+    void getCertifiedCopyItemsByUserIdReportsBadRequestForInvalidCursor() {
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.getCertifiedCopyItemsByUserId(USER_ID, "not-a-cursor", 20,
+                        false, USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS));
+
+        assertThat(exception.getStatusCode(), is(BAD_REQUEST));
+        verify(repository, never()).findPageByUserId(any(), any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("getCertifiedCopyItemsWithCosts reads the items together, and prices each item found")
+    void getCertifiedCopyItemsWithCostsPricesItemsFound() {
+
+        // Given
+        final CertifiedCopyItem item = getReadyItem();
+        when(repository.findAllById(List.of(ID, "CCD-000000-000009"))).thenReturn(List.of(item));
+        when(costCalculatorService.calculateAllCosts(anyInt(), any(), anyList(), eq(false)))
+                .thenReturn(getItemCostCalculations());
+
+        // When
+        final Map<String, CertifiedCopyItem> items = serviceUnderTest.getCertifiedCopyItemsWithCosts(
+                List.of(ID, "CCD-000000-000009"), USER_NOT_ELIGIBLE_FOR_FREE_CERT_DOCS);
+
+        // Then
+        assertThat(items, is(Map.of(ID, item)));
+        assertThat(item.getData().getTotalItemCost(), is(TOTAL_ITEM_COST));
+    }
+
+    private static CertifiedCopyItem getListedItem(final String id, final LocalDateTime createdAt) {
+        final CertifiedCopyItem item = new CertifiedCopyItem();
+        item.setId(id);
+        item.setCreatedAt(createdAt);
+        return item;
+    }
+
     @Test
     @DisplayName("getCertifiedCopyItemById handles failure to find item smoothly")
     void getCertifiedCopyItemByIdHandlesFailureToFindItemSmoothly() {
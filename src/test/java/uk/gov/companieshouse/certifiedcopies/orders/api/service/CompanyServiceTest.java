@@ -1,8 +1,11 @@
 package uk.gov.companieshouse.certifiedcopies.orders.api.service;
 
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
@@ -11,14 +14,20 @@ import static uk.gov.companieshouse.api.error.ApiErrorResponseException.fromIOEx
 
 import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.http.HttpResponseException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.Queue;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.springframework.web.server.ResponseStatusException;
@@ -28,6 +37,12 @@ import uk.gov.companieshouse.api.handler.company.request.CompanyGet;
 import uk.gov.companieshouse.api.handler.exception.URIValidationException;
 import uk.gov.companieshouse.api.model.ApiResponse;
 import uk.gov.companieshouse.api.model.company.CompanyProfileApi;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CircuitBreakerConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CompanyNameCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ConcurrencyLimitConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.HedgingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.NotFoundCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
 
 @ExtendWith(MockitoExtension.class)
 @PrepareForTest(HttpResponseException.class)
@@ -35,6 +50,7 @@ class CompanyServiceTest {
 
     private static final String COMPANY_NUMBER = "00006400";
     private static final String COMPANY_NAME = "Company Name";
+    private static final String NEW_COMPANY_NAME = "New Company Name";
 
     private static final String INVALID_URI = "URI pattern does not match expected URI pattern for this resource.";
     private static final String INVALID_URI_EXPECTED_REASON = "Invalid URI /company/00006400 for company details";
@@ -49,6 +65,17 @@ class CompanyServiceTest {
     @Mock
     private ApiClientService apiClientService;
 
+    @Mock
+    private CompanyNameCacheConfig cacheConfig;
+
+    @Spy
+    private UpstreamCallService upstreamCalls =
+            new UpstreamCallService(new UpstreamLookupConfig(), new NotFoundCacheConfig(),
+                    new CircuitBreakerConfig(), new ConcurrencyLimitConfig(),
+                    new UpstreamHedgingService(new HedgingConfig(), newDirectExecutorService(),
+                            new SimpleMeterRegistry()),
+                    Runnable::run, new SimpleMeterRegistry());
+
     @Mock
     private InternalApiClient apiClient;
 
@@ -126,4 +153,79 @@ class CompanyServiceTest {
                         () -> serviceUnderTest.getCompanyName(COMPANY_NUMBER));
         assertThat(exception.getStatusCode(), is(BAD_REQUEST));
     }
+
+    @Test
+    @DisplayName("getCompanyName() serves a cached company name without calling the API again")
+    void getCompanyNameServesCachedName() throws Exception {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final CompanyService cachingService = new CompanyService(apiClientService, upstreamCalls,
+                cacheConfig(Duration.ofHours(1)), meterRegistry, Runnable::run);
+
+        when(apiClientService.getInternalApiClient()).thenReturn(apiClient);
+        when(apiClient.company()).thenReturn(handler);
+        when(handler.get(anyString())).thenReturn(get);
+        when(get.execute()).thenReturn(companyProfile(COMPANY_NAME));
+
+        assertThat(cachingService.getCompanyName(COMPANY_NUMBER), is(COMPANY_NAME));
+        assertThat(cachingService.getCompanyName(COMPANY_NUMBER), is(COMPANY_NAME));
+
+        verify(get, times(1)).execute();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "company-names").tag("result", "hit")
+                .functionCounter().count(), is(1.0));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "company-names").tag("result", "miss")
+                .functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    @DisplayName("getCompanyName() serves a stale company name while it is refreshed in the background")
+    void getCompanyNameServesStaleNameWhileRefreshing() throws Exception {
+        final Queue<Runnable> refreshes = new ArrayDeque<>();
+        final CompanyService cachingService = new CompanyService(apiClientService, upstreamCalls,
+                cacheConfig(Duration.ofMillis(1)), new SimpleMeterRegistry(), refreshes::add);
+
+        when(apiClientService.getInternalApiClient()).thenReturn(apiClient);
+        when(apiClient.company()).thenReturn(handler);
+        when(handler.get(anyString())).thenReturn(get);
+        when(get.execute()).thenReturn(companyProfile(COMPANY_NAME), companyProfile(NEW_COMPANY_NAME));
+
+        assertThat(cachingService.getCompanyName(COMPANY_NUMBER), is(COMPANY_NAME));
+        Thread.sleep(10);
+
+        assertThat(cachingService.getCompanyName(COMPANY_NUMBER), is(COMPANY_NAME));
+        assertThat(refreshes.size(), is(1));
+
+        refreshes.remove().run();
+        assertThat(cachingService.getCompanyName(COMPANY_NUMBER), is(NEW_COMPANY_NAME));
+    }
+
+    @Test
+    @DisplayName("getCompanyName() propagates the lookup error as is where caching is enabled")
+    void getCompanyNamePropagatesLookupErrorWhenCaching() throws Exception {
+        final CompanyService cachingService = new CompanyService(apiClientService, upstreamCalls,
+                cacheConfig(Duration.ofHours(1)), new SimpleMeterRegistry(), Runnable::run);
+        HttpResponseException httpResponseException = new HttpResponseException
+                .Builder(404, "Not Found", new HttpHeaders()).build();
+
+        when(apiClientService.getInternalApiClient()).thenReturn(apiClient);
+        when(apiClient.company()).thenReturn(handler);
+        when(handler.get(anyString())).thenReturn(get);
+        when(get.execute()).thenThrow(fromHttpResponseException(httpResponseException));
+
+        final ResponseStatusException exception =
+                Assertions.assertThrows(ResponseStatusException.class,
+                        () -> cachingService.getCompanyName(COMPANY_NUMBER));
+        assertThat(exception.getStatusCode(), is(BAD_REQUEST));
+    }
+
+    private static CompanyNameCacheConfig cacheConfig(final Duration timeToLive) {
+        final CompanyNameCacheConfig config = new CompanyNameCacheConfig();
+        config.setTimeToLive(timeToLive);
+        return config;
+    }
+
+    private static ApiResponse<CompanyProfileApi> companyProfile(final String companyName) {
+        final CompanyProfileApi companyProfileApi = new CompanyProfileApi();
+        companyProfileApi.setCompanyName(companyName);
+        return new ApiResponse<>(200, new HashMap<>(), companyProfileApi);
+    }
 }
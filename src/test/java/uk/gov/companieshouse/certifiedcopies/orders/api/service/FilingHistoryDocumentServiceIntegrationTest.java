@@ -6,6 +6,8 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.tomakehurst.wiremock.http.Fault;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.core.Is;
 import org.junit.ClassRule;
 import org.junit.contrib.java.lang.system.EnvironmentVariables;
@@ -13,17 +15,29 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.env.Environment;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.web.server.ResponseStatusException;
 import uk.gov.companieshouse.api.model.filinghistory.FilingApi;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.AsyncCreateConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CircuitBreakerConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CompanyNameCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ConcurrencyLimitConfig;
 import uk.gov.companieshouse.certifiedcopies.orders.api.config.CostsConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.FilingHistoryCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.FilingHistoryResolutionConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.HedgingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.NotFoundCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamHttpConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
 
 import java.time.LocalDate;
@@ -113,6 +127,17 @@ class FilingHistoryDocumentServiceIntegrationTest {
 
     @Configuration
     @ComponentScan(basePackageClasses = FilingHistoryDocumentServiceIntegrationTest.class)
+    @EnableConfigurationProperties
+    @Import({UpstreamLookupConfig.class,
+            AsyncCreateConfig.class,
+            CircuitBreakerConfig.class,
+            ConcurrencyLimitConfig.class,
+            CompanyNameCacheConfig.class,
+            FilingHistoryCacheConfig.class,
+            FilingHistoryResolutionConfig.class,
+            HedgingConfig.class,
+            NotFoundCacheConfig.class,
+            UpstreamHttpConfig.class})
     static class Config {
 
         @Bean
@@ -125,6 +150,11 @@ class FilingHistoryDocumentServiceIntegrationTest {
                     .findAndRegisterModules();
         }
 
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
     }
 
     @Autowired
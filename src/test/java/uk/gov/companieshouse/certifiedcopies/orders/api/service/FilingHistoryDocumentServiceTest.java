@@ -2,12 +2,15 @@ package uk.gov.companieshouse.certifiedcopies.orders.api.service;
 
 import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.http.HttpResponseException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -16,22 +19,44 @@ import org.springframework.web.server.ResponseStatusException;
 import uk.gov.companieshouse.api.InternalApiClient;
 import uk.gov.companieshouse.api.error.ApiErrorResponseException;
 import uk.gov.companieshouse.api.handler.exception.URIValidationException;
+import uk.gov.companieshouse.api.handler.filinghistory.FilingHistoryResourceHandler;
 import uk.gov.companieshouse.api.handler.filinghistory.FilingResourceHandler;
 import uk.gov.companieshouse.api.handler.filinghistory.request.FilingGet;
+import uk.gov.companieshouse.api.handler.filinghistory.request.FilingHistoryList;
 import uk.gov.companieshouse.api.model.ApiResponse;
 import uk.gov.companieshouse.api.model.filinghistory.FilingApi;
+import uk.gov.companieshouse.api.model.filinghistory.FilingHistoryApi;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CircuitBreakerConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ConcurrencyLimitConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.FilingHistoryCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.FilingHistoryResolutionConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.HedgingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.NotFoundCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
 import uk.gov.companieshouse.certifiedcopies.orders.api.model.FilingHistoryDocument;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
@@ -59,11 +84,14 @@ class FilingHistoryDocumentServiceTest {
     private static final String NOT_FOUND_EXPECTED_REASON = "Error getting filing history document 1 for company number "
             + COMPANY_NUMBER + ".";
 
+    private static final Map<String, Object> DESCRIPTION_VALUES = Map.of("officer_name", "Mr Tom Sunburn");
+
     private static final List<FilingHistoryDocument> FILINGS_SOUGHT = asList(
             new FilingHistoryDocument(null, null, null, "1", null),
             new FilingHistoryDocument(null, null, null, "3", null),
             new FilingHistoryDocument(null, null, null, "4", null),
             new FilingHistoryDocument(null, null, null, "5", null));
+    private static final Set<String> FILING_IDS_SOUGHT = Set.of("1", "3", "4", "5");
     private static final FilingApi FILING_1;
     private static final FilingApi FILING_2;
 
@@ -81,6 +109,26 @@ class FilingHistoryDocumentServiceTest {
     @Mock
     private ApiClientService apiClientService;
 
+    @Mock
+    private UpstreamLookupService lookupService;
+
+    @Mock
+    private UpstreamLookupConfig lookupConfig;
+
+    @Mock
+    private FilingHistoryCacheConfig cacheConfig;
+
+    @Spy
+    private FilingHistoryResolutionConfig resolutionConfig = new FilingHistoryResolutionConfig();
+
+    @Spy
+    private UpstreamCallService upstreamCalls =
+            new UpstreamCallService(new UpstreamLookupConfig(), new NotFoundCacheConfig(),
+                    new CircuitBreakerConfig(), new ConcurrencyLimitConfig(),
+                    new UpstreamHedgingService(new HedgingConfig(), newDirectExecutorService(),
+                            new SimpleMeterRegistry()),
+                    Runnable::run, new SimpleMeterRegistry());
+
     @Mock
     private InternalApiClient internalApiClient;
 
@@ -96,16 +144,25 @@ class FilingHistoryDocumentServiceTest {
     @Mock
     private FilingApi filing;
 
+    @Mock
+    private FilingHistoryResourceHandler historyResourceHandler;
+
+    @Mock
+    private FilingHistoryList historyList;
+
+    @Mock
+    private ApiResponse<FilingHistoryApi> historyResponse;
+
     @Test
     @DisplayName("isInFilingsSought() finds filing correctly")
     void isInFilingsSought() {
-        assertThat(serviceUnderTest.isInFilingsSought(FILING_1, FILINGS_SOUGHT), is(true));
+        assertThat(serviceUnderTest.isInFilingsSought(FILING_1, FILING_IDS_SOUGHT), is(true));
     }
 
     @Test
     @DisplayName("isInFilingsSought() does not find filing incorrectly")
     void isNotInFilingsSought() {
-        assertThat(serviceUnderTest.isInFilingsSought(FILING_2, FILINGS_SOUGHT), is(false));
+        assertThat(serviceUnderTest.isInFilingsSought(FILING_2, FILING_IDS_SOUGHT), is(false));
     }
 
     @Test
@@ -130,6 +187,24 @@ class FilingHistoryDocumentServiceTest {
                         "At least one must be requested.\"");
     }
 
+    @Test
+    @DisplayName("getFilingHistoryDocuments() looks up the filings concurrently where so configured")
+    void getFilingHistoryDocumentsLooksUpFilingsConcurrently() {
+
+        // Given
+        final List<FilingHistoryDocument> filingsFound = asList(
+                new FilingHistoryDocument("2020-01-01", "description", null, "1", "AA"),
+                new FilingHistoryDocument("2020-01-01", "description", null, "3", "AA"),
+                new FilingHistoryDocument("2020-01-01", "description", null, "4", "AA"),
+                new FilingHistoryDocument("2020-01-01", "description", null, "5", "AA"));
+        when(lookupConfig.isConcurrent()).thenReturn(true);
+        when(lookupConfig.getMaxConcurrentPerRequest()).thenReturn(8);
+        when(lookupService.mapInOrder(eq(FILINGS_SOUGHT), any(), eq(8))).thenReturn(filingsFound);
+
+        // When and then
+        assertThat(serviceUnderTest.getFilingHistoryDocuments(COMPANY_NUMBER, FILINGS_SOUGHT), is(filingsFound));
+    }
+
     @Test
     @DisplayName("getFilingHistoryDocuments() reports a URIValidationException as an Internal Server Error (500)")
     void uriValidationExceptionReportedAsServerInternalError() throws Exception  {
@@ -159,6 +234,122 @@ class FilingHistoryDocumentServiceTest {
         assertThat(exception.getReason(), is(IOEXCEPTION_EXPECTED_REASON));
     }
 
+    @Test
+    @DisplayName("getFilingHistoryDocument() serves a cached filing without calling the API again")
+    void getFilingHistoryDocumentServesCachedFiling() throws Exception {
+
+        // Given
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final FilingHistoryDocumentService cachingService = cachingService(meterRegistry);
+        cachedFilingSetUp();
+
+        // When
+        final FilingHistoryDocument first = cachingService.getFilingHistoryDocument(COMPANY_NUMBER, "1");
+        final FilingHistoryDocument second = cachingService.getFilingHistoryDocument(COMPANY_NUMBER, "1");
+
+        // Then
+        verify(filingGet, times(1)).execute();
+        assertThat(second.getFilingHistoryId(), is("1"));
+        assertThat(second.getFilingHistoryDescriptionValues(), is(DESCRIPTION_VALUES));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "filing-history-documents").tag("result", "hit")
+                .functionCounter().count(), is(1.0));
+        assertThat(second, is(not(sameInstance(first))));
+    }
+
+    @Test
+    @DisplayName("getFilingHistoryDocument() does not let changes made to a filing served leak into the cache")
+    void getFilingHistoryDocumentServesDefensiveCopies() throws Exception {
+
+        // Given
+        final FilingHistoryDocumentService cachingService = cachingService(new SimpleMeterRegistry());
+        cachedFilingSetUp();
+
+        // When
+        final FilingHistoryDocument first = cachingService.getFilingHistoryDocument(COMPANY_NUMBER, "1");
+        first.setFilingHistoryCost("15");
+        first.getFilingHistoryDescriptionValues().put("officer_name", "Mrs Dee Hydrated");
+        final FilingHistoryDocument second = cachingService.getFilingHistoryDocument(COMPANY_NUMBER, "1");
+
+        // Then
+        assertThat(second.getFilingHistoryCost(), is(nullValue()));
+        assertThat(second.getFilingHistoryDescriptionValues(), is(DESCRIPTION_VALUES));
+    }
+
+    @Test
+    @DisplayName("chooseStrategy() picks a list scan for at least as many filings as the threshold configured")
+    void chooseStrategyPicksListScanFromThreshold() {
+        resolutionConfig.setListScanThreshold(3);
+
+        assertThat(serviceUnderTest.chooseStrategy(2), is(FilingHistoryResolutionStrategy.INDIVIDUAL_LOOKUPS));
+        assertThat(serviceUnderTest.chooseStrategy(3), is(FilingHistoryResolutionStrategy.LIST_SCAN));
+    }
+
+    @Test
+    @DisplayName("chooseStrategy() picks the strategy configured regardless of the number of filings")
+    void chooseStrategyPicksStrategyConfigured() {
+        resolutionConfig.setStrategy(FilingHistoryResolutionStrategy.INDIVIDUAL_LOOKUPS);
+        resolutionConfig.setListScanThreshold(1);
+
+        assertThat(serviceUnderTest.chooseStrategy(100), is(FilingHistoryResolutionStrategy.INDIVIDUAL_LOOKUPS));
+    }
+
+    @Test
+    @DisplayName("getFilingHistoryDocuments() finds filings in the filing history, looking up the rest individually")
+    void getFilingHistoryDocumentsScansFilingHistoryList() throws Exception {
+
+        // Given
+        resolutionConfig.setStrategy(FilingHistoryResolutionStrategy.LIST_SCAN);
+        resolutionConfig.setPageSize(3);
+        when(apiClientService.getInternalApiClient()).thenReturn(internalApiClient);
+        when(internalApiClient.filingHistory()).thenReturn(historyResourceHandler);
+        when(historyResourceHandler.list("/company/00006400/filing-history")).thenReturn(historyList);
+        when(historyList.execute()).thenReturn(historyResponse);
+        when(historyResponse.getData()).thenReturn(
+                filingHistory(filingApi("5"), filingApi("2"), filingApi("3")),
+                filingHistory(filingApi("1")));
+        when(internalApiClient.filing()).thenReturn(resourceHandler);
+        when(resourceHandler.get("/company/00006400/filing-history/4")).thenReturn(filingGet);
+        when(filingGet.execute()).thenReturn(response);
+        when(response.getData()).thenReturn(filingApi("4"));
+
+        // When
+        final List<FilingHistoryDocument> filings =
+                serviceUnderTest.getFilingHistoryDocuments(COMPANY_NUMBER, FILINGS_SOUGHT);
+
+        // Then
+        assertThat(filings.stream().map(FilingHistoryDocument::getFilingHistoryId).toList(),
+                is(asList("1", "3", "4", "5")));
+        verify(historyList, times(2)).execute();
+        verify(historyList).addQueryParams("start_index", "3");
+        verify(resourceHandler, never()).get("/company/00006400/filing-history/1");
+    }
+
+    @Test
+    @DisplayName("getFilingHistoryDocuments() looks filings up individually should the filing history list scan fail")
+    void getFilingHistoryDocumentsFallsBackToIndividualLookups() throws Exception {
+
+        // Given
+        resolutionConfig.setStrategy(FilingHistoryResolutionStrategy.LIST_SCAN);
+        final List<FilingHistoryDocument> filingsSought =
+                singletonList(new FilingHistoryDocument(null, null, null, "1", null));
+        when(apiClientService.getInternalApiClient()).thenReturn(internalApiClient);
+        when(internalApiClient.filingHistory()).thenReturn(historyResourceHandler);
+        when(historyResourceHandler.list("/company/00006400/filing-history")).thenReturn(historyList);
+        when(historyList.execute()).thenThrow(fromIOException(new IOException(IOEXCEPTION_MESSAGE)));
+        when(internalApiClient.filing()).thenReturn(resourceHandler);
+        when(resourceHandler.get("/company/00006400/filing-history/1")).thenReturn(filingGet);
+        when(filingGet.execute()).thenReturn(response);
+        when(response.getData()).thenReturn(filingApi("1"));
+
+        // When
+        final List<FilingHistoryDocument> filings =
+                serviceUnderTest.getFilingHistoryDocuments(COMPANY_NUMBER, filingsSought);
+
+        // Then
+        assertThat(filings.size(), is(1));
+        assertThat(filings.getFirst().getFilingHistoryId(), is("1"));
+    }
+
     /**
      * This is a JUnit 4 test to take advantage of PowerMock.
      * @throws Exception should something unexpected happen
@@ -196,6 +387,50 @@ class FilingHistoryDocumentServiceTest {
         when(filingGet.execute()).thenThrow(exceptionToThrow);
     }
 
+    /**
+     * Creates a {@link FilingHistoryDocumentService} instance with caching enabled.
+     * @param meterRegistry the meter registry the cache statistics are published to
+     * @return the service
+     */
+    private FilingHistoryDocumentService cachingService(final MeterRegistry meterRegistry) {
+        return new FilingHistoryDocumentService(apiClientService, upstreamCalls, lookupService, lookupConfig,
+                resolutionConfig, new FilingHistoryCacheConfig(), meterRegistry);
+    }
+
+    /**
+     * Provides set up for testing the caching of the filing looked up by
+     * {@link FilingHistoryDocumentService#getFilingHistoryDocument(String, String)}.
+     * @throws ApiErrorResponseException should something unexpected happen
+     * @throws URIValidationException should something unexpected happen
+     */
+    private void cachedFilingSetUp() throws ApiErrorResponseException, URIValidationException {
+        final FilingApi filingFound = new FilingApi();
+        filingFound.setDate(LocalDate.of(2010, 2, 12));
+        filingFound.setDescription("appoint-person-director-company-with-name");
+        filingFound.setDescriptionValues(DESCRIPTION_VALUES);
+        filingFound.setTransactionId("1");
+        filingFound.setType("AP01");
+        when(apiClientService.getInternalApiClient()).thenReturn(internalApiClient);
+        when(internalApiClient.filing()).thenReturn(resourceHandler);
+        when(resourceHandler.get("/company/00006400/filing-history/1")).thenReturn(filingGet);
+        when(filingGet.execute()).thenReturn(response);
+        when(response.getData()).thenReturn(filingFound);
+    }
+
+    private static FilingApi filingApi(final String transactionId) {
+        final FilingApi filingApi = new FilingApi();
+        filingApi.setDate(LocalDate.of(2010, 2, 12));
+        filingApi.setTransactionId(transactionId);
+        filingApi.setType("AA");
+        return filingApi;
+    }
+
+    private static FilingHistoryApi filingHistory(final FilingApi... filings) {
+        final FilingHistoryApi filingHistory = new FilingHistoryApi();
+        filingHistory.setItems(asList(filings));
+        return filingHistory;
+    }
+
     /**
      * Provides fair weather set up for testing
      * {@link FilingHistoryDocumentService#getFilingHistoryDocuments(String, List)}.
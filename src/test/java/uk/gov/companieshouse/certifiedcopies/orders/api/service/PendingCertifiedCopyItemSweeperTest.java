@@ -0,0 +1,89 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.PendingCertifiedCopyItemSweeper.SWEEP_BATCH_SIZE;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.AsyncCreateConfig;
+
+/**
+ * Unit tests the {@link PendingCertifiedCopyItemSweeper} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class PendingCertifiedCopyItemSweeperTest {
+
+    private static final String ID = "CCD-123456-123456";
+
+    @Mock
+    private CertifiedCopyItemService certifiedCopyItemService;
+
+    @Captor
+    private ArgumentCaptor<LocalDateTime> createdBeforeCaptor;
+
+    private PendingCertifiedCopyItemSweeper sweeperUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        final AsyncCreateConfig config = new AsyncCreateConfig();
+        config.setPendingDeadline(Duration.ofMinutes(10));
+        sweeperUnderTest = new PendingCertifiedCopyItemSweeper(certifiedCopyItemService, config);
+    }
+
+    @Test
+    @DisplayName("failAbandonedItems saves each item pending past the deadline as failed")
+    void failAbandonedItemsFailsItemsPendingPastDeadline() {
+        when(certifiedCopyItemService.getPendingCertifiedCopyItemIdsCreatedBefore(createdBeforeCaptor.capture(),
+                eq(SWEEP_BATCH_SIZE))).thenReturn(List.of(ID));
+
+        sweeperUnderTest.failAbandonedItems();
+
+        verify(certifiedCopyItemService).failPendingCertifiedCopyItem(ID);
+        final Duration pendingFor = Duration.between(createdBeforeCaptor.getValue(), LocalDateTime.now());
+        assertThat(pendingFor.compareTo(Duration.ofMinutes(10)) >= 0, is(true));
+        assertThat(pendingFor.compareTo(Duration.ofMinutes(11)) < 0, is(true));
+    }
+
+    @Test
+    @DisplayName("failAbandonedItems keeps sweeping while it finds a full batch of items")
+    void failAbandonedItemsSweepsBatchByBatch() {
+        final List<String> fullBatch = IntStream.range(0, SWEEP_BATCH_SIZE).mapToObj(index -> ID + index).toList();
+        when(certifiedCopyItemService.getPendingCertifiedCopyItemIdsCreatedBefore(any(), eq(SWEEP_BATCH_SIZE)))
+                .thenReturn(fullBatch, List.of());
+
+        sweeperUnderTest.failAbandonedItems();
+
+        verify(certifiedCopyItemService, times(2)).getPendingCertifiedCopyItemIdsCreatedBefore(any(),
+                eq(SWEEP_BATCH_SIZE));
+        verify(certifiedCopyItemService, times(SWEEP_BATCH_SIZE)).failPendingCertifiedCopyItem(any());
+    }
+
+    @Test
+    @DisplayName("failAbandonedItems logs rather than throws should the sweep fail")
+    void failAbandonedItemsSwallowsFailure() {
+        when(certifiedCopyItemService.getPendingCertifiedCopyItemIdsCreatedBefore(any(), eq(SWEEP_BATCH_SIZE)))
+                .thenThrow(new DataAccessResourceFailureException("Timed out waiting for a server"));
+
+        assertDoesNotThrow(sweeperUnderTest::failAbandonedItems);
+        verify(certifiedCopyItemService, never()).failPendingCertifiedCopyItem(any());
+    }
+}
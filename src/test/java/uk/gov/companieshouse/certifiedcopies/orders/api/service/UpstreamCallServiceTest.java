@@ -0,0 +1,424 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static uk.gov.companieshouse.api.error.ApiErrorResponseException.fromHttpResponseException;
+import static uk.gov.companieshouse.api.error.ApiErrorResponseException.fromIOException;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamDependency.COMPANY_PROFILE;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.api.error.ApiErrorResponseException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CircuitBreakerConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ConcurrencyLimitConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.HedgingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.NotFoundCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamCallService.UpstreamCall;
+
+/**
+ * Unit tests the {@link UpstreamCallService} class.
+ */
+class UpstreamCallServiceTest {
+
+    private static final String URI = "/company/00006400";
+    private static final String OTHER_URI = "/company/00000006";
+
+    private ExecutorService executor;
+
+    private UpstreamLookupConfig config;
+
+    private NotFoundCacheConfig notFoundCacheConfig;
+
+    private CircuitBreakerConfig circuitBreakerConfig;
+
+    private ConcurrencyLimitConfig concurrencyLimitConfig;
+
+    private HedgingConfig hedgingConfig;
+
+    private UpstreamHedgingService hedging;
+
+    private MeterRegistry meterRegistry;
+
+    private UpstreamCallService serviceUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        config = new UpstreamLookupConfig();
+        notFoundCacheConfig = new NotFoundCacheConfig();
+        circuitBreakerConfig = new CircuitBreakerConfig();
+        concurrencyLimitConfig = new ConcurrencyLimitConfig();
+        hedgingConfig = new HedgingConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        hedging = new UpstreamHedgingService(hedgingConfig, executor, meterRegistry);
+        serviceUnderTest = new UpstreamCallService(config, notFoundCacheConfig, circuitBreakerConfig,
+                concurrencyLimitConfig, hedging, executor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("call() shares a call in flight with concurrent callers for the same URI")
+    void callCoalescesConcurrentCallsForSameUri() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch callStarted = new CountDownLatch(1);
+        final CountDownLatch callReleased = new CountDownLatch(1);
+        final Object result = new Object();
+
+        final Future<Object> first = executor.submit(() -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+            calls.incrementAndGet();
+            callStarted.countDown();
+            await(callReleased);
+            return result;
+        }));
+        callStarted.await();
+        final Future<Object> second = executor.submit(() -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+            calls.incrementAndGet();
+            return new Object();
+        }));
+        awaitCoalescedCalls(1);
+        callReleased.countDown();
+
+        assertThat(first.get(), is(sameInstance(result)));
+        assertThat(second.get(), is(sameInstance(result)));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("call() propagates the exception of a call in flight to every caller sharing it")
+    void callPropagatesSharedException() throws Exception {
+        final CountDownLatch callStarted = new CountDownLatch(1);
+        final CountDownLatch callReleased = new CountDownLatch(1);
+        final ApiErrorResponseException failure = fromIOException(new IOException("Connection reset"));
+
+        final Future<Object> first = executor.submit(() -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+            callStarted.countDown();
+            await(callReleased);
+            throw failure;
+        }));
+        callStarted.await();
+        final Future<Object> second = executor.submit(() -> serviceUnderTest.call(COMPANY_PROFILE, URI, Object::new));
+        awaitCoalescedCalls(1);
+        callReleased.countDown();
+
+        assertThat(assertThrows(Exception.class, first::get).getCause(), is(sameInstance(failure)));
+        assertThat(assertThrows(Exception.class, second::get).getCause(), is(sameInstance(failure)));
+    }
+
+    @Test
+    @DisplayName("call() does not share calls for different URIs")
+    void callDoesNotCoalesceCallsForDifferentUris() throws Exception {
+        final CountDownLatch callStarted = new CountDownLatch(1);
+        final CountDownLatch callReleased = new CountDownLatch(1);
+
+        final Future<String> first = executor.submit(() -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+            callStarted.countDown();
+            await(callReleased);
+            return URI;
+        }));
+        callStarted.await();
+
+        assertThat(serviceUnderTest.call(COMPANY_PROFILE, OTHER_URI, () -> OTHER_URI), is(OTHER_URI));
+        callReleased.countDown();
+        assertThat(first.get(), is(URI));
+    }
+
+    @Test
+    @DisplayName("call() makes a new call once the previous call for the same URI has completed")
+    void callDoesNotReuseCompletedCall() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        serviceUnderTest.call(COMPANY_PROFILE, URI, calls::incrementAndGet);
+        serviceUnderTest.call(COMPANY_PROFILE, URI, calls::incrementAndGet);
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("call() makes every call itself where single flight is disabled")
+    void callDoesNotCoalesceWhereSingleFlightDisabled() throws Exception {
+        config.setSingleFlight(false);
+        final CountDownLatch callStarted = new CountDownLatch(1);
+        final CountDownLatch callReleased = new CountDownLatch(1);
+
+        final Future<String> first = executor.submit(() -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+            callStarted.countDown();
+            await(callReleased);
+            return "first";
+        }));
+        callStarted.await();
+
+        assertThat(serviceUnderTest.call(COMPANY_PROFILE, URI, () -> "second"), is("second"));
+        callReleased.countDown();
+        assertThat(first.get(), is("first"));
+    }
+
+    @Test
+    @DisplayName("call() answers a repeated call for a URI not found with a new exception for the cached response")
+    void callAnswersRepeatedNotFoundFromCache() {
+        final AtomicInteger calls = new AtomicInteger();
+        final ApiErrorResponseException notFound = apiErrorResponse(404, "Not Found");
+        final UpstreamCall<Object> call = () -> {
+            calls.incrementAndGet();
+            throw notFound;
+        };
+
+        assertThat(assertThrows(ApiErrorResponseException.class,
+                () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call)), is(sameInstance(notFound)));
+        final ApiErrorResponseException cached = assertThrows(ApiErrorResponseException.class,
+                () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+        final ApiErrorResponseException cachedAgain = assertThrows(ApiErrorResponseException.class,
+                () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+
+        assertThat(calls.get(), is(1));
+        assertThat(cached.getStatusCode(), is(404));
+        assertThat(cached.getStatusMessage(), is("Not Found"));
+        assertThat(cached, is(not(sameInstance(notFound))));
+        assertThat(cachedAgain, is(not(sameInstance(cached))));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "upstream-not-found").tag("result", "hit")
+                .functionCounter().count(), is(2.0));
+    }
+
+    @Test
+    @DisplayName("call() does not cache error responses other than not found")
+    void callDoesNotCacheOtherErrors() {
+        final AtomicInteger calls = new AtomicInteger();
+        final UpstreamCall<Object> call = () -> {
+            calls.incrementAndGet();
+            throw apiErrorResponse(500, "Internal Server Error");
+        };
+
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("call() calls the API again for a URI not found where negative caching is disabled")
+    void callDoesNotCacheNotFoundWhereDisabled() {
+        notFoundCacheConfig.setEnabled(false);
+        serviceUnderTest = new UpstreamCallService(config, notFoundCacheConfig, circuitBreakerConfig,
+                concurrencyLimitConfig, hedging, executor, meterRegistry);
+        final AtomicInteger calls = new AtomicInteger();
+        final UpstreamCall<Object> call = () -> {
+            calls.incrementAndGet();
+            throw apiErrorResponse(404, "Not Found");
+        };
+
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("call() fails fast with 503 without calling the API once its circuit breaker has opened")
+    void callFailsFastWhereCircuitOpen() {
+        circuitBreakerConfig.setMinimumNumberOfCalls(2);
+        serviceUnderTest = new UpstreamCallService(config, notFoundCacheConfig, circuitBreakerConfig,
+                concurrencyLimitConfig, hedging, executor, meterRegistry);
+        final AtomicInteger calls = new AtomicInteger();
+        final UpstreamCall<Object> call = () -> {
+            calls.incrementAndGet();
+            throw apiErrorResponse(500, "Internal Server Error");
+        };
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, OTHER_URI, call));
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+
+        assertThat(exception.getStatusCode(), is(SERVICE_UNAVAILABLE));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("call() records the outcome of a probe that fails other than by being rejected, closing the breaker")
+    void callRecordsProbeFailingWithResponseStatusException() throws Exception {
+        circuitBreakerConfig.setMinimumNumberOfCalls(2);
+        circuitBreakerConfig.setPermittedCallsInHalfOpenState(1);
+        circuitBreakerConfig.setWaitDurationInOpenState(Duration.ofMillis(10));
+        serviceUnderTest = new UpstreamCallService(config, notFoundCacheConfig, circuitBreakerConfig,
+                concurrencyLimitConfig, hedging, executor, meterRegistry);
+        final UpstreamCall<Object> failing = () -> {
+            throw apiErrorResponse(500, "Internal Server Error");
+        };
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, failing));
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, OTHER_URI, failing));
+        Thread.sleep(20);
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+                    throw new ResponseStatusException(BAD_REQUEST, "Invalid company number");
+                }));
+
+        assertThat(exception.getStatusCode(), is(BAD_REQUEST));
+        assertThat(meterRegistry.get("upstream.circuit.state").tag("dependency", "company-profile")
+                .tag("state", "closed").gauge().value(), is(1.0));
+    }
+
+    @Test
+    @DisplayName("call() does not count client errors towards opening the circuit breaker")
+    void callDoesNotOpenCircuitOnClientErrors() throws Exception {
+        circuitBreakerConfig.setMinimumNumberOfCalls(2);
+        serviceUnderTest = new UpstreamCallService(config, notFoundCacheConfig, circuitBreakerConfig,
+                concurrencyLimitConfig, hedging, executor, meterRegistry);
+        final UpstreamCall<Object> call = () -> {
+            throw apiErrorResponse(400, "Bad Request");
+        };
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, call));
+
+        assertThat(serviceUnderTest.call(COMPANY_PROFILE, URI, () -> "found"), is("found"));
+    }
+
+    @Test
+    @DisplayName("call() fails with 503 without calling the API once its concurrency limit stays reached")
+    void callFailsWhereConcurrencyLimitReached() throws Exception {
+        concurrencyLimitConfig.setInitialLimit(1);
+        concurrencyLimitConfig.setMinLimit(1);
+        concurrencyLimitConfig.setMaxQueueSize(0);
+        serviceUnderTest = new UpstreamCallService(config, notFoundCacheConfig, circuitBreakerConfig,
+                concurrencyLimitConfig, hedging, executor, meterRegistry);
+        final CountDownLatch callStarted = new CountDownLatch(1);
+        final CountDownLatch callReleased = new CountDownLatch(1);
+        final Future<String> first = executor.submit(() -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+            callStarted.countDown();
+            await(callReleased);
+            return URI;
+        }));
+        callStarted.await();
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.call(COMPANY_PROFILE, OTHER_URI, () -> OTHER_URI));
+
+        assertThat(exception.getStatusCode(), is(SERVICE_UNAVAILABLE));
+        assertThat(meterRegistry.get("upstream.limiter.calls.rejected").tag("dependency", "company-profile")
+                .counter().count(), is(1.0));
+        callReleased.countDown();
+        assertThat(first.get(), is(URI));
+        assertThat(serviceUnderTest.call(COMPANY_PROFILE, OTHER_URI, () -> OTHER_URI), is(OTHER_URI));
+    }
+
+    @Test
+    @DisplayName("callHedged() makes the hedge with a concurrency limit permit of its own")
+    void callHedgedTakesPermitForEachAttempt() throws Exception {
+        concurrencyLimitConfig.setInitialLimit(1);
+        concurrencyLimitConfig.setMinLimit(1);
+        concurrencyLimitConfig.setMaxQueueSize(0);
+        hedgingConfig.setEnabled(true);
+        hedgingConfig.setMinimumSamples(1);
+        hedgingConfig.setMinimumDelay(Duration.ofMillis(1));
+        hedgingConfig.setBudget(1.0);
+        serviceUnderTest = new UpstreamCallService(config, notFoundCacheConfig, circuitBreakerConfig,
+                concurrencyLimitConfig, hedging, executor, meterRegistry);
+        assertThat(serviceUnderTest.callHedged(COMPANY_PROFILE, URI, () -> URI), is(URI));
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = serviceUnderTest.callHedged(COMPANY_PROFILE, OTHER_URI, () -> {
+            attempts.incrementAndGet();
+            awaitLimitedCalls(1);
+            return OTHER_URI;
+        });
+
+        assertThat(result, is(OTHER_URI));
+        assertThat(attempts.get(), is(1));
+        assertThat(meterRegistry.get("upstream.hedging.hedges").tag("dependency", "company-profile")
+                .counter().count(), is(1.0));
+    }
+
+    @Test
+    @DisplayName("call() times every call made to the API, tagged by its outcome and HTTP status")
+    void callTimesCallsByOutcomeAndStatus() {
+        assertThat(serviceUnderTest.call(COMPANY_PROFILE, URI, () -> "found"), is("found"));
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, OTHER_URI, () -> {
+            throw apiErrorResponse(404, "Not Found");
+        }));
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+            throw fromIOException(new IOException("Connection reset"));
+        }));
+
+        assertThat(callTimerCount("SUCCESS", "200"), is(1L));
+        assertThat(callTimerCount("CLIENT_ERROR", "404"), is(1L));
+        assertThat(callTimerCount("SERVER_ERROR", "500"), is(1L));
+    }
+
+    @Test
+    @DisplayName("call() does not time calls that never reach the API")
+    void callDoesNotTimeCallsNotMade() {
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> {
+            throw apiErrorResponse(404, "Not Found");
+        }));
+        assertThrows(ApiErrorResponseException.class, () -> serviceUnderTest.call(COMPANY_PROFILE, URI, () -> "found"));
+
+        assertThat(callTimerCount("CLIENT_ERROR", "404"), is(1L));
+        assertThat(meterRegistry.find("upstream.calls").tag("outcome", "SUCCESS").timer(), is(nullValue()));
+    }
+
+    private static ApiErrorResponseException apiErrorResponse(final int statusCode, final String statusMessage) {
+        return fromHttpResponseException(
+                new HttpResponseException.Builder(statusCode, statusMessage, new HttpHeaders()).build());
+    }
+
+    private long callTimerCount(final String outcome, final String status) {
+        return meterRegistry.get("upstream.calls")
+                .tag("dependency", "company-profile")
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .timer().count();
+    }
+
+    private void awaitCoalescedCalls(final int expected) throws InterruptedException {
+        while (meterRegistry.get("upstream.calls.coalesced").tag("dependency", "company-profile")
+                .counter().count() < expected) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Waits for the concurrency limit to have rejected the number of calls expected, on behalf of a call in flight.
+     */
+    private void awaitLimitedCalls(final int expected) {
+        try {
+            while (meterRegistry.get("upstream.limiter.calls.rejected").tag("dependency", "company-profile")
+                    .counter().count() < expected) {
+                Thread.sleep(1);
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
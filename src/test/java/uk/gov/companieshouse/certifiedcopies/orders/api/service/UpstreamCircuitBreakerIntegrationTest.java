@@ -0,0 +1,166 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.givenThat;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.util.TestUtils.givenSdkIsConfigured;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.ClassRule;
+import org.junit.contrib.java.lang.system.EnvironmentVariables;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.api.model.company.CompanyProfileApi;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.AsyncCreateConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CircuitBreakerConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CompanyNameCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ConcurrencyLimitConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CostsConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.FilingHistoryCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.FilingHistoryResolutionConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.HedgingConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.NotFoundCacheConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamHttpConfig;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
+
+/**
+ * Integration tests the circuit breaking of {@link UpstreamCallService} by driving the company profile API breaker
+ * through {@link CompanyService} against a stubbed company profile API.
+ */
+@SpringBootTest
+@SpringJUnitConfig(UpstreamCircuitBreakerIntegrationTest.Config.class)
+@AutoConfigureWireMock(port = 0)
+@TestPropertySource(properties = {
+        "upstream.circuit-breaker.sliding-window-size=4",
+        "upstream.circuit-breaker.minimum-number-of-calls=4",
+        "upstream.circuit-breaker.wait-duration-in-open-state=200ms",
+        "upstream.circuit-breaker.permitted-calls-in-half-open-state=1"})
+@DirtiesContext
+class UpstreamCircuitBreakerIntegrationTest {
+
+    @ClassRule
+    public static final EnvironmentVariables ENVIRONMENT_VARIABLES = new EnvironmentVariables();
+
+    private static final String COMPANY_NUMBER = "00006400";
+    private static final String COMPANY_URI = "/company/" + COMPANY_NUMBER;
+    private static final String COMPANY_NAME = "THE GIRLS' DAY SCHOOL TRUST";
+
+    @Configuration
+    @ComponentScan(basePackageClasses = UpstreamCircuitBreakerIntegrationTest.class)
+    @EnableConfigurationProperties
+    @Import({UpstreamLookupConfig.class,
+            AsyncCreateConfig.class,
+            CircuitBreakerConfig.class,
+            ConcurrencyLimitConfig.class,
+            CompanyNameCacheConfig.class,
+            FilingHistoryCacheConfig.class,
+            FilingHistoryResolutionConfig.class,
+            HedgingConfig.class,
+            NotFoundCacheConfig.class,
+            UpstreamHttpConfig.class})
+    static class Config {
+
+        @Bean
+        public ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+    }
+
+    @Autowired
+    private CompanyService serviceUnderTest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    @MockitoBean
+    private CostsConfig costsConfig;
+
+    @MockitoBean
+    private CertifiedCopyItemService certifiedCopyItemService;
+
+    @MockitoBean
+    private CertifiedCopyCostCalculatorService certifiedCopyCostCalculatorService;
+
+    @Test
+    @DisplayName("The breaker opens on server errors, fails fast with 503, then closes once the API recovers")
+    void breakerOpensFailsFastAndCloses() throws Exception {
+
+        // Given
+        givenSdkIsConfigured(environment, ENVIRONMENT_VARIABLES);
+        givenThat(get(urlEqualTo(COMPANY_URI)).willReturn(serverError()));
+
+        // When the API keeps failing
+        for (int call = 0; call < 4; call++) {
+            final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> serviceUnderTest.getCompanyName(COMPANY_NUMBER));
+            assertThat(exception.getStatusCode(), is(INTERNAL_SERVER_ERROR));
+        }
+
+        // Then the breaker opens, and calls fail fast without reaching the API
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.getCompanyName(COMPANY_NUMBER));
+        assertThat(exception.getStatusCode(), is(SERVICE_UNAVAILABLE));
+        verify(exactly(4), getRequestedFor(urlEqualTo(COMPANY_URI)));
+        assertThat(circuitState("open"), is(1.0));
+        assertThat(meterRegistry.get("upstream.circuit.calls.rejected").tag("dependency", "company-profile")
+                .counter().count(), is(1.0));
+
+        // When the API recovers, and the wait in the open state elapses
+        final CompanyProfileApi company = new CompanyProfileApi();
+        company.setCompanyName(COMPANY_NAME);
+        givenThat(get(urlEqualTo(COMPANY_URI)).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(objectMapper.writeValueAsString(company))));
+        Thread.sleep(250);
+
+        // Then the probe call reaches the API, and the breaker closes
+        assertThat(serviceUnderTest.getCompanyName(COMPANY_NUMBER), is(COMPANY_NAME));
+        assertThat(circuitState("closed"), is(1.0));
+        verify(exactly(5), getRequestedFor(urlEqualTo(COMPANY_URI)));
+    }
+
+    private double circuitState(final String state) {
+        return meterRegistry.get("upstream.circuit.state")
+                .tag("dependency", "company-profile")
+                .tag("state", state)
+                .gauge().value();
+    }
+}
@@ -0,0 +1,161 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamCircuitBreaker.State.CLOSED;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamCircuitBreaker.State.HALF_OPEN;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamCircuitBreaker.State.OPEN;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamDependency.FILING_HISTORY;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.CircuitBreakerConfig;
+
+/**
+ * Unit tests the {@link UpstreamCircuitBreaker} class.
+ */
+class UpstreamCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(5).toNanos();
+    private static final Duration WAIT = Duration.ofSeconds(30);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private UpstreamCircuitBreaker breakerUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        final CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setSlidingWindowSize(10);
+        config.setMinimumNumberOfCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallRateThreshold(75);
+        config.setWaitDurationInOpenState(WAIT);
+        config.setPermittedCallsInHalfOpenState(2);
+        breakerUnderTest = new UpstreamCircuitBreaker(FILING_HISTORY, config, clock::get);
+    }
+
+    @Test
+    @DisplayName("The breaker stays closed until the minimum number of calls has been made")
+    void staysClosedBeforeMinimumNumberOfCalls() {
+        makeCalls(3, true, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(CLOSED));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(notNullValue()));
+    }
+
+    @Test
+    @DisplayName("The breaker opens and fails calls fast once the failure rate reaches its threshold")
+    void opensOnFailureRate() {
+        makeCalls(2, false, FAST);
+        makeCalls(2, true, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(OPEN));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("The breaker stays closed while the failure rate is below its threshold")
+    void staysClosedBelowFailureRate() {
+        makeCalls(6, false, FAST);
+        makeCalls(4, true, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(CLOSED));
+    }
+
+    @Test
+    @DisplayName("The breaker opens once the slow call rate reaches its threshold, even though calls succeed")
+    void opensOnSlowCallRate() {
+        makeCalls(1, false, FAST);
+        makeCalls(3, false, SLOW);
+
+        assertThat(breakerUnderTest.getState(), is(OPEN));
+    }
+
+    @Test
+    @DisplayName("The failure rate is calculated over the most recent calls only")
+    void calculatesFailureRateOverSlidingWindow() {
+        makeCalls(10, false, FAST);
+        makeCalls(4, true, FAST);
+        assertThat(breakerUnderTest.getState(), is(CLOSED));
+
+        makeCalls(1, true, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(OPEN));
+    }
+
+    @Test
+    @DisplayName("The open breaker lets a limited number of probes through once the wait has elapsed")
+    void halfOpensAfterWait() {
+        open();
+        clock.addAndGet(WAIT.toNanos());
+
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(notNullValue()));
+        assertThat(breakerUnderTest.getState(), is(HALF_OPEN));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(notNullValue()));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("The half open breaker closes once its probes succeed")
+    void closesOnSuccessfulProbes() {
+        open();
+        clock.addAndGet(WAIT.toNanos());
+
+        makeCalls(2, false, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(CLOSED));
+        makeCalls(3, true, FAST);
+        assertThat(breakerUnderTest.getState(), is(CLOSED));
+    }
+
+    @Test
+    @DisplayName("The half open breaker re-opens once its probes fail")
+    void reopensOnFailedProbes() {
+        open();
+        clock.addAndGet(WAIT.toNanos());
+
+        makeCalls(1, false, FAST);
+        makeCalls(1, true, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(OPEN));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("The half open breaker ignores the outcome of a call permitted while it was still closed")
+    void ignoresOutcomeOfCallPermittedWhileClosed() {
+        final UpstreamCircuitBreaker.Permission closedCall = breakerUnderTest.tryAcquirePermission();
+        open();
+        clock.addAndGet(WAIT.toNanos());
+        final UpstreamCircuitBreaker.Permission probe = breakerUnderTest.tryAcquirePermission();
+        assertThat(breakerUnderTest.getState(), is(HALF_OPEN));
+
+        breakerUnderTest.record(closedCall, false, SLOW);
+
+        assertThat(breakerUnderTest.getState(), is(HALF_OPEN));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(notNullValue()));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(nullValue()));
+        breakerUnderTest.record(probe, true, FAST);
+        assertThat(breakerUnderTest.getState(), is(HALF_OPEN));
+    }
+
+    private void open() {
+        makeCalls(4, true, FAST);
+        assertThat(breakerUnderTest.getState(), is(OPEN));
+    }
+
+    private void makeCalls(final int calls, final boolean failed, final long durationNanos) {
+        for (int call = 0; call < calls; call++) {
+            final UpstreamCircuitBreaker.Permission permission = breakerUnderTest.tryAcquirePermission();
+            assertThat(permission, is(notNullValue()));
+            breakerUnderTest.record(permission, failed, durationNanos);
+        }
+    }
+}
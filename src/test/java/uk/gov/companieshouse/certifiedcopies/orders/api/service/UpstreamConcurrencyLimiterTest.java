@@ -0,0 +1,224 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.ConcurrencyLimitConfig;
+
+/**
+ * Unit tests the {@link UpstreamConcurrencyLimiter} class.
+ */
+class UpstreamConcurrencyLimiterTest {
+
+    private static final long RTT = Duration.ofMillis(100).toNanos();
+    private static final Duration RTT_WINDOW = Duration.ofSeconds(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private ConcurrencyLimitConfig config;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        config = new ConcurrencyLimitConfig();
+        config.setInitialLimit(4);
+        config.setMinLimit(2);
+        config.setMaxLimit(5);
+        config.setBackoffRatio(0.5);
+        config.setRttTolerance(2.0);
+        config.setRttWindow(RTT_WINDOW);
+        config.setMaxQueueSize(1);
+        config.setMaxQueueWait(Duration.ofMillis(50));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("The limit grows by about one once a limit's worth of calls has succeeded promptly under load")
+    void limitGrowsAdditivelyUnderLoad() throws InterruptedException {
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+        fill(limiter);
+
+        for (int call = 0; call < 5; call++) {
+            limiter.release(false, RTT);
+            assertThat(limiter.tryAcquire(), is(true));
+        }
+
+        assertThat(limiter.getLimit(), is(5));
+    }
+
+    @Test
+    @DisplayName("The limit does not grow while less than half of it is in use")
+    void limitDoesNotGrowWhenUnderUsed() throws InterruptedException {
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+
+        for (int call = 0; call < 10; call++) {
+            assertThat(limiter.tryAcquire(), is(true));
+            limiter.release(false, RTT);
+        }
+
+        assertThat(limiter.getLimit(), is(4));
+        assertThat(limiter.getInFlight(), is(0));
+    }
+
+    @Test
+    @DisplayName("The limit never grows beyond its maximum")
+    void limitNeverExceedsMaximum() throws InterruptedException {
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+
+        for (int round = 0; round < 20; round++) {
+            final int limit = limiter.getLimit();
+            for (int call = 0; call < limit; call++) {
+                assertThat(limiter.tryAcquire(), is(true));
+            }
+            for (int call = 0; call < limit; call++) {
+                limiter.release(false, RTT);
+            }
+        }
+
+        assertThat(limiter.getLimit(), is(5));
+    }
+
+    @Test
+    @DisplayName("The limit is cut by the backoff ratio when a call fails, down to its minimum")
+    void limitBacksOffOnFailure() throws InterruptedException {
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+
+        assertThat(limiter.tryAcquire(), is(true));
+        limiter.release(true, RTT);
+        assertThat(limiter.getLimit(), is(2));
+
+        assertThat(limiter.tryAcquire(), is(true));
+        limiter.release(true, RTT);
+        assertThat(limiter.getLimit(), is(2));
+    }
+
+    @Test
+    @DisplayName("The limit is cut by the backoff ratio when a call takes much longer than the baseline RTT")
+    void limitBacksOffOnSlowCall() throws InterruptedException {
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+        assertThat(limiter.tryAcquire(), is(true));
+        limiter.release(false, RTT);
+
+        assertThat(limiter.tryAcquire(), is(true));
+        limiter.release(false, RTT * 3);
+
+        assertThat(limiter.getLimit(), is(2));
+    }
+
+    @Test
+    @DisplayName("The limit is cut at most once in each RTT window, however many calls fail in it")
+    void limitBacksOffOncePerWindow() throws InterruptedException {
+        config.setMinLimit(1);
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+        fill(limiter);
+
+        for (int call = 0; call < 4; call++) {
+            limiter.release(true, RTT);
+        }
+        assertThat(limiter.getLimit(), is(2));
+
+        clock.addAndGet(RTT_WINDOW.toNanos());
+        assertThat(limiter.tryAcquire(), is(true));
+        limiter.release(true, RTT);
+        assertThat(limiter.getLimit(), is(1));
+    }
+
+    @Test
+    @DisplayName("The limit recovers once the baseline RTT has caught up with an API that has got slower for good")
+    void limitRecoversAfterPermanentRttIncrease() throws InterruptedException {
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+        assertThat(limiter.tryAcquire(), is(true));
+        limiter.release(false, RTT);
+
+        for (int window = 0; window < UpstreamConcurrencyLimiter.BASELINE_WINDOWS; window++) {
+            makeCallsForWindow(limiter, RTT * 3);
+            assertThat(limiter.getLimit(), is(2));
+        }
+        for (int window = 0; window < 10; window++) {
+            makeCallsForWindow(limiter, RTT * 3);
+        }
+
+        assertThat(limiter.getLimit(), is(5));
+        assertThat(limiter.getBaselineRtt(TimeUnit.NANOSECONDS), is((double) RTT * 3));
+    }
+
+    @Test
+    @DisplayName("A call over the limit gets a permit should a call in flight complete while it is queued")
+    void queuedCallAcquiresReleasedPermit() throws Exception {
+        config.setMaxQueueWait(Duration.ofSeconds(5));
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+        fill(limiter);
+
+        final Future<Boolean> queued = executor.submit(limiter::tryAcquire);
+        while (limiter.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        limiter.release(false, RTT);
+
+        assertThat(queued.get(), is(true));
+        assertThat(limiter.getQueued(), is(0));
+    }
+
+    @Test
+    @DisplayName("A call over the limit is rejected once it has queued for the maximum wait")
+    void queuedCallRejectedAfterMaximumWait() throws InterruptedException {
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+        fill(limiter);
+
+        assertThat(limiter.tryAcquire(), is(false));
+        assertThat(limiter.getInFlight(), is(4));
+    }
+
+    @Test
+    @DisplayName("A call over the limit is rejected straight away when the queue is full")
+    void callRejectedWhenQueueFull() throws Exception {
+        config.setMaxQueueWait(Duration.ofSeconds(5));
+        final UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(config, clock::get);
+        fill(limiter);
+        final Future<Boolean> queued = executor.submit(limiter::tryAcquire);
+        while (limiter.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+
+        assertThat(limiter.tryAcquire(), is(false));
+        limiter.release(false, RTT);
+        assertThat(queued.get(), is(true));
+    }
+
+    /**
+     * Moves on to the next RTT window, and makes a limit's worth of calls in it, all taking the RTT provided.
+     */
+    private void makeCallsForWindow(final UpstreamConcurrencyLimiter limiter,
+                                    final long rttNanos) throws InterruptedException {
+        clock.addAndGet(RTT_WINDOW.toNanos());
+        final int limit = limiter.getLimit();
+        for (int call = 0; call < limit; call++) {
+            assertThat(limiter.tryAcquire(), is(true));
+        }
+        for (int call = 0; call < limit; call++) {
+            limiter.release(false, rttNanos);
+        }
+    }
+
+    private static void fill(final UpstreamConcurrencyLimiter limiter) throws InterruptedException {
+        for (int call = 0; call < limiter.getLimit(); call++) {
+            assertThat(limiter.tryAcquire(), is(true));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.companieshouse.api.error.ApiErrorResponseException.fromIOException;
+import static uk.gov.companieshouse.certifiedcopies.orders.api.service.UpstreamDependency.FILING_HISTORY;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.error.ApiErrorResponseException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.HedgingConfig;
+
+/**
+ * Unit tests the {@link UpstreamHedgingService} class.
+ */
+class UpstreamHedgingServiceTest {
+
+    private static final String URI = "/company/00006400/filing-history/MDAxMTEyNzExOGFkaXF6a2N4";
+    private static final int MINIMUM_SAMPLES = 20;
+
+    private ExecutorService executor;
+
+    private HedgingConfig config;
+
+    private MeterRegistry meterRegistry;
+
+    private UpstreamHedgingService serviceUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        config = new HedgingConfig();
+        config.setEnabled(true);
+        config.setMinimumSamples(MINIMUM_SAMPLES);
+        config.setMinimumDelay(Duration.ofMillis(1));
+        config.setBudget(1.0);
+        meterRegistry = new SimpleMeterRegistry();
+        serviceUnderTest = new UpstreamHedgingService(config, executor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("call() makes the call on the caller's thread where hedging is disabled")
+    void callMakesCallDirectlyWhereDisabled() throws Exception {
+        config.setEnabled(false);
+        final Thread caller = Thread.currentThread();
+
+        assertThat(serviceUnderTest.call(FILING_HISTORY, URI, () -> Thread.currentThread() == caller), is(true));
+        assertThat(hedges(), is(0.0));
+    }
+
+    @Test
+    @DisplayName("call() does not hedge a slow call until enough latencies have been recorded")
+    void callDoesNotHedgeBeforeMinimumSamples() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThat(serviceUnderTest.call(FILING_HISTORY, URI, () -> {
+            attempts.incrementAndGet();
+            sleep(50);
+            return "slow";
+        }), is("slow"));
+
+        assertThat(attempts.get(), is(1));
+        assertThat(hedges(), is(0.0));
+    }
+
+    @Test
+    @DisplayName("call() hedges a slow call, uses the first response and cancels the slow attempt")
+    void callHedgesSlowCallAndCancelsLoser() throws Exception {
+        warmUp();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        final CountDownLatch slowAttemptInterrupted = new CountDownLatch(1);
+
+        final String result = serviceUnderTest.call(FILING_HISTORY, URI, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    neverReleased.await();
+                } catch (InterruptedException ie) {
+                    slowAttemptInterrupted.countDown();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertThat(result, is("hedge"));
+        assertThat(attempts.get(), is(2));
+        assertThat(hedges(), is(1.0));
+        assertThat(wins("hedge"), is(1.0));
+        assertThat(slowAttemptInterrupted.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    @DisplayName("call() uses the hedge response where the slow attempt fails after the hedge is sent")
+    void callUsesHedgeWherePrimaryFails() throws Exception {
+        warmUp();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch hedgeStarted = new CountDownLatch(1);
+        final CountDownLatch primaryFailed = new CountDownLatch(1);
+
+        final String result = serviceUnderTest.call(FILING_HISTORY, URI, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(hedgeStarted);
+                primaryFailed.countDown();
+                throw fromIOException(new IOException("Connection reset"));
+            }
+            hedgeStarted.countDown();
+            await(primaryFailed);
+            return "hedge";
+        });
+
+        assertThat(result, is("hedge"));
+        assertThat(wins("hedge"), is(1.0));
+    }
+
+    @Test
+    @DisplayName("call() records the latency of a cancelled attempt as however long it had taken by then")
+    void callRecordsLatencyOfCancelledAttempt() throws Exception {
+        config.setPercentile(0.999);
+        config.setMinimumDelay(Duration.ofMillis(50));
+        serviceUnderTest = new UpstreamHedgingService(config, executor, meterRegistry);
+        warmUp();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+
+        assertThat(serviceUnderTest.call(FILING_HISTORY, URI, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(neverReleased);
+                return "primary";
+            }
+            return "hedge";
+        }), is("hedge"));
+
+        assertThat(meterRegistry.get("upstream.hedging.delay").tag("dependency", "filing-history")
+                .timeGauge().value(TimeUnit.MILLISECONDS), is(greaterThanOrEqualTo(50.0)));
+    }
+
+    @Test
+    @DisplayName("call() propagates the failure of the call where every attempt fails")
+    void callPropagatesFailureWhereEveryAttemptFails() {
+        final ApiErrorResponseException failure = fromIOException(new IOException("Connection reset"));
+
+        assertThat(assertThrows(ApiErrorResponseException.class,
+                () -> serviceUnderTest.call(FILING_HISTORY, URI, () -> {
+                    throw failure;
+                })), is(sameInstance(failure)));
+    }
+
+    @Test
+    @DisplayName("call() does not hedge a slow call once the hedging budget is spent")
+    void callDoesNotHedgeBeyondBudget() throws Exception {
+        config.setBudget(0.0);
+        serviceUnderTest = new UpstreamHedgingService(config, executor, meterRegistry);
+        warmUp();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThat(serviceUnderTest.call(FILING_HISTORY, URI, () -> {
+            attempts.incrementAndGet();
+            sleep(50);
+            return "slow";
+        }), is("slow"));
+
+        assertThat(attempts.get(), is(1));
+        assertThat(hedges(), is(0.0));
+        assertThat(meterRegistry.get("upstream.hedging.budget.exhausted").tag("dependency", "filing-history")
+                .counter().count(), is(1.0));
+    }
+
+    /**
+     * Makes enough fast calls for hedging to start.
+     */
+    private void warmUp() throws Exception {
+        for (int call = 0; call < MINIMUM_SAMPLES; call++) {
+            serviceUnderTest.call(FILING_HISTORY, URI, () -> "fast");
+        }
+    }
+
+    private double hedges() {
+        return meterRegistry.get("upstream.hedging.hedges").tag("dependency", "filing-history").counter().count();
+    }
+
+    private double wins(final String attempt) {
+        return meterRegistry.get("upstream.hedging.wins").tag("dependency", "filing-history")
+                .tag("attempt", attempt).counter().count();
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
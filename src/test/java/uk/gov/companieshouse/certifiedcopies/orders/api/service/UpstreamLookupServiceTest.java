@@ -0,0 +1,174 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.service;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.companieshouse.certifiedcopies.orders.api.config.UpstreamLookupConfig;
+
+/**
+ * Unit tests the {@link UpstreamLookupService} class.
+ */
+class UpstreamLookupServiceTest {
+
+    private static final int MAX_CONCURRENT_PER_NODE = 4;
+
+    private ExecutorService executor;
+
+    private UpstreamLookupService serviceUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        final UpstreamLookupConfig config = new UpstreamLookupConfig();
+        config.setMaxConcurrentPerNode(MAX_CONCURRENT_PER_NODE);
+        serviceUnderTest = new UpstreamLookupService(config, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("mapInOrder() returns results in the order of the inputs, not of completion")
+    void mapInOrderPreservesInputOrder() {
+        final List<Integer> results = serviceUnderTest.mapInOrder(asList(40, 30, 20, 10, 0),
+                delay -> {
+                    sleep(delay);
+                    return delay;
+                }, 5);
+
+        assertThat(results, is(asList(40, 30, 20, 10, 0)));
+    }
+
+    @Test
+    @DisplayName("mapInOrder() never runs more lookups at the same time than permitted per request")
+    void mapInOrderBoundsConcurrencyPerRequest() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        serviceUnderTest.mapInOrder(asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+                input -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    sleep(10);
+                    inFlight.decrementAndGet();
+                    return input;
+                }, 2);
+
+        assertThat(maxInFlight.get(), is(lessThanOrEqualTo(2)));
+    }
+
+    @Test
+    @DisplayName("mapInOrder() never runs more lookups at the same time than permitted per node")
+    void mapInOrderBoundsConcurrencyPerNode() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        serviceUnderTest.mapInOrder(asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+                input -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    sleep(10);
+                    inFlight.decrementAndGet();
+                    return input;
+                }, 10);
+
+        assertThat(maxInFlight.get(), is(lessThanOrEqualTo(MAX_CONCURRENT_PER_NODE)));
+    }
+
+    @Test
+    @DisplayName("mapInOrder() propagates the failure of the earliest input and cancels the lookups after it")
+    void mapInOrderPropagatesEarliestFailureAndCancelsLaterLookups() throws InterruptedException {
+        final CountDownLatch laterLookupStarted = new CountDownLatch(1);
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        final CountDownLatch laterLookupInterrupted = new CountDownLatch(1);
+
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> serviceUnderTest.mapInOrder(asList("first", "second", "third"),
+                        input -> {
+                            switch (input) {
+                                case "first" -> {
+                                    sleep(50);
+                                    throw new ResponseStatusException(BAD_REQUEST, "first failed");
+                                }
+                                case "second" -> {
+                                    await(laterLookupStarted);
+                                    throw new ResponseStatusException(INTERNAL_SERVER_ERROR, "second failed");
+                                }
+                                default -> {
+                                    laterLookupStarted.countDown();
+                                    try {
+                                        neverReleased.await();
+                                    } catch (InterruptedException ie) {
+                                        laterLookupInterrupted.countDown();
+                                    }
+                                    return input;
+                                }
+                            }
+                        }, 3));
+
+        assertThat(exception.getStatusCode(), is(BAD_REQUEST));
+        assertThat(exception.getReason(), is("first failed"));
+        assertThat(laterLookupInterrupted.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    @DisplayName("join() propagates whichever failure comes first and cancels the other lookups")
+    void joinPropagatesFirstFailure() throws InterruptedException {
+        final CountDownLatch otherLookupStarted = new CountDownLatch(1);
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        final CountDownLatch otherLookupInterrupted = new CountDownLatch(1);
+
+        final ResponseStatusException exception;
+        try (final UpstreamLookupScope scope = serviceUnderTest.openScope(2)) {
+            scope.fork(() -> {
+                otherLookupStarted.countDown();
+                try {
+                    neverReleased.await();
+                } catch (InterruptedException ie) {
+                    otherLookupInterrupted.countDown();
+                }
+                return "slow";
+            });
+            scope.fork(() -> {
+                otherLookupStarted.await();
+                throw new ResponseStatusException(BAD_REQUEST, "fast failure");
+            });
+            exception = assertThrows(ResponseStatusException.class, scope::join);
+        }
+
+        assertThat(exception.getReason(), is("fast failure"));
+        assertThat(otherLookupInterrupted.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
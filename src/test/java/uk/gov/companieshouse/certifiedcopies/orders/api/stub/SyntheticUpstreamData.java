@@ -0,0 +1,119 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.stub;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import uk.gov.companieshouse.api.model.company.CompanyProfileApi;
+import uk.gov.companieshouse.api.model.filinghistory.FilingApi;
+import uk.gov.companieshouse.api.model.filinghistory.FilingHistoryApi;
+
+/**
+ * Generates the synthetic companies, and their filing histories, served by the {@link UpstreamStubServer}. Nothing is
+ * stored: every company and filing is derived from its company number and position in the filing history, so the
+ * same request always gets the same data, however many companies are configured.
+ * <p>
+ * The companies are numbered <code>00000001</code> up to the number of companies configured. Each has the number of
+ * filings configured, listed most recent first, with its incorporation last. Filing
+ * <code>SYN{company number}{index}</code> is the filing at that (zero based, five digit) index in the list.
+ */
+class SyntheticUpstreamData {
+
+    private static final LocalDate MOST_RECENT_FILING_DATE = LocalDate.of(2024, 1, 1);
+    private static final String FILING_ID_PREFIX = "SYN";
+
+    /** The filing types cycled through for every filing but the incorporation, with their descriptions. */
+    private static final List<Map.Entry<String, String>> FILING_TYPES = List.of(
+            Map.entry("CS01", "confirmation-statement-with-no-updates"),
+            Map.entry("AA", "accounts-with-accounts-type-full"),
+            Map.entry("CH01", "change-person-director-company-with-change-date"),
+            Map.entry("AP01", "appoint-person-director-company-with-name-date"),
+            Map.entry("TM01", "termination-director-company-with-name-termination-date"));
+
+    private final int companies;
+    private final int filingsPerCompany;
+
+    SyntheticUpstreamData(final int companies, final int filingsPerCompany) {
+        if (companies < 1 || filingsPerCompany < 1) {
+            throw new IllegalArgumentException("There must be at least one company, with at least one filing.");
+        }
+        this.companies = companies;
+        this.filingsPerCompany = filingsPerCompany;
+    }
+
+    /**
+     * Gets the company profile of the company identified.
+     * @param companyNumber the company number
+     * @return the company profile, or <code>null</code> where there is no such company
+     */
+    CompanyProfileApi getCompanyProfile(final String companyNumber) {
+        if (!exists(companyNumber)) {
+            return null;
+        }
+        final CompanyProfileApi company = new CompanyProfileApi();
+        company.setCompanyNumber(companyNumber);
+        company.setCompanyName("SYNTHETIC COMPANY " + companyNumber + " LIMITED");
+        return company;
+    }
+
+    /**
+     * Gets the filing identified.
+     * @param companyNumber the company number
+     * @param transactionId the ID of the filing
+     * @return the filing, or <code>null</code> where there is no such company, or filing
+     */
+    FilingApi getFiling(final String companyNumber, final String transactionId) {
+        final String prefix = FILING_ID_PREFIX + companyNumber;
+        if (!exists(companyNumber) || !transactionId.startsWith(prefix)) {
+            return null;
+        }
+        final int index = parse(transactionId.substring(prefix.length()));
+        return index >= 0 && index < filingsPerCompany ? filing(companyNumber, index) : null;
+    }
+
+    /**
+     * Gets a page of the filing history of the company identified.
+     * @param companyNumber the company number
+     * @param startIndex the index of the first filing on the page
+     * @param itemsPerPage the maximum number of filings on the page
+     * @return the page, or <code>null</code> where there is no such company
+     */
+    FilingHistoryApi getFilingHistory(final String companyNumber, final int startIndex, final int itemsPerPage) {
+        if (!exists(companyNumber)) {
+            return null;
+        }
+        final FilingHistoryApi history = new FilingHistoryApi();
+        final int endIndex = Math.min(startIndex + itemsPerPage, filingsPerCompany);
+        history.setItems(IntStream.range(Math.max(startIndex, 0), endIndex)
+                .mapToObj(index -> filing(companyNumber, index))
+                .toList());
+        return history;
+    }
+
+    private boolean exists(final String companyNumber) {
+        final int number = parse(companyNumber);
+        return companyNumber.length() == 8 && number >= 1 && number <= companies;
+    }
+
+    private FilingApi filing(final String companyNumber, final int index) {
+        final FilingApi filing = new FilingApi();
+        final LocalDate date = MOST_RECENT_FILING_DATE.minusDays(30L * index);
+        filing.setTransactionId(FILING_ID_PREFIX + companyNumber + String.format("%05d", index));
+        filing.setDate(date);
+        if (index == filingsPerCompany - 1) {
+            filing.setType("NEWINC");
+            filing.setDescription("incorporation-company");
+        } else {
+            final Map.Entry<String, String> type = FILING_TYPES.get(index % FILING_TYPES.size());
+            filing.setType(type.getKey());
+            filing.setDescription(type.getValue());
+            filing.setDescriptionValues(Map.of("date", date.toString(), "officer_name", "Synthetic Officer " + index));
+        }
+        return filing;
+    }
+
+    private static int parse(final String digits) {
+        return digits.chars().allMatch(Character::isDigit) && !digits.isEmpty() && digits.length() <= 9
+                ? Integer.parseInt(digits) : -1;
+    }
+}
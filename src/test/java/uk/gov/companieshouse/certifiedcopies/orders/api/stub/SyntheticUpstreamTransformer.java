@@ -0,0 +1,100 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.stub;
+
+import static uk.gov.companieshouse.certifiedcopies.orders.api.stub.UpstreamStubEndpoint.COMPANY_PROFILE;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+
+/**
+ * WireMock extension that answers every request matched by one of the {@link UpstreamStubServer} stubs with the
+ * synthetic data requested, or with an error or a fault, at the rates set by the profile of the endpoint requested.
+ * The latency of each endpoint is set on its stub, and so applies to errors as well as to successful responses.
+ */
+class SyntheticUpstreamTransformer implements ResponseDefinitionTransformerV2 {
+
+    static final String NAME = "synthetic-upstream";
+
+    private static final String NOT_FOUND_BODY = "{\"errors\":[{\"type\":\"ch:service\",\"error\":\"%s-not-found\"}]}";
+    private static final int DEFAULT_ITEMS_PER_PAGE = 25;
+
+    private final SyntheticUpstreamData data;
+    private final Map<UpstreamStubEndpoint, UpstreamStubProfile> profiles;
+    private final ObjectMapper objectMapper;
+
+    SyntheticUpstreamTransformer(final SyntheticUpstreamData data,
+                                 final Map<UpstreamStubEndpoint, UpstreamStubProfile> profiles,
+                                 final ObjectMapper objectMapper) {
+        this.data = data;
+        this.profiles = profiles;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ResponseDefinition transform(final ServeEvent serveEvent) {
+        final String path = URI.create(serveEvent.getRequest().getUrl()).getPath();
+        for (final UpstreamStubEndpoint endpoint : UpstreamStubEndpoint.values()) {
+            final Matcher matcher = endpoint.match(path);
+            if (matcher.matches()) {
+                final ResponseDefinitionBuilder response = ResponseDefinitionBuilder
+                        .like(serveEvent.getResponseDefinition()).but();
+                return respond(endpoint, matcher, serveEvent, response).build();
+            }
+        }
+        return serveEvent.getResponseDefinition();
+    }
+
+    private ResponseDefinitionBuilder respond(final UpstreamStubEndpoint endpoint,
+                                              final Matcher matcher,
+                                              final ServeEvent serveEvent,
+                                              final ResponseDefinitionBuilder response) {
+        final UpstreamStubProfile profile = profiles.get(endpoint);
+        final double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < profile.faultRate()) {
+            return response.withFault(Fault.CONNECTION_RESET_BY_PEER);
+        }
+        if (roll < profile.faultRate() + profile.errorRate()) {
+            return response.withStatus(profile.errorStatus()).withBody("");
+        }
+        final String companyNumber = matcher.group(1);
+        final Object body = switch (endpoint) {
+            case COMPANY_PROFILE -> data.getCompanyProfile(companyNumber);
+            case FILING_HISTORY_DOCUMENT -> data.getFiling(companyNumber, matcher.group(2));
+            case FILING_HISTORY_LIST -> data.getFilingHistory(companyNumber,
+                    queryParameter(serveEvent, "start_index", 0),
+                    queryParameter(serveEvent, "items_per_page", DEFAULT_ITEMS_PER_PAGE));
+        };
+        if (body == null) {
+            return response.withStatus(404).withBody(NOT_FOUND_BODY.formatted(
+                    endpoint == COMPANY_PROFILE ? "company-profile" : "filing-history"));
+        }
+        try {
+            return response.withStatus(200).withBody(objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException ex) {
+            return response.withStatus(500).withBody(ex.getMessage());
+        }
+    }
+
+    private static int queryParameter(final ServeEvent serveEvent, final String key, final int defaultValue) {
+        final QueryParameter parameter = serveEvent.getRequest().queryParameter(key);
+        try {
+            return parameter.isPresent() ? Integer.parseInt(parameter.firstValue()) : defaultValue;
+        } catch (NumberFormatException ex) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.stub;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The Companies House API endpoints stood in for by the {@link UpstreamStubServer}.
+ */
+enum UpstreamStubEndpoint {
+
+    COMPANY_PROFILE("company-profile", "/company/([^/]+)"),
+    FILING_HISTORY_DOCUMENT("filing-history-document", "/company/([^/]+)/filing-history/([^/]+)"),
+    FILING_HISTORY_LIST("filing-history-list", "/company/([^/]+)/filing-history");
+
+    private final String propertyName;
+    private final Pattern path;
+
+    UpstreamStubEndpoint(final String propertyName, final String path) {
+        this.propertyName = propertyName;
+        this.path = Pattern.compile(path);
+    }
+
+    /**
+     * @return the name the endpoint's profile properties are prefixed with
+     */
+    String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * @return the regular expression matching the paths of the endpoint, capturing its path parameters
+     */
+    String getPathRegex() {
+        return path.pattern();
+    }
+
+    /**
+     * Matches the path provided against the endpoint's path.
+     * @param requestPath the path requested, without its query string
+     * @return the matcher, which has matched should the path be one of the endpoint's
+     */
+    Matcher match(final String requestPath) {
+        return path.matcher(requestPath);
+    }
+}
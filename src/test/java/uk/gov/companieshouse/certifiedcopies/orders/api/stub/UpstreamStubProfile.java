@@ -0,0 +1,54 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.stub;
+
+import java.time.Duration;
+import java.util.Properties;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * The latency distribution and error profile of a single {@link UpstreamStubEndpoint}.
+ * <ul>
+ *     <li>Latencies are drawn from a log-normal distribution with the median and sigma (the standard deviation of the
+ *     latency's natural logarithm) configured, so that most responses take about the median, and a long tail take
+ *     much longer. A sigma of <code>0.5</code> puts the 99th percentile at a little over three times the median.</li>
+ *     <li>The error rate is the proportion of requests answered with the error status configured.</li>
+ *     <li>The fault rate is the proportion of requests whose connection is reset without any response.</li>
+ * </ul>
+ * @param latencyMedian the median latency, or zero for no added latency
+ * @param latencySigma the spread of the latency distribution
+ * @param errorRate the proportion of requests answered with an error status, between <code>0</code> and
+ *                  <code>1</code>
+ * @param errorStatus the HTTP status errors are answered with
+ * @param faultRate the proportion of requests whose connection is reset, between <code>0</code> and <code>1</code>
+ */
+record UpstreamStubProfile(Duration latencyMedian,
+                           double latencySigma,
+                           double errorRate,
+                           int errorStatus,
+                           double faultRate) {
+
+    UpstreamStubProfile {
+        if (latencyMedian.isNegative() || latencySigma < 0) {
+            throw new IllegalArgumentException("Latency median and sigma must not be negative.");
+        }
+        if (errorRate < 0 || faultRate < 0 || errorRate + faultRate > 1) {
+            throw new IllegalArgumentException("Error and fault rates must be between 0 and 1 in total.");
+        }
+    }
+
+    /**
+     * Reads the profile of the endpoint provided from the properties provided, e.g.
+     * <code>upstream-stub.company-profile.latency-median=40ms</code>.
+     * @param properties the stub properties
+     * @param endpoint the endpoint
+     * @return the profile
+     */
+    static UpstreamStubProfile from(final Properties properties, final UpstreamStubEndpoint endpoint) {
+        final String prefix = UpstreamStubServer.PROPERTY_PREFIX + endpoint.getPropertyName() + ".";
+        return new UpstreamStubProfile(
+                DurationStyle.detectAndParse(properties.getProperty(prefix + "latency-median", "0ms")),
+                Double.parseDouble(properties.getProperty(prefix + "latency-sigma", "0")),
+                Double.parseDouble(properties.getProperty(prefix + "error-rate", "0")),
+                Integer.parseInt(properties.getProperty(prefix + "error-status", "500")),
+                Double.parseDouble(properties.getProperty(prefix + "fault-rate", "0")));
+    }
+}
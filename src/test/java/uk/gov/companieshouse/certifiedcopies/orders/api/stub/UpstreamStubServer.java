@@ -0,0 +1,138 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.stub;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Runnable stand-in for the company profile and filing history APIs, serving synthetic companies and filings (see
+ * {@link SyntheticUpstreamData}) with the latency distribution and error profile configured for each endpoint (see
+ * {@link UpstreamStubProfile}), for load testing this service on a single machine, without network access.
+ * <p>
+ * The stub is configured by the <code>upstream-stub.properties</code> defaults, overridden by the properties file
+ * whose path is passed as its only argument, if any, and then by system properties. Run it alongside the service with
+ * e.g.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=uk.gov.companieshouse.certifiedcopies.orders.api.stub.UpstreamStubServer \
+ *     -Dupstream-stub.filing-history-document.error-rate=0.01
+ * </pre>
+ * and point the service at it with <code>API_URL=http://localhost:18080</code>.
+ */
+public class UpstreamStubServer {
+
+    static final String PROPERTY_PREFIX = "upstream-stub.";
+
+    private static final String DEFAULTS = "/upstream-stub.properties";
+
+    private final WireMockServer server;
+
+    /**
+     * Creates a stub server, configured by the properties provided, that is yet to be started.
+     * @param properties the stub properties
+     */
+    public UpstreamStubServer(final Properties properties) {
+        final Map<UpstreamStubEndpoint, UpstreamStubProfile> profiles = new EnumMap<>(UpstreamStubEndpoint.class);
+        for (final UpstreamStubEndpoint endpoint : UpstreamStubEndpoint.values()) {
+            profiles.put(endpoint, UpstreamStubProfile.from(properties, endpoint));
+        }
+        final SyntheticUpstreamData data = new SyntheticUpstreamData(
+                intProperty(properties, "companies"), intProperty(properties, "filings-per-company"));
+        final int threads = intProperty(properties, "container-threads");
+        server = new WireMockServer(options()
+                .port(intProperty(properties, "port"))
+                .containerThreads(threads)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(threads)
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true)
+                .extensions(new SyntheticUpstreamTransformer(data, profiles, objectMapper())));
+        profiles.forEach(this::stub);
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final UpstreamStubServer stub = new UpstreamStubServer(loadProperties(args.length > 0 ? args[0] : null));
+        stub.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::stop));
+        System.out.println("Upstream stub listening: API_URL=http://localhost:" + stub.port());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop();
+    }
+
+    /**
+     * @return the port the stub listens on, which is only known once started where port <code>0</code> was configured
+     */
+    public int port() {
+        return server.port();
+    }
+
+    /**
+     * Loads the stub properties: the defaults, overridden by those of the file provided, if any, and then by system
+     * properties.
+     * @param path the path of the properties file, or <code>null</code> for none
+     * @return the properties
+     * @throws IOException should either properties file not be readable
+     */
+    public static Properties loadProperties(final String path) throws IOException {
+        final Properties properties = new Properties();
+        try (final InputStream defaults = UpstreamStubServer.class.getResourceAsStream(DEFAULTS)) {
+            if (defaults != null) {
+                properties.load(defaults);
+            }
+        }
+        if (path != null) {
+            try (final Reader overrides = Files.newBufferedReader(Path.of(path))) {
+                properties.load(overrides);
+            }
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(PROPERTY_PREFIX))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+        return properties;
+    }
+
+    private void stub(final UpstreamStubEndpoint endpoint, final UpstreamStubProfile profile) {
+        final ResponseDefinitionBuilder response = aResponse().withHeader("Content-Type", "application/json");
+        if (profile.latencyMedian().isPositive()) {
+            response.withLogNormalRandomDelay(profile.latencyMedian().toMillis(), profile.latencySigma());
+        }
+        server.stubFor(get(urlPathMatching(endpoint.getPathRegex())).willReturn(response));
+    }
+
+    private static int intProperty(final Properties properties, final String name) {
+        return Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + name));
+    }
+
+    /**
+     * @return a mapper writing the SDK models as the Companies House APIs do, i.e. as snake case JSON
+     */
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .findAndRegisterModules();
+    }
+}
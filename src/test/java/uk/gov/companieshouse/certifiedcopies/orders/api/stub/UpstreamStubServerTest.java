@@ -0,0 +1,106 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.stub;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests the {@link UpstreamStubServer} class.
+ */
+class UpstreamStubServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Properties properties;
+
+    private UpstreamStubServer serverUnderTest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = UpstreamStubServer.loadProperties(null);
+        properties.setProperty("upstream-stub.port", "0");
+        properties.setProperty("upstream-stub.companies", "10");
+        properties.setProperty("upstream-stub.filings-per-company", "5");
+        for (final UpstreamStubEndpoint endpoint : UpstreamStubEndpoint.values()) {
+            properties.setProperty("upstream-stub." + endpoint.getPropertyName() + ".latency-median", "0ms");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        serverUnderTest.stop();
+    }
+
+    @Test
+    @DisplayName("The stub serves the profile of each synthetic company, and not found for any other company")
+    void servesSyntheticCompanies() throws Exception {
+        start();
+
+        final HttpResponse<String> found = get("/company/00000010");
+        assertThat(found.statusCode(), is(200));
+        assertThat(objectMapper.readTree(found.body()).get("company_name").asText(),
+                is("SYNTHETIC COMPANY 00000010 LIMITED"));
+        assertThat(get("/company/00000011").statusCode(), is(404));
+    }
+
+    @Test
+    @DisplayName("The stub pages through each synthetic filing history, most recent filing first")
+    void servesSyntheticFilingHistory() throws Exception {
+        start();
+
+        final JsonNode firstPage = objectMapper.readTree(
+                get("/company/00000001/filing-history?items_per_page=3&start_index=0").body());
+        final JsonNode lastPage = objectMapper.readTree(
+                get("/company/00000001/filing-history?items_per_page=3&start_index=3").body());
+
+        assertThat(firstPage.get("items").size(), is(3));
+        assertThat(firstPage.get("items").get(0).get("transaction_id").asText(), is("SYN0000000100000"));
+        assertThat(lastPage.get("items").size(), is(2));
+        assertThat(lastPage.get("items").get(1).get("type").asText(), is("NEWINC"));
+    }
+
+    @Test
+    @DisplayName("The stub serves each synthetic filing found in the filing history by its transaction ID")
+    void servesSyntheticFilings() throws Exception {
+        start();
+
+        final HttpResponse<String> found = get("/company/00000001/filing-history/SYN0000000100002");
+        assertThat(found.statusCode(), is(200));
+        assertThat(objectMapper.readTree(found.body()).get("type").asText(), is("CH01"));
+        assertThat(get("/company/00000001/filing-history/SYN0000000100005").statusCode(), is(404));
+    }
+
+    @Test
+    @DisplayName("The stub answers with the error status configured at the error rate configured")
+    void servesErrorsAtErrorRate() throws Exception {
+        properties.setProperty("upstream-stub.company-profile.error-rate", "1");
+        properties.setProperty("upstream-stub.company-profile.error-status", "503");
+        start();
+
+        assertThat(get("/company/00000001").statusCode(), is(503));
+        assertThat(get("/company/00000001/filing-history/SYN0000000100000").statusCode(), is(200));
+    }
+
+    private void start() {
+        serverUnderTest = new UpstreamStubServer(properties);
+        serverUnderTest.start();
+    }
+
+    private HttpResponse<String> get(final String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + serverUnderTest.port() + path))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
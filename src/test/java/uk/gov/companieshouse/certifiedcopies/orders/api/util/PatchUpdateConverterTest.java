@@ -0,0 +1,88 @@
+package uk.gov.companieshouse.certifiedcopies.orders.api.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Unit tests the {@link PatchUpdateConverter} class.
+ */
+class PatchUpdateConverterTest {
+
+    private final PatchUpdateConverter converterUnderTest = new PatchUpdateConverter();
+
+    private final TestMergePatchFactory patchFactory = new TestMergePatchFactory(new ObjectMapper());
+
+    @Test
+    @DisplayName("Top level members are set in the sub-document the patch applies to")
+    void topLevelMembersAreSet() throws IOException {
+        final Update update = converterUnderTest.toUpdate(
+                patchFactory.patchFromJson("{\"customer_reference\":\"ref\",\"quantity\":2}"), "data");
+
+        assertThat(converterUnderTest.getChangedPaths(update),
+                is(Map.<String, Object>of("data.customer_reference", "ref", "data.quantity", 2)));
+    }
+
+    @Test
+    @DisplayName("Object members are merged field by field rather than replaced")
+    void objectMembersAreMerged() throws IOException {
+        final Update update = converterUnderTest.toUpdate(
+                patchFactory.patchFromJson("{\"item_options\":{\"delivery_timescale\":\"same-day\"}}"), "data");
+
+        assertThat(converterUnderTest.getChangedPaths(update),
+                is(Map.<String, Object>of("data.item_options.delivery_timescale", "same-day")));
+    }
+
+    @Test
+    @DisplayName("Null members are unset")
+    void nullMembersAreUnset() throws IOException {
+        final Update update = converterUnderTest.toUpdate(
+                patchFactory.patchFromJson("{\"customer_reference\":null}"), "data");
+
+        final Document unset = (Document) update.getUpdateObject().get("$unset");
+        assertThat(unset.containsKey("data.customer_reference"), is(true));
+        assertThat(update.getUpdateObject().get("$set"), is(nullValue()));
+        assertThat(converterUnderTest.getChangedPaths(update).get("data.customer_reference"), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("Array members replace the whole field, with any objects they hold converted to documents")
+    void arrayMembersAreReplaced() throws IOException {
+        final Update update = converterUnderTest.toUpdate(
+                patchFactory.patchFromJson("{\"item_options\":{\"filing_history_documents\":"
+                        + "[{\"filing_history_id\":\"1\",\"filing_history_cost\":null}]}}"), "data");
+
+        final Object documents = converterUnderTest.getChangedPaths(update)
+                .get("data.item_options.filing_history_documents");
+        final Object expected =
+                List.of(new Document("filing_history_id", "1").append("filing_history_cost", null));
+        assertThat(documents, is(expected));
+    }
+
+    @Test
+    @DisplayName("Numbers are stored as the narrowest of int, long and double that holds them")
+    void numbersAreNarrowed() throws IOException {
+        final Update update = converterUnderTest.toUpdate(
+                patchFactory.patchFromJson("{\"int\":1,\"long\":5000000000,\"double\":1.5,\"flag\":true}"), "data");
+
+        assertThat(converterUnderTest.getChangedPaths(update), is(Map.<String, Object>of(
+                "data.int", 1, "data.long", 5000000000L, "data.double", 1.5, "data.flag", true)));
+    }
+
+    @Test
+    @DisplayName("An empty patch changes nothing")
+    void emptyPatchChangesNothing() throws IOException {
+        final Update update = converterUnderTest.toUpdate(patchFactory.patchFromJson("{}"), "data");
+
+        assertThat(converterUnderTest.getChangedPaths(update).isEmpty(), is(true));
+    }
+}